@@ -2,6 +2,7 @@ package io.recode.codegeneration;
 
 import io.recode.TypeResolver;
 import io.recode.classfile.ClassFileResolver;
+import io.recode.classfile.MemberIndexCache;
 import io.recode.decompile.CodePointer;
 import io.recode.decompile.Decompiler;
 
@@ -38,6 +39,16 @@ public interface CodeGenerationContext {
 
     ClassFileResolver getClassFileResolver();
 
+    /**
+     * Returns the member indexes used to look up methods without loading their declaring classes. Contexts that
+     * don't maintain their own cache use the {@link MemberIndexCache#shared() shared} cache.
+     *
+     * @return The member index cache of this context.
+     */
+    default MemberIndexCache getMemberIndexCache() {
+        return MemberIndexCache.shared();
+    }
+
     CodeStyle getCodeStyle();
 
     Decompiler getDecompiler();
@@ -0,0 +1,272 @@
+package io.recode.codegeneration;
+
+import io.recode.SymbolicType;
+import io.recode.classfile.*;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import io.recode.codegeneration.impl.CodePointerCodeGenerator;
+import io.recode.codegeneration.impl.JavaSyntaxCodeGeneration;
+import io.recode.decompile.CodeStream;
+import io.recode.decompile.CoreDecompilerDelegation;
+import io.recode.decompile.Decompiler;
+import io.recode.decompile.impl.CodePointerImpl;
+import io.recode.decompile.impl.DecompilerImpl;
+import io.recode.decompile.impl.InputStreamCodeStream;
+import io.recode.model.Element;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Warms up decompilation and code generation, so that the first decompilation in a JVM doesn't pay for
+ * building the shared configurations, reading class files and running cold code. A warm-up (1) builds the
+ * shared decompiler and code generator configurations, (2) parses the class files of the configured packages
+ * into a {@link CachingClassFileResolver} and (3) optionally decompiles and generates code for a sample
+ * method a number of times to warm the JIT. Warm-ups are typically started in the background on startup:
+ * <pre>
+ *     new Warmup.Builder()
+ *         .setClassFileResolver(classFileResolver)
+ *         .setPackageNames("com.acme")
+ *         .setSampleIterations(50)
+ *         .build()
+ *         .start();
+ * </pre>
+ */
+public final class Warmup {
+
+    private final CachingClassFileResolver classFileResolver;
+
+    private final List<String> packageNames;
+
+    private final ClassLoader classLoader;
+
+    private final int sampleIterations;
+
+    private Warmup(CachingClassFileResolver classFileResolver, List<String> packageNames, ClassLoader classLoader, int sampleIterations) {
+        this.classFileResolver = classFileResolver;
+        this.packageNames = packageNames;
+        this.classLoader = classLoader;
+        this.sampleIterations = sampleIterations;
+    }
+
+    /**
+     * Runs the warm-up on a new daemon thread.
+     *
+     * @return A future that completes when the warm-up has completed.
+     */
+    public CompletableFuture<Void> start() {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        final Thread thread = new Thread(() -> {
+            try {
+                run();
+                future.complete(null);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }, "recode-warmup");
+
+        thread.setDaemon(true);
+        thread.start();
+
+        return future;
+    }
+
+    /**
+     * Runs the warm-up on the calling thread.
+     *
+     * @return The number of class files that were preloaded.
+     */
+    public int run() {
+        CoreDecompilerDelegation.sharedConfiguration();
+        JavaSyntaxCodeGeneration.sharedConfiguration();
+
+        final int preloadedClassFiles = preloadClassFiles();
+
+        if (sampleIterations > 0) {
+            runSample(sampleIterations);
+        }
+
+        return preloadedClassFiles;
+    }
+
+    private int preloadClassFiles() {
+        int count = 0;
+
+        for (String className : findClassNames()) {
+            try {
+                classFileResolver.resolveClassFile(SymbolicType.of(className));
+                count++;
+            } catch (RuntimeException | AssertionError e) {
+                // Class files that can't be read are reported when they are decompiled, if at all
+            }
+        }
+
+        return count;
+    }
+
+    private Set<String> findClassNames() {
+        final Set<String> classNames = new TreeSet<>();
+
+        for (String packageName : packageNames) {
+            final String path = packageName.replace('.', '/') + "/";
+
+            try {
+                for (Enumeration<URL> resources = classLoader.getResources(path); resources.hasMoreElements(); ) {
+                    final URL resource = resources.nextElement();
+
+                    if ("file".equals(resource.getProtocol())) {
+                        findClassNames(new File(resource.toURI()), packageName, classNames);
+                    } else if ("jar".equals(resource.getProtocol())) {
+                        findClassNames(resource.openConnection(), path, classNames);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to scan package " + packageName, e);
+            } catch (URISyntaxException e) {
+                throw new IllegalStateException("Failed to scan package " + packageName, e);
+            }
+        }
+
+        return classNames;
+    }
+
+    private static void findClassNames(File directory, String packageName, Set<String> classNames) {
+        final File[] files = directory.listFiles();
+
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            if (file.isDirectory()) {
+                findClassNames(file, packageName + "." + file.getName(), classNames);
+            } else if (file.getName().endsWith(".class")) {
+                classNames.add(packageName + "." + file.getName().substring(0, file.getName().length() - 6));
+            }
+        }
+    }
+
+    private static void findClassNames(URLConnection connection, String path, Set<String> classNames) throws IOException {
+        if (!(connection instanceof JarURLConnection)) {
+            return;
+        }
+
+        final JarURLConnection jarConnection = (JarURLConnection) connection;
+
+        jarConnection.setUseCaches(false);
+
+        try (JarFile jarFile = jarConnection.getJarFile()) {
+            jarFile.stream()
+                    .map(JarEntry::getName)
+                    .filter(name -> name.startsWith(path) && name.endsWith(".class"))
+                    .forEach(name -> classNames.add(name.substring(0, name.length() - 6).replace('/', '.')));
+        }
+    }
+
+    private static void runSample(int iterations) {
+        final ClassFile classFile = new ClassPathClassFileResolver(new ClassFileReaderImpl(), Warmup.class.getClassLoader())
+                .resolveClassFile(Warmup.class);
+
+        final Method method = classFile.getMethods().stream()
+                .filter(m -> m.getName().equals("sample"))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Sample method not found"));
+
+        final Decompiler decompiler = new DecompilerImpl();
+        final CodePointerCodeGenerator codeGenerator = new CodePointerCodeGenerator();
+
+        for (int i = 0; i < iterations; i++) {
+            final Element[] elements;
+
+            try (CodeStream code = new InputStreamCodeStream(method.getCode().getCode())) {
+                elements = decompiler.parse(method, code);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            final StringWriter out = new StringWriter();
+
+            try (PrintWriter writer = new PrintWriter(out)) {
+                for (Element element : elements) {
+                    codeGenerator.generateCode(new CodePointerImpl<>(method, element), writer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sample method decompiled and generated during warm-up. Contains typical test assertion constructs.
+     */
+    private static String sample(String[] names, int count) {
+        final List<String> values = new ArrayList<>(count);
+        final StringBuilder builder = new StringBuilder();
+        int total = count * 2 + 1;
+
+        values.add(names[0]);
+        values.add(String.valueOf(total));
+        builder.append(names.length).append(':').append(values.size());
+
+        if (values.isEmpty()) {
+            return "empty";
+        }
+
+        return Objects.requireNonNull(builder.toString(), "value");
+    }
+
+    public static final class Builder {
+
+        private CachingClassFileResolver classFileResolver;
+
+        private List<String> packageNames = Collections.emptyList();
+
+        private ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+        private int sampleIterations;
+
+        public Builder setClassFileResolver(CachingClassFileResolver classFileResolver) {
+            assert classFileResolver != null : "Class file resolver can't be null";
+
+            this.classFileResolver = classFileResolver;
+            return this;
+        }
+
+        public Builder setPackageNames(String... packageNames) {
+            assert packageNames != null : "Package names can't be null";
+
+            this.packageNames = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(packageNames)));
+            return this;
+        }
+
+        public Builder setClassLoader(ClassLoader classLoader) {
+            assert classLoader != null : "Class loader can't be null";
+
+            this.classLoader = classLoader;
+            return this;
+        }
+
+        public Builder setSampleIterations(int sampleIterations) {
+            assert sampleIterations >= 0 : "Sample iterations must be positive";
+
+            this.sampleIterations = sampleIterations;
+            return this;
+        }
+
+        public Warmup build() {
+            if (!packageNames.isEmpty() && classFileResolver == null) {
+                throw new IllegalStateException("A class file resolver is required to preload packages");
+            }
+
+            return new Warmup(classFileResolver, packageNames, classLoader, sampleIterations);
+        }
+    }
+}
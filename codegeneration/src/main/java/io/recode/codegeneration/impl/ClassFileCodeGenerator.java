@@ -0,0 +1,336 @@
+package io.recode.codegeneration.impl;
+
+import io.recode.classfile.*;
+import io.recode.classfile.impl.DefaultMethod;
+import io.recode.codegeneration.CodeGenerator;
+import io.recode.decompile.CodePointer;
+import io.recode.decompile.CodeStream;
+import io.recode.decompile.Decompiler;
+import io.recode.decompile.impl.CodePointerImpl;
+import io.recode.decompile.impl.DecompilerImpl;
+import io.recode.decompile.impl.InputStreamCodeStream;
+import io.recode.model.Element;
+import io.recode.model.ElementType;
+import io.recode.util.TypeKind;
+import io.recode.util.Types;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Generates the source of a whole class, i.e. its declaration, fields, constructors and methods. The members are
+ * decompiled and rendered in parallel on the configured executor; the output is assembled in declaration order,
+ * so it doesn't depend on the executor. All members are rendered by the same code generator and hence share its
+ * decompiler, resolvers, member index cache and code style:
+ * <pre>
+ *     new ClassFileCodeGenerator.Builder()
+ *         .setExecutor(executor)
+ *         .build()
+ *         .generateCode(classFile, out);
+ * </pre>
+ * Synthetic members, e.g. lambda backing methods and bridge methods, are omitted. If the code of a member can't be
+ * generated, the failure is reported in a comment in its body rather than failing the whole class.
+ */
+public final class ClassFileCodeGenerator implements CodeGenerator<ClassFile> {
+
+    private static final int ACC_SYNTHETIC = 0x1000;
+
+    private static final int ACC_ANNOTATION = 0x2000;
+
+    private static final int ACC_ENUM = 0x4000;
+
+    private static final String INDENTATION = "    ";
+
+    private final Decompiler decompiler;
+
+    private final CodeGenerator<CodePointer> codeGenerator;
+
+    private final Executor executor;
+
+    private ClassFileCodeGenerator(Decompiler decompiler, CodeGenerator<CodePointer> codeGenerator, Executor executor) {
+        this.decompiler = decompiler;
+        this.codeGenerator = codeGenerator;
+        this.executor = executor;
+    }
+
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public void generateCode(ClassFile classFile, PrintWriter out) {
+        assert classFile != null : "Class file can't be null";
+        assert out != null : "Output can't be null";
+
+        final List<CompletableFuture<String>> members = new ArrayList<>();
+
+        for (Constructor constructor : classFile.getConstructors()) {
+            if (!isSynthetic(constructor)) {
+                final Method method = new DefaultMethod(
+                        constructor::getClassFile,
+                        constructor.getAccessFlags(),
+                        constructor.getName(),
+                        constructor.getSignature(),
+                        constructor.getAttributes().toArray(new Attribute[0]));
+
+                members.add(CompletableFuture.supplyAsync(() -> generateMethod(classFile, method), executor));
+            }
+        }
+
+        for (Method method : classFile.getMethods()) {
+            if (!isSynthetic(method) && !method.isLambdaBackingMethod()) {
+                members.add(CompletableFuture.supplyAsync(() -> generateMethod(classFile, method), executor));
+            }
+        }
+
+        appendClassDeclaration(classFile, out);
+
+        for (Field field : classFile.getFields()) {
+            if (!isSynthetic(field)) {
+                out.append(INDENTATION);
+                appendModifiers(field.getAccessFlags() & Modifier.fieldModifiers(), out);
+                out.append(Types.getSimpleName(field.getType())).append(" ").append(field.getName()).append(";\n");
+            }
+        }
+
+        for (CompletableFuture<String> member : members) {
+            out.append("\n").append(join(member));
+        }
+
+        out.append("}\n");
+    }
+
+    private String generateMethod(ClassFile classFile, Method method) {
+        final StringWriter buffer = new StringWriter();
+        final PrintWriter out = new PrintWriter(buffer);
+        final boolean hasCode = (method.getAccessFlags() & (Modifier.ABSTRACT | Modifier.NATIVE)) == 0;
+
+        out.append(INDENTATION);
+        appendMethodDeclaration(classFile, method, hasCode, out);
+
+        if (!hasCode) {
+            out.append(";\n");
+            return buffer.toString();
+        }
+
+        out.append(" {\n");
+
+        try {
+            final Element[] elements;
+
+            try (CodeStream code = new InputStreamCodeStream(method.getCode().getCode())) {
+                elements = decompiler.parse(method, code);
+            }
+
+            final StringWriter body = new StringWriter();
+            final PrintWriter bodyOut = new PrintWriter(body);
+
+            for (int i = 0; i < elements.length; i++) {
+                if (i == elements.length - 1 && elements[i].getElementType() == ElementType.RETURN) {
+                    break;
+                }
+
+                bodyOut.append(INDENTATION).append(INDENTATION);
+                codeGenerator.generateCode(new CodePointerImpl<>(method, elements[i]), bodyOut);
+                bodyOut.append(";\n");
+            }
+
+            bodyOut.flush();
+            out.append(body.toString());
+        } catch (IOException | RuntimeException e) {
+            out.append(INDENTATION).append(INDENTATION)
+                    .append("// Code could not be generated: ").append(String.valueOf(e)).append("\n");
+        }
+
+        out.append(INDENTATION).append("}\n");
+        out.flush();
+
+        return buffer.toString();
+    }
+
+    private void appendClassDeclaration(ClassFile classFile, PrintWriter out) {
+        final int accessFlags = classFile.getAccessFlags();
+        final boolean isInterface = (accessFlags & Modifier.INTERFACE) != 0;
+        final String keyword;
+
+        if ((accessFlags & ACC_ANNOTATION) != 0) {
+            keyword = "@interface";
+        } else if (isInterface) {
+            keyword = "interface";
+        } else if ((accessFlags & ACC_ENUM) != 0) {
+            keyword = "enum";
+        } else {
+            keyword = "class";
+        }
+
+        appendModifiers(accessFlags & Modifier.classModifiers() & (isInterface ? ~Modifier.ABSTRACT : ~0), out);
+        out.append(keyword).append(" ").append(simpleName(classFile.getName()));
+
+        final String superClassName = classFile.getSuperClassName();
+
+        if (!isInterface && superClassName != null && !superClassName.equals(Object.class.getName())
+                && !superClassName.equals(Enum.class.getName())) {
+            out.append(" extends ").append(simpleName(superClassName));
+        }
+
+        final List<String> interfaceNames = classFile.getInterfaceNames();
+
+        if (!interfaceNames.isEmpty() && (accessFlags & ACC_ANNOTATION) == 0) {
+            out.append(isInterface ? " extends " : " implements ");
+
+            for (int i = 0; i < interfaceNames.size(); i++) {
+                if (i > 0) {
+                    out.append(", ");
+                }
+
+                out.append(simpleName(interfaceNames.get(i)));
+            }
+        }
+
+        out.append(" {\n");
+    }
+
+    private void appendMethodDeclaration(ClassFile classFile, Method method, boolean hasCode, PrintWriter out) {
+        if (method.getName().equals("<clinit>")) {
+            out.append("static");
+            return;
+        }
+
+        appendModifiers(method.getAccessFlags() & Modifier.methodModifiers(), out);
+
+        final boolean isConstructor = method.getName().equals("<init>");
+        final List<Type> parameterTypes = method.getSignature().getParameterTypes();
+
+        if (isConstructor) {
+            out.append(simpleName(classFile.getName()));
+        } else {
+            out.append(Types.getSimpleName(method.getSignature().getReturnType())).append(" ").append(method.getName());
+        }
+
+        out.append("(");
+
+        int slot = (method.getAccessFlags() & Modifier.STATIC) != 0 ? 0 : 1;
+
+        for (int i = 0; i < parameterTypes.size(); i++) {
+            final Type parameterType = parameterTypes.get(i);
+
+            if (i > 0) {
+                out.append(", ");
+            }
+
+            out.append(Types.getSimpleName(parameterType)).append(" ").append(parameterName(method, hasCode, slot, i));
+
+            slot += TypeKind.of(parameterType).getComputationalCategory();
+        }
+
+        out.append(")");
+    }
+
+    private static String parameterName(Method method, boolean hasCode, int slot, int index) {
+        if (hasCode) {
+            final LocalVariableTable localVariableTable = method.getLocalVariableTable().orElse(null);
+
+            if (localVariableTable != null) {
+                for (LocalVariable localVariable : localVariableTable.getLocalVariables()) {
+                    if (localVariable.getIndex() == slot && localVariable.getStartPC() == 0) {
+                        return localVariable.getName();
+                    }
+                }
+            }
+        }
+
+        return "arg" + index;
+    }
+
+    private static void appendModifiers(int modifiers, PrintWriter out) {
+        if (modifiers != 0) {
+            out.append(Modifier.toString(modifiers)).append(" ");
+        }
+    }
+
+    private static boolean isSynthetic(Member member) {
+        return (member.getAccessFlags() & ACC_SYNTHETIC) != 0;
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(Math.max(className.lastIndexOf('.'), className.lastIndexOf('$')) + 1);
+    }
+
+    private static String join(CompletableFuture<String> member) {
+        try {
+            return member.join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw e;
+        }
+    }
+
+    public static final class Builder {
+
+        private Decompiler decompiler;
+
+        private CodeGenerator<CodePointer> codeGenerator;
+
+        private Executor executor = ForkJoinPool.commonPool();
+
+        public Builder setDecompiler(Decompiler decompiler) {
+            assert decompiler != null : "Decompiler can't be null";
+
+            this.decompiler = decompiler;
+            return this;
+        }
+
+        public Builder setCodeGenerator(CodeGenerator<CodePointer> codeGenerator) {
+            assert codeGenerator != null : "Code generator can't be null";
+
+            this.codeGenerator = codeGenerator;
+            return this;
+        }
+
+        /**
+         * Sets the executor on which the members of a class are decompiled and rendered. Defaults to the common
+         * fork-join pool; an executor that runs tasks on the calling thread, e.g. <code>Runnable::run</code>,
+         * generates the members sequentially.
+         *
+         * @param executor The executor on which members should be generated.
+         * @return This builder.
+         */
+        public Builder setExecutor(Executor executor) {
+            assert executor != null : "Executor can't be null";
+
+            this.executor = executor;
+            return this;
+        }
+
+        public ClassFileCodeGenerator build() {
+            if (codeGenerator != null && decompiler == null) {
+                throw new IllegalStateException("A decompiler is required when a code generator is provided");
+            }
+
+            final Decompiler decompiler = (this.decompiler != null ? this.decompiler : new DecompilerImpl());
+            final CodeGenerator<CodePointer> codeGenerator = (this.codeGenerator != null
+                    ? this.codeGenerator
+                    : new CodePointerCodeGenerator(decompiler, JavaSyntaxCodeGeneration.sharedConfiguration()));
+
+            return new ClassFileCodeGenerator(decompiler, codeGenerator, executor);
+        }
+    }
+}
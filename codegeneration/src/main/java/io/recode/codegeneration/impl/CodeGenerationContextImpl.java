@@ -2,6 +2,7 @@ package io.recode.codegeneration.impl;
 
 import io.recode.TypeResolver;
 import io.recode.classfile.ClassFileResolver;
+import io.recode.classfile.MemberIndexCache;
 import io.recode.decompile.CodePointer;
 import io.recode.decompile.Decompiler;
 import io.recode.codegeneration.CodeGenerationContext;
@@ -18,6 +19,8 @@ public final class CodeGenerationContextImpl implements CodeGenerationContext {
 
     private final ClassFileResolver classFileResolver;
 
+    private final MemberIndexCache memberIndexCache;
+
     private final Decompiler decompiler;
 
     private final int indentationLevel;
@@ -27,12 +30,22 @@ public final class CodeGenerationContextImpl implements CodeGenerationContext {
                                      ClassFileResolver classFileResolver,
                                      Decompiler decompiler,
                                      CodeStyle codeStyle) {
-        this(codeGenerationDelegate, typeResolver, classFileResolver, decompiler, codeStyle, 0);
+        this(codeGenerationDelegate, typeResolver, classFileResolver, new MemberIndexCache(classFileResolver), decompiler, codeStyle);
+    }
+
+    public CodeGenerationContextImpl(CodeGenerationDelegate codeGenerationDelegate,
+                                     TypeResolver typeResolver,
+                                     ClassFileResolver classFileResolver,
+                                     MemberIndexCache memberIndexCache,
+                                     Decompiler decompiler,
+                                     CodeStyle codeStyle) {
+        this(codeGenerationDelegate, typeResolver, classFileResolver, memberIndexCache, decompiler, codeStyle, 0);
     }
 
     private CodeGenerationContextImpl(CodeGenerationDelegate codeGenerationDelegate,
                                       TypeResolver typeResolver,
                                       ClassFileResolver classFileResolver,
+                                      MemberIndexCache memberIndexCache,
                                       Decompiler decompiler,
                                       CodeStyle codeStyle,
                                       int indentationLevel) {
@@ -40,11 +53,13 @@ public final class CodeGenerationContextImpl implements CodeGenerationContext {
         assert typeResolver != null : "Type resolver can't be null";
         assert decompiler != null : "Decompiler can't be null";
         assert classFileResolver != null : "Class file resolver can't be null";
+        assert memberIndexCache != null : "Member index cache can't be null";
         assert codeStyle != null : "Code style can't be null";
 
         this.indentationLevel = indentationLevel;
         this.typeResolver = typeResolver;
         this.classFileResolver = classFileResolver;
+        this.memberIndexCache = memberIndexCache;
         this.decompiler = decompiler;
         this.codeStyle = codeStyle;
         this.codeGenerationDelegate = codeGenerationDelegate;
@@ -61,6 +76,7 @@ public final class CodeGenerationContextImpl implements CodeGenerationContext {
                 codeGenerationDelegate,
                 typeResolver,
                 classFileResolver,
+                memberIndexCache,
                 decompiler,
                 codeStyle,
                 indentationLevel + 1);
@@ -81,6 +97,11 @@ public final class CodeGenerationContextImpl implements CodeGenerationContext {
         return classFileResolver;
     }
 
+    @Override
+    public MemberIndexCache getMemberIndexCache() {
+        return memberIndexCache;
+    }
+
     @Override
     public CodeStyle getCodeStyle() {
         return codeStyle;
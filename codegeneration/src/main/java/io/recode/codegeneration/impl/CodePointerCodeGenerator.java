@@ -1,6 +1,7 @@
 package io.recode.codegeneration.impl;
 
 import io.recode.RuntimeTypeResolver;
+import io.recode.TypeResolver;
 import io.recode.classfile.*;
 import io.recode.classfile.impl.ClassFileReaderImpl;
 import io.recode.classfile.impl.LocalVariableImpl;
@@ -11,9 +12,12 @@ import io.recode.decompile.CodeStream;
 import io.recode.decompile.Decompiler;
 import io.recode.decompile.impl.DecompilerImpl;
 import io.recode.decompile.impl.InputStreamCodeStream;
+import io.recode.jfr.RecodeEvents;
+import io.recode.metrics.Metrics;
+import io.recode.metrics.MetricsRegistry;
 import io.recode.model.*;
-import io.recode.annotations.DSL;
 import io.recode.model.impl.ConstantImpl;
+import io.recode.util.Types;
 
 import java.io.IOException;
 import java.io.PrintWriter;
@@ -26,8 +30,18 @@ public final class CodePointerCodeGenerator implements CodeGenerator<CodePointer
 
     private final CodeGeneratorConfiguration configuration;
 
+    private final ClassFileResolver classFileResolver;
+
+    private final MemberIndexCache memberIndexCache;
+
+    // TODO type resolver should be provided
+    private final TypeResolver typeResolver = new RuntimeTypeResolver();
+
+    // TODO code style should be provided
+    private final CodeStyle codeStyle = new ConfigurableCodeStyle.Builder().setUseSimpleClassNames(true).setShouldOmitThis(true).build();
+
     public CodePointerCodeGenerator() {
-        this(new DecompilerImpl(), JavaSyntaxCodeGeneration.configuration());
+        this(new DecompilerImpl(), JavaSyntaxCodeGeneration.sharedConfiguration());
     }
 
     public CodePointerCodeGenerator(Decompiler decompiler, CodeGeneratorConfiguration configuration) {
@@ -36,22 +50,41 @@ public final class CodePointerCodeGenerator implements CodeGenerator<CodePointer
 
         this.decompiler = decompiler;
         this.configuration = configuration;
+        this.classFileResolver = new ClassPathClassFileResolver(new ClassFileReaderImpl());
+        this.memberIndexCache = new MemberIndexCache(classFileResolver);
     }
 
     @Override
     public void generateCode(CodePointer instance, PrintWriter out) {
+        final MetricsRegistry metrics = Metrics.registry();
+        final long start = (metrics != null ? System.nanoTime() : 0L);
+        final RecodeEvents.CodeGeneration event = RecodeEvents.beginCodeGeneration();
         final CodeGenerationDelegate delegate = (context, codePointer) -> append(context, codePointer, out);
 
-        // TODO type resolver should be provided
         // TODO class file resolver should be provided
-        // TODO code style should be provided
         append(new CodeGenerationContextImpl(
                 delegate,
-                new RuntimeTypeResolver(),
-                new ClassPathClassFileResolver(new ClassFileReaderImpl()),
-                new DecompilerImpl(),
-                new ConfigurableCodeStyle.Builder().setUseSimpleClassNames(true).setShouldOmitThis(true).build()
+                typeResolver,
+                classFileResolver,
+                memberIndexCache,
+                decompiler,
+                codeStyle
         ), instance, out);
+
+        if (metrics != null) {
+            metrics.recordCodeGeneration(System.nanoTime() - start);
+        }
+
+        if (event.isEnabled()) {
+            event.setElementType(instance.getElement().getElementType().name());
+
+            if (instance.getMethod() != null) {
+                event.setClassName(instance.getMethod().getClassFile().getName());
+                event.setMethodName(instance.getMethod().getName());
+            }
+
+            event.commit();
+        }
     }
 
     @SuppressWarnings("unchecked")
@@ -244,7 +277,7 @@ public final class CodePointerCodeGenerator implements CodeGenerator<CodePointer
     private void append(CodeGenerationContext context, CodePointer codePointer, VariableAssignment variableAssignment, PrintWriter out) {
         // TODO: Check if we've described declaration of the variable before, otherwise declare it
 
-        out.append(((Class) variableAssignment.getVariableType()).getSimpleName()).append(" ")
+        out.append(Types.getSimpleName(variableAssignment.getVariableType())).append(" ")
                 .append(variableAssignment.getVariableName())
                 .append(" = ");
 
@@ -326,11 +359,10 @@ public final class CodePointerCodeGenerator implements CodeGenerator<CodePointer
             backingMethod = backingMethod.withLocalVariableTable(new LocalVariableTableImpl(lambdaLocals.stream().toArray(LocalVariable[]::new)));
         }
 
-        final Decompiler parser = new DecompilerImpl();
         final Element[] lambdaMethodElements;
 
         try (CodeStream code = new InputStreamCodeStream(backingMethod.getCode().getCode())) {
-            lambdaMethodElements = parser.parse(backingMethod, code);
+            lambdaMethodElements = decompiler.parse(backingMethod, code);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -431,33 +463,22 @@ public final class CodePointerCodeGenerator implements CodeGenerator<CodePointer
         out.append(")");
     }
 
-    private boolean isDSLCall(MethodCall methodCall) {
-        final Type targetType = methodCall.getTargetType();
-
-        if (!(targetType instanceof Class)) {
-            return false;
-        }
-
-        final Class targetClass = (Class) targetType;
-
-        return targetClass.getAnnotation(DSL.class) != null;
-    }
-
-    private static final Map<Class, Class> BOX_MAP = new HashMap<Class, Class>() {{
-        put(Boolean.class, boolean.class);
-        put(Byte.class, byte.class);
-        put(Short.class, short.class);
-        put(Character.class, char.class);
-        put(Integer.class, int.class);
-        put(Long.class, long.class);
-        put(Float.class, float.class);
-        put(Double.class, double.class);
+    // Keyed by type name, since the target type of a call can be a symbolic type
+    private static final Map<String, Class> BOX_MAP = new HashMap<String, Class>() {{
+        put(Boolean.class.getName(), boolean.class);
+        put(Byte.class.getName(), byte.class);
+        put(Short.class.getName(), short.class);
+        put(Character.class.getName(), char.class);
+        put(Integer.class.getName(), int.class);
+        put(Long.class.getName(), long.class);
+        put(Float.class.getName(), float.class);
+        put(Double.class.getName(), double.class);
     }};
 
 
     private Expression unbox(MethodCall methodCall) {
         final Type targetType = methodCall.getTargetType();
-        final Type primitiveType = BOX_MAP.get(targetType);
+        final Type primitiveType = BOX_MAP.get(targetType.getTypeName());
 
         if (primitiveType == null) {
             return null;
@@ -465,7 +486,7 @@ public final class CodePointerCodeGenerator implements CodeGenerator<CodePointer
 
         final List<Expression> parameters = methodCall.getParameters();
 
-        if (targetType.equals(Boolean.class) && parameters.get(0).getType().equals(int.class) && parameters.get(0).getElementType() == ElementType.CONSTANT) {
+        if (primitiveType == boolean.class && parameters.get(0).getType().equals(int.class) && parameters.get(0).getElementType() == ElementType.CONSTANT) {
             final Constant constant = (Constant) parameters.get(0);
 
             return new ConstantImpl((Integer) constant.getConstant() == 1, boolean.class);
@@ -1,6 +1,8 @@
 package io.recode.codegeneration.impl;
 
+import io.recode.SymbolicType;
 import io.recode.codegeneration.CodeStyle;
+import io.recode.util.Types;
 
 import java.lang.reflect.Type;
 
@@ -19,8 +21,8 @@ public final class ConfigurableCodeStyle implements CodeStyle {
     public String getTypeName(Type type) {
         assert type != null : "Type can't be null";
 
-        if (useSimpleClassNames && type instanceof Class) {
-            return ((Class) type).getSimpleName();
+        if (useSimpleClassNames && (type instanceof Class || type instanceof SymbolicType)) {
+            return Types.getSimpleName(type);
         }
 
         return type.getTypeName();
@@ -1,5 +1,6 @@
 package io.recode.codegeneration.impl;
 
+import io.recode.SymbolicType;
 import io.recode.classfile.ByteCode;
 import io.recode.codegeneration.*;
 import io.recode.decompile.CodePointer;
@@ -9,10 +10,7 @@ import io.recode.annotations.DSL;
 import io.recode.util.Methods;
 import io.recode.classfile.ClassFile;
 import io.recode.classfile.Method;
-import io.recode.classfile.MethodReference;
-import io.recode.classfile.impl.MethodReferenceImpl;
 import io.recode.decompile.impl.InputStreamCodeStream;
-import io.recode.model.MethodSignature;
 
 import java.io.IOException;
 import java.io.PrintWriter;
@@ -22,6 +20,16 @@ import java.util.function.Predicate;
 
 public final class JavaSyntaxCodeGeneration implements CodeGeneratorDelegation {
 
+    /**
+     * Returns a configuration that is built once and shared by all code generators that use the default
+     * configuration.
+     *
+     * @return The shared Java syntax code generator configuration.
+     */
+    public static CodeGeneratorConfiguration sharedConfiguration() {
+        return SharedConfigurationHolder.CONFIGURATION;
+    }
+
     public static CodeGeneratorConfiguration configuration() {
         final CodeGeneratorConfigurer configurer = SimpleCodeGeneratorConfiguration.configurer();
         new JavaSyntaxCodeGeneration().configure(configurer);
@@ -382,13 +390,13 @@ public final class JavaSyntaxCodeGeneration implements CodeGeneratorDelegation {
             final Type type = codePointer.getElement().getType();
             final Object constant = codePointer.getElement().getConstant();
 
-            if (type.equals(String.class)) {
+            if (type.getTypeName().equals(String.class.getName())) {
                 out.append('"').append(String.valueOf(constant)).append('"');
             } else if (type.equals(long.class)) {
                 out.append(String.valueOf(constant)).append('L');
             } else if (type.equals(float.class)) {
                 out.append(String.valueOf(constant)).append('f');
-            } else if (type.equals(Class.class)) {
+            } else if (type.getTypeName().equals(Class.class.getName())) {
                 out.append(context.getCodeStyle().getTypeName((Type) constant)).append(".class");
             } else {
                 out.append(String.valueOf(constant));
@@ -442,7 +450,7 @@ public final class JavaSyntaxCodeGeneration implements CodeGeneratorDelegation {
         return ElementSelector.<MethodCall>forType(ElementType.METHOD_CALL).where(isStaticMethodCall().and(cp -> {
             final MethodCall methodCall = cp.getElement();
 
-            if (!methodCall.getTargetType().equals(Boolean.class)) {
+            if (!methodCall.getTargetType().getTypeName().equals(Boolean.class.getName())) {
                 return false;
             }
 
@@ -529,21 +537,37 @@ public final class JavaSyntaxCodeGeneration implements CodeGeneratorDelegation {
     /**
      * Returns a predicate that determines whether or not a method call is a DSL method call. This
      * is true iff the target type is (1) static and (2) the target type has the @DSL annotation.
+     * Annotations are only available on classes, so a symbolic target type is loaded, but not initialized,
+     * through the context class loader; a type that can't be loaded is not a DSL type.
      *
      * @return A predicate that can test whether or not a method call element represents a DSL call.
      */
     public static Predicate<CodePointer<MethodCall>> isDSLMethodCall() {
         return codePointer -> {
-            final Type targetType = codePointer.getElement().getTargetType();
+            final Class<?> targetClass = loadClass(codePointer.getElement().getTargetType());
 
-            if (!(targetType instanceof Class)) {
-                return false;
-            }
-
-            return ((Class) targetType).getAnnotation(DSL.class) != null;
+            return targetClass != null && targetClass.getAnnotation(DSL.class) != null;
         };
     }
 
+    private static Class<?> loadClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+
+        if (!(type instanceof SymbolicType)) {
+            return null;
+        }
+
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        try {
+            return ((SymbolicType) type).resolve(contextClassLoader != null ? contextClassLoader : JavaSyntaxCodeGeneration.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return null;
+        }
+    }
+
     public static Predicate<CodePointer<MethodCall>> isMethodCall() {
         return new Predicate<CodePointer<MethodCall>>() {
             @Override
@@ -575,24 +599,23 @@ public final class JavaSyntaxCodeGeneration implements CodeGeneratorDelegation {
         return JavaSyntaxCodeGeneration::appendMethodCall;
     }
 
-    private static final Set<MethodReference> PRIMITIVE_BOX_METHODS = new HashSet<>(Arrays.<MethodReference>asList(
-            new MethodReferenceImpl(Byte.class, "valueOf", MethodSignature.parse("(B)Ljava/lang/Byte;")),
-            new MethodReferenceImpl(Short.class, "valueOf", MethodSignature.parse("(S)Ljava/lang/Short;")),
-            new MethodReferenceImpl(Character.class, "valueOf", MethodSignature.parse("(C)Ljava/lang/Character;")),
-            new MethodReferenceImpl(Integer.class, "valueOf", MethodSignature.parse("(I)Ljava/lang/Integer;")),
-            new MethodReferenceImpl(Long.class, "valueOf", MethodSignature.parse("(J)Ljava/lang/Long;")),
-            new MethodReferenceImpl(Float.class, "valueOf", MethodSignature.parse("(F)Ljava/lang/Float;")),
-            new MethodReferenceImpl(Double.class, "valueOf", MethodSignature.parse("(D)Ljava/lang/Double;"))
-    ));
+    // Box methods are keyed by type name and compared by descriptor, since the types of a call can be symbolic
+    private static final Map<String, String> PRIMITIVE_BOX_METHODS = new HashMap<String, String>() {{
+        put(Byte.class.getName(), "(B)Ljava/lang/Byte;");
+        put(Short.class.getName(), "(S)Ljava/lang/Short;");
+        put(Character.class.getName(), "(C)Ljava/lang/Character;");
+        put(Integer.class.getName(), "(I)Ljava/lang/Integer;");
+        put(Long.class.getName(), "(J)Ljava/lang/Long;");
+        put(Float.class.getName(), "(F)Ljava/lang/Float;");
+        put(Double.class.getName(), "(D)Ljava/lang/Double;");
+    }};
 
     public static Predicate<CodePointer<MethodCall>> isPrimitiveBoxCall() {
         return isStaticMethodCall().and(cp -> {
             final MethodCall methodCall = cp.getElement();
 
-            return PRIMITIVE_BOX_METHODS.contains(new MethodReferenceImpl(
-                    methodCall.getTargetType(),
-                    methodCall.getMethodName(),
-                    methodCall.getSignature()));
+            return methodCall.getMethodName().equals("valueOf")
+                    && methodCall.getSignature().toString().equals(PRIMITIVE_BOX_METHODS.get(methodCall.getTargetType().getTypeName()));
         });
     }
 
@@ -624,7 +647,7 @@ public final class JavaSyntaxCodeGeneration implements CodeGeneratorDelegation {
 
             if (!i.hasNext()) {
                 if (parameter.getElementType() == ElementType.NEW_ARRAY) {
-                    if (isVarargsMethodCall(methodCall)) {
+                    if (isVarargsMethodCall(context, methodCall)) {
                         final NewArray newArray = parameter.as(NewArray.class);
 
                         for (final Iterator<ArrayInitializer> i2 = newArray.getInitializers().iterator(); i2.hasNext(); ) {
@@ -654,21 +677,16 @@ public final class JavaSyntaxCodeGeneration implements CodeGeneratorDelegation {
      * Checks if the provided method call is a varargs call. This is true only if (1) the last parameter of
      * the method call is an array and (2) the method is a varargs method.
      *
+     * @param context The context in which the method call is generated.
      * @param methodCall The method call to check.
      * @return Whether or not the method call is a varargs method call.
      */
-    private static boolean isVarargsMethodCall(MethodCall methodCall) {
-        final Optional<java.lang.reflect.Method> methodOptional = Methods.findMethodForNameAndSignature(
-                (Class) methodCall.getTargetType(),
-                methodCall.getMethodName(),
-                methodCall.getSignature());
-
-        if (methodOptional.isPresent()) {
-            if (methodOptional.get().isVarArgs()) {
-                return true;
-            }
-        }
+    private static boolean isVarargsMethodCall(CodeGenerationContext context, MethodCall methodCall) {
+        return Methods.isDefinitelyVarArgsMethodCall(context.getMemberIndexCache(), methodCall);
+    }
+
+    private static final class SharedConfigurationHolder {
 
-        return false;
+        private static final CodeGeneratorConfiguration CONFIGURATION = configuration();
     }
 }
@@ -0,0 +1,54 @@
+package io.recode.codegeneration;
+
+import io.recode.TypeResolver;
+import io.recode.classfile.ClassFileResolver;
+import io.recode.classfile.MemberIndexCache;
+import io.recode.decompile.CodePointer;
+import io.recode.decompile.Decompiler;
+import org.junit.Test;
+
+import static org.junit.Assert.assertSame;
+
+public class CodeGenerationContextTest {
+
+    @Test
+    public void contextWithoutMemberIndexCacheShouldUseSharedCache() {
+        final CodeGenerationContext context = new CodeGenerationContext() {
+            @Override
+            public int getIndentationLevel() {
+                return 0;
+            }
+
+            @Override
+            public CodeGenerationContext subSection() {
+                return this;
+            }
+
+            @Override
+            public void delegate(CodePointer codePointer) {
+            }
+
+            @Override
+            public TypeResolver getTypeResolver() {
+                return null;
+            }
+
+            @Override
+            public ClassFileResolver getClassFileResolver() {
+                return null;
+            }
+
+            @Override
+            public CodeStyle getCodeStyle() {
+                return null;
+            }
+
+            @Override
+            public Decompiler getDecompiler() {
+                return null;
+            }
+        };
+
+        assertSame(MemberIndexCache.shared(), context.getMemberIndexCache());
+    }
+}
@@ -0,0 +1,98 @@
+package io.recode.codegeneration;
+
+import io.recode.CodeLocation;
+import io.recode.Caller;
+import io.recode.classfile.CachingClassFileResolver;
+import io.recode.classfile.ClassPathClassFileResolver;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import io.recode.codegeneration.impl.CodePointerCodeGenerator;
+import io.recode.decompile.CodePointer;
+import io.recode.decompile.DecompiledMethodCache;
+import io.recode.decompile.impl.CodeLocationDecompilerImpl;
+import io.recode.decompile.impl.DecompilerImpl;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to the first decompiled and generated code location in a fresh JVM, with and without a
+ * warm-up started on startup. Each measurement runs in a new JVM; the application startup that the warm-up
+ * overlaps with is simulated by a sleep. Run with <code>main</code>; not part of the build.
+ */
+public class WarmupBenchmark {
+
+    private static final int RUNS = 5;
+
+    private static final long STARTUP_MILLIS = 500;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1) {
+            measure(Boolean.parseBoolean(args[0]));
+            return;
+        }
+
+        for (boolean warmup : new boolean[]{false, true}) {
+            final List<Long> results = new ArrayList<>();
+
+            for (int i = 0; i < RUNS; i++) {
+                results.add(fork(warmup));
+            }
+
+            System.out.println((warmup ? "With warm-up:    " : "Without warm-up: ")
+                    + results.stream().mapToLong(Long::longValue).sorted().toArray()[RUNS / 2] + " us (median of " + RUNS + ", " + results + ")");
+        }
+    }
+
+    private static long fork(boolean warmup) throws IOException, InterruptedException {
+        final String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        final Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), WarmupBenchmark.class.getName(), String.valueOf(warmup))
+                .redirectErrorStream(true)
+                .start();
+
+        final byte[] output = new byte[4096];
+        final int length = Math.max(process.getInputStream().read(output), 0);
+
+        process.waitFor(1, TimeUnit.MINUTES);
+
+        return Long.parseLong(new String(output, 0, length, StandardCharsets.UTF_8).trim());
+    }
+
+    private static void measure(boolean warmup) throws Exception {
+        final CachingClassFileResolver classFileResolver = new CachingClassFileResolver(new ClassPathClassFileResolver(new ClassFileReaderImpl()));
+
+        if (warmup) {
+            new Warmup.Builder()
+                    .setClassFileResolver(classFileResolver)
+                    .setPackageNames(WarmupBenchmark.class.getPackage().getName())
+                    .setSampleIterations(20)
+                    .build()
+                    .start();
+        }
+
+        Thread.sleep(STARTUP_MILLIS);
+
+        final long start = System.nanoTime();
+        final CodeLocationDecompilerImpl decompiler = new CodeLocationDecompilerImpl.Builder()
+                .setClassFileReader(new ClassFileReaderImpl())
+                .setClassFileResolver(classFileResolver)
+                .setDecompiler(new DecompilerImpl())
+                .setDecompiledMethodCache(new DecompiledMethodCache(new DecompilerImpl()))
+                .build();
+        final CodeLocation location = Caller.adjacent(1);
+        final List<Integer> values = Arrays.asList(1, 2, 3);
+        final CodePointer[] codePointers = decompiler.decompileCodeLocation(location);
+        final String code = new CodePointerCodeGenerator().generateCode(codePointers[0], StandardCharsets.UTF_8);
+        final long elapsed = (System.nanoTime() - start) / 1000;
+
+        if (code.isEmpty()) {
+            throw new IllegalStateException("No code generated");
+        }
+
+        System.out.println(elapsed);
+    }
+}
@@ -0,0 +1,73 @@
+package io.recode.codegeneration;
+
+import io.recode.classfile.CachingClassFileResolver;
+import io.recode.classfile.ClassPathClassFileResolver;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import io.recode.codegeneration.impl.CodePointerCodeGenerator;
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.recode.codegeneration.impl.TestUtils.assertThrown;
+import static org.junit.Assert.*;
+
+public class WarmupTest {
+
+    private final CachingClassFileResolver classFileResolver = new CachingClassFileResolver(new ClassPathClassFileResolver(new ClassFileReaderImpl()));
+
+    @Test
+    public void builderShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> new Warmup.Builder().setClassFileResolver(null), AssertionError.class);
+        assertThrown(() -> new Warmup.Builder().setPackageNames((String[]) null), AssertionError.class);
+        assertThrown(() -> new Warmup.Builder().setClassLoader(null), AssertionError.class);
+        assertThrown(() -> new Warmup.Builder().setSampleIterations(-1), AssertionError.class);
+    }
+
+    @Test
+    public void preloadingPackagesShouldRequireClassFileResolver() {
+        assertThrown(() -> new Warmup.Builder().setPackageNames("io.recode").build(), IllegalStateException.class);
+    }
+
+    @Test
+    public void classFilesInPackageDirectoryShouldBePreloaded() {
+        final int count = new Warmup.Builder()
+                .setClassFileResolver(classFileResolver)
+                .setPackageNames("io.recode.codegeneration.impl")
+                .build()
+                .run();
+
+        assertTrue(count > 0);
+        assertEquals(count, classFileResolver.size());
+        assertTrue(classFileResolver.contains(CodePointerCodeGenerator.class));
+    }
+
+    @Test
+    public void classFilesInPackageInJarShouldBePreloaded() {
+        new Warmup.Builder()
+                .setClassFileResolver(classFileResolver)
+                .setPackageNames("org.junit.runner")
+                .build()
+                .run();
+
+        assertTrue(classFileResolver.contains(JUnitCore.class));
+    }
+
+    @Test
+    public void sampleCanBeDecompiledAndGenerated() {
+        assertEquals(0, new Warmup.Builder().setSampleIterations(2).build().run());
+    }
+
+    @Test
+    public void warmupCanBeRunInBackground() throws Exception {
+        new Warmup.Builder()
+                .setClassFileResolver(classFileResolver)
+                .setPackageNames("io.recode.codegeneration")
+                .setSampleIterations(1)
+                .build()
+                .start()
+                .get(30, TimeUnit.SECONDS);
+
+        assertTrue(classFileResolver.contains(Warmup.class));
+    }
+}
@@ -0,0 +1,82 @@
+package io.recode.codegeneration.impl;
+
+import io.recode.classfile.ClassFile;
+import io.recode.classfile.ClassPathClassFileResolver;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Compares whole-class code generation on the calling thread with generation on a thread pool. The classes are
+ * resolved once up front, so only decompilation and code generation are measured. Run with <code>main</code>;
+ * not part of the build.
+ */
+public class ClassFileCodeGenerationBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 20;
+
+    private static final int ITERATIONS = 50;
+
+    private static final Class<?>[] CLASSES = {
+            CodePointerCodeGenerator.class,
+            JavaSyntaxCodeGeneration.class,
+            CodeGenerationContextImpl.class,
+            SimpleCodeGeneratorConfiguration.class,
+            ConfigurableCodeStyle.class,
+            ClassFileCodeGenerator.class
+    };
+
+    public static void main(String[] args) throws Exception {
+        final int threads = (args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors());
+        final ClassPathClassFileResolver classFileResolver = new ClassPathClassFileResolver(new ClassFileReaderImpl());
+        final List<ClassFile> classFiles = new ArrayList<>();
+
+        for (Class<?> type : CLASSES) {
+            classFiles.add(classFileResolver.resolveClassFile(type));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            final ClassFileCodeGenerator sequential = new ClassFileCodeGenerator.Builder().setExecutor(Runnable::run).build();
+            final ClassFileCodeGenerator parallel = new ClassFileCodeGenerator.Builder().setExecutor(executor).build();
+
+            run(sequential, classFiles, WARMUP_ITERATIONS);
+            run(parallel, classFiles, WARMUP_ITERATIONS);
+
+            final long sequentialNanos = run(sequential, classFiles, ITERATIONS);
+            final long parallelNanos = run(parallel, classFiles, ITERATIONS);
+
+            System.out.printf("Sequential:             %8.2f ms/iteration%n", sequentialNanos / 1e6 / ITERATIONS);
+            System.out.printf("Parallel (%2d threads):  %8.2f ms/iteration%n", threads, parallelNanos / 1e6 / ITERATIONS);
+            System.out.printf("Speedup:                %8.2fx%n", (double) sequentialNanos / parallelNanos);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static long run(ClassFileCodeGenerator generator, List<ClassFile> classFiles, int iterations) {
+        final long start = System.nanoTime();
+        int length = 0;
+
+        for (int i = 0; i < iterations; i++) {
+            for (ClassFile classFile : classFiles) {
+                final StringWriter out = new StringWriter();
+
+                generator.generateCode(classFile, new PrintWriter(out));
+                length += out.getBuffer().length();
+            }
+        }
+
+        if (length == 0) {
+            throw new IllegalStateException("No code generated");
+        }
+
+        return System.nanoTime() - start;
+    }
+}
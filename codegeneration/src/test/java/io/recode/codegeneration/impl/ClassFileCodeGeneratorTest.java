@@ -0,0 +1,171 @@
+package io.recode.codegeneration.impl;
+
+import io.recode.classfile.ClassFile;
+import io.recode.classfile.ClassPathClassFileResolver;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import io.recode.codegeneration.CodeGenerator;
+import io.recode.decompile.CodePointer;
+import io.recode.decompile.Decompiler;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static io.recode.codegeneration.impl.TestUtils.assertThrown;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ClassFileCodeGeneratorTest {
+
+    private final ClassPathClassFileResolver classFileResolver = new ClassPathClassFileResolver(new ClassFileReaderImpl());
+
+    @Test
+    public void builderShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> new ClassFileCodeGenerator.Builder().setDecompiler(null), AssertionError.class);
+        assertThrown(() -> new ClassFileCodeGenerator.Builder().setCodeGenerator(null), AssertionError.class);
+        assertThrown(() -> new ClassFileCodeGenerator.Builder().setExecutor(null), AssertionError.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void buildShouldFailIfCodeGeneratorIsProvidedWithoutDecompiler() {
+        assertThrown(() -> new ClassFileCodeGenerator.Builder().setCodeGenerator(mock(CodeGenerator.class)).build(), IllegalStateException.class);
+    }
+
+    @Test
+    public void generateCodeShouldNotAcceptInvalidArguments() {
+        final ClassFileCodeGenerator generator = new ClassFileCodeGenerator.Builder().build();
+
+        assertThrown(() -> generator.generateCode(null, new PrintWriter(new StringWriter())), AssertionError.class);
+        assertThrown(() -> generator.generateCode(classFileOf(Sample.class), (PrintWriter) null), AssertionError.class);
+    }
+
+    @Test
+    public void classShouldBeGeneratedInDeclarationOrder() {
+        final String code = generateCode(new ClassFileCodeGenerator.Builder().setExecutor(Runnable::run).build(), Sample.class);
+
+        assertTrue(code, code.startsWith("class Sample implements Supplier {\n"));
+        assertTrue(code, code.contains("    private final int count;\n"));
+        assertTrue(code, code.contains("    Sample(int count) {\n"));
+        assertTrue(code, code.contains("    public int twice(int value) {\n        return value * 2;\n    }\n"));
+        assertTrue(code, code.contains("    public String describe(long first, String second) {\n"));
+        assertTrue(code, code.endsWith("}\n"));
+
+        assertTrue(code, code.indexOf("Sample(int count)") < code.indexOf("twice("));
+        assertTrue(code, code.indexOf("twice(") < code.indexOf("describe("));
+        assertTrue(code, code.indexOf("describe(") < code.indexOf("String get()"));
+    }
+
+    @Test
+    public void syntheticMethodsShouldBeOmitted() {
+        final String code = generateCode(new ClassFileCodeGenerator.Builder().setExecutor(Runnable::run).build(), Sample.class);
+
+        assertFalse(code, code.contains("lambda$"));
+        assertFalse(code, code.contains("Object get()"));
+    }
+
+    @Test
+    public void abstractMethodsShouldBeGeneratedWithoutBody() {
+        final String code = generateCode(new ClassFileCodeGenerator.Builder().setExecutor(Runnable::run).build(), AbstractSample.class);
+
+        assertTrue(code, code.startsWith("abstract class AbstractSample {\n"));
+        assertTrue(code, code.contains("    abstract void run(int arg0);\n"));
+    }
+
+    @Test
+    public void parallelGenerationShouldProduceSameCodeAsSequentialGeneration() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final String sequential = generateCode(new ClassFileCodeGenerator.Builder().setExecutor(Runnable::run).build(), Sample.class);
+            final String parallel = generateCode(new ClassFileCodeGenerator.Builder().setExecutor(executor).build(), Sample.class);
+
+            assertEquals(sequential, parallel);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void membersShouldBeGeneratedOnExecutor() {
+        final AtomicInteger tasks = new AtomicInteger();
+        final ClassFileCodeGenerator generator = new ClassFileCodeGenerator.Builder()
+                .setExecutor(task -> {
+                    tasks.incrementAndGet();
+                    task.run();
+                })
+                .build();
+
+        generateCode(generator, Sample.class);
+
+        assertEquals(4, tasks.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void failureToGenerateMemberShouldBeReportedInMemberBody() throws IOException {
+        final Decompiler decompiler = mock(Decompiler.class);
+
+        when(decompiler.parse(any(), any())).thenThrow(new IOException("Corrupt code"));
+
+        final String code = generateCode(new ClassFileCodeGenerator.Builder()
+                .setDecompiler(decompiler)
+                .setCodeGenerator(mock(CodeGenerator.class))
+                .setExecutor(Runnable::run)
+                .build(), Sample.class);
+
+        assertTrue(code, code.contains("    public int twice(int value) {\n        // Code could not be generated: java.io.IOException: Corrupt code\n    }\n"));
+    }
+
+    private String generateCode(ClassFileCodeGenerator generator, Class<?> type) {
+        final StringWriter out = new StringWriter();
+
+        try (PrintWriter writer = new PrintWriter(out)) {
+            generator.generateCode(classFileOf(type), writer);
+        }
+
+        return out.toString();
+    }
+
+    private ClassFile classFileOf(Class<?> type) {
+        return classFileResolver.resolveClassFile(type);
+    }
+
+    @SuppressWarnings("unused")
+    static class Sample implements Supplier<String> {
+
+        private final int count;
+
+        Sample(int count) {
+            this.count = count;
+        }
+
+        public int twice(int value) {
+            return value * 2;
+        }
+
+        public String describe(long first, String second) {
+            final Supplier<String> supplier = () -> second + first;
+
+            return supplier.get();
+        }
+
+        @Override
+        public String get() {
+            return String.valueOf(count);
+        }
+    }
+
+    @SuppressWarnings("unused")
+    abstract static class AbstractSample {
+
+        abstract void run(int value);
+    }
+}
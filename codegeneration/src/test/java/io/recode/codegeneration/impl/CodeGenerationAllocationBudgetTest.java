@@ -0,0 +1,109 @@
+package io.recode.codegeneration.impl;
+
+import io.recode.classfile.ClassFile;
+import io.recode.classfile.Method;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import io.recode.decompile.CodePointer;
+import io.recode.decompile.impl.CodePointerImpl;
+import io.recode.decompile.impl.DecompilerImpl;
+import io.recode.model.Element;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.recode.test.AllocationMeter.assertAllocationWithinBudget;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Allocation budgets of generating code from decompiled methods. A failure means that a change made code
+ * generation allocate more; if that's intended, update the budget (see {@link io.recode.test.AllocationMeter}).
+ */
+public class CodeGenerationAllocationBudgetTest {
+
+    private static final long GENERATE_ARITHMETIC_BUDGET = 1_500;
+
+    private static final long GENERATE_METHOD_CALLS_BUDGET = 2_500;
+
+    private final CodePointerCodeGenerator codeGenerator = new CodePointerCodeGenerator();
+
+    private final PrintWriter out = new PrintWriter(new NullWriter());
+
+    @Test
+    public void generateArithmeticShouldStayWithinBudget() throws Exception {
+        assertCodeGenerationWithinBudget("arithmetic", GENERATE_ARITHMETIC_BUDGET);
+    }
+
+    @Test
+    public void generateMethodCallsShouldStayWithinBudget() throws Exception {
+        assertCodeGenerationWithinBudget("methodCalls", GENERATE_METHOD_CALLS_BUDGET);
+    }
+
+    private void assertCodeGenerationWithinBudget(String methodName, long budget) throws Exception {
+        final List<CodePointer> codePointers = codePointersOf(methodName);
+
+        assertAllocationWithinBudget("CodePointerCodeGenerator.generateCode(" + methodName + ")", budget, () -> {
+            for (CodePointer codePointer : codePointers) {
+                codeGenerator.generateCode(codePointer, out);
+            }
+        });
+    }
+
+    private static List<CodePointer> codePointersOf(String methodName) throws Exception {
+        final ClassFile classFile;
+
+        try (InputStream in = ReferenceMethods.class.getResourceAsStream("/" + ReferenceMethods.class.getName().replace('.', '/') + ".class")) {
+            classFile = new ClassFileReaderImpl().read(in);
+        }
+
+        final Method method = classFile.getMethods().stream()
+                .filter(m -> m.getName().equals(methodName))
+                .findFirst()
+                .get();
+
+        final Element[] elements = new DecompilerImpl().decompile(method);
+
+        return Arrays.stream(elements)
+                .map(element -> new CodePointerImpl<>(method, element))
+                .collect(toList());
+    }
+
+    private static final class NullWriter extends Writer {
+
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Reference methods; changing these invalidates the budgets.
+     */
+    static final class ReferenceMethods {
+
+        static int arithmetic(int a, int b) {
+            final int sum = a + b;
+            final int product = a * b;
+
+            return sum * 2 - product / 3;
+        }
+
+        static String methodCalls(List<String> values) {
+            final StringBuilder builder = new StringBuilder();
+
+            builder.append(values.get(0).trim()).append(',').append(values.size());
+
+            return builder.toString().toUpperCase();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package io.recode.codegeneration.impl;
 
 import io.recode.TypeResolver;
 import io.recode.classfile.ClassFileResolver;
+import io.recode.classfile.MemberIndexCache;
 import io.recode.codegeneration.CodeGenerationContext;
 import io.recode.codegeneration.CodeGenerationDelegate;
 import io.recode.codegeneration.CodeStyle;
@@ -40,6 +41,7 @@ public class CodeGenerationContextImplTest {
         assertThrown(() -> new CodeGenerationContextImpl(codeGenerationDelegate, typeResolver, null, decompiler, codeStyle), AssertionError.class);
         assertThrown(() -> new CodeGenerationContextImpl(codeGenerationDelegate, typeResolver, classFileResolver, null, codeStyle), AssertionError.class);
         assertThrown(() -> new CodeGenerationContextImpl(codeGenerationDelegate, typeResolver, classFileResolver, decompiler, null), AssertionError.class);
+        assertThrown(() -> new CodeGenerationContextImpl(codeGenerationDelegate, typeResolver, classFileResolver, null, decompiler, codeStyle), AssertionError.class);
     }
 
     @Test
@@ -50,6 +52,15 @@ public class CodeGenerationContextImplTest {
         assertEquals(decompiler, context.getDecompiler());
     }
 
+    @Test
+    public void memberIndexCacheShouldBeRetainedInSubSection() {
+        final MemberIndexCache memberIndexCache = new MemberIndexCache(classFileResolver);
+        final CodeGenerationContext context = new CodeGenerationContextImpl(codeGenerationDelegate, typeResolver, classFileResolver, memberIndexCache, decompiler, codeStyle);
+
+        assertEquals(memberIndexCache, context.getMemberIndexCache());
+        assertEquals(memberIndexCache, context.subSection().getMemberIndexCache());
+    }
+
     @Test
     public void indentationShouldInitiallyBeZero() {
         assertEquals(0, context.getIndentationLevel());
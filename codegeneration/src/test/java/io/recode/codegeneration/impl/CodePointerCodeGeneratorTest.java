@@ -1,17 +1,27 @@
 package io.recode.codegeneration.impl;
 
 import io.recode.CodeLocation;
+import io.recode.SymbolicType;
+import io.recode.SymbolicTypeResolver;
+import io.recode.classfile.ClassPathClassFileResolver;
 import io.recode.classfile.Method;
+import io.recode.classfile.impl.ClassFileReaderImpl;
 import io.recode.codegeneration.*;
 import io.recode.decompile.CodeLocationDecompiler;
 import io.recode.decompile.CodePointer;
+import io.recode.decompile.CodeStream;
+import io.recode.decompile.CoreDecompilerDelegation;
 import io.recode.decompile.Decompiler;
 import io.recode.decompile.impl.CodeLocationDecompilerImpl;
 import io.recode.decompile.impl.CodePointerImpl;
+import io.recode.decompile.impl.DecompilerImpl;
+import io.recode.decompile.impl.InputStreamCodeStream;
 import io.recode.model.AST;
 import io.recode.model.ArrayInitializer;
 import io.recode.model.Element;
 import io.recode.model.ElementType;
+import io.recode.model.MethodCall;
+import io.recode.model.VariableAssignment;
 import io.recode.model.impl.*;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -35,6 +45,7 @@ import static io.recode.model.AST.constant;
 import static io.recode.model.AST.local;
 import static java.util.stream.Collectors.joining;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
 
 @SuppressWarnings("unchecked")
@@ -263,10 +274,77 @@ public class CodePointerCodeGeneratorTest {
                 .collect(joining("\n"));
     }
 
+    @Test
+    public void boxingOfSymbolicTypesShouldBeImplicit() throws IOException {
+        final Decompiler decompiler = new DecompilerImpl(CoreDecompilerDelegation.configuration(), new SymbolicTypeResolver());
+        final CodePointerCodeGenerator codeGenerator = new CodePointerCodeGenerator(decompiler, JavaSyntaxCodeGeneration.configuration());
+        final Method method = new ClassPathClassFileResolver(new ClassFileReaderImpl()).resolveClassFile(getClass()).getMethods().stream()
+                .filter(m -> m.getName().equals("boxingTarget"))
+                .findFirst()
+                .get();
+        final Element[] elements;
+
+        try (CodeStream code = new InputStreamCodeStream(method.getCode().getCode())) {
+            elements = decompiler.parse(method, code);
+        }
+
+        assertTrue(elements[0].as(VariableAssignment.class).getValue().as(MethodCall.class).getTargetType() instanceof SymbolicType);
+        assertEquals("Integer x = 5", codeGenerator.generateCode(new CodePointerImpl<>(method, elements[0]), StandardCharsets.UTF_8));
+        assertEquals("Boolean b = true", codeGenerator.generateCode(new CodePointerImpl<>(method, elements[1]), StandardCharsets.UTF_8));
+        assertEquals("Long l = 6L", codeGenerator.generateCode(new CodePointerImpl<>(method, elements[2]), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void codeGeneratedWithSymbolicTypesShouldMatchCodeGeneratedWithLoadedTypes() throws IOException {
+        final Decompiler symbolicDecompiler = new DecompilerImpl(CoreDecompilerDelegation.configuration(), new SymbolicTypeResolver());
+        final CodePointerCodeGenerator symbolicCodeGenerator = new CodePointerCodeGenerator(symbolicDecompiler, JavaSyntaxCodeGeneration.configuration());
+        final Method method = new ClassPathClassFileResolver(new ClassFileReaderImpl()).resolveClassFile(getClass()).getMethods().stream()
+                .filter(m -> m.getName().equals("symbolicTypesTarget"))
+                .findFirst()
+                .get();
+        final Element[] symbolicElements;
+        final Element[] elements;
+
+        try (CodeStream code = new InputStreamCodeStream(method.getCode().getCode())) {
+            symbolicElements = symbolicDecompiler.parse(method, code);
+        }
+
+        try (CodeStream code = new InputStreamCodeStream(method.getCode().getCode())) {
+            elements = new DecompilerImpl().parse(method, code);
+        }
+
+        final String[] expectedCode = {
+                "Class c = String.class",
+                "doStuff(\"foo\")",
+                "int[] a = new int[2]",
+                "Supplier s = c::getName"
+        };
+
+        for (int i = 0; i < expectedCode.length; i++) {
+            assertEquals(expectedCode[i], codeGenerator.generateCode(new CodePointerImpl<>(method, elements[i]), StandardCharsets.UTF_8));
+            assertEquals(expectedCode[i], symbolicCodeGenerator.generateCode(new CodePointerImpl<>(method, symbolicElements[i]), StandardCharsets.UTF_8));
+        }
+    }
+
     private CodePointer pointer(Element element) {
         return new CodePointerImpl(method, element);
     }
 
+    @SuppressWarnings("unused")
+    private void boxingTarget() {
+        Integer x = 5;
+        Boolean b = true;
+        Long l = 6L;
+    }
+
+    @SuppressWarnings("unused")
+    private void symbolicTypesTarget() {
+        Class<?> c = String.class;
+        JavaSyntaxCodeGenerationTest.SomeClass.doStuff("foo");
+        int[] a = new int[2];
+        Supplier<String> s = c::getName;
+    }
+
     private void lambdaTargetTest() {
     }
 
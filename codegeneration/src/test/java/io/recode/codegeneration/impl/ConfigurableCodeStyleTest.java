@@ -1,5 +1,6 @@
 package io.recode.codegeneration.impl;
 
+import io.recode.SymbolicType;
 import io.recode.codegeneration.CodeStyle;
 import org.junit.Test;
 
@@ -48,4 +49,13 @@ public class ConfigurableCodeStyleTest {
     public void getTypeNameShouldNeverAcceptNullType() {
         assertThrown(() -> new ConfigurableCodeStyle.Builder().build().getTypeName(null), AssertionError.class);
     }
+
+    @Test
+    public void simpleTypeNameOfSymbolicTypeCanBeReturned() {
+        final CodeStyle codeStyle = new ConfigurableCodeStyle.Builder()
+                .setUseSimpleClassNames(true)
+                .build();
+
+        assertEquals("String", codeStyle.getTypeName(SymbolicType.of("java.lang.String")));
+    }
 }
@@ -1,6 +1,8 @@
 package io.recode.codegeneration.impl;
 
 import io.recode.RuntimeTypeResolver;
+import io.recode.SymbolicType;
+import io.recode.SymbolicTypeResolver;
 import io.recode.annotations.DSL;
 import io.recode.classfile.ClassPathClassFileResolver;
 import io.recode.classfile.Method;
@@ -12,8 +14,10 @@ import io.recode.decompile.impl.DecompilerImpl;
 import io.recode.model.*;
 import io.recode.model.impl.ArrayInitializerImpl;
 import io.recode.model.impl.ArrayLoadImpl;
+import io.recode.model.impl.ConstantImpl;
 import io.recode.model.impl.InstanceAllocationImpl;
 import io.recode.model.impl.NewArrayImpl;
+import io.recode.util.Types;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -58,7 +62,7 @@ public class JavaSyntaxCodeGenerationTest {
 
     @Before
     public void setup() {
-        doAnswer(invocationOnMock -> ((Class) invocationOnMock.getArguments()[0]).getSimpleName())
+        doAnswer(invocationOnMock -> Types.getSimpleName((Type) invocationOnMock.getArguments()[0]))
                 .when(codeStyle).getTypeName(any(Type.class));
         when(codeStyle.shouldOmitThis()).thenReturn(false);
     }
@@ -150,6 +154,22 @@ public class JavaSyntaxCodeGenerationTest {
         assertFalse(isDSLMethodCall);
     }
 
+    @Test
+    public void isDSLMethodCallShouldReturnTrueIfSymbolicTargetTypeHasDSLAnnotation() {
+        final boolean isDSLCall = JavaSyntaxCodeGeneration.isDSLMethodCall().test(new CodePointerImpl<>(method,
+                AST.call(SymbolicType.of(SomeClass.class.getName()), "doStuff", void.class, local("foo", Object.class, 1))));
+
+        assertTrue(isDSLCall);
+    }
+
+    @Test
+    public void isDSLMethodCallShouldReturnFalseIfSymbolicTargetTypeCanNotBeLoaded() {
+        final boolean isDSLCall = JavaSyntaxCodeGeneration.isDSLMethodCall().test(new CodePointerImpl<>(method,
+                AST.call(SymbolicType.of("com.example.DoesNotExist"), "doStuff", void.class, local("foo", Object.class, 1))));
+
+        assertFalse(isDSLCall);
+    }
+
     @Test
     public void selectDSLCallShouldSelectMethodCallWhereTypeHasDSLAnnotation() {
         final boolean isDSLMethodCall = JavaSyntaxCodeGeneration.selectDSLMethodCall().matches(new CodePointerImpl<>(
@@ -332,6 +352,18 @@ public class JavaSyntaxCodeGenerationTest {
         assertEquals("String.class", codeFor(constant(String.class)));
     }
 
+    @Test
+    public void classConstantOfSymbolicTypeShouldOutputClass() {
+        final SymbolicTypeResolver typeResolver = new SymbolicTypeResolver();
+
+        assertEquals("String.class", codeFor(new ConstantImpl(typeResolver.resolveType("java.lang.String"), typeResolver.resolveType("java.lang.Class"))));
+    }
+
+    @Test
+    public void stringConstantOfSymbolicTypeShouldBeQuoted() {
+        assertEquals("\"foo\"", codeFor(new ConstantImpl("foo", new SymbolicTypeResolver().resolveType("java.lang.String"))));
+    }
+
     @Test
     public void arrayLoadShouldOutputArrayElementAccess() {
         final String code = codeFor(new ArrayLoadImpl(AST.local("foo", String[].class, 1), AST.constant(1234), String.class));
@@ -0,0 +1,252 @@
+package io.recode.codegeneration.load;
+
+import io.recode.CodeLocation;
+import io.recode.classfile.CachingClassFileResolver;
+import io.recode.classfile.ClassPathClassFileResolver;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import io.recode.codegeneration.impl.CodePointerCodeGenerator;
+import io.recode.decompile.CodeLocationDecompiler;
+import io.recode.decompile.CodePointer;
+import io.recode.decompile.DecompiledMethodCache;
+import io.recode.decompile.impl.CodeLocationDecompilerImpl;
+import io.recode.decompile.impl.DecompilerImpl;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Simulates assertion failure reporting at scale: a number of threads, like parallel test workers, repeatedly
+ * capture the location of a failing assertion in one of the {@link SyntheticTestCases}, decompile it with a
+ * shared {@link CodeLocationDecompilerImpl} and render it with a shared {@link CodePointerCodeGenerator}. For
+ * every thread count, throughput, latency percentiles and contention (time blocked on monitors and waiting)
+ * are reported. Run with <code>main</code>; not part of the build. Arguments are optional:
+ * <pre>
+ *     LoadBenchmark [threads=1,2,4,8] [iterations=2000] [warmup=500] [shared=true]
+ * </pre>
+ * Iterations are per thread. With <code>shared=false</code>, every thread count gets new decompilers and caches,
+ * which includes the cost of the cold caches in the measurement.
+ */
+public class LoadBenchmark {
+
+    private final int[] threadCounts;
+
+    private final int iterations;
+
+    private final int warmupIterations;
+
+    private final boolean shared;
+
+    private final List<Map.Entry<String, Supplier<CodeLocation>>> testCases = new ArrayList<>(SyntheticTestCases.all().entrySet());
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private LoadBenchmark(int[] threadCounts, int iterations, int warmupIterations, boolean shared) {
+        this.threadCounts = threadCounts;
+        this.iterations = iterations;
+        this.warmupIterations = warmupIterations;
+        this.shared = shared;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] threadCounts = {1, 2, 4, 8};
+        int iterations = 2000;
+        int warmupIterations = 500;
+        boolean shared = true;
+
+        for (String arg : args) {
+            final String[] keyAndValue = arg.split("=", 2);
+
+            if (keyAndValue.length != 2) {
+                throw new IllegalArgumentException("Invalid argument '" + arg + "', expected key=value");
+            }
+
+            switch (keyAndValue[0]) {
+                case "threads":
+                    threadCounts = Arrays.stream(keyAndValue[1].split(",")).mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "iterations":
+                    iterations = Integer.parseInt(keyAndValue[1]);
+                    break;
+                case "warmup":
+                    warmupIterations = Integer.parseInt(keyAndValue[1]);
+                    break;
+                case "shared":
+                    shared = Boolean.parseBoolean(keyAndValue[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument '" + keyAndValue[0] + "'");
+            }
+        }
+
+        new LoadBenchmark(threadCounts, iterations, warmupIterations, shared).run();
+    }
+
+    private void run() throws Exception {
+        if (threadMXBean.isThreadContentionMonitoringSupported()) {
+            threadMXBean.setThreadContentionMonitoringEnabled(true);
+        }
+
+        Pipeline pipeline = new Pipeline();
+
+        for (Map.Entry<String, Supplier<CodeLocation>> testCase : testCases) {
+            System.out.println(testCase.getKey() + ": " + pipeline.report(testCase.getValue().get()));
+        }
+
+        System.out.println();
+        System.out.println(String.format("%7s %12s %10s %10s %10s %10s %12s %12s %8s",
+                "threads", "ops/s", "p50 us", "p99 us", "p999 us", "max us", "blocked ms", "waited ms", "errors"));
+
+        for (int threadCount : threadCounts) {
+            if (!shared) {
+                pipeline = new Pipeline();
+            }
+
+            runThreads(pipeline, threadCount, warmupIterations);
+
+            final Result result = runThreads(pipeline, threadCount, iterations);
+
+            System.out.println(String.format("%7d %12.0f %10d %10d %10d %10d %12d %12d %8d",
+                    threadCount,
+                    result.getThroughput(),
+                    result.getPercentileMicros(0.5d),
+                    result.getPercentileMicros(0.99d),
+                    result.getPercentileMicros(0.999d),
+                    result.getPercentileMicros(1d),
+                    result.blockedMillis,
+                    result.waitedMillis,
+                    result.errors));
+        }
+    }
+
+    private Result runThreads(Pipeline pipeline, int threadCount, int iterationsPerThread) throws InterruptedException {
+        final long[][] latencies = new long[threadCount][iterationsPerThread];
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        final AtomicLong errors = new AtomicLong();
+        final Thread[] threads = new Thread[threadCount];
+        // Thread statistics are only available while a thread is alive, so each worker captures its own
+        final ThreadInfo[] startThreadInfos = new ThreadInfo[threadCount];
+        final ThreadInfo[] endThreadInfos = new ThreadInfo[threadCount];
+
+        for (int i = 0; i < threadCount; i++) {
+            final long[] threadLatencies = latencies[i];
+            final int offset = i;
+
+            threads[i] = new Thread(() -> {
+                try {
+                    startSignal.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+
+                startThreadInfos[offset] = threadMXBean.getThreadInfo(Thread.currentThread().getId());
+
+                for (int n = 0; n < iterationsPerThread; n++) {
+                    final Supplier<CodeLocation> testCase = testCases.get((n + offset) % testCases.size()).getValue();
+                    final long start = System.nanoTime();
+
+                    try {
+                        pipeline.report(testCase.get());
+                    } catch (Exception | AssertionError e) {
+                        errors.incrementAndGet();
+                    }
+
+                    threadLatencies[n] = System.nanoTime() - start;
+                }
+
+                endThreadInfos[offset] = threadMXBean.getThreadInfo(Thread.currentThread().getId());
+            }, "load-" + i);
+
+            threads[i].start();
+        }
+
+        final long start = System.nanoTime();
+
+        startSignal.countDown();
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        final long elapsedNanos = System.nanoTime() - start;
+
+        long blockedMillis = 0;
+        long waitedMillis = 0;
+
+        for (int i = 0; i < threadCount; i++) {
+            final ThreadInfo startThreadInfo = startThreadInfos[i];
+            final ThreadInfo endThreadInfo = endThreadInfos[i];
+
+            if (startThreadInfo != null && endThreadInfo != null) {
+                // Times are -1 if contention monitoring isn't enabled
+                blockedMillis += Math.max(endThreadInfo.getBlockedTime() - Math.max(startThreadInfo.getBlockedTime(), 0), 0);
+                waitedMillis += Math.max(endThreadInfo.getWaitedTime() - Math.max(startThreadInfo.getWaitedTime(), 0), 0);
+            }
+        }
+
+        final long[] allLatencies = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+
+        return new Result(allLatencies, elapsedNanos, blockedMillis, waitedMillis, errors.get());
+    }
+
+    private static final class Pipeline {
+
+        private final CodeLocationDecompiler decompiler = new CodeLocationDecompilerImpl.Builder()
+                .setClassFileReader(new ClassFileReaderImpl())
+                .setClassFileResolver(new CachingClassFileResolver(new ClassPathClassFileResolver(new ClassFileReaderImpl())))
+                .setDecompiler(new DecompilerImpl())
+                .setDecompiledMethodCache(new DecompiledMethodCache(new DecompilerImpl()))
+                .build();
+
+        private final CodePointerCodeGenerator codeGenerator = new CodePointerCodeGenerator();
+
+        String report(CodeLocation codeLocation) throws Exception {
+            final StringBuilder report = new StringBuilder();
+
+            for (CodePointer codePointer : decompiler.decompileCodeLocation(codeLocation)) {
+                report.append(codeGenerator.generateCode(codePointer, StandardCharsets.UTF_8));
+            }
+
+            return report.toString();
+        }
+    }
+
+    private static final class Result {
+
+        private final long[] sortedLatencies;
+
+        private final long elapsedNanos;
+
+        private final long blockedMillis;
+
+        private final long waitedMillis;
+
+        private final long errors;
+
+        private Result(long[] sortedLatencies, long elapsedNanos, long blockedMillis, long waitedMillis, long errors) {
+            this.sortedLatencies = sortedLatencies;
+            this.elapsedNanos = elapsedNanos;
+            this.blockedMillis = blockedMillis;
+            this.waitedMillis = waitedMillis;
+            this.errors = errors;
+        }
+
+        double getThroughput() {
+            return sortedLatencies.length / (elapsedNanos / 1e9d);
+        }
+
+        long getPercentileMicros(double percentile) {
+            final int index = (int) Math.min(Math.ceil(percentile * sortedLatencies.length) - 1, sortedLatencies.length - 1);
+
+            return sortedLatencies[Math.max(index, 0)] / 1000;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package io.recode.codegeneration.load;
+
+import io.recode.Caller;
+import io.recode.CodeLocation;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Synthetic test cases for the load benchmark. Each test case resembles a failing assertion in a test: it
+ * calls an assertion method that captures the location of the assertion, which is then decompiled and
+ * rendered. The test cases cover the constructs that are costly to decompile, i.e. lambdas, nested lambdas,
+ * exception handlers, varargs calls and inner classes.
+ */
+final class SyntheticTestCases {
+
+    private final List<Integer> values = Arrays.asList(1, 2, 3);
+
+    private final List<List<Integer>> groups = Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4));
+
+    private final String text = "not a number";
+
+    /**
+     * Returns the test cases by name. Each test case returns the code location of its assertion.
+     *
+     * @return The test cases.
+     */
+    static Map<String, Supplier<CodeLocation>> all() {
+        final SyntheticTestCases testCases = new SyntheticTestCases();
+        final Map<String, Supplier<CodeLocation>> all = new LinkedHashMap<>();
+
+        all.put("lambda", testCases::lambda);
+        all.put("nestedLambda", testCases::nestedLambda);
+        all.put("tryCatch", testCases::tryCatch);
+        all.put("varArgs", testCases::varArgs);
+        all.put("innerClass", testCases::innerClass);
+
+        return all;
+    }
+
+    CodeLocation lambda() {
+        return expect(values.stream().filter(v -> v > 1).count() == 3);
+    }
+
+    CodeLocation nestedLambda() {
+        final int limit = 5;
+
+        return expect(groups.stream().anyMatch(group -> group.stream().anyMatch(v -> v == limit)));
+    }
+
+    CodeLocation tryCatch() {
+        String message = null;
+
+        try {
+            Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            message = e.getMessage();
+        }
+
+        return expect(message.isEmpty());
+    }
+
+    CodeLocation varArgs() {
+        return expectContains(values, 1, 2, 4);
+    }
+
+    CodeLocation innerClass() {
+        return new Account("owner", -100).check();
+    }
+
+    static CodeLocation expect(boolean condition) {
+        return Caller.me().getCaller().get();
+    }
+
+    static CodeLocation expectContains(List<Integer> actual, Integer... expected) {
+        return Caller.me().getCaller().get();
+    }
+
+    final class Account {
+
+        private final String owner;
+
+        private final int balance;
+
+        Account(String owner, int balance) {
+            this.owner = owner;
+            this.balance = balance;
+        }
+
+        CodeLocation check() {
+            return expect(balance >= values.size() && owner.equals(text));
+        }
+    }
+}
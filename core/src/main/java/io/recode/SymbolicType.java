@@ -0,0 +1,196 @@
+package io.recode;
+
+import java.lang.reflect.Type;
+
+/**
+ * A type that is described by its name only. Unlike {@link java.lang.Class}, a symbolic type does not require
+ * the type to be loaded, linked or even present, so that code can be decompiled without touching the class
+ * loading subsystem. The type can be resolved to a class on demand through {@link #resolve(ClassLoader)}.
+ * Primitive types are always represented by their classes, e.g. <code>int.class</code>, since these are never
+ * loaded.
+ */
+public final class SymbolicType implements Type {
+
+    private final String name;
+
+    private final String elementTypeName;
+
+    private final int dimensions;
+
+    private SymbolicType(String name, String elementTypeName, int dimensions) {
+        this.name = name;
+        this.elementTypeName = elementTypeName;
+        this.dimensions = dimensions;
+    }
+
+    /**
+     * Creates a symbolic type from a binary class name, e.g. <code>java.lang.String</code> or
+     * <code>[Ljava.lang.String;</code>. Internal names, i.e. names separated with '/', are also accepted.
+     *
+     * @param name The binary name of the type.
+     * @return A symbolic type with the provided name.
+     */
+    public static SymbolicType of(String name) {
+        assert name != null && !name.isEmpty() : "Name can't be null or empty";
+
+        final String binaryName = name.replace('/', '.');
+
+        int dimensions = 0;
+
+        while (dimensions < binaryName.length() && binaryName.charAt(dimensions) == '[') {
+            dimensions++;
+        }
+
+        if (dimensions == 0) {
+            if (getPrimitiveType(binaryName) != null) {
+                throw new IllegalArgumentException("Primitive type '" + binaryName + "' can't be symbolic");
+            }
+
+            return new SymbolicType(binaryName, binaryName, 0);
+        }
+
+        final String elementDescriptor = binaryName.substring(dimensions);
+        final String elementTypeName;
+
+        if (elementDescriptor.length() == 1) {
+            final Class<?> primitiveType = getPrimitiveTypeForDescriptor(elementDescriptor.charAt(0));
+
+            if (primitiveType == null) {
+                throw new IllegalArgumentException("Invalid array type '" + binaryName + "'");
+            }
+
+            elementTypeName = primitiveType.getName();
+        } else if (elementDescriptor.charAt(0) == 'L' && elementDescriptor.endsWith(";") && elementDescriptor.length() > 2) {
+            elementTypeName = elementDescriptor.substring(1, elementDescriptor.length() - 1);
+        } else {
+            throw new IllegalArgumentException("Invalid array type '" + binaryName + "'");
+        }
+
+        return new SymbolicType(binaryName, elementTypeName, dimensions);
+    }
+
+    /**
+     * Returns the binary name of the type, i.e. the name that would be returned by {@link Class#getName()}.
+     *
+     * @return The binary name of the type.
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getTypeName() {
+        if (dimensions == 0) {
+            return name;
+        }
+
+        final StringBuilder typeName = new StringBuilder(elementTypeName.length() + dimensions * 2).append(elementTypeName);
+
+        for (int i = 0; i < dimensions; i++) {
+            typeName.append("[]");
+        }
+
+        return typeName.toString();
+    }
+
+    public boolean isArray() {
+        return dimensions > 0;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Returns the component type of an array type.
+     *
+     * @return The component type, which is a class if the component type is primitive, or <code>null</code>
+     * if this type is not an array.
+     */
+    public Type getComponentType() {
+        if (dimensions == 0) {
+            return null;
+        }
+
+        final String componentTypeName = name.substring(1);
+        final Class<?> primitiveType = (componentTypeName.length() == 1 ? getPrimitiveTypeForDescriptor(componentTypeName.charAt(0)) : null);
+
+        if (primitiveType != null) {
+            return primitiveType;
+        }
+
+        if (componentTypeName.charAt(0) == '[') {
+            return of(componentTypeName);
+        }
+
+        return new SymbolicType(elementTypeName, elementTypeName, 0);
+    }
+
+    /**
+     * Loads the class that this type describes. The class is not initialized.
+     *
+     * @param classLoader The class loader that should load the class.
+     * @return The class described by this type.
+     * @throws ClassNotFoundException Thrown if the class loader can't load the class.
+     */
+    public Class<?> resolve(ClassLoader classLoader) throws ClassNotFoundException {
+        return Class.forName(name, false, classLoader);
+    }
+
+    /**
+     * Returns the class of a primitive type.
+     *
+     * @param name The name of the primitive type, e.g. <code>int</code>.
+     * @return The class of the primitive type, or <code>null</code> if the name isn't a primitive type.
+     */
+    public static Class<?> getPrimitiveType(String name) {
+        switch (name) {
+            case "boolean": return boolean.class;
+            case "byte": return byte.class;
+            case "short": return short.class;
+            case "char": return char.class;
+            case "int": return int.class;
+            case "long": return long.class;
+            case "float": return float.class;
+            case "double": return double.class;
+            case "void": return void.class;
+            default: return null;
+        }
+    }
+
+    private static Class<?> getPrimitiveTypeForDescriptor(char descriptor) {
+        switch (descriptor) {
+            case 'Z': return boolean.class;
+            case 'B': return byte.class;
+            case 'S': return short.class;
+            case 'C': return char.class;
+            case 'I': return int.class;
+            case 'J': return long.class;
+            case 'F': return float.class;
+            case 'D': return double.class;
+            default: return null;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        SymbolicType that = (SymbolicType) o;
+
+        return name.equals(that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "SymbolicType{" +
+                "name='" + name + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,30 @@
+package io.recode;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves types to {@link SymbolicType}s without loading any classes. Primitive types are resolved to their
+ * classes. Resolved types are shared, so resolving the same name repeatedly doesn't allocate new types.
+ */
+public final class SymbolicTypeResolver implements TypeResolver {
+
+    private final ConcurrentHashMap<String, Type> types = new ConcurrentHashMap<>();
+
+    @Override
+    public Type resolveType(String name) {
+        assert name != null && !name.isEmpty() : "Type name can't be null or empty";
+
+        final Type existingType = types.get(name);
+
+        if (existingType != null) {
+            return existingType;
+        }
+
+        final Class<?> primitiveType = SymbolicType.getPrimitiveType(name);
+        final Type type = (primitiveType != null ? primitiveType : SymbolicType.of(name));
+        final Type concurrentlyResolvedType = types.putIfAbsent(name, type);
+
+        return (concurrentlyResolvedType != null ? concurrentlyResolvedType : type);
+    }
+}
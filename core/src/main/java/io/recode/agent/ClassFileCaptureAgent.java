@@ -0,0 +1,136 @@
+package io.recode.agent;
+
+import io.recode.classfile.InMemoryClassFileResolver;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+
+import java.lang.instrument.Instrumentation;
+import java.lang.instrument.UnmodifiableClassException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * An optional java agent that records the bytes of classes as they are loaded, so that class files can be
+ * resolved from memory through {@link #getClassFileResolver()}. The agent is installed either on startup, i.e.
+ * <code>-javaagent:recode-core.jar=packages=com.acme,org.example;compress=true</code>, or attached at runtime,
+ * in which case classes that are already loaded are retransformed to record their bytes. Both arguments are
+ * optional; by default all classes are recorded uncompressed.
+ */
+public final class ClassFileCaptureAgent {
+
+    private static volatile InMemoryClassFileResolver classFileResolver;
+
+    private ClassFileCaptureAgent() {
+    }
+
+    public static void premain(String arguments, Instrumentation instrumentation) {
+        install(arguments, instrumentation, false);
+    }
+
+    public static void agentmain(String arguments, Instrumentation instrumentation) {
+        install(arguments, instrumentation, true);
+    }
+
+    /**
+     * Returns the resolver of recorded class files.
+     *
+     * @return The resolver, or an empty optional if the agent is not installed.
+     */
+    public static Optional<InMemoryClassFileResolver> getClassFileResolver() {
+        return Optional.ofNullable(classFileResolver);
+    }
+
+    static synchronized InMemoryClassFileResolver install(String arguments, Instrumentation instrumentation, boolean retransformLoadedClasses) {
+        assert instrumentation != null : "Instrumentation can't be null";
+
+        if (classFileResolver != null) {
+            return classFileResolver;
+        }
+
+        final Configuration configuration = Configuration.parse(arguments);
+        final InMemoryClassFileResolver resolver = new InMemoryClassFileResolver(new ClassFileReaderImpl(), configuration.compress);
+        final ClassFileCaptureTransformer transformer = new ClassFileCaptureTransformer(resolver, configuration.packageNames);
+        final boolean retransform = retransformLoadedClasses && instrumentation.isRetransformClassesSupported();
+
+        instrumentation.addTransformer(transformer, retransform);
+
+        if (retransform) {
+            retransformLoadedClasses(instrumentation, transformer);
+        }
+
+        classFileResolver = resolver;
+
+        return resolver;
+    }
+
+    static synchronized void uninstall() {
+        classFileResolver = null;
+    }
+
+    private static void retransformLoadedClasses(Instrumentation instrumentation, ClassFileCaptureTransformer transformer) {
+        for (Class<?> loadedClass : instrumentation.getAllLoadedClasses()) {
+            if (!loadedClass.isArray() && !loadedClass.isPrimitive() && instrumentation.isModifiableClass(loadedClass)
+                    && transformer.isIncluded(loadedClass.getName().replace('.', '/'))) {
+                try {
+                    instrumentation.retransformClasses(loadedClass);
+                } catch (UnmodifiableClassException | RuntimeException | LinkageError e) {
+                    // The class can't be recorded; it will be resolved from the class path, if at all
+                }
+            }
+        }
+    }
+
+    static final class Configuration {
+
+        final List<String> packageNames;
+
+        final boolean compress;
+
+        private Configuration(List<String> packageNames, boolean compress) {
+            this.packageNames = packageNames;
+            this.compress = compress;
+        }
+
+        static Configuration parse(String arguments) {
+            final List<String> packageNames = new ArrayList<>();
+            boolean compress = false;
+
+            if (arguments != null) {
+                for (String argument : arguments.split(";")) {
+                    final String trimmedArgument = argument.trim();
+
+                    if (trimmedArgument.isEmpty()) {
+                        continue;
+                    }
+
+                    final int separator = trimmedArgument.indexOf('=');
+
+                    if (separator == -1) {
+                        throw new IllegalArgumentException("Invalid agent argument '" + trimmedArgument + "', expected <name>=<value>");
+                    }
+
+                    final String name = trimmedArgument.substring(0, separator).trim();
+                    final String value = trimmedArgument.substring(separator + 1).trim();
+
+                    switch (name) {
+                        case "packages":
+                            Arrays.stream(value.split(","))
+                                    .map(String::trim)
+                                    .filter(packageName -> !packageName.isEmpty())
+                                    .forEach(packageNames::add);
+                            break;
+                        case "compress":
+                            compress = Boolean.parseBoolean(value);
+                            break;
+                        default:
+                            throw new IllegalArgumentException("Unknown agent argument '" + name + "'");
+                    }
+                }
+            }
+
+            return new Configuration(Collections.unmodifiableList(packageNames), compress);
+        }
+    }
+}
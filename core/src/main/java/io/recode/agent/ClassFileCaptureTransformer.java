@@ -0,0 +1,64 @@
+package io.recode.agent;
+
+import io.recode.classfile.InMemoryClassFileResolver;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A class file transformer that records the bytes of loaded classes without transforming them. Only classes
+ * in the configured packages, including their sub packages, are recorded; if no packages are configured all
+ * classes are recorded.
+ */
+public final class ClassFileCaptureTransformer implements ClassFileTransformer {
+
+    private final InMemoryClassFileResolver classFileResolver;
+
+    private final List<String> packagePrefixes;
+
+    public ClassFileCaptureTransformer(InMemoryClassFileResolver classFileResolver, List<String> packageNames) {
+        assert classFileResolver != null : "Class file resolver can't be null";
+        assert packageNames != null : "Package names can't be null";
+
+        final List<String> packagePrefixes = new ArrayList<>(packageNames.size());
+
+        for (String packageName : packageNames) {
+            assert packageName != null && !packageName.isEmpty() : "Package name can't be null or empty";
+
+            packagePrefixes.add(packageName.replace('.', '/') + "/");
+        }
+
+        this.classFileResolver = classFileResolver;
+        this.packagePrefixes = Collections.unmodifiableList(packagePrefixes);
+    }
+
+    public boolean isIncluded(String internalClassName) {
+        assert internalClassName != null : "Internal class name can't be null";
+
+        if (packagePrefixes.isEmpty()) {
+            return true;
+        }
+
+        for (String packagePrefix : packagePrefixes) {
+            if (internalClassName.startsWith(packagePrefix)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined,
+                            ProtectionDomain protectionDomain, byte[] classfileBuffer) {
+        // Anonymous classes, e.g. lambda classes, have no name and can't be resolved
+        if (className != null && classfileBuffer != null && isIncluded(className)) {
+            classFileResolver.put(className, classfileBuffer);
+        }
+
+        return null;
+    }
+}
@@ -433,6 +433,10 @@ public final class ByteCode {
             case fconst_1:
             case fconst_2:
             case fdiv:
+            case fload_0:
+            case fload_1:
+            case fload_2:
+            case fload_3:
             case fmul:
             case fneg:
             case frem:
@@ -446,6 +450,7 @@ public final class ByteCode {
             case i2c:
             case i2d:
             case i2f:
+            case i2l:
             case i2s:
             case iadd:
             case iaload:
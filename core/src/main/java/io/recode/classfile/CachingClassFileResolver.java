@@ -0,0 +1,215 @@
+package io.recode.classfile;
+
+import io.recode.metrics.Metrics;
+import io.recode.metrics.MetricsRegistry;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A class file resolver that caches the class files resolved by another resolver. Class files can also be
+ * resolved ahead of time on an executor through {@link #prefetch(Type, Executor)}; a class file that is being
+ * prefetched when it's requested is awaited rather than resolved again. A prefetch that hasn't started when the
+ * class file is requested, e.g. because it's queued behind other tasks or was discarded by the executor, is
+ * resolved by the requesting thread instead. Class files that fail to resolve are not cached.
+ */
+public final class CachingClassFileResolver implements ClassFileResolver {
+
+    private final ConcurrentHashMap<String, CompletableFuture<ClassFile>> classFiles = new ConcurrentHashMap<>();
+
+    private final ClassFileResolver classFileResolver;
+
+    public CachingClassFileResolver(ClassFileResolver classFileResolver) {
+        assert classFileResolver != null : "Class file resolver can't be null";
+
+        this.classFileResolver = classFileResolver;
+    }
+
+    @Override
+    public ClassFile resolveClassFile(Type type) throws ClassFileResolutionException {
+        assert type != null : "Type can't be null";
+
+        final String typeName = type.getTypeName();
+        final CompletableFuture<ClassFile> existingClassFile = classFiles.get(typeName);
+
+        if (existingClassFile != null) {
+            Metrics.recordCacheAccess(MetricsRegistry.Cache.CLASS_FILE, true);
+            return await(type, existingClassFile);
+        }
+
+        Metrics.recordCacheAccess(MetricsRegistry.Cache.CLASS_FILE, false);
+
+        final CompletableFuture<ClassFile> classFile = new CompletableFuture<>();
+        final CompletableFuture<ClassFile> concurrentClassFile = classFiles.putIfAbsent(typeName, classFile);
+
+        if (concurrentClassFile != null) {
+            return await(type, concurrentClassFile);
+        }
+
+        resolve(type, classFile);
+
+        return await(classFile);
+    }
+
+    /**
+     * Resolves a class file on the provided executor, unless it's already cached or being resolved.
+     *
+     * @param type The type whose class file should be resolved.
+     * @param executor The executor on which the class file should be resolved.
+     * @return A future that completes when the class file has been resolved.
+     */
+    public CompletableFuture<ClassFile> prefetch(Type type, Executor executor) {
+        assert type != null : "Type can't be null";
+        assert executor != null : "Executor can't be null";
+
+        final String typeName = type.getTypeName();
+        final CompletableFuture<ClassFile> existingClassFile = classFiles.get(typeName);
+
+        if (existingClassFile != null) {
+            return existingClassFile;
+        }
+
+        final PrefetchedClassFile classFile = new PrefetchedClassFile();
+        final CompletableFuture<ClassFile> concurrentClassFile = classFiles.putIfAbsent(typeName, classFile);
+
+        if (concurrentClassFile != null) {
+            return concurrentClassFile;
+        }
+
+        try {
+            executor.execute(new PrefetchTask(type, classFile));
+        } catch (RuntimeException e) {
+            // The executor rejected the task; leave the class file to be resolved on demand
+            classFiles.remove(typeName, classFile);
+            classFile.completeExceptionally(e);
+        }
+
+        return classFile;
+    }
+
+    public boolean contains(Type type) {
+        assert type != null : "Type can't be null";
+
+        final CompletableFuture<ClassFile> classFile = classFiles.get(type.getTypeName());
+
+        return classFile != null && classFile.isDone() && !classFile.isCompletedExceptionally();
+    }
+
+    public int size() {
+        return classFiles.size();
+    }
+
+    public void clear() {
+        classFiles.clear();
+    }
+
+    private void resolve(Type type, CompletableFuture<ClassFile> classFile) {
+        try {
+            classFile.complete(classFileResolver.resolveClassFile(type));
+        } catch (RuntimeException | Error e) {
+            classFiles.remove(type.getTypeName(), classFile);
+            classFile.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Cancels a prefetch that was discarded by its executor, e.g. a task returned by
+     * {@link java.util.concurrent.ExecutorService#shutdownNow()}. The class file is removed from the cache and its
+     * future completes exceptionally, unless the prefetch has already started.
+     *
+     * @param task The discarded task.
+     * @return Whether or not the task was a prefetch of this resolver that was cancelled.
+     */
+    boolean cancel(Runnable task) {
+        assert task != null : "Task can't be null";
+
+        if (!(task instanceof PrefetchTask) || ((PrefetchTask) task).getResolver() != this) {
+            return false;
+        }
+
+        final PrefetchTask prefetchTask = (PrefetchTask) task;
+
+        if (!prefetchTask.classFile.claim()) {
+            return false;
+        }
+
+        classFiles.remove(prefetchTask.type.getTypeName(), prefetchTask.classFile);
+        prefetchTask.classFile.completeExceptionally(new ClassFileResolutionException("Prefetch of class file for "
+                + prefetchTask.type.getTypeName() + " was cancelled"));
+
+        return true;
+    }
+
+    private ClassFile await(Type type, CompletableFuture<ClassFile> classFile) {
+        // A prefetch that hasn't started could be queued indefinitely; resolve it on this thread instead
+        if (classFile instanceof PrefetchedClassFile && ((PrefetchedClassFile) classFile).claim()) {
+            resolve(type, classFile);
+        }
+
+        return await(classFile);
+    }
+
+    private static ClassFile await(CompletableFuture<ClassFile> classFile) {
+        try {
+            return classFile.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClassFileResolutionException("Interrupted while resolving class file", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = (e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause()
+                    : e.getCause());
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new ClassFileResolutionException(cause);
+        }
+    }
+
+    /**
+     * A class file that is being prefetched. The prefetch is claimed by whichever thread starts resolving it
+     * first, i.e. the executor or a thread that requests the class file.
+     */
+    private static final class PrefetchedClassFile extends CompletableFuture<ClassFile> {
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+
+    private final class PrefetchTask implements Runnable {
+
+        private final Type type;
+
+        private final PrefetchedClassFile classFile;
+
+        private PrefetchTask(Type type, PrefetchedClassFile classFile) {
+            this.type = type;
+            this.classFile = classFile;
+        }
+
+        private CachingClassFileResolver getResolver() {
+            return CachingClassFileResolver.this;
+        }
+
+        @Override
+        public void run() {
+            if (classFile.claim()) {
+                resolve(type, classFile);
+            }
+        }
+    }
+}
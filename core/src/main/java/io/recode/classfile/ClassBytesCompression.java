@@ -0,0 +1,70 @@
+package io.recode.classfile;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses class file bytes kept by resolvers that trade some CPU for a smaller footprint, such as the
+ * {@link InMemoryClassFileResolver} and the {@link TieredClassFileResolver}. Compression favours speed over ratio.
+ */
+final class ClassBytesCompression {
+
+    private ClassBytesCompression() {
+    }
+
+    static byte[] compress(byte[] bytes) {
+        assert bytes != null : "Bytes can't be null";
+
+        final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 16);
+            final byte[] buffer = new byte[4096];
+
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompresses bytes returned by {@link #compress(byte[])}.
+     *
+     * @param data The compressed bytes.
+     * @param length The number of bytes before compression.
+     * @return The decompressed bytes.
+     * @throws ClassFileResolutionException Thrown if the compressed bytes are corrupt.
+     */
+    static byte[] decompress(byte[] data, int length) throws ClassFileResolutionException {
+        assert data != null : "Data can't be null";
+        assert length >= 0 : "Length can't be negative";
+
+        final Inflater inflater = new Inflater();
+
+        try {
+            inflater.setInput(data);
+
+            final byte[] bytes = new byte[length];
+            int offset = 0;
+
+            while (offset < length && !inflater.finished()) {
+                offset += inflater.inflate(bytes, offset, length - offset);
+            }
+
+            return bytes;
+        } catch (DataFormatException e) {
+            throw new ClassFileResolutionException("Compressed class bytes are corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
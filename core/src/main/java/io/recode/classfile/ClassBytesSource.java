@@ -0,0 +1,23 @@
+package io.recode.classfile;
+
+import java.lang.reflect.Type;
+
+/**
+ * A <code>ClassBytesSource</code> provides the raw bytes of the class file of a type, e.g. from a class loader,
+ * a class path or bytes recorded in memory. It's used by resolvers that keep class bytes themselves, such as
+ * the {@link TieredClassFileResolver}.
+ */
+@FunctionalInterface
+public interface ClassBytesSource {
+
+    /**
+     * Returns the class file bytes of a type.
+     *
+     * @param type The type whose class file bytes should be returned.
+     * @return The class file bytes.
+     * @throws ClassFileNotFoundException If no class file exists for the type.
+     * @throws ClassFileResolutionException If the class file bytes couldn't be read.
+     */
+    byte[] getClassBytes(Type type) throws ClassFileResolutionException;
+
+}
@@ -0,0 +1,148 @@
+package io.recode.classfile;
+
+import io.recode.Caller;
+import io.recode.SymbolicType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Resolves the class files of the classes on a call stack in the background, so that they are already parsed
+ * and cached when the frames are decompiled. Each class is prefetched once, regardless of how many frames
+ * refer to it. By default, frames of JDK classes are not prefetched.
+ */
+public final class ClassFilePrefetcher implements AutoCloseable {
+
+    private static final Predicate<StackTraceElement> NON_JDK_FRAMES = element -> {
+        final String className = element.getClassName();
+
+        return !(className.startsWith("java.")
+                || className.startsWith("javax.")
+                || className.startsWith("sun.")
+                || className.startsWith("com.sun.")
+                || className.startsWith("jdk."));
+    };
+
+    private final CachingClassFileResolver classFileResolver;
+
+    private final Executor executor;
+
+    private final Predicate<StackTraceElement> predicate;
+
+    private final ExecutorService ownedExecutor;
+
+    /**
+     * Creates a prefetcher that resolves class files on two daemon threads owned by the prefetcher. The threads
+     * are stopped when the prefetcher is closed.
+     *
+     * @param classFileResolver The resolver into which class files should be prefetched.
+     */
+    public ClassFilePrefetcher(CachingClassFileResolver classFileResolver) {
+        this(classFileResolver, createExecutor(), NON_JDK_FRAMES, true);
+    }
+
+    public ClassFilePrefetcher(CachingClassFileResolver classFileResolver, Executor executor) {
+        this(classFileResolver, executor, NON_JDK_FRAMES);
+    }
+
+    public ClassFilePrefetcher(CachingClassFileResolver classFileResolver, Executor executor, Predicate<StackTraceElement> predicate) {
+        this(classFileResolver, executor, predicate, false);
+    }
+
+    private ClassFilePrefetcher(CachingClassFileResolver classFileResolver, Executor executor, Predicate<StackTraceElement> predicate, boolean ownsExecutor) {
+        assert classFileResolver != null : "Class file resolver can't be null";
+        assert executor != null : "Executor can't be null";
+        assert predicate != null : "Predicate can't be null";
+
+        this.classFileResolver = classFileResolver;
+        this.executor = executor;
+        this.predicate = predicate;
+        this.ownedExecutor = (ownsExecutor ? (ExecutorService) executor : null);
+    }
+
+    /**
+     * Prefetches the class files of the caller and the frames that called it.
+     *
+     * @param caller The caller whose call stack should be prefetched.
+     * @return A future that completes when all class files have been resolved or failed to resolve.
+     */
+    public CompletableFuture<Void> prefetch(Caller caller) {
+        assert caller != null : "Caller can't be null";
+
+        final List<StackTraceElement> callStack = caller.getCallStack();
+        final int callerIndex = callStack.indexOf(caller.getCallerStackTraceElement());
+
+        return prefetch(callStack.subList(Math.max(callerIndex, 0), callStack.size()));
+    }
+
+    /**
+     * Prefetches the class files of the frames of a throwable and its causes.
+     *
+     * @param throwable The throwable whose stack traces should be prefetched.
+     * @return A future that completes when all class files have been resolved or failed to resolve.
+     */
+    public CompletableFuture<Void> prefetch(Throwable throwable) {
+        assert throwable != null : "Throwable can't be null";
+
+        final List<StackTraceElement> stackTraceElements = new ArrayList<>();
+        final Set<Throwable> visitedThrowables = new HashSet<>();
+
+        for (Throwable current = throwable; current != null && visitedThrowables.add(current); current = current.getCause()) {
+            stackTraceElements.addAll(Arrays.asList(current.getStackTrace()));
+        }
+
+        return prefetch(stackTraceElements);
+    }
+
+    public CompletableFuture<Void> prefetch(List<StackTraceElement> stackTraceElements) {
+        assert stackTraceElements != null : "Stack trace elements can't be null";
+
+        final Set<String> classNames = new HashSet<>();
+        final List<CompletableFuture<ClassFile>> classFiles = new ArrayList<>();
+
+        for (StackTraceElement element : stackTraceElements) {
+            if (classNames.add(element.getClassName()) && predicate.test(element)) {
+                classFiles.add(classFileResolver.prefetch(SymbolicType.of(element.getClassName()), executor));
+            }
+        }
+
+        // Failures are left to be reported when the class file is resolved on demand
+        return CompletableFuture.allOf(classFiles.stream()
+                .map(classFile -> classFile.handle((result, error) -> null))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Stops the threads owned by the prefetcher. Prefetches that haven't started are cancelled; their class
+     * files are resolved on demand instead.
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor != null) {
+            for (Runnable task : ownedExecutor.shutdownNow()) {
+                classFileResolver.cancel(task);
+            }
+        }
+    }
+
+    private static ExecutorService createExecutor() {
+        final AtomicInteger threadCount = new AtomicInteger();
+
+        return Executors.newFixedThreadPool(2, runnable -> {
+            final Thread thread = new Thread(runnable, "recode-class-file-prefetch-" + threadCount.incrementAndGet());
+
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+}
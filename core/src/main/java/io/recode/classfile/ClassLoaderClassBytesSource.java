@@ -0,0 +1,70 @@
+package io.recode.classfile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * Reads class files as resources of a class loader. Used by the {@link ClassPathClassFileResolver}, which parses
+ * the resources directly, and by the {@link TieredClassFileResolver}, which keeps their bytes.
+ */
+final class ClassLoaderClassBytesSource implements ClassBytesSource {
+
+    private final ClassLoader classLoader;
+
+    ClassLoaderClassBytesSource(ClassLoader classLoader) {
+        assert classLoader != null : "Class loader can't be null";
+
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public byte[] getClassBytes(Type type) throws ClassFileResolutionException {
+        return read(type, in -> {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(in.available(), 1024));
+            final byte[] buffer = new byte[4096];
+
+            for (int n = in.read(buffer); n != -1; n = in.read(buffer)) {
+                out.write(buffer, 0, n);
+            }
+
+            return out.toByteArray();
+        });
+    }
+
+    /**
+     * Reads the class file resource of a type.
+     *
+     * @param type The type whose class file should be read.
+     * @param resourceReader Reads the class file from the resource stream.
+     * @param <T> The type of the result of the resource reader.
+     * @return The result of the resource reader.
+     * @throws ClassFileNotFoundException Thrown if the class loader has no class file for the type.
+     * @throws ClassFileResolutionException Thrown if the resource couldn't be read.
+     */
+    <T> T read(Type type, ResourceReader<T> resourceReader) throws ClassFileResolutionException {
+        assert type != null : "Type can't be null";
+        assert resourceReader != null : "Resource reader can't be null";
+
+        final String resourceName = type.getTypeName().replace('.', '/') + ".class";
+
+        try (InputStream in = classLoader.getResourceAsStream(resourceName)) {
+            if (in == null) {
+                throw new ClassFileNotFoundException("Class file for type '" + type.getTypeName() + "' (resource '"
+                        + resourceName + "') could not be found in class loader: " + classLoader);
+            }
+
+            return resourceReader.read(in);
+        } catch (IOException e) {
+            throw new ClassFileResolutionException("Failed to read class file from resource '" + resourceName + "'", e);
+        }
+    }
+
+    @FunctionalInterface
+    interface ResourceReader<T> {
+
+        T read(InputStream in) throws IOException;
+
+    }
+}
@@ -1,5 +1,7 @@
 package io.recode.classfile;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
 
@@ -21,6 +23,28 @@ public interface CodeAttribute extends Attribute {
 
     CodeAttribute withLocalVariableTable(LocalVariableTable localVariableTable);
 
+    /**
+     * Returns an index of the instructions and basic blocks of the code. Implementations should build the
+     * index once and retain it.
+     *
+     * @return An index of the code.
+     */
+    default InstructionIndex getInstructionIndex() {
+        final ByteArrayOutputStream buffer = new ByteArrayOutputStream(getCodeLength());
+
+        try (InputStream in = getCode()) {
+            final byte[] chunk = new byte[256];
+
+            for (int n = in.read(chunk); n != -1; n = in.read(chunk)) {
+                buffer.write(chunk, 0, n);
+            }
+        } catch (IOException e) {
+            throw new ClassFileFormatException("Code could not be read", e);
+        }
+
+        return InstructionIndex.build(buffer.toByteArray(), getExceptionTable());
+    }
+
     default String getName() {
         return ATTRIBUTE_NAME;
     }
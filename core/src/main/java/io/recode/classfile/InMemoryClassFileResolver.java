@@ -0,0 +1,116 @@
+package io.recode.classfile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A class file resolver that resolves class files from class bytes held in memory. The bytes are typically
+ * recorded as classes are loaded, see {@link io.recode.agent.ClassFileCaptureAgent}, which means that
+ * generated or instrumented classes can be resolved and that no I/O is required to resolve a class file.
+ * The bytes can optionally be stored compressed, trading some CPU for a smaller footprint.
+ */
+public final class InMemoryClassFileResolver implements ClassFileResolver {
+
+    private final ConcurrentHashMap<String, ClassBytes> classBytes = new ConcurrentHashMap<>();
+
+    private final ClassFileReader classFileReader;
+
+    private final boolean compressed;
+
+    public InMemoryClassFileResolver(ClassFileReader classFileReader) {
+        this(classFileReader, false);
+    }
+
+    public InMemoryClassFileResolver(ClassFileReader classFileReader, boolean compressed) {
+        assert classFileReader != null : "Class file reader can't be null";
+
+        this.classFileReader = classFileReader;
+        this.compressed = compressed;
+    }
+
+    /**
+     * Records the bytes of a class. Any previously recorded bytes of the class are replaced, e.g. when the
+     * class is redefined.
+     *
+     * @param className The binary or internal name of the class.
+     * @param bytes The class file bytes.
+     */
+    public void put(String className, byte[] bytes) {
+        assert className != null && !className.isEmpty() : "Class name can't be null or empty";
+        assert bytes != null : "Bytes can't be null";
+
+        classBytes.put(className.replace('/', '.'), compressed ? ClassBytes.compress(bytes) : new ClassBytes(bytes.clone(), bytes.length));
+    }
+
+    /**
+     * Returns the recorded bytes of a class.
+     *
+     * @param className The binary or internal name of the class.
+     * @return The class file bytes, or an empty optional if no bytes have been recorded for the class.
+     */
+    public Optional<byte[]> getClassBytes(String className) {
+        assert className != null && !className.isEmpty() : "Class name can't be null or empty";
+
+        final ClassBytes bytes = classBytes.get(className.replace('/', '.'));
+
+        if (bytes == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(compressed ? bytes.decompress() : bytes.data.clone());
+    }
+
+    public boolean contains(String className) {
+        assert className != null && !className.isEmpty() : "Class name can't be null or empty";
+
+        return classBytes.containsKey(className.replace('/', '.'));
+    }
+
+    public int size() {
+        return classBytes.size();
+    }
+
+    public boolean isCompressed() {
+        return compressed;
+    }
+
+    @Override
+    public ClassFile resolveClassFile(Type type) throws ClassFileResolutionException {
+        assert type != null : "Type can't be null";
+
+        final ClassBytes bytes = classBytes.get(type.getTypeName());
+
+        if (bytes == null) {
+            throw new ClassFileNotFoundException("Class file for type '" + type.getTypeName() + "' has not been recorded");
+        }
+
+        try {
+            return classFileReader.read(new ByteArrayInputStream(compressed ? bytes.decompress() : bytes.data));
+        } catch (IOException e) {
+            throw new ClassFileResolutionException("Failed to read recorded class file of type '" + type.getTypeName() + "'", e);
+        }
+    }
+
+    private static final class ClassBytes {
+
+        private final byte[] data;
+
+        private final int length;
+
+        private ClassBytes(byte[] data, int length) {
+            this.data = data;
+            this.length = length;
+        }
+
+        private static ClassBytes compress(byte[] bytes) {
+            return new ClassBytes(ClassBytesCompression.compress(bytes), bytes.length);
+        }
+
+        private byte[] decompress() {
+            return ClassBytesCompression.decompress(data, length);
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package io.recode.classfile;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An index of the instructions in a method body. The index contains the offset and length of every
+ * instruction and the boundaries of the basic blocks of the method, i.e. the instructions that are targeted
+ * by branches, switches or exception handlers and the instructions that follow a transfer of control. This
+ * makes it possible to position a decompilation at, or stop it after, a particular instruction without
+ * decoding the preceding code.
+ */
+public final class InstructionIndex {
+
+    private final int codeLength;
+
+    private final int[] instructionPCs;
+
+    private final int[] instructionLengths;
+
+    private final int[] basicBlockPCs;
+
+    private InstructionIndex(int codeLength, int[] instructionPCs, int[] instructionLengths, int[] basicBlockPCs) {
+        this.codeLength = codeLength;
+        this.instructionPCs = instructionPCs;
+        this.instructionLengths = instructionLengths;
+        this.basicBlockPCs = basicBlockPCs;
+    }
+
+    /**
+     * Builds an index of the provided code.
+     *
+     * @param code The byte code of a method.
+     * @param exceptionTable The exception table of the method.
+     * @return An index of the instructions in the code.
+     * @throws ClassFileFormatException Thrown if the code contains an invalid instruction or a branch outside
+     * of the code.
+     */
+    public static InstructionIndex build(byte[] code, List<ExceptionTableEntry> exceptionTable) {
+        assert code != null : "Code can't be null";
+        assert exceptionTable != null : "Exception table can't be null";
+
+        int[] instructionPCs = new int[Math.max(code.length / 2, 1)];
+        int[] instructionLengths = new int[instructionPCs.length];
+        int instructionCount = 0;
+
+        final boolean[] basicBlockStarts = new boolean[code.length + 1];
+
+        if (code.length > 0) {
+            basicBlockStarts[0] = true;
+        }
+
+        for (int pc = 0; pc < code.length; ) {
+            final int byteCode = code[pc] & 0xFF;
+            final int length = getInstructionLength(code, pc);
+
+            if (pc + length > code.length) {
+                throw new ClassFileFormatException("Instruction " + ByteCode.toString(byteCode) + " at " + pc + " exceeds code length " + code.length);
+            }
+
+            if (instructionCount == instructionPCs.length) {
+                instructionPCs = Arrays.copyOf(instructionPCs, instructionCount * 2);
+                instructionLengths = Arrays.copyOf(instructionLengths, instructionCount * 2);
+            }
+
+            instructionPCs[instructionCount] = pc;
+            instructionLengths[instructionCount] = length;
+            instructionCount++;
+
+            if (markBranchTargets(code, pc, byteCode, basicBlockStarts)) {
+                basicBlockStarts[pc + length] = true;
+            }
+
+            pc += length;
+        }
+
+        for (ExceptionTableEntry entry : exceptionTable) {
+            markBasicBlockStart(basicBlockStarts, entry.getStartPC());
+            markBasicBlockStart(basicBlockStarts, entry.getEndPC());
+            markBasicBlockStart(basicBlockStarts, entry.getHandlerPC());
+        }
+
+        int basicBlockCount = 0;
+
+        for (int pc = 0; pc < code.length; pc++) {
+            if (basicBlockStarts[pc]) {
+                basicBlockCount++;
+            }
+        }
+
+        final int[] basicBlockPCs = new int[basicBlockCount];
+
+        for (int pc = 0, n = 0; pc < code.length; pc++) {
+            if (basicBlockStarts[pc]) {
+                basicBlockPCs[n++] = pc;
+            }
+        }
+
+        return new InstructionIndex(code.length, Arrays.copyOf(instructionPCs, instructionCount),
+                Arrays.copyOf(instructionLengths, instructionCount), basicBlockPCs);
+    }
+
+    public int getCodeLength() {
+        return codeLength;
+    }
+
+    public int getInstructionCount() {
+        return instructionPCs.length;
+    }
+
+    public int getInstructionPC(int index) {
+        return instructionPCs[index];
+    }
+
+    public int getInstructionLength(int index) {
+        return instructionLengths[index];
+    }
+
+    /**
+     * Returns the index of the instruction that starts at a particular program counter.
+     *
+     * @param pc The program counter of the instruction.
+     * @return The index of the instruction, or -1 if no instruction starts at the program counter.
+     */
+    public int indexOf(int pc) {
+        final int index = Arrays.binarySearch(instructionPCs, pc);
+
+        return (index >= 0 ? index : -1);
+    }
+
+    /**
+     * Returns the index of the instruction that contains the provided program counter, i.e. the instruction
+     * itself or the instruction whose operands the program counter refers to.
+     *
+     * @param pc The program counter.
+     * @return The index of the instruction, or -1 if the program counter is outside of the code.
+     */
+    public int indexOfInstructionAt(int pc) {
+        if (pc < 0 || pc >= codeLength) {
+            return -1;
+        }
+
+        final int index = Arrays.binarySearch(instructionPCs, pc);
+
+        return (index >= 0 ? index : -index - 2);
+    }
+
+    public boolean isInstructionStart(int pc) {
+        return indexOf(pc) != -1;
+    }
+
+    /**
+     * Returns the program counter of the instruction following the instruction that contains the provided
+     * program counter.
+     *
+     * @param pc The program counter.
+     * @return The program counter of the next instruction. This is the code length if the program counter
+     * refers to the last instruction.
+     */
+    public int getNextInstructionPC(int pc) {
+        final int index = indexOfInstructionAt(pc);
+
+        if (index == -1) {
+            throw new IllegalArgumentException("Program counter " + pc + " is outside of the code [0, " + codeLength + ")");
+        }
+
+        return instructionPCs[index] + instructionLengths[index];
+    }
+
+    public int getBasicBlockCount() {
+        return basicBlockPCs.length;
+    }
+
+    public int getBasicBlockPC(int index) {
+        return basicBlockPCs[index];
+    }
+
+    public boolean isBasicBlockStart(int pc) {
+        return Arrays.binarySearch(basicBlockPCs, pc) >= 0;
+    }
+
+    /**
+     * Returns the index of the basic block that contains the provided program counter.
+     *
+     * @param pc The program counter.
+     * @return The index of the basic block, or -1 if the program counter is outside of the code.
+     */
+    public int getBasicBlockIndex(int pc) {
+        if (pc < 0 || pc >= codeLength) {
+            return -1;
+        }
+
+        final int index = Arrays.binarySearch(basicBlockPCs, pc);
+
+        return (index >= 0 ? index : -index - 2);
+    }
+
+    /**
+     * Returns the program counter at which the basic block containing the provided program counter ends, i.e.
+     * the start of the next basic block or the code length if the program counter is in the last block.
+     *
+     * @param pc The program counter.
+     * @return The (exclusive) end of the basic block containing the program counter.
+     */
+    public int getBasicBlockEnd(int pc) {
+        final int index = getBasicBlockIndex(pc);
+
+        if (index == -1) {
+            throw new IllegalArgumentException("Program counter " + pc + " is outside of the code [0, " + codeLength + ")");
+        }
+
+        return (index + 1 < basicBlockPCs.length ? basicBlockPCs[index + 1] : codeLength);
+    }
+
+    /**
+     * Returns the length of the instruction at a particular offset in the code, including any operands.
+     *
+     * @param code The code containing the instruction.
+     * @param pc The offset of the instruction.
+     * @return The length of the instruction.
+     */
+    public static int getInstructionLength(byte[] code, int pc) {
+        assert code != null : "Code can't be null";
+        assert pc >= 0 && pc < code.length : "PC must be within code";
+
+        final int byteCode = code[pc] & 0xFF;
+
+        switch (byteCode) {
+            case ByteCode.wide:
+                if (pc + 1 >= code.length) {
+                    throw new ClassFileFormatException("Instruction 'wide' at " + pc + " is not followed by an instruction");
+                }
+
+                return ((code[pc + 1] & 0xFF) == ByteCode.iinc ? 6 : 4);
+            case ByteCode.tableswitch: {
+                final int operands = padding(pc);
+                final int low = readInt(code, operands + 4);
+                final int high = readInt(code, operands + 8);
+
+                return operands - pc + 12 + (high - low + 1) * 4;
+            }
+            case ByteCode.lookupswitch: {
+                final int operands = padding(pc);
+                final int pairs = readInt(code, operands + 4);
+
+                return operands - pc + 8 + pairs * 8;
+            }
+            default:
+                try {
+                    return ByteCode.getWidth(byteCode);
+                } catch (IllegalArgumentException e) {
+                    throw new ClassFileFormatException("Invalid instruction " + byteCode + " at " + pc);
+                }
+        }
+    }
+
+    /**
+     * Marks the targets of a branch or switch instruction as basic block starts.
+     *
+     * @return Whether or not the instruction ends a basic block.
+     */
+    private static boolean markBranchTargets(byte[] code, int pc, int byteCode, boolean[] basicBlockStarts) {
+        switch (byteCode) {
+            case ByteCode.ifeq:
+            case ByteCode.ifne:
+            case ByteCode.iflt:
+            case ByteCode.ifge:
+            case ByteCode.ifgt:
+            case ByteCode.ifle:
+            case ByteCode.if_icmpeq:
+            case ByteCode.if_icmpne:
+            case ByteCode.if_icmplt:
+            case ByteCode.if_icmpge:
+            case ByteCode.if_icmpgt:
+            case ByteCode.if_icmple:
+            case ByteCode.if_acmpeq:
+            case ByteCode.if_acmpne:
+            case ByteCode.if_acmp_null:
+            case ByteCode.if_acmp_nonnull:
+            case ByteCode.goto_:
+            case ByteCode.jsr:
+                markBasicBlockStart(basicBlockStarts, pc + (short) (((code[pc + 1] & 0xFF) << 8) | (code[pc + 2] & 0xFF)));
+                return true;
+            case ByteCode.goto_w:
+            case ByteCode.jsr_w:
+                markBasicBlockStart(basicBlockStarts, pc + readInt(code, pc + 1));
+                return true;
+            case ByteCode.tableswitch: {
+                final int operands = padding(pc);
+                final int low = readInt(code, operands + 4);
+                final int high = readInt(code, operands + 8);
+
+                markBasicBlockStart(basicBlockStarts, pc + readInt(code, operands));
+
+                for (int i = 0; i <= high - low; i++) {
+                    markBasicBlockStart(basicBlockStarts, pc + readInt(code, operands + 12 + i * 4));
+                }
+
+                return true;
+            }
+            case ByteCode.lookupswitch: {
+                final int operands = padding(pc);
+                final int pairs = readInt(code, operands + 4);
+
+                markBasicBlockStart(basicBlockStarts, pc + readInt(code, operands));
+
+                for (int i = 0; i < pairs; i++) {
+                    markBasicBlockStart(basicBlockStarts, pc + readInt(code, operands + 12 + i * 8));
+                }
+
+                return true;
+            }
+            case ByteCode.ireturn:
+            case ByteCode.lreturn:
+            case ByteCode.freturn:
+            case ByteCode.dreturn:
+            case ByteCode.areturn:
+            case ByteCode.return_:
+            case ByteCode.athrow:
+            case ByteCode.ret:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static void markBasicBlockStart(boolean[] basicBlockStarts, int pc) {
+        if (pc < 0 || pc >= basicBlockStarts.length) {
+            throw new ClassFileFormatException("Branch target " + pc + " is outside of the code");
+        }
+
+        basicBlockStarts[pc] = true;
+    }
+
+    /**
+     * Returns the offset of the operands of a switch instruction, which are aligned to four bytes from the
+     * start of the code.
+     */
+    private static int padding(int pc) {
+        return (pc + 4) & ~3;
+    }
+
+    private static int readInt(byte[] code, int offset) {
+        if (offset + 4 > code.length) {
+            throw new ClassFileFormatException("Operand at " + offset + " exceeds code length " + code.length);
+        }
+
+        return ((code[offset] & 0xFF) << 24)
+                | ((code[offset + 1] & 0xFF) << 16)
+                | ((code[offset + 2] & 0xFF) << 8)
+                | (code[offset + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,461 @@
+package io.recode.classfile;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A class file resolver that reads class files directly from the jar files and directories of an explicit
+ * class path, independently of any class loader. The central directory of each jar file is indexed once, on
+ * first use, so that an entry is read with a single positional read at its known offset rather than through
+ * a URL connection and a lookup per resolution. Jar files are read through a bounded pool of open file
+ * channels that's shared between threads; the least recently used channel is closed when the pool is full.
+ * Since a file channel is closed when a thread that reads from it is interrupted, a channel that has been closed
+ * that way is removed from the pool and reads of other threads are retried on a new channel; only the read of
+ * the interrupted thread fails. Entries must be stored or deflated; zip64 archives are not supported.
+ */
+public final class JarClassFileResolver implements ClassFileResolver, AutoCloseable {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+
+    private static final int LOCAL_HEADER_LENGTH = 30;
+
+    private static final int CENTRAL_DIRECTORY_HEADER_SIGNATURE = 0x02014b50;
+
+    private static final int CENTRAL_DIRECTORY_HEADER_LENGTH = 46;
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+
+    private static final int END_OF_CENTRAL_DIRECTORY_LENGTH = 22;
+
+    private static final int MAX_COMMENT_LENGTH = 0xFFFF;
+
+    private static final int STORED = 0;
+
+    private static final int DEFLATED = 8;
+
+    private final ClassFileReader classFileReader;
+
+    private final List<ClassPathElement> classPath;
+
+    private final int maxOpenFiles;
+
+    private final LinkedHashMap<File, Handle> handles = new LinkedHashMap<>(16, 0.75f, true);
+
+    private boolean closed;
+
+    public JarClassFileResolver(ClassFileReader classFileReader, List<File> classPath) {
+        this(classFileReader, classPath, 16);
+    }
+
+    public JarClassFileResolver(ClassFileReader classFileReader, List<File> classPath, int maxOpenFiles) {
+        assert classFileReader != null : "Class file reader can't be null";
+        assert classPath != null : "Class path can't be null";
+        assert maxOpenFiles > 0 : "Max open files must be positive";
+
+        final List<ClassPathElement> elements = new ArrayList<>(classPath.size());
+
+        for (File file : classPath) {
+            assert file != null : "Class path can't contain null";
+
+            if (file.isDirectory()) {
+                elements.add(new Directory(file));
+            } else if (file.isFile()) {
+                elements.add(new Jar(file));
+            }
+        }
+
+        this.classFileReader = classFileReader;
+        this.classPath = Collections.unmodifiableList(elements);
+        this.maxOpenFiles = maxOpenFiles;
+    }
+
+    /**
+     * Returns the class path of the current JVM, i.e. the <code>java.class.path</code> system property.
+     *
+     * @return The files on the system class path.
+     */
+    public static List<File> systemClassPath() {
+        final String classPath = System.getProperty("java.class.path", "");
+        final List<File> files = new ArrayList<>();
+
+        for (String path : classPath.split(File.pathSeparator)) {
+            if (!path.isEmpty()) {
+                files.add(new File(path));
+            }
+        }
+
+        return files;
+    }
+
+    @Override
+    public ClassFile resolveClassFile(Type type) throws ClassFileResolutionException {
+        assert type != null : "Type can't be null";
+
+        final String resourceName = type.getTypeName().replace('.', '/') + ".class";
+
+        try {
+            for (ClassPathElement element : classPath) {
+                final byte[] classBytes = element.read(resourceName);
+
+                if (classBytes != null) {
+                    return classFileReader.read(new ByteArrayInputStream(classBytes));
+                }
+            }
+        } catch (IOException e) {
+            throw new ClassFileResolutionException("Failed to read class file from resource '" + resourceName + "'", e);
+        }
+
+        throw new ClassFileNotFoundException("Class file for type '" + type.getTypeName() + "' (resource '"
+                + resourceName + "') could not be found on class path: " + classPath);
+    }
+
+    public int getOpenFileCount() {
+        synchronized (handles) {
+            return handles.size();
+        }
+    }
+
+    public int getMaxOpenFiles() {
+        return maxOpenFiles;
+    }
+
+    @Override
+    public void close() {
+        synchronized (handles) {
+            closed = true;
+
+            for (Handle handle : handles.values()) {
+                handle.evict();
+            }
+
+            handles.clear();
+        }
+    }
+
+    private Handle acquire(File file) throws IOException {
+        synchronized (handles) {
+            if (closed) {
+                throw new IllegalStateException("Resolver is closed");
+            }
+
+            final Handle existingHandle = handles.get(file);
+
+            if (existingHandle != null) {
+                existingHandle.references++;
+                return existingHandle;
+            }
+
+            final Handle handle = new Handle(FileChannel.open(file.toPath(), StandardOpenOption.READ));
+
+            handles.put(file, handle);
+
+            for (Iterator<Handle> iterator = handles.values().iterator(); handles.size() > maxOpenFiles && iterator.hasNext(); ) {
+                final Handle eldest = iterator.next();
+
+                if (eldest != handle) {
+                    iterator.remove();
+                    eldest.evict();
+                }
+            }
+
+            return handle;
+        }
+    }
+
+    private void release(Handle handle) {
+        synchronized (handles) {
+            handle.release();
+        }
+    }
+
+    private void discard(File file, Handle handle) {
+        synchronized (handles) {
+            handles.remove(file, handle);
+            handle.evict();
+        }
+    }
+
+    private <T> T read(File file, ChannelReader<T> reader) throws IOException {
+        while (true) {
+            final Handle handle = acquire(file);
+
+            try {
+                return reader.read(handle.channel);
+            } catch (ClosedChannelException e) {
+                // The channel has been closed by an interrupt, either of this thread or of another thread reading it
+                discard(file, handle);
+
+                if (e instanceof ClosedByInterruptException) {
+                    throw e;
+                }
+            } finally {
+                release(handle);
+            }
+        }
+    }
+
+    private interface ChannelReader<T> {
+
+        T read(FileChannel channel) throws IOException;
+
+    }
+
+    private interface ClassPathElement {
+
+        byte[] read(String resourceName) throws IOException;
+
+    }
+
+    private static final class Directory implements ClassPathElement {
+
+        private final File directory;
+
+        private Directory(File directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        public byte[] read(String resourceName) throws IOException {
+            final File file = new File(directory, resourceName);
+
+            return (file.isFile() ? Files.readAllBytes(file.toPath()) : null);
+        }
+
+        @Override
+        public String toString() {
+            return directory.getPath();
+        }
+    }
+
+    private final class Jar implements ClassPathElement {
+
+        private final File file;
+
+        private volatile Map<String, Entry> entries;
+
+        private Jar(File file) {
+            this.file = file;
+        }
+
+        @Override
+        public byte[] read(String resourceName) throws IOException {
+            final Entry entry = getEntries().get(resourceName);
+
+            if (entry == null) {
+                return null;
+            }
+
+            return JarClassFileResolver.this.read(file, entry::read);
+        }
+
+        private Map<String, Entry> getEntries() throws IOException {
+            Map<String, Entry> entries = this.entries;
+
+            if (entries == null) {
+                synchronized (this) {
+                    entries = this.entries;
+
+                    if (entries == null) {
+                        this.entries = entries = JarClassFileResolver.this.read(file, this::index);
+                    }
+                }
+            }
+
+            return entries;
+        }
+
+        private Map<String, Entry> index(FileChannel channel) throws IOException {
+            final long fileSize = channel.size();
+            final int tailLength = (int) Math.min(fileSize, END_OF_CENTRAL_DIRECTORY_LENGTH + MAX_COMMENT_LENGTH);
+            final ByteBuffer tail = readFully(channel, fileSize - tailLength, tailLength);
+
+            int endOfCentralDirectory = -1;
+
+            for (int i = tailLength - END_OF_CENTRAL_DIRECTORY_LENGTH; i >= 0; i--) {
+                if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                    endOfCentralDirectory = i;
+                    break;
+                }
+            }
+
+            if (endOfCentralDirectory == -1) {
+                throw new ClassFileResolutionException("No central directory found in jar file '" + file + "'");
+            }
+
+            final int entryCount = tail.getShort(endOfCentralDirectory + 10) & 0xFFFF;
+            final long centralDirectoryLength = tail.getInt(endOfCentralDirectory + 12) & 0xFFFFFFFFL;
+            final long centralDirectoryOffset = tail.getInt(endOfCentralDirectory + 16) & 0xFFFFFFFFL;
+
+            if (entryCount == 0xFFFF || centralDirectoryLength == 0xFFFFFFFFL || centralDirectoryOffset == 0xFFFFFFFFL) {
+                throw new ClassFileResolutionException("Zip64 jar file '" + file + "' is not supported");
+            }
+
+            final ByteBuffer centralDirectory = readFully(channel, centralDirectoryOffset, (int) centralDirectoryLength);
+            final Map<String, Entry> entries = new HashMap<>(entryCount * 4 / 3 + 1);
+
+            for (int position = 0, n = 0; n < entryCount; n++) {
+                if (centralDirectory.getInt(position) != CENTRAL_DIRECTORY_HEADER_SIGNATURE) {
+                    throw new ClassFileResolutionException("Corrupt central directory in jar file '" + file + "'");
+                }
+
+                final int flags = centralDirectory.getShort(position + 8) & 0xFFFF;
+                final int method = centralDirectory.getShort(position + 10) & 0xFFFF;
+                final long compressedSize = centralDirectory.getInt(position + 20) & 0xFFFFFFFFL;
+                final long size = centralDirectory.getInt(position + 24) & 0xFFFFFFFFL;
+                final int nameLength = centralDirectory.getShort(position + 28) & 0xFFFF;
+                final int extraLength = centralDirectory.getShort(position + 30) & 0xFFFF;
+                final int commentLength = centralDirectory.getShort(position + 32) & 0xFFFF;
+                final long localHeaderOffset = centralDirectory.getInt(position + 42) & 0xFFFFFFFFL;
+                final String name = new String(centralDirectory.array(), position + CENTRAL_DIRECTORY_HEADER_LENGTH, nameLength, StandardCharsets.UTF_8);
+
+                // Encrypted entries and entries of unsupported formats are left to other resolvers
+                if (name.endsWith(".class") && (flags & 1) == 0 && (method == STORED || method == DEFLATED)
+                        && size <= Integer.MAX_VALUE && compressedSize <= Integer.MAX_VALUE) {
+                    entries.putIfAbsent(name, new Entry(localHeaderOffset, method, (int) compressedSize, (int) size));
+                }
+
+                position += CENTRAL_DIRECTORY_HEADER_LENGTH + nameLength + extraLength + commentLength;
+            }
+
+            return entries;
+        }
+
+        @Override
+        public String toString() {
+            return file.getPath();
+        }
+    }
+
+    private static final class Entry {
+
+        private final long localHeaderOffset;
+
+        private final int method;
+
+        private final int compressedSize;
+
+        private final int size;
+
+        private Entry(long localHeaderOffset, int method, int compressedSize, int size) {
+            this.localHeaderOffset = localHeaderOffset;
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+        }
+
+        private byte[] read(FileChannel channel) throws IOException {
+            final ByteBuffer localHeader = readFully(channel, localHeaderOffset, LOCAL_HEADER_LENGTH);
+
+            if (localHeader.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+                throw new ClassFileResolutionException("Corrupt local header at offset " + localHeaderOffset);
+            }
+
+            final int nameLength = localHeader.getShort(26) & 0xFFFF;
+            final int extraLength = localHeader.getShort(28) & 0xFFFF;
+            final ByteBuffer data = readFully(channel, localHeaderOffset + LOCAL_HEADER_LENGTH + nameLength + extraLength, compressedSize);
+
+            if (method == STORED) {
+                return data.array();
+            }
+
+            final Inflater inflater = new Inflater(true);
+
+            try {
+                inflater.setInput(data.array());
+
+                final byte[] bytes = new byte[size];
+                int offset = 0;
+
+                while (offset < size && !inflater.finished()) {
+                    final int inflated = inflater.inflate(bytes, offset, size - offset);
+
+                    if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new EOFException("Unexpected end of deflated entry at offset " + localHeaderOffset);
+                    }
+
+                    offset += inflated;
+                }
+
+                return (offset == size ? bytes : Arrays.copyOf(bytes, offset));
+            } catch (DataFormatException e) {
+                throw new ClassFileResolutionException("Corrupt deflated entry at offset " + localHeaderOffset, e);
+            } finally {
+                inflater.end();
+            }
+        }
+    }
+
+    /**
+     * An open file channel that's shared between threads. The channel is closed once it has been evicted from
+     * the pool and no thread is reading from it.
+     */
+    private static final class Handle {
+
+        private final FileChannel channel;
+
+        private int references = 1;
+
+        private boolean evicted;
+
+        private Handle(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        private void release() {
+            if (--references == 0 && evicted) {
+                closeQuietly();
+            }
+        }
+
+        private void evict() {
+            evicted = true;
+
+            if (references == 0) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Nothing has been written; there's nothing to recover
+            }
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) == -1) {
+                throw new EOFException("Unexpected end of file at offset " + (position + buffer.position()));
+            }
+        }
+
+        buffer.flip();
+
+        return buffer;
+    }
+}
@@ -0,0 +1,88 @@
+package io.recode.classfile;
+
+import io.recode.model.Signature;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * An index of the methods declared by a class, built from its class file. Methods are looked up by name and
+ * signature descriptor, so that the declaring class never needs to be loaded and no reflective method arrays
+ * need to be copied or searched.
+ */
+public final class MemberIndex {
+
+    private static final int ACC_VARARGS = 0x0080;
+
+    private final String className;
+
+    private final Map<String, Map<String, Method>> methods;
+
+    private MemberIndex(String className, Map<String, Map<String, Method>> methods) {
+        this.className = className;
+        this.methods = methods;
+    }
+
+    public static MemberIndex of(ClassFile classFile) {
+        assert classFile != null : "Class file can't be null";
+
+        final List<Method> declaredMethods = classFile.getMethods();
+        final Map<String, Map<String, Method>> methods = new HashMap<>(declaredMethods.size() * 2);
+
+        for (Method method : declaredMethods) {
+            methods.computeIfAbsent(method.getName(), name -> new HashMap<>(4))
+                    .put(method.getSignature().toString(), method);
+        }
+
+        return new MemberIndex(classFile.getName(), methods);
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Returns the method declared with the provided name and signature.
+     *
+     * @param name The name of the method.
+     * @param signature The signature of the method.
+     * @return The method, or an empty optional if the class declares no such method.
+     */
+    public Optional<Method> findMethod(String name, Signature signature) {
+        assert signature != null : "Signature can't be null";
+
+        return findMethod(name, signature.toString());
+    }
+
+    /**
+     * Returns the method declared with the provided name and descriptor.
+     *
+     * @param name The name of the method.
+     * @param descriptor The descriptor of the method, e.g. <code>(Ljava/lang/String;)V</code>.
+     * @return The method, or an empty optional if the class declares no such method.
+     */
+    public Optional<Method> findMethod(String name, String descriptor) {
+        assert name != null && !name.isEmpty() : "Name can't be null or empty";
+        assert descriptor != null && !descriptor.isEmpty() : "Descriptor can't be null or empty";
+
+        final Map<String, Method> methodsWithName = methods.getOrDefault(name, Collections.emptyMap());
+
+        return Optional.ofNullable(methodsWithName.get(descriptor));
+    }
+
+    /**
+     * Checks whether the class declares a varargs method with the provided name and signature.
+     *
+     * @param name The name of the method.
+     * @param signature The signature of the method.
+     * @return Whether or not the method exists and is declared as a varargs method.
+     */
+    public boolean isVarArgsMethod(String name, Signature signature) {
+        final Optional<Method> method = findMethod(name, signature);
+
+        return method.isPresent() && (method.get().getAccessFlags() & ACC_VARARGS) != 0;
+    }
+}
@@ -0,0 +1,86 @@
+package io.recode.classfile;
+
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import io.recode.metrics.Metrics;
+import io.recode.metrics.MetricsRegistry;
+
+import java.lang.reflect.Type;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches member indexes per type. Class files are resolved through a {@link ClassFileResolver} the first time
+ * a type is requested, which means that types can be indexed regardless of whether or not they can be loaded.
+ * Types whose class files can't be resolved are remembered as such.
+ */
+public final class MemberIndexCache {
+
+    private final ConcurrentHashMap<String, Optional<MemberIndex>> memberIndexes = new ConcurrentHashMap<>();
+
+    private final ClassFileResolver classFileResolver;
+
+    public MemberIndexCache(ClassFileResolver classFileResolver) {
+        assert classFileResolver != null : "Class file resolver can't be null";
+
+        this.classFileResolver = classFileResolver;
+    }
+
+    /**
+     * Returns the member index of a type, resolving and indexing its class file if the type has not been
+     * requested before.
+     *
+     * @param type The type whose members should be returned.
+     * @return The member index, or an empty optional if the class file of the type can't be resolved.
+     */
+    public Optional<MemberIndex> get(Type type) {
+        assert type != null : "Type can't be null";
+
+        final String typeName = type.getTypeName();
+        final Optional<MemberIndex> existingMemberIndex = memberIndexes.get(typeName);
+
+        if (existingMemberIndex != null) {
+            Metrics.recordCacheAccess(MetricsRegistry.Cache.MEMBER_INDEX, true);
+            return existingMemberIndex;
+        }
+
+        Metrics.recordCacheAccess(MetricsRegistry.Cache.MEMBER_INDEX, false);
+
+        final Optional<MemberIndex> memberIndex = resolve(type);
+        final Optional<MemberIndex> concurrentlyResolvedMemberIndex = memberIndexes.putIfAbsent(typeName, memberIndex);
+
+        return (concurrentlyResolvedMemberIndex != null ? concurrentlyResolvedMemberIndex : memberIndex);
+    }
+
+    /**
+     * Returns a cache that is shared by callers that don't provide a cache of their own. Class files are resolved
+     * from the class path of the class loader that loaded this class.
+     *
+     * @return The shared member index cache.
+     */
+    public static MemberIndexCache shared() {
+        return SharedMemberIndexCache.INSTANCE;
+    }
+
+    public int size() {
+        return memberIndexes.size();
+    }
+
+    public void clear() {
+        memberIndexes.clear();
+    }
+
+    private Optional<MemberIndex> resolve(Type type) {
+        try {
+            return Optional.of(MemberIndex.of(classFileResolver.resolveClassFile(type)));
+        } catch (ClassFileResolutionException | ClassFileFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static final class SharedMemberIndexCache {
+
+        private static final MemberIndexCache INSTANCE = new MemberIndexCache(
+                new ClassPathClassFileResolver(new ClassFileReaderImpl(), MemberIndexCache.class.getClassLoader()));
+
+    }
+}
@@ -0,0 +1,408 @@
+package io.recode.classfile;
+
+import io.recode.metrics.Counter;
+import io.recode.metrics.Metrics;
+import io.recode.metrics.MetricsRegistry;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A class file resolver that keeps resolved class files in two tiers. The hot tier holds a limited number of
+ * parsed class files on heap. The cold tier holds the raw bytes of a larger number of class files, compressed
+ * and off heap, within a budget of bytes. A class file that isn't in the hot tier is parsed from the cold tier
+ * and promoted to the hot tier; only class files in neither tier are read from the {@link ClassBytesSource}.
+ * The hot tier evicts its least recently used class files when full; since the cold tier keeps the bytes of
+ * promoted class files, a class file evicted from the hot tier can be promoted again without I/O.
+ * <p>
+ * The cold tier packs the compressed bytes into direct buffers ("slabs") of at most 1 MB that are allocated on
+ * demand and reused, so that the off-heap memory held by the resolver never exceeds the budget. When the slabs
+ * are full, the oldest slab is reclaimed as a whole. Bytes that are read from an older slab are moved to the
+ * slab that's being filled, so that recently used class files survive reclamation.
+ */
+public final class TieredClassFileResolver implements ClassFileResolver {
+
+    private final ClassFileReader classFileReader;
+
+    private static final int MAX_SLAB_SIZE = 1024 * 1024;
+
+    private final ClassBytesSource classBytesSource;
+
+    private final int hotTierCapacity;
+
+    private final long coldTierBudget;
+
+    private final LinkedHashMap<String, ClassFile> hotTier;
+
+    private final LinkedHashMap<String, ColdTierEntry> coldTier = new LinkedHashMap<>(64);
+
+    private final int slabSize;
+
+    private final ByteBuffer[] slabs;
+
+    private int slabIndex;
+
+    private int slabPosition;
+
+    private long coldTierBytes;
+
+    private final Counter hotTierHits = new Counter();
+
+    private final Counter promotions = new Counter();
+
+    private final Counter misses = new Counter();
+
+    private final Counter hotTierEvictions = new Counter();
+
+    private final Counter coldTierEvictions = new Counter();
+
+    private TieredClassFileResolver(ClassFileReader classFileReader, ClassBytesSource classBytesSource, int hotTierCapacity, long coldTierBudget) {
+        this.classFileReader = classFileReader;
+        this.classBytesSource = classBytesSource;
+        this.hotTierCapacity = hotTierCapacity;
+        this.coldTierBudget = coldTierBudget;
+        this.slabSize = (int) Math.min(coldTierBudget, MAX_SLAB_SIZE);
+        this.slabs = new ByteBuffer[slabSize == 0 ? 0 : (int) (coldTierBudget / slabSize)];
+        this.hotTier = new LinkedHashMap<String, ClassFile>(hotTierCapacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ClassFile> eldest) {
+                if (size() <= TieredClassFileResolver.this.hotTierCapacity) {
+                    return false;
+                }
+
+                hotTierEvictions.increment();
+
+                return true;
+            }
+        };
+    }
+
+    @Override
+    public ClassFile resolveClassFile(Type type) throws ClassFileResolutionException {
+        assert type != null : "Type can't be null";
+
+        final String typeName = type.getTypeName();
+
+        synchronized (hotTier) {
+            final ClassFile classFile = hotTier.get(typeName);
+
+            if (classFile != null) {
+                hotTierHits.increment();
+                Metrics.recordCacheAccess(MetricsRegistry.Cache.CLASS_FILE, true);
+                return classFile;
+            }
+        }
+
+        final CompressedClassBytes compressedClassBytes = getColdTier(typeName);
+        final ClassFile classFile;
+
+        if (compressedClassBytes != null) {
+            promotions.increment();
+            Metrics.recordCacheAccess(MetricsRegistry.Cache.CLASS_FILE, true);
+            classFile = read(typeName, compressedClassBytes.decompress());
+        } else {
+            misses.increment();
+            Metrics.recordCacheAccess(MetricsRegistry.Cache.CLASS_FILE, false);
+
+            final byte[] classBytes = classBytesSource.getClassBytes(type);
+
+            putColdTier(typeName, CompressedClassBytes.compress(classBytes));
+            classFile = read(typeName, classBytes);
+        }
+
+        synchronized (hotTier) {
+            final ClassFile concurrentlyResolvedClassFile = hotTier.putIfAbsent(typeName, classFile);
+
+            return (concurrentlyResolvedClassFile != null ? concurrentlyResolvedClassFile : classFile);
+        }
+    }
+
+    public int getHotTierSize() {
+        synchronized (hotTier) {
+            return hotTier.size();
+        }
+    }
+
+    public int getColdTierSize() {
+        synchronized (coldTier) {
+            return coldTier.size();
+        }
+    }
+
+    /**
+     * Returns the number of compressed bytes of the class files in the cold tier.
+     *
+     * @return The size of the cold tier in bytes.
+     */
+    public long getColdTierBytes() {
+        synchronized (coldTier) {
+            return coldTierBytes;
+        }
+    }
+
+    /**
+     * Returns the number of bytes allocated off heap for the cold tier, which never exceeds its budget.
+     *
+     * @return The off-heap memory held by the cold tier in bytes.
+     */
+    public long getColdTierAllocatedBytes() {
+        synchronized (coldTier) {
+            return Arrays.stream(slabs).filter(slab -> slab != null).count() * slabSize;
+        }
+    }
+
+    public int getHotTierCapacity() {
+        return hotTierCapacity;
+    }
+
+    public long getColdTierBudget() {
+        return coldTierBudget;
+    }
+
+    public long getHotTierHits() {
+        return hotTierHits.get();
+    }
+
+    /**
+     * Returns the number of class files that have been parsed from the cold tier into the hot tier.
+     *
+     * @return The number of promotions.
+     */
+    public long getPromotions() {
+        return promotions.get();
+    }
+
+    /**
+     * Returns the number of class files that were in neither tier and had to be read from the class bytes source.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getHotTierEvictions() {
+        return hotTierEvictions.get();
+    }
+
+    public long getColdTierEvictions() {
+        return coldTierEvictions.get();
+    }
+
+    public void clear() {
+        synchronized (hotTier) {
+            hotTier.clear();
+        }
+
+        synchronized (coldTier) {
+            coldTier.clear();
+            coldTierBytes = 0;
+            slabIndex = 0;
+            slabPosition = 0;
+
+            // Release the slabs; they're allocated again on demand
+            Arrays.fill(slabs, null);
+        }
+    }
+
+    private CompressedClassBytes getColdTier(String typeName) {
+        synchronized (coldTier) {
+            final ColdTierEntry entry = coldTier.get(typeName);
+
+            if (entry == null) {
+                return null;
+            }
+
+            // Copy the bytes while holding the lock, since the slab can be reclaimed once it's released
+            final byte[] data = new byte[entry.compressedLength];
+            final ByteBuffer slab = slabs[entry.slab].duplicate();
+
+            slab.position(entry.offset);
+            slab.get(data);
+
+            final CompressedClassBytes compressedClassBytes = new CompressedClassBytes(data, entry.length);
+
+            if (entry.slab != slabIndex) {
+                putColdTier(typeName, compressedClassBytes);
+            }
+
+            return compressedClassBytes;
+        }
+    }
+
+    private void putColdTier(String typeName, CompressedClassBytes compressedClassBytes) {
+        final int size = compressedClassBytes.data.length;
+
+        if (size > slabSize) {
+            return;
+        }
+
+        synchronized (coldTier) {
+            if (slabPosition + size > slabSize) {
+                slabIndex = (slabIndex + 1) % slabs.length;
+                slabPosition = 0;
+                reclaim(slabIndex);
+            }
+
+            if (slabs[slabIndex] == null) {
+                slabs[slabIndex] = ByteBuffer.allocateDirect(slabSize);
+            }
+
+            final ByteBuffer slab = slabs[slabIndex].duplicate();
+
+            slab.position(slabPosition);
+            slab.put(compressedClassBytes.data);
+
+            final ColdTierEntry replacedEntry = coldTier.put(typeName, new ColdTierEntry(slabIndex, slabPosition, size, compressedClassBytes.length));
+
+            if (replacedEntry != null) {
+                coldTierBytes -= replacedEntry.compressedLength;
+            }
+
+            coldTierBytes += size;
+            slabPosition += size;
+        }
+    }
+
+    private void reclaim(int slab) {
+        for (Iterator<ColdTierEntry> iterator = coldTier.values().iterator(); iterator.hasNext(); ) {
+            final ColdTierEntry entry = iterator.next();
+
+            if (entry.slab == slab) {
+                iterator.remove();
+                coldTierBytes -= entry.compressedLength;
+                coldTierEvictions.increment();
+            }
+        }
+    }
+
+    private ClassFile read(String typeName, byte[] classBytes) {
+        try {
+            return classFileReader.read(new ByteArrayInputStream(classBytes));
+        } catch (IOException e) {
+            throw new ClassFileResolutionException("Failed to read class file of type '" + typeName + "'", e);
+        }
+    }
+
+    private static final class CompressedClassBytes {
+
+        private final byte[] data;
+
+        private final int length;
+
+        private CompressedClassBytes(byte[] data, int length) {
+            this.data = data;
+            this.length = length;
+        }
+
+        private static CompressedClassBytes compress(byte[] bytes) {
+            return new CompressedClassBytes(ClassBytesCompression.compress(bytes), bytes.length);
+        }
+
+        private byte[] decompress() {
+            return ClassBytesCompression.decompress(data, length);
+        }
+    }
+
+    private static final class ColdTierEntry {
+
+        private final int slab;
+
+        private final int offset;
+
+        private final int compressedLength;
+
+        private final int length;
+
+        private ColdTierEntry(int slab, int offset, int compressedLength, int length) {
+            this.slab = slab;
+            this.offset = offset;
+            this.compressedLength = compressedLength;
+            this.length = length;
+        }
+    }
+
+    public static class Builder {
+
+        private ClassFileReader classFileReader;
+
+        private ClassBytesSource classBytesSource;
+
+        private int hotTierCapacity = 256;
+
+        private long coldTierBudget = 32L * 1024 * 1024;
+
+        public Builder setClassFileReader(ClassFileReader classFileReader) {
+            assert classFileReader != null : "Class file reader can't be null";
+            this.classFileReader = classFileReader;
+            return this;
+        }
+
+        /**
+         * Sets the source from which class files that are in neither tier are read. Defaults to the context class
+         * loader of the thread that builds the resolver.
+         *
+         * @param classBytesSource The source of class file bytes.
+         * @return This builder.
+         */
+        public Builder setClassBytesSource(ClassBytesSource classBytesSource) {
+            assert classBytesSource != null : "Class bytes source can't be null";
+            this.classBytesSource = classBytesSource;
+            return this;
+        }
+
+        /**
+         * Reads class files that are in neither tier as resources of a class loader.
+         *
+         * @param classLoader The class loader from which class files should be read.
+         * @return This builder.
+         */
+        public Builder setClassLoader(ClassLoader classLoader) {
+            assert classLoader != null : "Class loader can't be null";
+            this.classBytesSource = new ClassLoaderClassBytesSource(classLoader);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of parsed class files held by the hot tier. Defaults to 256.
+         *
+         * @param hotTierCapacity The capacity of the hot tier.
+         * @return This builder.
+         */
+        public Builder setHotTierCapacity(int hotTierCapacity) {
+            assert hotTierCapacity > 0 : "Hot tier capacity must be positive";
+            this.hotTierCapacity = hotTierCapacity;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of bytes allocated off heap for the cold tier. Defaults to 32 MB.
+         *
+         * @param coldTierBudget The budget of the cold tier in bytes.
+         * @return This builder.
+         */
+        public Builder setColdTierBudget(long coldTierBudget) {
+            assert coldTierBudget >= 0 : "Cold tier budget can't be negative";
+            this.coldTierBudget = coldTierBudget;
+            return this;
+        }
+
+        public TieredClassFileResolver build() {
+            if (classFileReader == null) {
+                throw new IllegalStateException("Class file reader must be set");
+            }
+
+            final ClassBytesSource classBytesSource = (this.classBytesSource != null
+                    ? this.classBytesSource
+                    : new ClassLoaderClassBytesSource(Thread.currentThread().getContextClassLoader()));
+
+            return new TieredClassFileResolver(classFileReader, classBytesSource, hotTierCapacity, coldTierBudget);
+        }
+    }
+}
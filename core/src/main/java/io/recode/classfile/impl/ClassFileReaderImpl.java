@@ -1,12 +1,17 @@
 package io.recode.classfile.impl;
 
+import io.recode.TypeResolver;
 import io.recode.classfile.*;
 import io.recode.classfile.impl.*;
 import io.recode.util.Range;
+import io.recode.jfr.RecodeEvents;
+import io.recode.metrics.Metrics;
+import io.recode.metrics.MetricsRegistry;
 import io.recode.model.MethodSignature;
 
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Type;
@@ -22,11 +27,53 @@ public final class ClassFileReaderImpl implements ClassFileReader {
 
     private static final int MAGIC_NUMBER = 0xCAFEBABE;
 
+    private final TypeResolver typeResolver;
+
+    public ClassFileReaderImpl() {
+        this.typeResolver = null;
+    }
+
+    /**
+     * Creates a class file reader that resolves the types in signatures and exception tables through the
+     * provided type resolver rather than by loading them.
+     *
+     * @param typeResolver The resolver of referenced types.
+     */
+    public ClassFileReaderImpl(TypeResolver typeResolver) {
+        assert typeResolver != null : "Type resolver can't be null";
+
+        this.typeResolver = typeResolver;
+    }
+
     @Override
     public ClassFile read(InputStream in) throws IOException, ClassFormatError {
         assert in != null : "Input stream can't be null";
 
-        final DataInputStream din = new DataInputStream(in);
+        final MetricsRegistry metrics = Metrics.registry();
+        final RecodeEvents.ClassFileRead event = RecodeEvents.beginClassFileRead();
+
+        if (metrics == null && !event.isEnabled()) {
+            return read(new DataInputStream(in));
+        }
+
+        final long start = System.nanoTime();
+        final CountingInputStream countingIn = new CountingInputStream(in);
+        final ClassFile classFile = read(new DataInputStream(countingIn));
+
+        if (metrics != null) {
+            metrics.recordClassFileRead(countingIn.count, System.nanoTime() - start);
+        }
+
+        if (event.isEnabled()) {
+            event.setClassName(classFile.getName());
+            event.setBytes(countingIn.count);
+            event.commit();
+        }
+
+        return classFile;
+    }
+
+    private ClassFile read(DataInputStream din) throws IOException, ClassFormatError {
         final int magicNumber = din.readInt();
 
         if (magicNumber != MAGIC_NUMBER) {
@@ -75,9 +122,9 @@ public final class ClassFileReaderImpl implements ClassFileReader {
             final Attribute[] attributes = readAttributes(din, constantPool);
 
             if ("<init>".equals(name)) {
-                constructors.add(new DefaultConstructor(classFileSupplier, accessFlags, name, MethodSignature.parse(signature), attributes));
+                constructors.add(new DefaultConstructor(classFileSupplier, accessFlags, name, parseSignature(signature), attributes));
             } else {
-                methods.add(new DefaultMethod(classFileSupplier, accessFlags, name, MethodSignature.parse(signature), attributes));
+                methods.add(new DefaultMethod(classFileSupplier, accessFlags, name, parseSignature(signature), attributes));
             }
         }
     }
@@ -91,7 +138,7 @@ public final class ClassFileReaderImpl implements ClassFileReader {
             final String signature = constantPool.getString(din.readShort());
             final Attribute[] attributes = readAttributes(din, constantPool);
 
-            fields[i] = new DefaultField(classFileSupplier, accessFlags, name, MethodSignature.parseType(signature), attributes);
+            fields[i] = new DefaultField(classFileSupplier, accessFlags, name, parseType(signature), attributes);
         }
 
         return fields;
@@ -133,7 +180,7 @@ public final class ClassFileReaderImpl implements ClassFileReader {
                         final int startPC = attributeStream.readShort();
                         final int variableLength = attributeStream.readShort();
                         final String variableName = constantPool.getString(attributeStream.readShort());
-                        final Type type = MethodSignature.parseType(constantPool.getString(attributeStream.readShort()));
+                        final Type type = parseType(constantPool.getString(attributeStream.readShort()));
                         final int index = attributeStream.readShort();
 
                         localVariables[j] = new LocalVariableImpl(startPC, variableLength, variableName, type, index);
@@ -211,9 +258,21 @@ public final class ClassFileReaderImpl implements ClassFileReader {
         return entries;
     }
 
+    private MethodSignature parseSignature(String signature) {
+        return (typeResolver == null ? MethodSignature.parse(signature) : MethodSignature.parse(signature, typeResolver));
+    }
+
+    private Type parseType(String signature) {
+        return (typeResolver == null ? MethodSignature.parseType(signature) : MethodSignature.parseType(signature, typeResolver));
+    }
+
     private Type getClassForName(final String catchClassName) {
         final String javaClassName = catchClassName.replace('/', '.');
 
+        if (typeResolver != null) {
+            return typeResolver.resolveType(javaClassName);
+        }
+
         try {
             return Class.forName(javaClassName);
         } catch (ClassNotFoundException e) {
@@ -304,4 +363,44 @@ public final class ClassFileReaderImpl implements ClassFileReader {
 
         return builder.create();
     }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+
+            if (b != -1) {
+                count++;
+            }
+
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int n = super.read(b, off, len);
+
+            if (n > 0) {
+                count += n;
+            }
+
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(n);
+
+            count += skipped;
+
+            return skipped;
+        }
+    }
 }
@@ -4,6 +4,7 @@ import io.recode.util.io.ByteBufferInputStream;
 import io.recode.classfile.Attribute;
 import io.recode.classfile.CodeAttribute;
 import io.recode.classfile.ExceptionTableEntry;
+import io.recode.classfile.InstructionIndex;
 import io.recode.classfile.LocalVariableTable;
 
 import java.io.InputStream;
@@ -24,6 +25,8 @@ public final class CodeAttributeImpl implements CodeAttribute {
 
     private final List<Attribute> attributes;
 
+    private volatile InstructionIndex instructionIndex;
+
     public CodeAttributeImpl(int maxStack, int maxLocals, ByteBuffer byteCode,
                              List<ExceptionTableEntry> exceptionTable, List<Attribute> attributes) {
         assert maxStack >= 0 : "Max-stack must be positive";
@@ -69,6 +72,22 @@ public final class CodeAttributeImpl implements CodeAttribute {
         return Collections.unmodifiableList(attributes);
     }
 
+    @Override
+    public InstructionIndex getInstructionIndex() {
+        InstructionIndex instructionIndex = this.instructionIndex;
+
+        if (instructionIndex == null) {
+            final byte[] code = new byte[byteCode.remaining()];
+
+            byteCode.asReadOnlyBuffer().get(code);
+
+            instructionIndex = InstructionIndex.build(code, exceptionTable);
+            this.instructionIndex = instructionIndex;
+        }
+
+        return instructionIndex;
+    }
+
     @Override
     public CodeAttribute withLocalVariableTable(LocalVariableTable localVariableTable) {
         assert localVariableTable != null : "Local variable table can't be null";
@@ -79,6 +98,10 @@ public final class CodeAttributeImpl implements CodeAttribute {
 
         newAttributes[newAttributes.length - 1] = localVariableTable;
 
-        return new CodeAttributeImpl(maxStack, maxLocals, byteCode, exceptionTable, Arrays.asList(newAttributes));
+        final CodeAttributeImpl codeAttribute = new CodeAttributeImpl(maxStack, maxLocals, byteCode, exceptionTable, Arrays.asList(newAttributes));
+
+        codeAttribute.instructionIndex = instructionIndex;
+
+        return codeAttribute;
     }
 }
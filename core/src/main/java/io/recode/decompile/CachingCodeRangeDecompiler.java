@@ -0,0 +1,46 @@
+package io.recode.decompile;
+
+import io.recode.classfile.Method;
+import io.recode.model.Element;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * A code range decompiler that decompiles each method once and answers all subsequent queries for the method
+ * by selecting the statements within the requested lines. Methods that can't be decompiled as a whole are
+ * decompiled range by range by a fallback decompiler.
+ */
+public final class CachingCodeRangeDecompiler implements CodeRangeDecompiler {
+
+    private final DecompiledMethodCache decompiledMethodCache;
+
+    private final CodeRangeDecompiler fallbackDecompiler;
+
+    public CachingCodeRangeDecompiler(Decompiler decompiler) {
+        this(new DecompiledMethodCache(decompiler), new DefaultCodeRangeDecompiler(decompiler));
+    }
+
+    public CachingCodeRangeDecompiler(DecompiledMethodCache decompiledMethodCache, CodeRangeDecompiler fallbackDecompiler) {
+        assert decompiledMethodCache != null : "Decompiled method cache can't be null";
+        assert fallbackDecompiler != null : "Fallback decompiler can't be null";
+
+        this.decompiledMethodCache = decompiledMethodCache;
+        this.fallbackDecompiler = fallbackDecompiler;
+    }
+
+    @Override
+    public Element[] decompileRange(Method method, int fromLineNumber, int toLineNumber) throws IOException {
+        assert method != null : "Method can't be null";
+        assert fromLineNumber >= 0 : "From line number must be positive";
+        assert toLineNumber >= fromLineNumber : "To line number must be greater than or equal to from line number";
+
+        final Optional<DecompiledMethod> decompiledMethod = decompiledMethodCache.get(method);
+
+        if (!decompiledMethod.isPresent()) {
+            return fallbackDecompiler.decompileRange(method, fromLineNumber, toLineNumber);
+        }
+
+        return decompiledMethod.get().slice(DefaultCodeRangeDecompiler.getCodeRange(method, fromLineNumber, toLineNumber));
+    }
+}
@@ -19,4 +19,10 @@ public interface CodeLocationDecompiler {
 
     CodePointer[] decompileCodeLocation(CodeLocation codeLocation, DecompilationProgressCallback callback) throws IOException;
 
+    default DecompilationResult<CodePointer> decompileCodeLocation(CodeLocation codeLocation, DecompilationProgressCallback callback, DecompilationBudget budget) throws IOException {
+        assert budget != null : "Budget can't be null";
+
+        return new DecompilationResult<>(decompileCodeLocation(codeLocation, callback));
+    }
+
 }
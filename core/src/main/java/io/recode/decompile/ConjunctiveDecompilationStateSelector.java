@@ -0,0 +1,42 @@
+package io.recode.decompile;
+
+/**
+ * Selector that matches if both of its selectors match. The selectors are exposed so that a
+ * {@link DecompilationStateSelectorCache} can memoize them individually, since a selector is often part of
+ * several conjunctions.
+ */
+final class ConjunctiveDecompilationStateSelector implements DecompilationStateSelector {
+
+    private final DecompilationStateSelector leftSelector;
+
+    private final DecompilationStateSelector rightSelector;
+
+    private final Dependencies dependencies;
+
+    ConjunctiveDecompilationStateSelector(DecompilationStateSelector leftSelector, DecompilationStateSelector rightSelector) {
+        assert leftSelector != null : "Left selector can't be null";
+        assert rightSelector != null : "Right selector can't be null";
+
+        this.leftSelector = leftSelector;
+        this.rightSelector = rightSelector;
+        this.dependencies = leftSelector.getDependencies().and(rightSelector.getDependencies());
+    }
+
+    DecompilationStateSelector getLeftSelector() {
+        return leftSelector;
+    }
+
+    DecompilationStateSelector getRightSelector() {
+        return rightSelector;
+    }
+
+    @Override
+    public boolean select(DecompilationContext context, int byteCode) {
+        return leftSelector.select(context, byteCode) && rightSelector.select(context, byteCode);
+    }
+
+    @Override
+    public Dependencies getDependencies() {
+        return dependencies;
+    }
+}
@@ -28,6 +28,16 @@ public final class CoreDecompilerDelegation implements DecompilerDelegation {
         }
     }
 
+    /**
+     * Returns a configuration that is built once and shared by all decompilers that use the default
+     * configuration. Configurations are immutable once built, so sharing is safe.
+     *
+     * @return The shared core decompiler configuration.
+     */
+    public static DecompilerConfiguration sharedConfiguration() {
+        return SharedConfigurationHolder.CONFIGURATION;
+    }
+
     public static DecompilerConfiguration configuration() {
         final DecompilerConfigurationBuilder configurationBuilder = DecompilerConfigurationImpl.newBuilder();
 
@@ -35,4 +45,9 @@ public final class CoreDecompilerDelegation implements DecompilerDelegation {
 
         return configurationBuilder.build();
     }
+
+    private static final class SharedConfigurationHolder {
+
+        private static final DecompilerConfiguration CONFIGURATION = configuration();
+    }
 }
@@ -0,0 +1,100 @@
+package io.recode.decompile;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the work performed when decompiling a method. A budget can limit the wall clock time of the
+ * decompilation, the number of decoded instructions and the number of elements created. Decompilation that
+ * exceeds its budget is stopped and returns a partial result, see {@link DecompilationResult#isTruncated()}.
+ * Budgets are immutable; the <code>with</code>-methods return a new budget.
+ */
+public final class DecompilationBudget {
+
+    private static final DecompilationBudget UNLIMITED = new DecompilationBudget(Long.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    private final long timeoutNanos;
+
+    private final int maxInstructions;
+
+    private final int maxElements;
+
+    private DecompilationBudget(long timeoutNanos, int maxInstructions, int maxElements) {
+        this.timeoutNanos = timeoutNanos;
+        this.maxInstructions = maxInstructions;
+        this.maxElements = maxElements;
+    }
+
+    public static DecompilationBudget unlimited() {
+        return UNLIMITED;
+    }
+
+    public DecompilationBudget withTimeout(long timeout, TimeUnit unit) {
+        assert timeout > 0 : "Timeout must be positive";
+        assert unit != null : "Unit can't be null";
+
+        return new DecompilationBudget(unit.toNanos(timeout), maxInstructions, maxElements);
+    }
+
+    public DecompilationBudget withMaxInstructions(int maxInstructions) {
+        assert maxInstructions > 0 : "Max instructions must be positive";
+
+        return new DecompilationBudget(timeoutNanos, maxInstructions, maxElements);
+    }
+
+    public DecompilationBudget withMaxElements(int maxElements) {
+        assert maxElements > 0 : "Max elements must be positive";
+
+        return new DecompilationBudget(timeoutNanos, maxInstructions, maxElements);
+    }
+
+    public boolean hasTimeout() {
+        return timeoutNanos != Long.MAX_VALUE;
+    }
+
+    public long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    public int getMaxInstructions() {
+        return maxInstructions;
+    }
+
+    public int getMaxElements() {
+        return maxElements;
+    }
+
+    public boolean isUnlimited() {
+        return !hasTimeout() && maxInstructions == Integer.MAX_VALUE && maxElements == Integer.MAX_VALUE;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        DecompilationBudget that = (DecompilationBudget) o;
+
+        if (timeoutNanos != that.timeoutNanos) return false;
+        if (maxInstructions != that.maxInstructions) return false;
+        if (maxElements != that.maxElements) return false;
+
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (timeoutNanos ^ (timeoutNanos >>> 32));
+        result = 31 * result + maxInstructions;
+        result = 31 * result + maxElements;
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "DecompilationBudget{" +
+                "timeoutNanos=" + timeoutNanos +
+                ", maxInstructions=" + maxInstructions +
+                ", maxElements=" + maxElements +
+                '}';
+    }
+}
@@ -35,7 +35,9 @@ public interface DecompilationContext {
      * in the list.
      *
      * @return A list of the currently stacked expressions.
+     * @deprecated The stack is copied on every call; use {@link #getStackSize()} and {@link #peek(int)}.
      */
+    @Deprecated
     List<Expression> getStackedExpressions();
 
     /**
@@ -91,6 +93,16 @@ public interface DecompilationContext {
 
     Expression peek() throws IllegalStateException;
 
+    /**
+     * Returns a stacked expression without popping it or copying the stack.
+     *
+     * @param depth The depth of the expression in the stack, where 0 is the top of the stack, 1 the expression
+     *              beneath it etc.
+     * @return The expression at the provided depth.
+     * @throws java.lang.IllegalStateException Thrown if fewer than <code>depth + 1</code> expressions are stacked.
+     */
+    Expression peek(int depth) throws IllegalStateException;
+
     /**
      * The statements that have been enlisted thus far in the context.
      *
@@ -116,5 +128,12 @@ public interface DecompilationContext {
      */
     boolean isAborted();
 
+    /**
+     * Returns the factory through which elements should be created. Elements created by the factory carry the
+     * program counter and line number of the current instruction; elements that are created otherwise have
+     * no meta data when they're pushed or enlisted.
+     *
+     * @return The model factory of the decompilation.
+     */
     ModelFactory getModelFactory();
 }
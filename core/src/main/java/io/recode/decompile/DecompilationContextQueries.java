@@ -1,75 +1,37 @@
 package io.recode.decompile;
 
 import io.recode.decompile.DecompilationContext;
+import io.recode.model.CompiledModelQuery;
 import io.recode.model.Expression;
 import io.recode.model.ModelQuery;
 import io.recode.util.Sequence;
 import io.recode.model.Statement;
 
-import java.util.List;
-import java.util.Optional;
-
 public final class DecompilationContextQueries {
 
-    private static final ModelQuery<DecompilationContext, Statement> LAST_DECOMPILED_STATEMENT = new ModelQuery<DecompilationContext, Statement>() {
-        @Override
-        public Optional<Statement> from(DecompilationContext context) {
-            if (context == null) {
-                return Optional.empty();
-            }
+    private static final ModelQuery<DecompilationContext, Statement> LAST_DECOMPILED_STATEMENT = CompiledModelQuery.of(context -> {
+        final Sequence<Statement> statements = context.getStatements();
 
-            return context.getStatements().last().optional();
-        }
-    };
+        return (statements.isEmpty() ? null : statements.last().get());
+    });
 
-    private static final ModelQuery<DecompilationContext, Expression> PREVIOUS_VALUE = new ModelQuery<DecompilationContext, Expression>() {
-        @Override
-        public Optional<Expression> from(DecompilationContext context) {
-            if (context == null) {
-                return Optional.empty();
-            }
+    private static final ModelQuery<DecompilationContext, Expression> PREVIOUS_VALUE = CompiledModelQuery.of(context ->
+            context.getStackSize() < 2 ? null : context.peek(1));
 
-            final List<Expression> stack = context.getStackedExpressions();
+    private static final ModelQuery<DecompilationContext, Expression> CURRENT_VALUE = CompiledModelQuery.of(context ->
+            context.hasStackedExpressions() ? context.peek() : null);
 
-            if (stack.size() < 2) {
-                return Optional.empty();
-            }
+    public static final ModelQuery<DecompilationContext, Statement> SECOND_TO_LAST = CompiledModelQuery.of(context -> {
+        final Sequence.SingleElement<Statement> last = context.getStatements().last();
 
-            return Optional.of(stack.get(stack.size() - 2));
+        if (!last.exists()) {
+            return null;
         }
-    };
-
-    private static final ModelQuery<DecompilationContext, Expression> CURRENT_VALUE = new ModelQuery<DecompilationContext, Expression>() {
-        @Override
-        public Optional<Expression> from(DecompilationContext from) {
-            return from == null || !from.hasStackedExpressions()
-                    ? Optional.<Expression>empty()
-                    : Optional.of(from.peek());
-        }
-    };
-
-    public static final ModelQuery<DecompilationContext, Statement> SECOND_TO_LAST = new ModelQuery<DecompilationContext, Statement>() {
-        @Override
-        public Optional<Statement> from(DecompilationContext from) {
-            if (from == null) {
-                return Optional.empty();
-            }
 
-            final Sequence.SingleElement<Statement> last = from.getStatements().last();
+        final Sequence.SingleElement<Statement> previous = last.previous();
 
-            if (!last.exists()) {
-                return Optional.empty();
-            }
-
-            final Sequence.SingleElement<Statement> previous = last.previous();
-
-            if (!previous.exists()) {
-                return Optional.empty();
-            }
-
-            return Optional.of(previous.get());
-        }
-    };
+        return (previous.exists() ? previous.get() : null);
+    });
 
     public static ModelQuery<DecompilationContext, Statement> lastStatement() {
         return LAST_DECOMPILED_STATEMENT;
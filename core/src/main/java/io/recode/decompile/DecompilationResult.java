@@ -0,0 +1,50 @@
+package io.recode.decompile;
+
+import java.util.Optional;
+
+/**
+ * The result of a decompilation performed within a {@link DecompilationBudget}. If the budget was exceeded,
+ * the result is truncated and contains the statements decompiled so far, followed by any expressions that
+ * remained on the stack when the decompilation was stopped.
+ *
+ * @param <T> The type of the decompiled elements.
+ */
+public final class DecompilationResult<T> {
+
+    private final T[] result;
+
+    private final Truncation truncation;
+
+    public DecompilationResult(T[] result) {
+        this(result, null);
+    }
+
+    public DecompilationResult(T[] result, Truncation truncation) {
+        assert result != null : "Result can't be null";
+
+        this.result = result;
+        this.truncation = truncation;
+    }
+
+    public T[] get() {
+        return result;
+    }
+
+    public boolean isTruncated() {
+        return truncation != null;
+    }
+
+    public Optional<Truncation> getTruncation() {
+        return Optional.ofNullable(truncation);
+    }
+
+    public enum Truncation {
+
+        TIMEOUT,
+
+        INSTRUCTION_LIMIT,
+
+        ELEMENT_LIMIT
+
+    }
+}
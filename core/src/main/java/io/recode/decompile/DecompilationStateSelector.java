@@ -3,14 +3,142 @@ package io.recode.decompile;
 @FunctionalInterface
 public interface DecompilationStateSelector {
 
-    DecompilationStateSelector ALL = (context, byteCode) -> true;
+    DecompilationStateSelector ALL = new DecompilationStateSelector() {
+        @Override
+        public boolean select(DecompilationContext context, int byteCode) {
+            return true;
+        }
+
+        @Override
+        public Dependencies getDependencies() {
+            return Dependencies.NONE;
+        }
+    };
 
     boolean select(DecompilationContext context, int byteCode);
 
+    /**
+     * Returns the parts of the decompilation state that the selector inspects. A selector with known dependencies
+     * must select the same state as long as the declared parts are unchanged, which allows the selection to be
+     * memoized within an instruction step, see {@link DecompilationStateSelectorCache}.
+     *
+     * @return The dependencies of the selector; {@link Dependencies#UNKNOWN} by default.
+     */
+    default Dependencies getDependencies() {
+        return Dependencies.UNKNOWN;
+    }
+
     default DecompilationStateSelector and(DecompilationStateSelector other) {
         assert other != null : "Other can't be null";
 
-        return (context,byteCode) -> DecompilationStateSelector.this.select(context, byteCode) && other.select(context, byteCode);
+        return new ConjunctiveDecompilationStateSelector(this, other);
     }
 
+    /**
+     * Describes the parts of the decompilation state that a selector depends on.
+     */
+    final class Dependencies {
+
+        /**
+         * The selector doesn't inspect the decompilation state.
+         */
+        public static final Dependencies NONE = new Dependencies(true, -1, false);
+
+        /**
+         * The selector can inspect any part of the decompilation state; the selection can't be memoized.
+         */
+        public static final Dependencies UNKNOWN = new Dependencies(false, -1, false);
+
+        private final boolean known;
+
+        private final int stackDepth;
+
+        private final boolean lastStatement;
+
+        private Dependencies(boolean known, int stackDepth, boolean lastStatement) {
+            this.known = known;
+            this.stackDepth = stackDepth;
+            this.lastStatement = lastStatement;
+        }
+
+        /**
+         * Returns dependencies to the size of the stack and the expressions on top of the stack.
+         *
+         * @param depth The number of expressions on top of the stack that are inspected; 0 if only the size
+         *              of the stack is inspected.
+         * @return Dependencies to the stack.
+         */
+        public static Dependencies stack(int depth) {
+            assert depth >= 0 : "Depth can't be negative";
+
+            return new Dependencies(true, depth, false);
+        }
+
+        /**
+         * Returns dependencies to the last statement, i.e. to whether any statement exists and which it is.
+         *
+         * @return Dependencies to the last statement.
+         */
+        public static Dependencies lastStatement() {
+            return new Dependencies(true, -1, true);
+        }
+
+        public Dependencies and(Dependencies other) {
+            assert other != null : "Other can't be null";
+
+            if (!known || !other.known) {
+                return UNKNOWN;
+            }
+
+            return new Dependencies(true, Math.max(stackDepth, other.stackDepth), lastStatement || other.lastStatement);
+        }
+
+        public boolean isKnown() {
+            return known;
+        }
+
+        public boolean dependsOnStack() {
+            return stackDepth >= 0;
+        }
+
+        /**
+         * Returns the number of expressions on top of the stack that are inspected.
+         *
+         * @return The inspected depth of the stack, or <code>-1</code> if the stack is not inspected.
+         */
+        public int getStackDepth() {
+            return stackDepth;
+        }
+
+        public boolean dependsOnLastStatement() {
+            return lastStatement;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            final Dependencies other = (Dependencies) o;
+
+            return known == other.known && stackDepth == other.stackDepth && lastStatement == other.lastStatement;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (known ? 1 : 0);
+            result = 31 * result + stackDepth;
+            result = 31 * result + (lastStatement ? 1 : 0);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            if (!known) {
+                return "Dependencies{unknown}";
+            }
+
+            return "Dependencies{stackDepth=" + stackDepth + ", lastStatement=" + lastStatement + "}";
+        }
+    }
 }
@@ -0,0 +1,167 @@
+package io.recode.decompile;
+
+import io.recode.model.Expression;
+import io.recode.model.Statement;
+
+import java.util.IdentityHashMap;
+
+/**
+ * Memoizes the results of decompilation state selectors within an instruction step. The main delegates and the
+ * advisory and correctional enhancements of an instruction are selected separately and often share selectors
+ * (e.g. through conjunctions with {@link DecompilationStateSelectors#atLeastOneStatement()}); the cache evaluates
+ * such a selector once as long as the state it depends on is unchanged.
+ * <p>
+ * A result is reused if it was recorded in the current step and the state declared through
+ * {@link DecompilationStateSelector#getDependencies()} is the same, i.e. the stack has the same size and the same
+ * expressions on top and the last statement is the same. Selectors with unknown dependencies are always evaluated.
+ * A cache is not thread safe; it's intended to be used by a single decompilation at a time.
+ */
+public final class DecompilationStateSelectorCache {
+
+    private final IdentityHashMap<DecompilationStateSelector, Entry> entries = new IdentityHashMap<>();
+
+    private int step;
+
+    private long hitCount;
+
+    private long evaluationCount;
+
+    /**
+     * Starts a new instruction step. Results recorded during previous steps are not reused.
+     */
+    public void nextStep() {
+        step++;
+    }
+
+    public boolean select(DecompilationStateSelector selector, DecompilationContext context, int byteCode) {
+        assert selector != null : "Selector can't be null";
+        assert context != null : "Context can't be null";
+
+        if (selector instanceof ConjunctiveDecompilationStateSelector) {
+            final ConjunctiveDecompilationStateSelector conjunction = (ConjunctiveDecompilationStateSelector) selector;
+
+            return select(conjunction.getLeftSelector(), context, byteCode)
+                    && select(conjunction.getRightSelector(), context, byteCode);
+        }
+
+        final DecompilationStateSelector.Dependencies dependencies = selector.getDependencies();
+
+        if (!dependencies.isKnown() || dependencies == DecompilationStateSelector.Dependencies.NONE) {
+            evaluationCount++;
+            return selector.select(context, byteCode);
+        }
+
+        Entry entry = entries.get(selector);
+
+        if (entry == null) {
+            entry = new Entry(dependencies);
+            entries.put(selector, entry);
+        } else if (entry.step == step && entry.matches(context)) {
+            hitCount++;
+            return entry.result;
+        }
+
+        evaluationCount++;
+
+        final boolean result = selector.select(context, byteCode);
+
+        entry.record(step, result, context);
+
+        return result;
+    }
+
+    /**
+     * Discards all recorded results and the state they were recorded for. The cache can be reused afterwards.
+     */
+    public void clear() {
+        step++;
+
+        for (Entry entry : entries.values()) {
+            entry.reset();
+        }
+    }
+
+    /**
+     * Removes all selectors and their recorded results from the cache, e.g. when the cache is reused with the
+     * selectors of another decompiler configuration.
+     */
+    public void removeAll() {
+        step++;
+        entries.clear();
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getEvaluationCount() {
+        return evaluationCount;
+    }
+
+    private static final class Entry {
+
+        private final boolean dependsOnStack;
+
+        private final boolean dependsOnLastStatement;
+
+        private final Expression[] stackTop;
+
+        private int step = -1;
+
+        private boolean result;
+
+        private int stackSize;
+
+        private Statement lastStatement;
+
+        private Entry(DecompilationStateSelector.Dependencies dependencies) {
+            this.dependsOnStack = dependencies.dependsOnStack();
+            this.dependsOnLastStatement = dependencies.dependsOnLastStatement();
+            this.stackTop = new Expression[Math.max(dependencies.getStackDepth(), 0)];
+        }
+
+        private boolean matches(DecompilationContext context) {
+            if (dependsOnStack) {
+                final int currentStackSize = context.getStackSize();
+
+                if (currentStackSize != stackSize) {
+                    return false;
+                }
+
+                for (int depth = 0, n = Math.min(stackTop.length, currentStackSize); depth < n; depth++) {
+                    if (context.peek(depth) != stackTop[depth]) {
+                        return false;
+                    }
+                }
+            }
+
+            return !dependsOnLastStatement || context.getStatements().peekLast() == lastStatement;
+        }
+
+        private void record(int step, boolean result, DecompilationContext context) {
+            this.step = step;
+            this.result = result;
+
+            if (dependsOnStack) {
+                stackSize = context.getStackSize();
+
+                for (int depth = 0; depth < stackTop.length; depth++) {
+                    stackTop[depth] = (depth < stackSize ? context.peek(depth) : null);
+                }
+            }
+
+            if (dependsOnLastStatement) {
+                lastStatement = context.getStatements().peekLast();
+            }
+        }
+
+        private void reset() {
+            step = -1;
+            lastStatement = null;
+
+            for (int i = 0; i < stackTop.length; i++) {
+                stackTop[i] = null;
+            }
+        }
+    }
+}
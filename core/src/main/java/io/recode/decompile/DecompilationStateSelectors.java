@@ -12,6 +12,8 @@ import io.recode.util.Stack;
 import java.util.Arrays;
 import java.util.function.Predicate;
 
+import static io.recode.decompile.DecompilationStateSelector.Dependencies;
+
 @DSL
 public final class DecompilationStateSelectors {
 
@@ -20,8 +22,17 @@ public final class DecompilationStateSelectors {
         public boolean select(DecompilationContext context, int byteCode) {
             return !context.getStatements().isEmpty();
         }
+
+        @Override
+        public Dependencies getDependencies() {
+            return Dependencies.lastStatement();
+        }
     };
 
+    private static final DecompilationStateSelector[] ELEMENT_IS_STACKED = Arrays.stream(ElementType.values())
+            .map(DecompilationStateSelectors::elementIsStackedUnCached)
+            .toArray(DecompilationStateSelector[]::new);
+
     public static DecompilationStateSelector atLeastOneStatement() {
         return AT_LAST_ONE_STATEMENT;
     }
@@ -44,44 +55,91 @@ public final class DecompilationStateSelectors {
 
     public static DecompilationStateSelector elementIsStacked(ElementType elementType) {
         assert elementType != null : "Element type can't be null";
-        return (context,byteCode) -> !context.getStack().isEmpty() && context.getStack().peek().getElementType() == elementType;
+        return ELEMENT_IS_STACKED[elementType.ordinal()];
+    }
+
+    /**
+     * Declares the dependencies of a selector, e.g. of a lambda selector, so that its selection can be memoized.
+     *
+     * @param dependencies The parts of the decompilation state that the selector inspects.
+     * @param selector The selector.
+     * @return A selector that delegates to the provided selector and has the provided dependencies.
+     */
+    public static DecompilationStateSelector dependingOn(Dependencies dependencies, DecompilationStateSelector selector) {
+        assert dependencies != null : "Dependencies can't be null";
+        assert selector != null : "Selector can't be null";
+
+        return new DecompilationStateSelector() {
+            @Override
+            public boolean select(DecompilationContext context, int byteCode) {
+                return selector.select(context, byteCode);
+            }
+
+            @Override
+            public Dependencies getDependencies() {
+                return dependencies;
+            }
+        };
     }
 
     @SafeVarargs
     public static DecompilationStateSelector elementsAreStacked(Predicate<Expression>... predicates) {
         assert predicates != null : "Predicates can't be null";
 
+        final Dependencies dependencies = Dependencies.stack(predicates.length);
+
         return new DecompilationStateSelector() {
             @Override
             public boolean select(DecompilationContext context, int byteCode) {
                 final Stack<Expression> stack = context.getStack();
 
-                if (stack.size() < predicates.length) {
+                final int offset = stack.size() - predicates.length;
+
+                if (offset < 0) {
                     return false;
                 }
 
-                int index = 0;
-
-                for (Expression expression : stack.tail(-predicates.length)) {
-                    if (!predicates[index++].test(expression)) {
+                for (int i = 0; i < predicates.length; i++) {
+                    if (!predicates[i].test(stack.get(offset + i))) {
                         return false;
                     }
                 }
 
                 return true;
             }
+
+            @Override
+            public Dependencies getDependencies() {
+                return dependencies;
+            }
         };
     }
 
     public static DecompilationStateSelector elementsAreStacked(Expression... expressions) {
+        final Dependencies dependencies = Dependencies.stack(expressions.length);
+
         return new DecompilationStateSelector() {
             @Override
             public boolean select(DecompilationContext context, int byteCode) {
-                if (context.getStack().size() < expressions.length) {
+                final Stack<Expression> stack = context.getStack();
+                final int offset = stack.size() - expressions.length;
+
+                if (offset < 0) {
                     return false;
                 }
 
-                return context.getStack().tail(-expressions.length).equals(Arrays.asList(expressions));
+                for (int i = 0; i < expressions.length; i++) {
+                    if (!expressions[i].equals(stack.get(offset + i))) {
+                        return false;
+                    }
+                }
+
+                return true;
+            }
+
+            @Override
+            public Dependencies getDependencies() {
+                return dependencies;
             }
         };
     }
@@ -98,6 +156,11 @@ public final class DecompilationStateSelectors {
 
                 return last.get().getElementType() == elementType;
             }
+
+            @Override
+            public Dependencies getDependencies() {
+                return Dependencies.lastStatement();
+            }
         };
     }
 
@@ -107,6 +170,25 @@ public final class DecompilationStateSelectors {
             public boolean select(DecompilationContext context, int byteCode) {
                 return context.getStack().size() >= count;
             }
+
+            @Override
+            public Dependencies getDependencies() {
+                return Dependencies.stack(0);
+            }
+        };
+    }
+
+    private static DecompilationStateSelector elementIsStackedUnCached(ElementType elementType) {
+        return new DecompilationStateSelector() {
+            @Override
+            public boolean select(DecompilationContext context, int byteCode) {
+                return !context.getStack().isEmpty() && context.getStack().peek().getElementType() == elementType;
+            }
+
+            @Override
+            public Dependencies getDependencies() {
+                return Dependencies.stack(1);
+            }
         };
     }
 
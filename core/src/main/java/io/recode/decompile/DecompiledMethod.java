@@ -0,0 +1,163 @@
+package io.recode.decompile;
+
+import io.recode.classfile.LineNumberTable;
+import io.recode.classfile.LineNumberTableEntry;
+import io.recode.classfile.Method;
+import io.recode.decompile.impl.InputStreamCodeStream;
+import io.recode.model.Element;
+import io.recode.model.ElementMetaData;
+import io.recode.model.Statement;
+import io.recode.util.Range;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * The statements of a completely decompiled method. Each statement is annotated with the range of program
+ * counters it was decompiled from and the range of lines it spans, which allows the statements of any line
+ * or range of lines to be selected without decompiling the method again.
+ */
+public final class DecompiledMethod {
+
+    private final Method method;
+
+    private final Statement[] statements;
+
+    private final Range[] codeRanges;
+
+    private final Range[] lineRanges;
+
+    public DecompiledMethod(Method method, Statement[] statements, Range[] codeRanges) {
+        assert method != null : "Method can't be null";
+        assert statements != null : "Statements can't be null";
+        assert codeRanges != null && codeRanges.length == statements.length : "Code ranges must be provided for all statements";
+
+        final LineNumberTable lineNumberTable = method.getLineNumberTable()
+                .orElseThrow(() -> new IllegalArgumentException("The provided method does not contain a line number table"));
+
+        this.method = method;
+        this.statements = statements;
+        this.codeRanges = codeRanges;
+        this.lineRanges = new Range[statements.length];
+
+        for (int i = 0; i < codeRanges.length; i++) {
+            lineRanges[i] = getLineRange(lineNumberTable, codeRanges[i]);
+        }
+    }
+
+    /**
+     * Decompiles an entire method. The statements are annotated with the range of program counters from the
+     * instruction following the previous statement to the instruction that completed the statement.
+     *
+     * @param decompiler The decompiler that should be used to decompile the method.
+     * @param method The method to decompile. The method must contain a line number table.
+     * @return The decompiled method.
+     * @throws IOException Thrown if the code of the method can't be read.
+     */
+    public static DecompiledMethod decompile(Decompiler decompiler, Method method) throws IOException {
+        assert decompiler != null : "Decompiler can't be null";
+        assert method != null : "Method can't be null";
+
+        final BitSet instructionPCs = new BitSet();
+        final Element[] elements;
+
+        try (InputStream in = method.getCode().getCode()) {
+            elements = decompiler.parse(method, new InputStreamCodeStream(in), new DecompilationProgressCallbackAdapter() {
+                @Override
+                public void beforeInstruction(DecompilationContext context, int instruction) {
+                    instructionPCs.set(context.getProgramCounter().get());
+                }
+            });
+        }
+
+        final Statement[] statements = new Statement[elements.length];
+        final Range[] codeRanges = new Range[elements.length];
+
+        int fromPC = Math.max(instructionPCs.nextSetBit(0), 0);
+
+        for (int i = 0; i < elements.length; i++) {
+            final ElementMetaData metaData = elements[i].getMetaData();
+            final int toPC = (metaData.hasProgramCounter() ? metaData.getProgramCounter() : fromPC);
+            final int nextPC = instructionPCs.nextSetBit(toPC + 1);
+
+            statements[i] = (Statement) elements[i];
+            codeRanges[i] = new Range(Math.min(fromPC, toPC), toPC);
+            fromPC = (nextPC == -1 ? toPC + 1 : nextPC);
+        }
+
+        return new DecompiledMethod(method, statements, codeRanges);
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public Statement[] getStatements() {
+        return statements.clone();
+    }
+
+    public Range getCodeRange(int index) {
+        return codeRanges[index];
+    }
+
+    public Range getLineRange(int index) {
+        return lineRanges[index];
+    }
+
+    /**
+     * Returns the statements that were decompiled from code within the provided range of program counters. A
+     * statement is included if any of its instructions are within the range.
+     *
+     * @param codeRange The range of program counters (inclusive).
+     * @return The statements in the range, in the order in which they occur in the method.
+     */
+    public Statement[] slice(Range codeRange) {
+        assert codeRange != null : "Code range can't be null";
+
+        return select(codeRanges, codeRange);
+    }
+
+    /**
+     * Returns the statements that span any of the provided lines.
+     *
+     * @param fromLineNumber The first line number (inclusive).
+     * @param toLineNumber The last line number (inclusive).
+     * @return The statements on the lines, in the order in which they occur in the method.
+     */
+    public Statement[] sliceLines(int fromLineNumber, int toLineNumber) {
+        assert toLineNumber >= fromLineNumber : "To line number must be greater than or equal to from line number";
+
+        return select(lineRanges, new Range(fromLineNumber, toLineNumber));
+    }
+
+    private Statement[] select(Range[] ranges, Range range) {
+        final List<Statement> result = new ArrayList<>();
+
+        for (int i = 0; i < ranges.length; i++) {
+            if (ranges[i].getFrom() <= range.getTo() && ranges[i].getTo() >= range.getFrom()) {
+                result.add(statements[i]);
+            }
+        }
+
+        return result.toArray(new Statement[result.size()]);
+    }
+
+    private static Range getLineRange(LineNumberTable lineNumberTable, Range codeRange) {
+        final int lineNumber = lineNumberTable.getLineNumber(codeRange.getFrom());
+
+        int first = lineNumber;
+        int last = lineNumber;
+
+        for (LineNumberTableEntry entry : lineNumberTable.getEntries()) {
+            if (entry.getStartPC() > codeRange.getFrom() && entry.getStartPC() <= codeRange.getTo()) {
+                first = Math.min(first, entry.getLineNumber());
+                last = Math.max(last, entry.getLineNumber());
+            }
+        }
+
+        return new Range(first, last);
+    }
+}
@@ -0,0 +1,197 @@
+package io.recode.decompile;
+
+import io.recode.classfile.ClassFileResolutionException;
+import io.recode.classfile.Method;
+import io.recode.metrics.Metrics;
+import io.recode.metrics.MetricsRegistry;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Caches completely decompiled methods, so that any number of lines in a method can be resolved from a single
+ * decompilation. Methods are identified by their declaring class, name, signature and code length, since the
+ * same method is typically read from the class file once for every lookup. Methods that can't be decompiled
+ * as a whole, e.g. since they lack a line number table or contain unsupported code, are remembered as such
+ * and should be decompiled line by line instead. Methods that fail to decompile since their code or referenced
+ * class files can't be read are not remembered. The cache retains a bounded number of methods and evicts the
+ * least recently used method when the capacity is exceeded.
+ */
+public final class DecompiledMethodCache {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private final Map<MethodKey, Optional<DecompiledMethod>> decompiledMethods;
+
+    private final Decompiler decompiler;
+
+    private final int capacity;
+
+    private long evictions;
+
+    public DecompiledMethodCache(Decompiler decompiler) {
+        this(decompiler, DEFAULT_CAPACITY);
+    }
+
+    public DecompiledMethodCache(Decompiler decompiler, int capacity) {
+        assert decompiler != null : "Decompiler can't be null";
+        assert capacity > 0 : "Capacity must be positive";
+
+        this.decompiler = decompiler;
+        this.capacity = capacity;
+        this.decompiledMethods = new LinkedHashMap<MethodKey, Optional<DecompiledMethod>>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MethodKey, Optional<DecompiledMethod>> eldest) {
+                if (size() <= DecompiledMethodCache.this.capacity) {
+                    return false;
+                }
+
+                evictions++;
+
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the decompiled method, decompiling it if it has not been decompiled before.
+     *
+     * @param method The method to return.
+     * @return The decompiled method, or an empty optional if the method can't be decompiled as a whole.
+     */
+    public Optional<DecompiledMethod> get(Method method) {
+        assert method != null : "Method can't be null";
+
+        if (!method.getLineNumberTable().isPresent()) {
+            return Optional.empty();
+        }
+
+        final MethodKey key = new MethodKey(method);
+
+        synchronized (decompiledMethods) {
+            final Optional<DecompiledMethod> existingDecompiledMethod = decompiledMethods.get(key);
+
+            if (existingDecompiledMethod != null) {
+                Metrics.recordCacheAccess(MetricsRegistry.Cache.DECOMPILED_METHOD, true);
+                return existingDecompiledMethod;
+            }
+        }
+
+        Metrics.recordCacheAccess(MetricsRegistry.Cache.DECOMPILED_METHOD, false);
+
+        final Optional<DecompiledMethod> decompiledMethod;
+
+        try {
+            decompiledMethod = decompile(method);
+        } catch (IOException | ClassFileResolutionException e) {
+            // The failure may not recur; leave this attempt to the line decompilation without remembering it
+            return Optional.empty();
+        }
+
+        synchronized (decompiledMethods) {
+            final Optional<DecompiledMethod> concurrentlyDecompiledMethod = decompiledMethods.putIfAbsent(key, decompiledMethod);
+
+            return (concurrentlyDecompiledMethod != null ? concurrentlyDecompiledMethod : decompiledMethod);
+        }
+    }
+
+    /**
+     * Returns the decompiled method if it has already been decompiled.
+     *
+     * @param method The method to return.
+     * @return The decompiled method, or an empty optional if it has not been decompiled or can't be
+     * decompiled as a whole.
+     */
+    public Optional<DecompiledMethod> getIfPresent(Method method) {
+        assert method != null : "Method can't be null";
+
+        if (!method.getLineNumberTable().isPresent()) {
+            return Optional.empty();
+        }
+
+        final Optional<DecompiledMethod> decompiledMethod;
+
+        synchronized (decompiledMethods) {
+            decompiledMethod = decompiledMethods.get(new MethodKey(method));
+        }
+
+        Metrics.recordCacheAccess(MetricsRegistry.Cache.DECOMPILED_METHOD, decompiledMethod != null);
+
+        return (decompiledMethod == null ? Optional.empty() : decompiledMethod);
+    }
+
+    public int size() {
+        synchronized (decompiledMethods) {
+            return decompiledMethods.size();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getEvictions() {
+        synchronized (decompiledMethods) {
+            return evictions;
+        }
+    }
+
+    public void clear() {
+        synchronized (decompiledMethods) {
+            decompiledMethods.clear();
+        }
+    }
+
+    private Optional<DecompiledMethod> decompile(Method method) throws IOException {
+        try {
+            return Optional.of(DecompiledMethod.decompile(decompiler, method));
+        } catch (ClassFileResolutionException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // Not all code can be decompiled from the start of the method; leave it to the line decompilation
+            return Optional.empty();
+        }
+    }
+
+    private static final class MethodKey {
+
+        private final String className;
+
+        private final String methodName;
+
+        private final String signature;
+
+        private final int codeLength;
+
+        private MethodKey(Method method) {
+            this.className = method.getClassFile().getName();
+            this.methodName = method.getName();
+            this.signature = method.getSignature().toString();
+            this.codeLength = method.getCode().getCodeLength();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            final MethodKey other = (MethodKey) o;
+
+            return codeLength == other.codeLength
+                    && className.equals(other.className)
+                    && methodName.equals(other.methodName)
+                    && signature.equals(other.signature);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = className.hashCode();
+            result = 31 * result + methodName.hashCode();
+            result = 31 * result + signature.hashCode();
+            result = 31 * result + codeLength;
+            return result;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import io.recode.classfile.CodeAttribute;
 import io.recode.classfile.Method;
 import io.recode.decompile.impl.InputStreamCodeStream;
 import io.recode.model.Element;
+import io.recode.model.Statement;
+import io.recode.util.Range;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -16,6 +18,60 @@ public interface Decompiler {
 
     Element[] parse(Method method, CodeStream codeStream, DecompilationProgressCallback callback) throws IOException;
 
+    /**
+     * Decompiles a method within a budget. If the budget is exceeded, the decompilation is stopped and the
+     * partial result is returned flagged as truncated. Decompilers that can't enforce a budget decompile the
+     * method completely.
+     *
+     * @param method The method to decompile.
+     * @param codeStream The code stream of the method, positioned at the first instruction to decompile.
+     * @param callback Callback that is notified of the decompilation progress.
+     * @param budget The budget of the decompilation.
+     * @return The decompiled elements.
+     * @throws IOException Thrown if the code stream can't be read.
+     */
+    default DecompilationResult<Element> parse(Method method, CodeStream codeStream, DecompilationProgressCallback callback, DecompilationBudget budget) throws IOException {
+        assert budget != null : "Budget can't be null";
+
+        return new DecompilationResult<>(parse(method, codeStream, callback));
+    }
+
+    /**
+     * Decompiles a method and provides the statements to a sink as soon as they are decompiled. The sink can
+     * stop the decompilation, in which case the remainder of the method is not decompiled. Decompilers that
+     * can't stream statements decompile the entire method before providing the statements to the sink. Elements
+     * that aren't statements, e.g. expressions that remain on the stack when a code range is decompiled, are not
+     * provided to the sink.
+     *
+     * @param method The method to decompile.
+     * @param codeStream The code stream of the method, positioned at the first instruction to decompile.
+     * @param callback Callback that is notified of the decompilation progress.
+     * @param sink The sink that should receive the decompiled statements.
+     * @throws IOException Thrown if the code stream can't be read.
+     */
+    default void parse(Method method, CodeStream codeStream, DecompilationProgressCallback callback, StatementSink sink) throws IOException {
+        assert sink != null : "Sink can't be null";
+
+        final int startPC = codeStream.pc().get() + 1;
+        final Element[] elements = parse(method, codeStream, callback);
+
+        int fromPC = startPC;
+
+        for (Element element : elements) {
+            if (!(element instanceof Statement)) {
+                continue;
+            }
+
+            final int toPC = (element.getMetaData().hasProgramCounter() ? element.getMetaData().getProgramCounter() : fromPC);
+
+            if (!sink.accept((Statement) element, new Range(Math.min(fromPC, toPC), toPC))) {
+                return;
+            }
+
+            fromPC = toPC + 1;
+        }
+    }
+
     default Element[] decompile(Method method) throws IOException {
         final CodeAttribute code = method.getCode();
 
@@ -14,6 +14,36 @@ public interface DecompilerConfiguration {
 
     Iterator<DecompilerDelegate> getCorrectionalDecompilerEnhancements(DecompilationContext context, int byteCode);
 
+    /**
+     * Selects the decompiler delegate through a selector cache, which memoizes the selections of the current
+     * instruction step. The default implementation doesn't use the cache.
+     */
+    default DecompilerDelegate getDecompilerDelegate(DecompilationContext context, int byteCode, DecompilationStateSelectorCache selectorCache) {
+        return getDecompilerDelegate(context, byteCode);
+    }
+
+    default Iterator<DecompilerDelegate> getAdvisoryDecompilerEnhancements(DecompilationContext context, int byteCode, DecompilationStateSelectorCache selectorCache) {
+        return getAdvisoryDecompilerEnhancements(context, byteCode);
+    }
+
+    default Iterator<DecompilerDelegate> getCorrectionalDecompilerEnhancements(DecompilationContext context, int byteCode, DecompilationStateSelectorCache selectorCache) {
+        return getCorrectionalDecompilerEnhancements(context, byteCode);
+    }
+
+    /**
+     * Returns the transformations of an element type. The decompiler applies the first transformation that returns
+     * a result and repeats until no transformation applies, with a bound on the number of rounds per element.
+     * <p>
+     * A transformation that returns the element it was provided is considered not to have been applied, and the
+     * next transformation is evaluated. Before transformations were applied by the
+     * {@link io.recode.decompile.impl.ModelTransformationEngine}, such a result stopped the evaluation of the
+     * remaining transformations and restarted it with the same element. Transformations that never stop applying
+     * fail an assertion when the bound is reached.
+     * </p>
+     *
+     * @param elementType The type of the elements the transformations apply to.
+     * @return The transformations of the element type, in the order in which they're evaluated.
+     */
     ModelTransformation<Element, Element>[] getTransformations(ElementType elementType);
 
     DecompilerConfiguration merge(DecompilerConfiguration other);
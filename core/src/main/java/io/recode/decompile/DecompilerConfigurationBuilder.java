@@ -26,6 +26,17 @@ public interface DecompilerConfigurationBuilder {
 
     interface OnElementTypeContinuation {
 
+        /**
+         * Restricts the mapping to elements with the specified discriminator, which allows the transformation
+         * to be skipped without evaluating its query. See
+         * {@link io.recode.decompile.impl.ModelTransformationEngine#discriminatorOf(Element)} for the
+         * discriminator of each element type.
+         *
+         * @param discriminator The discriminator of elements that the mapping applies to.
+         * @return A continuation for specifying the query.
+         */
+        OnElementTypeContinuation discriminatedBy(Object discriminator);
+
         <R extends Element> ForQueryContinuationWithPriority<R> forQuery(ModelQuery<Element, R> query);
     }
 
@@ -1,5 +1,7 @@
 package io.recode.decompile;
 
+import io.recode.classfile.ClassFileFormatException;
+import io.recode.classfile.InstructionIndex;
 import io.recode.classfile.LineNumberTable;
 import io.recode.classfile.LineNumberTableEntry;
 import io.recode.classfile.Method;
@@ -28,6 +30,26 @@ public class DefaultCodeRangeDecompiler implements CodeRangeDecompiler {
         assert fromLineNumber >= 0 : "fromLineNumber must be positive";
         assert toLineNumber >= fromLineNumber : "toLineNumber must be greater than or equal to fromLineNumber";
 
+        final Range codeRange = getCodeRange(method, fromLineNumber, toLineNumber);
+        final InstructionIndex instructionIndex = method.getCode().getInstructionIndex();
+        final int startProgramCounter = codeRange.getFrom();
+        final int endProgramCounter = Math.min(codeRange.getTo(), instructionIndex.getCodeLength() - 1);
+
+        if (!instructionIndex.isInstructionStart(startProgramCounter)) {
+            throw new ClassFileFormatException("Line " + fromLineNumber + " does not start at an instruction (pc=" + startProgramCounter + ")");
+        }
+
+        final InputStream in = InputStreams.range(method.getCode().getCode(), startProgramCounter, endProgramCounter + 1);
+        final CodeStream codeStream = new InputStreamCodeStream(in, new ProgramCounterImpl(startProgramCounter - 1));
+
+        return decompiler.parse(method, codeStream);
+    }
+
+    /**
+     * Returns the range of program counters that corresponds to the provided (inclusive) line numbers. If the
+     * range extends to the end of the method, the end of the range is <code>Integer.MAX_VALUE</code>.
+     */
+    static Range getCodeRange(Method method, int fromLineNumber, int toLineNumber) {
         final LineNumberTable lineNumberTable = method.getLineNumberTable()
                 .orElseThrow(() -> new IllegalArgumentException("The provided method does not contain a line number table"));
 
@@ -55,9 +77,6 @@ public class DefaultCodeRangeDecompiler implements CodeRangeDecompiler {
             }
         }
 
-        final InputStream in = InputStreams.range(method.getCode().getCode(), startProgramCounter, endProgramCounter + 1);
-        final CodeStream codeStream = new InputStreamCodeStream(in, new ProgramCounterImpl(startProgramCounter));
-
-        return decompiler.parse(method, codeStream);
+        return new Range(startProgramCounter, endProgramCounter);
     }
 }
@@ -5,11 +5,13 @@ import io.recode.classfile.impl.LocalVariableImpl;
 import io.recode.classfile.impl.LocalVariableTableImpl;
 import io.recode.decompile.impl.CodePointerImpl;
 import io.recode.decompile.impl.InputStreamCodeStream;
+import io.recode.jfr.RecodeEvents;
 import io.recode.model.*;
 import io.recode.util.Range;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -27,6 +29,20 @@ public final class Lambdas {
                     + "." + lambdaBackingMethod.getName() + " is not a lambda backing method");
         }
 
+        final RecodeEvents.LambdaResolution event = RecodeEvents.beginLambdaResolution();
+        final Optional<CodePointer<Lambda>> declaration = findLambdaDeclarationForMethod(decompiler, lambdaBackingMethod);
+
+        if (event.isEnabled()) {
+            event.setClassName(lambdaBackingMethod.getClassFile().getName());
+            event.setMethodName(lambdaBackingMethod.getName());
+            event.setResolved(declaration.isPresent());
+            event.commit();
+        }
+
+        return declaration;
+    }
+
+    private static Optional<CodePointer<Lambda>> findLambdaDeclarationForMethod(Decompiler decompiler, Method lambdaBackingMethod) throws IOException {
         Stream<Method> methods = lambdaBackingMethod.getClassFile().getMethods().stream();
 
         if (lambdaBackingMethod.getName().startsWith("lambda$null$")) {
@@ -60,15 +76,25 @@ public final class Lambdas {
 
         for (Iterator<Method> iterator = methods.iterator(); iterator.hasNext(); ) {
             final Method candidate = iterator.next();
-            final Element[] methodElements;
+            final Predicate<Element> declaration = isDeclarationOf(lambdaBackingMethod);
+            final AtomicReference<Element> result = new AtomicReference<>();
 
+            // Stop decompiling the candidate as soon as the declaration is found
             try (CodeStream code = new InputStreamCodeStream(candidate.getCode().getCode())) {
-                methodElements = decompiler.parse(candidate, code);
-            }
+                decompiler.parse(candidate, code, DecompilationProgressCallback.NULL, (statement, codeRange) -> {
+                    final Optional<Element> lambda = SyntaxTreeVisitor.search(statement, ElementType.LAMBDA, declaration);
 
-            final Optional<Element> result = SyntaxTreeVisitor.search(methodElements, isDeclarationOf(lambdaBackingMethod));
+                    if (!lambda.isPresent()) {
+                        return true;
+                    }
+
+                    result.set(lambda.get());
+
+                    return false;
+                });
+            }
 
-            if (result.isPresent()) {
+            if (result.get() != null) {
                 return Optional.of(new CodePointerImpl<>(candidate, result.get().as(Lambda.class)));
             }
         }
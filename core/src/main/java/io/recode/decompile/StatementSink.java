@@ -0,0 +1,25 @@
+package io.recode.decompile;
+
+import io.recode.model.Statement;
+import io.recode.util.Range;
+
+/**
+ * Receives statements from a decompiler as soon as they're final, i.e. when no subsequent instruction can
+ * modify or remove them. Statements are received in the order in which they occur in the method.
+ */
+@FunctionalInterface
+public interface StatementSink {
+
+    /**
+     * Accepts a decompiled statement.
+     *
+     * @param statement The decompiled statement.
+     * @param codeRange The range of program counters from which the statement was decompiled, i.e. from the
+     *                  instruction following the previous statement to the instruction that completed the
+     *                  statement.
+     * @return Whether or not the decompilation should continue. If <code>false</code>, the decompilation
+     * is stopped and no further statements are provided to the sink.
+     */
+    boolean accept(Statement statement, Range codeRange);
+
+}
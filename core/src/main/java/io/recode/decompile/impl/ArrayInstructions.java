@@ -1,9 +1,9 @@
 package io.recode.decompile.impl;
 
+import io.recode.SymbolicType;
 import io.recode.decompile.*;
 import io.recode.model.*;
-import io.recode.model.impl.*;
-import io.recode.util.Types;
+import io.recode.util.TypeKind;
 import io.recode.classfile.ByteCode;
 import io.recode.classfile.ClassFileFormatException;
 import io.recode.util.Priority;
@@ -13,6 +13,9 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Collections;
 
+import static io.recode.decompile.DecompilationStateSelector.Dependencies;
+import static io.recode.decompile.DecompilationStateSelectors.dependingOn;
+
 /**
  * The <code>ArrayInstructions</code> decompiler delegation deals with instructions related to arrays, such
  * as
@@ -29,6 +32,7 @@ import java.util.Collections;
  *     <li>Configuration to ensure that array instantiation is mapped to a single expression in the syntax tree.</li>
  * </dir>
  */
+
 public final class ArrayInstructions implements DecompilerDelegation {
 
     public void configure(DecompilerConfigurationBuilder configurationBuilder) {
@@ -36,7 +40,7 @@ public final class ArrayInstructions implements DecompilerDelegation {
 
         configurationBuilder.on(ByteCode.dup)
                 .withPriority(Priority.HIGH)
-                .when((context, byteCode) -> context.peek().getElementType() == ElementType.NEW_ARRAY)
+                .when(dependingOn(Dependencies.stack(1), (context, byteCode) -> context.peek().getElementType() == ElementType.NEW_ARRAY))
                 .then(DecompilerDelegate.NOP);
 
         configurationBuilder.on(ByteCode.aaload).then(aaload());
@@ -73,7 +77,13 @@ public final class ArrayInstructions implements DecompilerDelegation {
                 final Type arrayType = array.getType();
                 final Type componentType;
 
-                if (!(arrayType instanceof Class)) {
+                if (arrayType instanceof SymbolicType) {
+                    componentType = ((SymbolicType) arrayType).getComponentType();
+
+                    if (componentType == null) {
+                        throw new ClassFileFormatException("Can't execute 'aaload' on non-array type: " + arrayType.getTypeName());
+                    }
+                } else if (!(arrayType instanceof Class)) {
                     final String typeName = arrayType.getTypeName();
 
                     if (typeName.charAt(0) != '[') {
@@ -89,7 +99,7 @@ public final class ArrayInstructions implements DecompilerDelegation {
                     }
                 }
 
-                context.push(new ArrayLoadImpl(array, index, componentType));
+                context.push(context.getModelFactory().get(array, index, componentType));
             }
         };
     }
@@ -101,7 +111,7 @@ public final class ArrayInstructions implements DecompilerDelegation {
             final Type arrayType = context.resolveType("[L" + componentTypeName + ";");
             final Expression length = context.pop();
 
-            context.push(new NewArrayImpl(arrayType, componentType, length, Collections.emptyList()));
+            context.push(context.getModelFactory().newArray(arrayType, componentType, length, Collections.emptyList()));
 
             // Ignore dup since element initialization push the array back to the stack
             if (code.peekByte() == ByteCode.dup) {
@@ -117,40 +127,51 @@ public final class ArrayInstructions implements DecompilerDelegation {
     public static DecompilerDelegate newarray() {
         return (context,codeStream,byteCode) -> {
             final int type = codeStream.nextUnsignedByte();
-            final Class arrayType;
+            final Class<?> componentType;
+            final String arrayTypeName;
 
             switch (type) {
                 case 4:
-                    arrayType = boolean[].class;
+                    componentType = boolean.class;
+                    arrayTypeName = "[Z";
                     break;
                 case 5:
-                    arrayType = char[].class;
+                    componentType = char.class;
+                    arrayTypeName = "[C";
                     break;
                 case 6:
-                    arrayType = float[].class;
+                    componentType = float.class;
+                    arrayTypeName = "[F";
                     break;
                 case 7:
-                    arrayType = double[].class;
+                    componentType = double.class;
+                    arrayTypeName = "[D";
                     break;
                 case 8:
-                    arrayType = byte[].class;
+                    componentType = byte.class;
+                    arrayTypeName = "[B";
                     break;
                 case 9:
-                    arrayType = short[].class;
+                    componentType = short.class;
+                    arrayTypeName = "[S";
                     break;
                 case 10:
-                    arrayType = int[].class;
+                    componentType = int.class;
+                    arrayTypeName = "[I";
                     break;
                 case 11:
-                    arrayType = long[].class;
+                    componentType = long.class;
+                    arrayTypeName = "[J";
                     break;
                 default:
                     throw new ClassFileFormatException("Invalid type code for primitive array: " + type);
             }
 
+            // The array type is resolved like any other type, i.e. it's symbolic if types aren't loaded
+            final Type arrayType = context.resolveType(arrayTypeName);
             final Expression length = context.pop();
 
-            context.push(new NewArrayImpl(arrayType, arrayType.getComponentType(), length, Collections.emptyList()));
+            context.push(context.getModelFactory().newArray(arrayType, componentType, length, Collections.emptyList()));
         };
     }
 
@@ -162,11 +183,11 @@ public final class ArrayInstructions implements DecompilerDelegation {
         return (context,codeStream,byteCode) -> {
             final Expression array = context.pop();
 
-            if (!Types.isArray(array.getType())) {
+            if (!TypeKind.of(array.getType()).isArray()) {
                 throw new ClassFileFormatException("Stacked element is not an array: " + String.valueOf(array));
             }
 
-            context.push(new FieldReferenceImpl(array, array.getType(), int.class, "length"));
+            context.push(context.getModelFactory().field(array, array.getType(), int.class, "length"));
         };
     }
 
@@ -216,7 +237,7 @@ public final class ArrayInstructions implements DecompilerDelegation {
         final Expression index = context.pop();
         final Expression array = context.pop();
 
-        context.push(new ArrayLoadImpl(array, index, type));
+        context.push(context.getModelFactory().get(array, index, type));
     }
 
     private static boolean arrayStore(DecompilationContext context) {
@@ -228,11 +249,11 @@ public final class ArrayInstructions implements DecompilerDelegation {
             final NewArray newArray = (NewArray) array;
             final ArrayList<ArrayInitializer> initializers = new ArrayList<>(newArray.getInitializers());
 
-            initializers.add(new ArrayInitializerImpl((Integer) ((Constant) index).getConstant(), value));
+            initializers.add(context.getModelFactory().initializer((Integer) ((Constant) index).getConstant(), value));
 
-            context.push(new NewArrayImpl(newArray.getType(), newArray.getComponentType(), newArray.getLength(), initializers));
+            context.push(context.getModelFactory().newArray(newArray.getType(), newArray.getComponentType(), newArray.getLength(), initializers));
         } else {
-            context.enlist(new ArrayStoreImpl(array, index, value));
+            context.enlist(context.getModelFactory().set(array, index, value));
         }
 
         return true;
@@ -4,7 +4,6 @@ import io.recode.classfile.ByteCode;
 import io.recode.decompile.*;
 import io.recode.model.Expression;
 import io.recode.model.OperatorType;
-import io.recode.model.impl.BinaryOperatorImpl;
 
 import java.io.IOException;
 
@@ -110,7 +109,7 @@ public final class BinaryOperations implements DecompilerDelegation {
                 final Expression right = context.getStack().pop();
                 final Expression left = context.getStack().pop();
 
-                context.getStack().push(new BinaryOperatorImpl(left, operatorType, right, resultType));
+                context.getStack().push(context.getModelFactory().binary(left, operatorType, right, resultType));
             }
         };
     }
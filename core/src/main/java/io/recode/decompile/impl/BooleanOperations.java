@@ -3,9 +3,6 @@ package io.recode.decompile.impl;
 import io.recode.decompile.*;
 import io.recode.model.*;
 import io.recode.classfile.ByteCode;
-import io.recode.model.impl.BranchImpl;
-import io.recode.model.impl.CompareImpl;
-import io.recode.model.impl.UnaryOperatorImpl;
 import io.recode.util.Lists;
 import io.recode.util.Pair;
 import io.recode.util.Priority;
@@ -79,6 +76,7 @@ public final class BooleanOperations implements DecompilerDelegation {
                 .then(coerceConstantIntegerMethodParameterToBoolean());
 
         configurationBuilder.map(ElementType.BINARY_OPERATOR)
+                .discriminatedBy(OperatorType.NE)
                 .forQuery(value().where(operatorType().is(equalTo(OperatorType.NE))).and(leftOperand().get(runtimeType()).is(equalTo(boolean.class))).and(rightOperand().is(equalTo(constant(0)))))
                 .to(source -> Optional.of(source.as(BinaryOperator.class).getLeftOperand()));
 
@@ -111,7 +109,7 @@ public final class BooleanOperations implements DecompilerDelegation {
                 final Expression rightOperand = context.getStack().pop();
                 final Expression leftOperand = context.getStack().pop();
 
-                context.getStack().push(new CompareImpl(leftOperand, rightOperand));
+                context.getStack().push(context.getModelFactory().compare(leftOperand, rightOperand));
             }
         };
     }
@@ -181,7 +179,7 @@ public final class BooleanOperations implements DecompilerDelegation {
                 final Expression rightOperand = context.pop();
                 final Expression leftOperand = context.pop();
 
-                context.enlist(new BranchImpl(leftOperand, operatorType, rightOperand, programCounter + relativeOffset));
+                context.enlist(context.getModelFactory().branch(leftOperand, operatorType, rightOperand, programCounter + relativeOffset));
             }
         };
     }
@@ -201,9 +199,9 @@ public final class BooleanOperations implements DecompilerDelegation {
 
                     if (variableAssignment.getVariableType().equals(boolean.class)) {
                         if (variableAssignment.getValue().equals(constant(1))) {
-                            context.getStatements().last().swap(variableAssignment.withValue(constant(true)));
+                            context.getStatements().last().swap(withValue(context, variableAssignment, true));
                         } else if (variableAssignment.getValue().equals(constant(0))) {
-                            context.getStatements().last().swap(variableAssignment.withValue(constant(false)));
+                            context.getStatements().last().swap(withValue(context, variableAssignment, false));
                         }
                     }
                 }
@@ -230,12 +228,25 @@ public final class BooleanOperations implements DecompilerDelegation {
                 });
 
                 if (newArgs.isPresent()) {
-                    context.getStack().swap(methodCall.withParameters(Lists.collect(newArgs.get(), Pair::right)));
+                    context.getStack().swap(context.getModelFactory().call(
+                            methodCall.getTargetType(),
+                            methodCall.getMethodName(),
+                            methodCall.getSignature(),
+                            methodCall.getTargetInstance(),
+                            Lists.collect(newArgs.get(), Pair::right).stream().toArray(Expression[]::new),
+                            methodCall.getType()));
                 }
             }
         };
     }
 
+    private static Statement withValue(DecompilationContext context, VariableAssignment variableAssignment, boolean value) {
+        final ModelFactory modelFactory = context.getModelFactory();
+
+        return modelFactory.assignLocal(modelFactory.constant(value, boolean.class), variableAssignment.getVariableIndex(),
+                variableAssignment.getVariableName(), variableAssignment.getVariableType());
+    }
+
     private DecompilerElementDelegate<Branch> binaryBranchToBooleanCompare() {
         return (context, codeStream, byteCode, _result) -> {
             final Expression falseValue = context.getStack().pop();
@@ -344,7 +355,7 @@ public final class BooleanOperations implements DecompilerDelegation {
             context.getStack().pop();
             context.getStack().pop();
             context.getStatements().tail(-2).remove();
-            context.push(new UnaryOperatorImpl(result.getLeftOperand(), OperatorType.NOT, boolean.class));
+            context.push(context.getModelFactory().unary(result.getLeftOperand(), OperatorType.NOT, boolean.class));
         };
     }
 
@@ -355,7 +366,7 @@ public final class BooleanOperations implements DecompilerDelegation {
                 final int pc = context.getProgramCounter().get();
                 final int relativeOffset = codeStream.nextSignedShort();
 
-                context.enlist(new BranchImpl(context.getStack().pop(), operatorType, constant(0), pc + relativeOffset));
+                context.enlist(context.getModelFactory().branch(context.getStack().pop(), operatorType, constant(0), pc + relativeOffset));
             }
         };
     }
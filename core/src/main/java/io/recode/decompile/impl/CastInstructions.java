@@ -6,18 +6,21 @@ import io.recode.decompile.*;
 import io.recode.model.TypeCast;
 import io.recode.model.ElementType;
 import io.recode.model.Expression;
-import io.recode.model.impl.TypeCastImpl;
 import io.recode.util.Priority;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
 
+import static io.recode.decompile.DecompilationStateSelector.Dependencies;
+import static io.recode.decompile.DecompilationStateSelectors.dependingOn;
+
 /**
  * The <code>CastInstructions</code> decompilation delegation provides support for all available cast
  * instructions in the class file format. This includes support for non identity primitive cast instructions
  * (i2b, f2i etc) as well as type safe, loss-less casts through check casts. Further the delegation handles
  * various intricacies of the java compiler.
  */
+
 public final class CastInstructions implements DecompilerDelegation {
 
     public void configure(DecompilerConfigurationBuilder configurationBuilder) {
@@ -25,7 +28,7 @@ public final class CastInstructions implements DecompilerDelegation {
 
         configurationBuilder.on(ByteCode.pop)
                 .withPriority(Priority.HIGH)
-                .when((context, byteCode) -> context.peek().getElementType() == ElementType.CAST)
+                .when(dependingOn(Dependencies.stack(1), (context, byteCode) -> context.peek().getElementType() == ElementType.CAST))
                 .then(discardImplicitCast());
 
         configurationBuilder.on(ByteCode.checkcast).then(checkcast());
@@ -64,7 +67,7 @@ public final class CastInstructions implements DecompilerDelegation {
             final Type targetType = context.resolveType(targetTypeName);
             final Expression castExpression = context.pop();
 
-            context.push(new TypeCastImpl(castExpression, targetType));
+            context.push(context.getModelFactory().cast(castExpression, targetType));
         };
     }
 
@@ -123,7 +126,7 @@ public final class CastInstructions implements DecompilerDelegation {
                             + "->" + targetType.getSimpleName() + "; value is of incorrect source type: " + sourceValue);
                 }
 
-                context.push(new TypeCastImpl(sourceValue, targetType));
+                context.push(context.getModelFactory().cast(sourceValue, targetType));
             }
         };
     }
@@ -1,24 +1,28 @@
 package io.recode.decompile.impl;
 
 import io.recode.CodeLocation;
+import io.recode.SymbolicType;
 import io.recode.decompile.*;
+import io.recode.util.InputStreams;
 import io.recode.util.Methods;
 import io.recode.util.Range;
+import io.recode.util.TypeKind;
 import io.recode.classfile.ClassFile;
+import io.recode.classfile.ClassFileFormatException;
+import io.recode.classfile.ClassFileNotFoundException;
 import io.recode.classfile.ClassFileReader;
+import io.recode.classfile.ClassFileResolver;
+import io.recode.classfile.InstructionIndex;
 import io.recode.classfile.Method;
 import io.recode.classfile.impl.ClassFileReaderImpl;
+import io.recode.metrics.Metrics;
+import io.recode.metrics.MetricsRegistry;
 import io.recode.model.Element;
-import io.recode.model.Expression;
-import io.recode.model.Statement;
-import io.recode.util.Sequence;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
-import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Optional;
 
 public final class CodeLocationDecompilerImpl implements CodeLocationDecompiler {
 
@@ -26,13 +30,26 @@ public final class CodeLocationDecompilerImpl implements CodeLocationDecompiler
 
     private final Decompiler decompiler;
 
+    private final DecompiledMethodCache decompiledMethodCache;
+
+    private final ClassFileResolver classFileResolver;
+
     public CodeLocationDecompilerImpl() {
         this(new ClassFileReaderImpl(), new DecompilerImpl());
     }
 
     public CodeLocationDecompilerImpl(ClassFileReader classFileReader, Decompiler decompiler) {
+        this(classFileReader, null, decompiler, null);
+    }
+
+    private CodeLocationDecompilerImpl(ClassFileReader classFileReader, ClassFileResolver classFileResolver, Decompiler decompiler, DecompiledMethodCache decompiledMethodCache) {
+        assert classFileReader != null : "Class file reader can't be null";
+        assert decompiler != null : "Decompiler can't be null";
+
         this.classFileReader = classFileReader;
+        this.classFileResolver = classFileResolver;
         this.decompiler = decompiler;
+        this.decompiledMethodCache = decompiledMethodCache;
     }
 
     @Override
@@ -44,10 +61,37 @@ public final class CodeLocationDecompilerImpl implements CodeLocationDecompiler
         assert codeLocation != null : "codeLocation can't be null";
         assert callback != null : "callback can't be null";
 
-        return codeForCaller(codeLocation, callback);
+        final DecompilationResult<CodePointer> result = codeForCaller(codeLocation, callback, DecompilationBudget.unlimited());
+
+        return (result == null ? null : result.get());
+    }
+
+    @Override
+    public DecompilationResult<CodePointer> decompileCodeLocation(CodeLocation codeLocation, DecompilationProgressCallback callback, DecompilationBudget budget) throws IOException {
+        assert codeLocation != null : "codeLocation can't be null";
+        assert callback != null : "callback can't be null";
+        assert budget != null : "budget can't be null";
+
+        return codeForCaller(codeLocation, callback, budget);
+    }
+
+    private DecompilationResult<CodePointer> codeForCaller(CodeLocation codeLocation, DecompilationProgressCallback callback, DecompilationBudget budget) throws IOException {
+        final MetricsRegistry metrics = Metrics.registry();
+
+        if (metrics == null) {
+            return decompileCodeForCaller(codeLocation, callback, budget);
+        }
+
+        final long start = System.nanoTime();
+
+        try {
+            return decompileCodeForCaller(codeLocation, callback, budget);
+        } finally {
+            metrics.recordCodeLocationDecompilation(System.nanoTime() - start);
+        }
     }
 
-    private CodePointer[] codeForCaller(CodeLocation codeLocation, DecompilationProgressCallback callback) throws IOException {
+    private DecompilationResult<CodePointer> decompileCodeForCaller(CodeLocation codeLocation, DecompilationProgressCallback callback, DecompilationBudget budget) throws IOException {
         final ClassFile classFile = loadClassFile(codeLocation.getClassName());
 
         if (classFile == null) {
@@ -57,47 +101,53 @@ public final class CodeLocationDecompilerImpl implements CodeLocationDecompiler
         final Method method = resolveMethodFromClassFile(classFile, codeLocation);
         final Range codeRange = Methods.getCodeRangeForLineNumber(method, codeLocation.getLineNumber());
 
-        try (CodeStream code = new InputStreamCodeStream(method.getCode().getCode())) {
-            code.skip(codeRange.getFrom());
+        if (decompiledMethodCache != null) {
+            // Budgeted decompilations are only answered from methods that have already been decompiled
+            final Optional<DecompiledMethod> decompiledMethod = (budget.isUnlimited()
+                    ? decompiledMethodCache.get(method)
+                    : decompiledMethodCache.getIfPresent(method));
+
+            if (decompiledMethod.isPresent()) {
+                final CodePointer[] codePointers = Arrays.stream(decompiledMethod.get().slice(codeRange))
+                        .map(e -> new CodePointerImpl<>(method, e))
+                        .toArray(CodePointer[]::new);
+
+                return new DecompilationResult<>(codePointers);
+            }
+        }
+
+        final InstructionIndex instructionIndex = method.getCode().getInstructionIndex();
+        final int codeLength = instructionIndex.getCodeLength();
+        final int startPC = codeRange.getFrom();
+        final int lineEndPC = Math.min(codeRange.getTo() + 1, codeLength);
+
+        if (!instructionIndex.isInstructionStart(startPC)) {
+            throw new ClassFileFormatException("Line " + codeLocation.getLineNumber() + " does not start at an instruction (pc=" + startPC + ")");
+        }
 
-            final AtomicReference<Expression> lingeringExpression = new AtomicReference<>();
-            final AtomicInteger exitStackSize = new AtomicInteger(-1);
+        // A statement that continues on subsequent lines can't extend past the basic block the line ends in
+        final int stopPC = (lineEndPC == codeLength || instructionIndex.isBasicBlockStart(lineEndPC)
+                ? lineEndPC
+                : instructionIndex.getBasicBlockEnd(lineEndPC));
 
-            final Element[] elements = decompiler.parse(method, code, new CompositeDecompilationProgressCallback(new DecompilationProgressCallbackAdapter() {
+        final InputStream in = InputStreams.range(method.getCode().getCode(), startPC, stopPC);
+
+        try (CodeStream code = new InputStreamCodeStream(in, new ProgramCounterImpl(startPC - 1))) {
+            final DecompilationResult<Element> result = decompiler.parse(method, code, new CompositeDecompilationProgressCallback(new DecompilationProgressCallbackAdapter() {
                 @Override
                 public void afterInstruction(DecompilationContext context, int instruction) {
-                    // Abort as soon as (a) we've exceeded the PC and (b) the stack is empty
-                    if (context.getProgramCounter().get() >= codeRange.getTo()) {
-                        final List<Expression> stackedExpressions = context.getStackedExpressions();
-
-                        exitStackSize.compareAndSet(-1, stackedExpressions.size());
-
-                        if (stackedExpressions.isEmpty()) {
-                            context.abort();
-                        } else {
-                            if (lingeringExpression.get() == null) {
-                                if (stackedExpressions.size() == 1) {
-                                    lingeringExpression.set(stackedExpressions.get(0));
-                                }
-                            } else {
-                                if (stackedExpressions.size() > exitStackSize.get()) {
-                                    context.pop();
-                                    context.abort();
-                                } else {
-                                    final Sequence<Statement> statements = context.getStatements();
-
-                                    if (!statements.isEmpty() && statements.last().get().equals(lingeringExpression.get())) {
-                                        context.pop();
-                                        context.abort();
-                                    }
-                                }
-                            }
-                        }
+                    // Abort at the first instruction boundary after the line where no operands remain stacked; calls
+                    // to void methods remain on the stack as complete statements
+                    if (instructionIndex.getNextInstructionPC(context.getProgramCounter().get()) >= lineEndPC
+                            && context.getStack().stream().allMatch(e -> TypeKind.of(e.getType()).getSort() == TypeKind.Sort.VOID)) {
+                        context.abort();
                     }
                 }
-            }, callback));
+            }, callback), budget);
+
+            final CodePointer[] codePointers = Arrays.stream(result.get()).map(e -> new CodePointerImpl<>(method, e)).toArray(CodePointer[]::new);
 
-            return Arrays.stream(elements).map(e -> new CodePointerImpl<>(method, e)).toArray(CodePointer[]::new);
+            return new DecompilationResult<>(codePointers, result.getTruncation().orElse(null));
         }
     }
 
@@ -120,6 +170,14 @@ public final class CodeLocationDecompilerImpl implements CodeLocationDecompiler
     }
 
     private ClassFile loadClassFile(String className) throws IOException {
+        if (classFileResolver != null) {
+            try {
+                return classFileResolver.resolveClassFile(SymbolicType.of(className));
+            } catch (ClassFileNotFoundException e) {
+                // Not known to the resolver; fall back to the class path
+            }
+        }
+
         try (InputStream in = getClass().getResourceAsStream("/" + className.replace('.', '/') + ".class")) {
             if (in == null) {
                 return null;
@@ -128,4 +186,67 @@ public final class CodeLocationDecompilerImpl implements CodeLocationDecompiler
             return classFileReader.read(in);
         }
     }
+
+    public static class Builder {
+
+        private ClassFileReader classFileReader;
+
+        private ClassFileResolver classFileResolver;
+
+        private Decompiler decompiler;
+
+        private DecompiledMethodCache decompiledMethodCache;
+
+        public Builder setClassFileReader(ClassFileReader classFileReader) {
+            assert classFileReader != null : "Class file reader can't be null";
+            this.classFileReader = classFileReader;
+            return this;
+        }
+
+        /**
+         * Sets a resolver that is consulted for class files before they're read from the class path, e.g. an
+         * {@link io.recode.classfile.InMemoryClassFileResolver}.
+         *
+         * @param classFileResolver The resolver consulted for class files before the class path.
+         * @return This builder.
+         */
+        public Builder setClassFileResolver(ClassFileResolver classFileResolver) {
+            assert classFileResolver != null : "Class file resolver can't be null";
+            this.classFileResolver = classFileResolver;
+            return this;
+        }
+
+        public Builder setDecompiler(Decompiler decompiler) {
+            assert decompiler != null : "Decompiler can't be null";
+            this.decompiler = decompiler;
+            return this;
+        }
+
+        /**
+         * Sets a cache of decompiled methods. Each method is then decompiled once, and code locations are resolved
+         * by selecting the statements of the requested line from the decompiled method. A statement that spans
+         * several lines is returned in its entirety for any of its lines. Methods that can't be decompiled as a
+         * whole are decompiled line by line. Without a cache, code locations are decompiled line by line.
+         *
+         * @param decompiledMethodCache The cache of decompiled methods.
+         * @return This builder.
+         */
+        public Builder setDecompiledMethodCache(DecompiledMethodCache decompiledMethodCache) {
+            assert decompiledMethodCache != null : "Decompiled method cache can't be null";
+            this.decompiledMethodCache = decompiledMethodCache;
+            return this;
+        }
+
+        public CodeLocationDecompilerImpl build() {
+            if (classFileReader == null) {
+                throw new IllegalStateException("Class file reader must be set");
+            }
+
+            if (decompiler == null) {
+                throw new IllegalStateException("Decompiler must be set");
+            }
+
+            return new CodeLocationDecompilerImpl(classFileReader, classFileResolver, decompiler, decompiledMethodCache);
+        }
+    }
 }
@@ -2,16 +2,13 @@ package io.recode.decompile.impl;
 
 import io.recode.decompile.*;
 import io.recode.util.Methods;
-import io.recode.util.Types;
 import io.recode.classfile.ByteCode;
 import io.recode.classfile.ClassFileFormatException;
 import io.recode.classfile.ExceptionTableEntry;
 import io.recode.model.Expression;
 import io.recode.model.Goto;
-import io.recode.model.impl.GotoImpl;
-import io.recode.model.impl.ReturnImpl;
-import io.recode.model.impl.ReturnValueImpl;
 import io.recode.util.Priority;
+import io.recode.util.TypeKind;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
@@ -87,7 +84,7 @@ public final class ControlFlowInstructions implements DecompilerDelegation {
                     return;
                 }
 
-                context.enlist(new GotoImpl(absoluteOffset));
+                context.enlist(context.getModelFactory().jump(absoluteOffset));
             }
         };
     }
@@ -97,7 +94,7 @@ public final class ControlFlowInstructions implements DecompilerDelegation {
             @Override
             public void apply(DecompilationContext context, CodeStream codeStream, int byteCode) throws IOException {
                 context.reduceAll();
-                context.enlist(new ReturnImpl());
+                context.enlist(context.getModelFactory().doReturn());
             }
         };
     }
@@ -108,13 +105,13 @@ public final class ControlFlowInstructions implements DecompilerDelegation {
             public void apply(DecompilationContext context, CodeStream codeStream, int byteCode) throws IOException {
                 final Expression returnValue = context.getStack().pop();
 
-                switch (returnValue.getType().getTypeName()) {
-                    case "boolean":
-                    case "byte":
-                    case "short":
-                    case "char":
-                    case "int":
-                        context.enlist(new ReturnValueImpl(returnValue));
+                switch (TypeKind.of(returnValue.getType()).getSort()) {
+                    case BOOLEAN:
+                    case BYTE:
+                    case SHORT:
+                    case CHAR:
+                    case INT:
+                        context.enlist(context.getModelFactory().returnValue(returnValue));
                         break;
                     default:
                         throw invalidReturnValue(byteCode, returnValue);
@@ -141,11 +138,11 @@ public final class ControlFlowInstructions implements DecompilerDelegation {
             public void apply(DecompilationContext context, CodeStream codeStream, int byteCode) throws IOException {
                 final Expression returnValue = context.getStack().pop();
 
-                if (Types.isPrimitive(returnValue.getType())) {
+                if (TypeKind.of(returnValue.getType()).isPrimitive()) {
                     throw invalidReturnValue(byteCode, returnValue);
                 }
 
-                context.enlist(new ReturnValueImpl(returnValue));
+                context.enlist(context.getModelFactory().returnValue(returnValue));
             }
         };
     }
@@ -160,7 +157,7 @@ public final class ControlFlowInstructions implements DecompilerDelegation {
                     throw invalidReturnValue(byteCode, returnValue);
                 }
 
-                context.enlist(new ReturnValueImpl(returnValue));
+                context.enlist(context.getModelFactory().returnValue(returnValue));
             }
         };
     }
@@ -121,20 +121,14 @@ public final class DecompilationContextImpl implements DecompilationContext {
     public boolean isStackCompliantWithComputationalCategories(int... computationalCategories) {
         assert computationalCategories != null : "Computational categories can't be null";
 
-        if (computationalCategories.length > stack.size()) {
+        final int offset = stack.size() - computationalCategories.length;
+
+        if (offset < 0) {
             return false;
         }
 
-        final Iterable<Expression> subStack = (stack.size() == computationalCategories.length
-                ? stack
-                : stack.tail(stack.size() - computationalCategories.length));
-
-        int index = 0;
-
-        for (Expression expression : subStack) {
-            final int actualComputationalCategory = Types.getComputationalCategory(expression.getType());
-
-            if (computationalCategories[index++] != actualComputationalCategory) {
+        for (int i = 0; i < computationalCategories.length; i++) {
+            if (computationalCategories[i] != TypeKind.of(stack.get(offset + i).getType()).getComputationalCategory()) {
                 return false;
             }
         }
@@ -229,6 +223,19 @@ public final class DecompilationContextImpl implements DecompilationContext {
         return stack.peek();
     }
 
+    @Override
+    public Expression peek(int depth) throws IllegalStateException {
+        assert depth >= 0 : "Depth must be positive";
+
+        final int size = stack.size();
+
+        if (depth >= size) {
+            throw new IllegalStateException("Stack has " + size + " expressions, no expression exists at depth " + depth);
+        }
+
+        return stack.get(size - 1 - depth);
+    }
+
     @Override
     public Sequence<Statement> getStatements() {
         return visibleStatements;
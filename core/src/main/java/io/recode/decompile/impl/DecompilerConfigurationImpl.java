@@ -11,6 +11,7 @@ import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 import static io.recode.decompile.DecompilerConfigurationBuilder.ExtendContinuation;
+import static io.recode.decompile.DecompilerConfigurationBuilder.OnElementTypeContinuation;
 import static io.recode.util.Iterators.collect;
 import static io.recode.util.Iterators.empty;
 import static io.recode.util.Iterators.filter;
@@ -42,6 +43,11 @@ public final class DecompilerConfigurationImpl implements DecompilerConfiguratio
 
     @Override
     public DecompilerDelegate getDecompilerDelegate(DecompilationContext context, int byteCode) {
+        return getDecompilerDelegate(context, byteCode, null);
+    }
+
+    @Override
+    public DecompilerDelegate getDecompilerDelegate(DecompilationContext context, int byteCode, DecompilationStateSelectorCache selectorCache) {
         assert context != null : "Decompilation context can't be null";
         assert validByteCode(byteCode) : "Byte code must be in range [0, 255]";
 
@@ -52,7 +58,7 @@ public final class DecompilerConfigurationImpl implements DecompilerConfiguratio
         }
 
         for (DecompilerDelegateAdapter adapter : candidates) {
-            if (adapter.getDecompilationStateSelector().select(context, byteCode)) {
+            if (select(adapter.getDecompilationStateSelector(), context, byteCode, selectorCache)) {
                 return (DecompilerDelegate) adapter.getDelegate();
             }
         }
@@ -62,12 +68,22 @@ public final class DecompilerConfigurationImpl implements DecompilerConfiguratio
 
     @Override
     public Iterator<DecompilerDelegate> getAdvisoryDecompilerEnhancements(DecompilationContext context, int byteCode) {
-        return selectEnhancements(advisoryDecompilerEnhancements, context, byteCode);
+        return selectEnhancements(advisoryDecompilerEnhancements, context, byteCode, null);
+    }
+
+    @Override
+    public Iterator<DecompilerDelegate> getAdvisoryDecompilerEnhancements(DecompilationContext context, int byteCode, DecompilationStateSelectorCache selectorCache) {
+        return selectEnhancements(advisoryDecompilerEnhancements, context, byteCode, selectorCache);
     }
 
     @Override
     public Iterator<DecompilerDelegate> getCorrectionalDecompilerEnhancements(DecompilationContext context, int byteCode) {
-        return selectEnhancements(correctionalDecompilerEnhancements, context, byteCode);
+        return selectEnhancements(correctionalDecompilerEnhancements, context, byteCode, null);
+    }
+
+    @Override
+    public Iterator<DecompilerDelegate> getCorrectionalDecompilerEnhancements(DecompilationContext context, int byteCode, DecompilationStateSelectorCache selectorCache) {
+        return selectEnhancements(correctionalDecompilerEnhancements, context, byteCode, selectorCache);
     }
 
     @Override
@@ -114,8 +130,11 @@ public final class DecompilerConfigurationImpl implements DecompilerConfiguratio
                     for (DecompilerDelegateAdapter adapter : adapters) {
                         final ModelQueryTransformation modelQueryTransformation = (ModelQueryTransformation) adapter.getDelegate();
 
-                        mergedConfigurationBuilder.map(elementTypes[adapter.getByteCode()])
-                                .forQuery(modelQueryTransformation.getModelQuery())
+                        final OnElementTypeContinuation continuation = mergedConfigurationBuilder.map(elementTypes[adapter.getByteCode()]);
+
+                        modelQueryTransformation.getDiscriminator().ifPresent(continuation::discriminatedBy);
+
+                        continuation.forQuery(modelQueryTransformation.getModelQuery())
                                 .withPriority(adapter.getPriority())
                                 .to(modelQueryTransformation.getTargetTransformation());
                     }
@@ -138,7 +157,8 @@ public final class DecompilerConfigurationImpl implements DecompilerConfiguratio
     }
 
     private Iterator<DecompilerDelegate> selectEnhancements(DecompilerDelegateAdapter<DecompilerDelegate>[][] source,
-                                                            DecompilationContext context, int byteCode) {
+                                                            DecompilationContext context, int byteCode,
+                                                            DecompilationStateSelectorCache selectorCache) {
         assert context != null : "Context can't be null";
         assert ByteCode.isValid(byteCode) : "Byte code is not valid";
 
@@ -149,10 +169,19 @@ public final class DecompilerConfigurationImpl implements DecompilerConfiguratio
         }
 
         return collect(filter(Iterators.of(enhancements),
-                        adapter -> adapter.getDecompilationStateSelector().select(context, byteCode)),
+                        adapter -> select(adapter.getDecompilationStateSelector(), context, byteCode, selectorCache)),
                 DecompilerDelegateAdapter::getDelegate);
     }
 
+    private static boolean select(DecompilationStateSelector selector, DecompilationContext context, int byteCode,
+                                  DecompilationStateSelectorCache selectorCache) {
+        if (selectorCache == null || selector == DecompilationStateSelector.ALL) {
+            return selector.select(context, byteCode);
+        }
+
+        return selectorCache.select(selector, context, byteCode);
+    }
+
     private static boolean validByteCode(int byteCode) {
         return (byteCode & ~0xFF) == 0;
     }
@@ -185,6 +214,16 @@ public final class DecompilerConfigurationImpl implements DecompilerConfiguratio
             assert elementType != null : "Element type can't be null";
 
             return new OnElementTypeContinuation() {
+
+                private Object discriminator;
+
+                @Override
+                public OnElementTypeContinuation discriminatedBy(Object discriminator) {
+                    assert discriminator != null : "Discriminator can't be null";
+                    this.discriminator = discriminator;
+                    return this;
+                }
+
                 @Override
                 public <R extends Element> ForQueryContinuationWithPriority<R> forQuery(ModelQuery<Element, R> query) {
                     assert query != null : "Query can't be null";
@@ -213,7 +252,7 @@ public final class DecompilerConfigurationImpl implements DecompilerConfiguratio
                                             index,
                                             priority,
                                             DecompilationStateSelector.ALL,
-                                            new ModelQueryTransformation(query, transformation)));
+                                            new ModelQueryTransformation(query, transformation, discriminator)));
 
                             return Builder.this;
                         }
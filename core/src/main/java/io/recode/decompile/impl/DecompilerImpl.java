@@ -1,18 +1,27 @@
 package io.recode.decompile.impl;
 
 import io.recode.RuntimeTypeResolver;
+import io.recode.TypeResolver;
 import io.recode.classfile.ByteCode;
 import io.recode.classfile.LineNumberTable;
 import io.recode.classfile.Method;
 import io.recode.decompile.*;
+import io.recode.jfr.RecodeEvents;
+import io.recode.metrics.Metrics;
+import io.recode.metrics.MetricsRegistry;
 import io.recode.model.*;
 import io.recode.model.impl.DefaultModelFactory;
+import io.recode.model.impl.ElementPool;
+import io.recode.model.impl.InterningModelFactory;
 import io.recode.util.*;
 
 import java.io.EOFException;
 import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.lang.management.ManagementFactory;
+import java.util.BitSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
@@ -22,28 +31,73 @@ import static java.util.stream.Collectors.joining;
 
 public final class DecompilerImpl implements Decompiler {
 
+    private static final int DEADLINE_CHECK_INTERVAL = 64;
+
+    private static final int PENDING_STATEMENT_COUNT = 2;
+
     private final DecompilerConfiguration configuration;
 
+    private final ModelTransformationEngine modelTransformationEngine;
+
+    private final TypeResolver typeResolver;
+
+    private final ElementPool elementPool;
+
+    private static final ThreadLocal<Workspace> WORKSPACES = ThreadLocal.withInitial(Workspace::new);
+
     public DecompilerImpl() {
-        this(CoreDecompilerDelegation.configuration());
+        this(CoreDecompilerDelegation.sharedConfiguration());
     }
 
     public DecompilerImpl(DecompilerConfiguration configuration) {
+        this(configuration, new RuntimeTypeResolver());
+    }
+
+    /**
+     * Creates a decompiler that resolves all referenced types through the provided type resolver. A
+     * {@link io.recode.SymbolicTypeResolver} can be used to decompile code without loading the classes it
+     * references.
+     *
+     * @param configuration The configuration of the decompiler.
+     * @param typeResolver The resolver of the types referenced by the decompiled code.
+     */
+    public DecompilerImpl(DecompilerConfiguration configuration, TypeResolver typeResolver) {
+        this(configuration, typeResolver, null);
+    }
+
+    /**
+     * Creates a decompiler that shares structurally equal operands of the decompiled elements through the provided
+     * pool, see {@link InterningModelFactory}. Sharing operands reduces the footprint of decompiled methods that are
+     * retained, e.g. by a {@link DecompiledMethodCache}.
+     *
+     * @param configuration The configuration of the decompiler.
+     * @param typeResolver The resolver of the types referenced by the decompiled code.
+     * @param elementPool The pool of shared elements, or <code>null</code> if elements shouldn't be shared.
+     */
+    public DecompilerImpl(DecompilerConfiguration configuration, TypeResolver typeResolver, ElementPool elementPool) {
         assert configuration != null : "Configuration can't be null";
+        assert typeResolver != null : "Type resolver can't be null";
 
         this.configuration = configuration;
+        this.modelTransformationEngine = new ModelTransformationEngine(configuration);
+        this.typeResolver = typeResolver;
+        this.elementPool = elementPool;
+    }
+
+    public ModelTransformationEngine getModelTransformationEngine() {
+        return modelTransformationEngine;
     }
 
     private void debug(DecompilationContext context, int lineNumber, int byteCode) {
         // TODO Debugging is nice, but shouldn't be implemented through a direct dependency to the code generator
 
         final String byteCodeAsString = ByteCode.toString(byteCode);
-        final String stackDescription = context.getStackedExpressions().stream().map(DecompilerImpl::describe).collect(joining(", "));
+        final String stackDescription = context.getStack().stream().map(DecompilerImpl::describe).collect(joining(", "));
 
         System.out.println(String.format("%03d %s [%s]", lineNumber, Strings.rightPad(byteCodeAsString, 16, ' '), stackDescription));
 
         /* if (debugCodeGenerator != null) {
-            final String stackedExpressions = context.getStackedExpressions().stream()
+            final String stackedExpressions = context.getStack().stream()
                     .map(e -> debugCodeGenerator.describe(new CodePointerImpl<>(context.getMethod(), e)).toString())
                     .collect(Collectors.joining(", "));
 
@@ -60,14 +114,14 @@ public final class DecompilerImpl implements Decompiler {
         return parse(method, stream, DecompilationProgressCallback.NULL);
     }
 
-    private void advice(DecompilerConfiguration configuration, DecompilationContext context, CodeStream codeStream, int byteCode) throws IOException {
-        for (Iterator<DecompilerDelegate> iterator = configuration.getAdvisoryDecompilerEnhancements(context, byteCode); iterator.hasNext(); ) {
+    private void advice(DecompilerConfiguration configuration, DecompilationContext context, CodeStream codeStream, int byteCode, DecompilationStateSelectorCache selectorCache) throws IOException {
+        for (Iterator<DecompilerDelegate> iterator = configuration.getAdvisoryDecompilerEnhancements(context, byteCode, selectorCache); iterator.hasNext(); ) {
             iterator.next().apply(context, codeStream, byteCode);
         }
     }
 
-    private void correct(DecompilerConfiguration configuration, DecompilationContext context, CodeStream codeStream, int byteCode) throws IOException {
-        for (Iterator<DecompilerDelegate> iterator = configuration.getCorrectionalDecompilerEnhancements(context, byteCode); iterator.hasNext(); ) {
+    private void correct(DecompilerConfiguration configuration, DecompilationContext context, CodeStream codeStream, int byteCode, DecompilationStateSelectorCache selectorCache) throws IOException {
+        for (Iterator<DecompilerDelegate> iterator = configuration.getCorrectionalDecompilerEnhancements(context, byteCode, selectorCache); iterator.hasNext(); ) {
             iterator.next().apply(context, codeStream, byteCode);
         }
     }
@@ -80,6 +134,61 @@ public final class DecompilerImpl implements Decompiler {
     };
 
     public Element[] parse(Method method, CodeStream codeStream, DecompilationProgressCallback callback) throws IOException {
+        return parse(method, codeStream, callback, DecompilationBudget.unlimited()).get();
+    }
+
+    @Override
+    public DecompilationResult<Element> parse(Method method, CodeStream codeStream, DecompilationProgressCallback callback, DecompilationBudget budget) throws IOException {
+        assert budget != null : "Budget can't be null";
+
+        return parse(method, codeStream, callback, budget, null);
+    }
+
+    /**
+     * Decompiles a method and provides statements to the sink as soon as they're final. A statement is considered
+     * final when at least {@link #PENDING_STATEMENT_COUNT} statements have been enlisted after it, since instructions
+     * can rewrite the most recent statements (e.g. when decompiling increments and lambdas), and when neither it
+     * nor any statement before it can still change:
+     * <ul>
+     *     <li>Branches and gotos aren't final, since boolean expressions are reduced by removing any number of
+     *     trailing branches. Statements after the first branch that hasn't been emitted are held back.</li>
+     *     <li>Stacked expressions are reduced to statements at the position of their program counter (e.g. calls
+     *     to void methods), so only statements that precede all stacked expressions are final.</li>
+     * </ul>
+     * Since calls to void methods remain on the stack until the end of the method, statements following such a
+     * call are only provided after the method has been decompiled entirely.
+     */
+    @Override
+    public void parse(Method method, CodeStream codeStream, DecompilationProgressCallback callback, StatementSink sink) throws IOException {
+        assert sink != null : "Sink can't be null";
+
+        parse(method, codeStream, callback, DecompilationBudget.unlimited(), new StatementEmitter(sink));
+    }
+
+    private DecompilationResult<Element> parse(Method method, CodeStream codeStream, DecompilationProgressCallback callback, DecompilationBudget budget, StatementEmitter statementEmitter) throws IOException {
+        final Workspace threadWorkspace = WORKSPACES.get();
+
+        // Decompilation is reentrant (e.g. when resolving lambdas); nested decompilations use a temporary workspace
+        final Workspace workspace;
+
+        if (threadWorkspace.acquire(modelTransformationEngine)) {
+            workspace = threadWorkspace;
+        } else {
+            workspace = new Workspace();
+            workspace.acquire(modelTransformationEngine);
+        }
+
+        try {
+            return parse(method, codeStream, callback, budget, statementEmitter, workspace);
+        } finally {
+            workspace.release();
+        }
+    }
+
+    private DecompilationResult<Element> parse(Method method, CodeStream codeStream, DecompilationProgressCallback callback, DecompilationBudget budget, StatementEmitter statementEmitter, Workspace workspace) throws IOException {
+        final MetricsRegistry metrics = Metrics.registry();
+        final long start = (metrics != null ? System.nanoTime() : 0L);
+        final RecodeEvents.MethodDecompilation event = RecodeEvents.beginMethodDecompilation();
         final Optional<LineNumberTable> lineNumberTable = method.getLineNumberTable();
 
         final LineNumberCounter lineNumberCounter;
@@ -90,23 +199,24 @@ public final class DecompilerImpl implements Decompiler {
             lineNumberCounter = new LineNumberCounterImpl(codeStream.pc(), lineNumberTable.get());
         }
 
-        final InstructionContextImpl instructionContext = new InstructionContextImpl();
-
-        final ModelFactory modelFactory = new TransformingModelFactory(new DefaultModelFactory(() -> new ElementContextMetaData(instructionContext.getProgramCounter(), instructionContext.getLineNumber())), transformElement());
-
-        final TransformedStack<Expression, Expression> stack = new TransformedStack<>(new SingleThreadedStack<>(), transformElement(modelFactory), Function.identity());
+        if (event.isEnabled()) {
+            event.setClassName(method.getClassFile().getName());
+            event.setMethodName(method.getName());
+            event.setLineNumber(lineNumberCounter.get());
+        }
 
-        final TransformedSequence<Statement, Statement> statements = new TransformedSequence<>(new LinkedSequence<>(), transformElement(modelFactory), Function.identity());
+        final InstructionContextImpl instructionContext = workspace.instructionContext;
+        final DecompilationStateSelectorCache selectorCache = workspace.selectorCache;
 
         final DecompilationContext context = new DecompilationContextImpl.Builder()
                 .setDecompiler(this)
                 .setMethod(method)
                 .setProgramCounter(codeStream.pc())
                 .setLineNumberCounter(lineNumberCounter)
-                .setTypeResolver(new RuntimeTypeResolver())
-                .setStack(stack)
-                .setStatements(statements)
-                .setModelFactory(modelFactory)
+                .setTypeResolver(typeResolver)
+                .setStack(workspace.stack)
+                .setStatements(workspace.statements)
+                .setModelFactory(elementPool == null ? workspace.modelFactory : workspace.interningModelFactory(elementPool))
                 .setStartPC(codeStream.pc().get())
                 .setInstructionContext(instructionContext)
                 .build();
@@ -121,7 +231,29 @@ public final class DecompilerImpl implements Decompiler {
             System.out.println(method.getClassFile().getName() + "#" + method.getName() + "[" + codeStream.pc().get() + "/" + lineNumberCounter.get() + "]:");
         }
 
-        while (!context.isAborted()) {
+        final long deadline = (budget.hasTimeout() ? System.nanoTime() + budget.getTimeoutNanos() : 0L);
+        final int maxInstructions = budget.getMaxInstructions();
+        final int maxElements = budget.getMaxElements();
+
+        DecompilationResult.Truncation truncation = null;
+        int instructionCount = 0;
+
+        for (; !context.isAborted(); instructionCount++) {
+            if (instructionCount == maxInstructions) {
+                truncation = DecompilationResult.Truncation.INSTRUCTION_LIMIT;
+                break;
+            }
+
+            if (instructionContext.getElementCount() >= maxElements) {
+                truncation = DecompilationResult.Truncation.ELEMENT_LIMIT;
+                break;
+            }
+
+            if (budget.hasTimeout() && (instructionCount % DEADLINE_CHECK_INTERVAL) == 0 && System.nanoTime() - deadline >= 0) {
+                truncation = DecompilationResult.Truncation.TIMEOUT;
+                break;
+            }
+
             final int byteCode;
 
             try {
@@ -131,12 +263,17 @@ public final class DecompilerImpl implements Decompiler {
             }
 
             instructionContext.update(byteCode, codeStream.pc().get(), lineNumberCounter.get());
+            selectorCache.nextStep();
+
+            if (statementEmitter != null) {
+                statementEmitter.instruction(codeStream.pc().get());
+            }
 
             callback.beforeInstruction(context, byteCode);
 
-            advice(configuration, context, codeStream, byteCode);
+            advice(configuration, context, codeStream, byteCode, selectorCache);
 
-            final DecompilerDelegate delegate = configuration.getDecompilerDelegate(context, byteCode);
+            final DecompilerDelegate delegate = configuration.getDecompilerDelegate(context, byteCode, selectorCache);
 
             if (delegate != null) {
                 delegate.apply(context, codeStream, byteCode);
@@ -146,77 +283,60 @@ public final class DecompilerImpl implements Decompiler {
                 debug(context, lineNumberCounter.get(), byteCode);
             }
 
-            correct(configuration, context, codeStream, byteCode);
+            correct(configuration, context, codeStream, byteCode, selectorCache);
 
             callback.afterInstruction(context, byteCode);
+
+            if (statementEmitter != null && !statementEmitter.emit(context.getStatements(), context.getStack(), PENDING_STATEMENT_COUNT)) {
+                context.abort();
+            }
         }
 
-        context.reduceAll();
+        if (truncation == null) {
+            context.reduceAll();
+        }
 
         if (debug) {
             DEBUG_TL.get().set(false);
         }
 
-        return context.getStatements().all().get().stream().toArray(Element[]::new);
-    }
+        if (metrics != null) {
+            metrics.recordDecompilation(instructionCount, instructionContext.getElementCount(), System.nanoTime() - start);
+        }
 
-    private Function transformElement() {
-        return new Function<Element, Element>() {
-            @Override
-            public Element apply(Element element) {
-                while (true) {
-                    boolean anyTransformationApplied = false;
-
-                    for (ModelTransformation transformation : configuration.getTransformations(element.getElementType())) {
-                        final Optional result = transformation.apply(element);
-
-                        if (result.isPresent()) {
-                            anyTransformationApplied = true;
-                            element = (Expression) result.get();
-                            break;
-                        }
-                    }
-
-                    if (!anyTransformationApplied) {
-                        break;
-                    }
-                }
+        if (event.isEnabled()) {
+            event.setInstructionCount(instructionCount);
+            event.commit();
+        }
 
-                return element;
+        if (statementEmitter != null) {
+            if (!statementEmitter.isStopped()) {
+                statementEmitter.emit(context.getStatements(), null, 0);
             }
-        };
-    }
 
-    @SuppressWarnings("unchecked")
-    private Function transformElement(ModelFactory modelFactory) {
-        return new Function<Element, Element>() {
-            @Override
-            public Element apply(Element element) {
-                while (true) {
-                    if (!element.getMetaData().hasProgramCounter()) {
-                        element = modelFactory.createFrom(element);
-                    }
-
-                    boolean anyTransformationApplied = false;
-
-                    for (ModelTransformation transformation : configuration.getTransformations(element.getElementType())) {
-                        final Optional result = transformation.apply(element);
-
-                        if (result.isPresent()) {
-                            anyTransformationApplied = true;
-                            element = (Expression) result.get();
-                            break;
-                        }
-                    }
-
-                    if (!anyTransformationApplied) {
-                        break;
-                    }
-                }
+            return null;
+        }
 
-                return element;
-            }
-        };
+        if (truncation == null) {
+            return new DecompilationResult<>(context.getStatements().all().get().stream().toArray(Element[]::new));
+        }
+
+        // Expressions that remain on the stack are returned after the statements; they can't be reduced
+        final List<Statement> completeStatements = context.getStatements().all().get();
+        final List<Expression> stackedExpressions = context.getStack().tail(0);
+        final Element[] elements = new Element[completeStatements.size() + stackedExpressions.size()];
+
+        int index = 0;
+
+        for (Statement statement : completeStatements) {
+            elements[index++] = statement;
+        }
+
+        for (Expression expression : stackedExpressions) {
+            elements[index++] = expression;
+        }
+
+        return new DecompilationResult<>(elements, truncation);
     }
 
     // TODO Move
@@ -282,6 +402,10 @@ public final class DecompilerImpl implements Decompiler {
 
         private volatile int lineNumber = -1;
 
+        private volatile ElementMetaData elementMetaData;
+
+        private int elementCount;
+
         @Override
         public int getByteCode() {
             return byteCode;
@@ -297,10 +421,219 @@ public final class DecompilerImpl implements Decompiler {
             return lineNumber;
         }
 
+        /**
+         * Returns the meta data of elements created by the current instruction. The meta data is created once per
+         * instruction and shared by all elements created by it. Every call is counted as a created element.
+         *
+         * @return The element meta data of the current instruction.
+         */
+        protected ElementMetaData getElementMetaData() {
+            elementCount++;
+            return elementMetaData;
+        }
+
+        protected int getElementCount() {
+            return elementCount;
+        }
+
+        protected void reset() {
+            this.byteCode = -1;
+            this.programCounter = -1;
+            this.lineNumber = -1;
+            this.elementMetaData = null;
+            this.elementCount = 0;
+        }
+
         protected void update(int byteCode, int programCounter, int lineNumber) {
             this.byteCode = byteCode;
             this.programCounter = programCounter;
             this.lineNumber = lineNumber;
+            this.elementMetaData = new ElementContextMetaData(programCounter, lineNumber);
+        }
+    }
+
+    private static final class StatementEmitter {
+
+        private final StatementSink sink;
+
+        private final BitSet instructionPCs = new BitSet();
+
+        private int fromPC = -1;
+
+        private int emittedStatements;
+
+        private boolean stopped;
+
+        private StatementEmitter(StatementSink sink) {
+            this.sink = sink;
+        }
+
+        /**
+         * Records the start of an instruction, so that the range of a statement can begin at the first instruction
+         * following the previous statement.
+         */
+        private void instruction(int pc) {
+            if (fromPC == -1) {
+                fromPC = pc;
+            }
+
+            instructionPCs.set(pc);
+        }
+
+        private boolean isStopped() {
+            return stopped;
+        }
+
+        /**
+         * Provides the statements that haven't been emitted to the sink and are final. If no stack is provided,
+         * the decompilation is complete and all statements except for the pending statements are final.
+         *
+         * @param statements The statements decompiled so far.
+         * @param stack The current stack, or <code>null</code> if the decompilation is complete.
+         * @param pendingStatements The number of recent statements that shouldn't be emitted.
+         * @return Whether or not the sink accepts further statements.
+         */
+        private boolean emit(Sequence<Statement> statements, Stack<Expression> stack, int pendingStatements) {
+            final int count = statements.size() - emittedStatements - pendingStatements;
+
+            if (count <= 0 || stopped) {
+                return !stopped;
+            }
+
+            final Statement[] emittableStatements = new Statement[count];
+
+            Sequence.SingleElement<Statement> selector = statements.last();
+
+            for (int i = 0; i < pendingStatements; i++) {
+                selector = selector.previous();
+            }
+
+            for (int i = count - 1; i >= 0; i--) {
+                emittableStatements[i] = selector.get();
+
+                if (i > 0) {
+                    selector = selector.previous();
+                }
+            }
+
+            final int stackedPC = (stack == null ? Integer.MAX_VALUE : firstStackedPC(stack));
+
+            for (Statement statement : emittableStatements) {
+                final ElementMetaData metaData = statement.getMetaData();
+
+                if (stack != null && !isFinal(statement, stackedPC)) {
+                    return true;
+                }
+
+                final int toPC = (metaData.hasProgramCounter() ? metaData.getProgramCounter() : fromPC);
+
+                emittedStatements++;
+
+                if (!sink.accept(statement, new Range(Math.min(fromPC, toPC), toPC))) {
+                    stopped = true;
+                    return false;
+                }
+
+                final int nextPC = instructionPCs.nextSetBit(toPC + 1);
+
+                fromPC = (nextPC == -1 ? toPC + 1 : nextPC);
+            }
+
+            return true;
+        }
+
+        private static boolean isFinal(Statement statement, int stackedPC) {
+            final ElementType elementType = statement.getElementType();
+
+            if (elementType == ElementType.BRANCH || elementType == ElementType.GOTO) {
+                return false;
+            }
+
+            if (stackedPC == Integer.MAX_VALUE) {
+                return true;
+            }
+
+            final ElementMetaData metaData = statement.getMetaData();
+
+            return metaData.hasProgramCounter() && metaData.getProgramCounter() < stackedPC;
+        }
+
+        /**
+         * Returns the lowest program counter of the stacked expressions, i.e. the position before which stacked
+         * expressions would be inserted if they're reduced to statements.
+         */
+        private static int firstStackedPC(Stack<Expression> stack) {
+            int stackedPC = Integer.MAX_VALUE;
+
+            for (int i = 0, n = stack.size(); i < n; i++) {
+                final ElementMetaData metaData = stack.get(i).getMetaData();
+
+                if (!metaData.hasProgramCounter()) {
+                    return -1;
+                }
+
+                stackedPC = Math.min(stackedPC, metaData.getProgramCounter());
+            }
+
+            return stackedPC;
+        }
+    }
+
+    /**
+     * The objects required to decompile a method that don't depend on the method being decompiled. A workspace
+     * is reused by subsequent decompilations on the same thread and is reset after every decompilation. Workspaces
+     * are shared by all decompilers; the model transformation engine of the decompiler is provided when the
+     * workspace is acquired, so that a workspace doesn't keep a decompiler reachable.
+     */
+    private static final class Workspace {
+
+        private final InstructionContextImpl instructionContext = new InstructionContextImpl();
+
+        private final ModelFactory elementModelFactory = new DefaultModelFactory(instructionContext::getElementMetaData);
+
+        private final ModelFactory modelFactory = new TransformingModelFactory(elementModelFactory, transformElement());
+
+        private final TransformedStack<Expression, Expression> stack = new TransformedStack<>(new SingleThreadedStack<>(), transformElement(), Function.identity());
+
+        private final TransformedSequence<Statement, Statement> statements = new TransformedSequence<>(new LinkedSequence<>(), transformElement(), Function.identity());
+
+        private final DecompilationStateSelectorCache selectorCache = new DecompilationStateSelectorCache();
+
+        private ModelTransformationEngine modelTransformationEngine;
+
+        private WeakReference<ModelTransformationEngine> previousModelTransformationEngine = new WeakReference<>(null);
+
+        private boolean acquire(ModelTransformationEngine modelTransformationEngine) {
+            if (this.modelTransformationEngine != null) {
+                return false;
+            }
+
+            // Selector results are cached per selector; the selectors of another configuration aren't retained
+            if (previousModelTransformationEngine.get() != modelTransformationEngine) {
+                selectorCache.removeAll();
+                previousModelTransformationEngine = new WeakReference<>(modelTransformationEngine);
+            }
+
+            this.modelTransformationEngine = modelTransformationEngine;
+
+            return true;
+        }
+
+        private void release() {
+            stack.clear();
+            statements.clear();
+            instructionContext.reset();
+            selectorCache.clear();
+
+            modelTransformationEngine = null;
+        }
+
+        private ModelFactory interningModelFactory(ElementPool elementPool) {
+            return new TransformingModelFactory(new InterningModelFactory(elementModelFactory, elementPool), transformElement());
+        }
+
+        private Function transformElement() {
+            return (Function<Element, Element>) element -> modelTransformationEngine.transform(element);
         }
     }
 }
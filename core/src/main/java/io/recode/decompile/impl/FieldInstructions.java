@@ -7,8 +7,6 @@ import io.recode.classfile.ConstantPool;
 import io.recode.classfile.FieldRefDescriptor;
 import io.recode.model.Expression;
 import io.recode.model.FieldReference;
-import io.recode.model.impl.FieldAssignmentImpl;
-import io.recode.model.impl.FieldReferenceImpl;
 import io.recode.model.MethodSignature;
 
 import java.io.IOException;
@@ -69,10 +67,10 @@ public final class FieldInstructions implements DecompilerDelegation {
                         .getConstantPool()
                         .getFieldRefDescriptor(codeStream.nextUnsignedShort());
 
-                context.getStack().push(new FieldReferenceImpl(
+                context.getStack().push(context.getModelFactory().field(
                         context.getStack().pop(),
                         context.resolveType(fieldRefDescriptor.getClassName()),
-                        MethodSignature.parseType(fieldRefDescriptor.getDescriptor()),
+                        MethodSignature.parseType(fieldRefDescriptor.getDescriptor(), context::resolveType),
                         fieldRefDescriptor.getName()));
             }
         };
@@ -88,10 +86,10 @@ public final class FieldInstructions implements DecompilerDelegation {
                         .getConstantPool()
                         .getFieldRefDescriptor(codeStream.nextUnsignedShort());
 
-                context.getStack().push(new FieldReferenceImpl(
+                context.getStack().push(context.getModelFactory().field(
                         null,
                         context.resolveType(fieldRefDescriptor.getClassName()),
-                        MethodSignature.parseType(fieldRefDescriptor.getDescriptor()),
+                        MethodSignature.parseType(fieldRefDescriptor.getDescriptor(), context::resolveType),
                         fieldRefDescriptor.getName()));
             }
         };
@@ -102,13 +100,13 @@ public final class FieldInstructions implements DecompilerDelegation {
         final FieldRefDescriptor fieldRefDescriptor = constantPool.getFieldRefDescriptor(codeStream.nextUnsignedShort());
         final Expression value = context.pop();
         final Expression targetInstance = (isStatic ? null : context.pop());
-        final FieldReference fieldReference = new FieldReferenceImpl(
+        final FieldReference fieldReference = context.getModelFactory().field(
                 targetInstance,
                 context.resolveType(fieldRefDescriptor.getClassName()),
-                MethodSignature.parseType(fieldRefDescriptor.getDescriptor()),
-                fieldRefDescriptor.getName());
+                MethodSignature.parseType(fieldRefDescriptor.getDescriptor(), context::resolveType),
+                fieldRefDescriptor.getName()).as(FieldReference.class);
 
-        context.enlist(new FieldAssignmentImpl(fieldReference, value));
+        context.enlist(context.getModelFactory().assignField(fieldReference, value));
     }
 
 }
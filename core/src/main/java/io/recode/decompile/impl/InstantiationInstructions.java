@@ -8,8 +8,6 @@ import io.recode.decompile.DecompilerDelegation;
 import io.recode.model.InstanceAllocation;
 import io.recode.model.ElementType;
 import io.recode.model.MethodCall;
-import io.recode.model.impl.InstanceAllocationImpl;
-import io.recode.model.impl.NewInstanceImpl;
 
 public final class InstantiationInstructions implements DecompilerDelegation {
 
@@ -24,7 +22,7 @@ public final class InstantiationInstructions implements DecompilerDelegation {
                 final InstanceAllocation instanceAllocation = (InstanceAllocation) methodCall.getTargetInstance();
 
                 context.pop();
-                context.push(new NewInstanceImpl(instanceAllocation.getType(), methodCall.getSignature(), methodCall.getParameters()));
+                context.push(context.getModelFactory().newInstance(instanceAllocation.getType(), methodCall.getSignature(), methodCall.getParameters()));
             }
         });
     }
@@ -33,7 +31,7 @@ public final class InstantiationInstructions implements DecompilerDelegation {
         return (context, code, byteCode) -> {
             final String className = context.getMethod().getClassFile().getConstantPool().getClassName(code.nextUnsignedShort());
 
-            context.push(new InstanceAllocationImpl(context.resolveType(className)));
+            context.push(context.getModelFactory().newInstance(context.resolveType(className)));
 
             // Ignore the dup and model the constructor as returning an initialized instance instead
             if (code.nextInstruction() != ByteCode.dup) {
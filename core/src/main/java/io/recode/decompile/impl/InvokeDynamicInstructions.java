@@ -6,10 +6,10 @@ import io.recode.decompile.DecompilerConfigurationBuilder;
 import io.recode.decompile.DecompilerDelegate;
 import io.recode.decompile.DecompilerDelegation;
 import io.recode.model.*;
-import io.recode.model.impl.LambdaImpl;
 import io.recode.model.MethodSignature;
 import io.recode.util.Sequence;
 
+import java.lang.reflect.Type;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.Stack;
@@ -37,7 +37,8 @@ public final class InvokeDynamicInstructions implements DecompilerDelegation {
 
                     if (statement.getElementType() == ElementType.METHOD_CALL) {
                         final MethodCall methodCall = statement.as(MethodCall.class);
-                        if (Object.class.equals(methodCall.getTargetType()) && methodCall.getMethodName().equals("getClass")) {
+                        // Compared by name, since the target type is symbolic if types aren't loaded
+                        if (methodCall.getTargetType().getTypeName().equals(Object.class.getName()) && methodCall.getMethodName().equals("getClass")) {
                             context.getStatements().last().remove();
                         }
                     }
@@ -57,19 +58,19 @@ public final class InvokeDynamicInstructions implements DecompilerDelegation {
 
             final ConstantPoolEntryDescriptor[] descriptors = resolveValidBootstrapArguments(constantPool, bootstrapMethod);
             final MethodHandleDescriptor backingMethodHandle = descriptors[1].as(MethodHandleDescriptor.class);
-            final Signature functionalMethodSignature = MethodSignature.parse(descriptors[0].as(MethodTypeDescriptor.class).getDescriptor());
-            final Signature parameterizedMethodSignature = MethodSignature.parse(descriptors[2].as(MethodTypeDescriptor.class).getDescriptor());
+            final Signature functionalMethodSignature = MethodSignature.parse(descriptors[0].as(MethodTypeDescriptor.class).getDescriptor(), context::resolveType);
+            final Signature parameterizedMethodSignature = MethodSignature.parse(descriptors[2].as(MethodTypeDescriptor.class).getDescriptor(), context::resolveType);
 
 
             final Optional<Expression> self;
-            final MethodSignature backingMethodSignature = MethodSignature.parse(backingMethodHandle.getMethodDescriptor());
+            final MethodSignature backingMethodSignature = MethodSignature.parse(backingMethodHandle.getMethodDescriptor(), context::resolveType);
             final LocalVariableReference[] enclosedVariables = new LocalVariableReference[Math.max(0, backingMethodSignature.getParameterTypes().size() - functionalMethodSignature.getParameterTypes().size())];
 
             for (int i = enclosedVariables.length - 1; i >= 0; i--) {
                 enclosedVariables[i] = (LocalVariableReference) context.pop();
             }
 
-            final MethodSignature dynamicInvokeDescriptor = MethodSignature.parse(invokeDynamicDescriptor.getMethodDescriptor());
+            final MethodSignature dynamicInvokeDescriptor = MethodSignature.parse(invokeDynamicDescriptor.getMethodDescriptor(), context::resolveType);
             final Stack<Expression> dynamicCallStack = new Stack<>();
             final int dynamicCallStackSize;
 
@@ -82,8 +83,12 @@ public final class InvokeDynamicInstructions implements DecompilerDelegation {
             for (int i = 0; i < dynamicCallStackSize; i++) {
                 final Expression callValue = context.pop();
 
-                if (!dynamicInvokeDescriptor.getParameterTypes().get(i).equals(callValue.getType())) {
-                    throw new ClassFileFormatException("");
+                final Type parameterType = dynamicInvokeDescriptor.getParameterTypes().get(i);
+
+                // Compared by name, since either type can be symbolic while the other is a class
+                if (!parameterType.getTypeName().equals(callValue.getType().getTypeName())) {
+                    throw new ClassFileFormatException("Value of type " + callValue.getType().getTypeName()
+                            + " can't be passed as dynamic call parameter of type " + parameterType.getTypeName());
                 }
 
                 dynamicCallStack.push(callValue);
@@ -97,10 +102,10 @@ public final class InvokeDynamicInstructions implements DecompilerDelegation {
                 self = Optional.of(dynamicCallStack.pop());
             }
 
-            context.push(new LambdaImpl(
+            context.push(context.getModelFactory().createLambda(
                     self,
                     backingMethodHandle.getReferenceKind(),
-                    MethodSignature.parse(invokeDynamicDescriptor.getMethodDescriptor()).getReturnType(),
+                    MethodSignature.parse(invokeDynamicDescriptor.getMethodDescriptor(), context::resolveType).getReturnType(),
                     invokeDynamicDescriptor.getMethodName(),
                     functionalMethodSignature,
                     context.resolveType(backingMethodHandle.getClassName()),
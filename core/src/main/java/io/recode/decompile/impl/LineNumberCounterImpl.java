@@ -5,13 +5,15 @@ import io.recode.classfile.LineNumberTable;
 import io.recode.classfile.LineNumberTableEntry;
 import io.recode.decompile.ProgramCounter;
 
+import java.util.List;
+
 public final class LineNumberCounterImpl implements LineNumberCounter {
 
     private final ProgramCounter programCounter;
 
     private final LineNumberTable lineNumberTable;
 
-    private LineNumberTableEntry[] entries;
+    private List<LineNumberTableEntry> entries;
 
     private int currentLineNumberTableEntryIndex = -1;
 
@@ -28,16 +30,16 @@ public final class LineNumberCounterImpl implements LineNumberCounter {
         final int pc = programCounter.get();
 
         if (currentLineNumberTableEntryIndex == -1) {
-            this.entries = lineNumberTable.getEntries().stream().toArray(LineNumberTableEntry[]::new);
+            this.entries = lineNumberTable.getEntries();
             this.currentLineNumberTableEntryIndex = 0;
         }
 
-        if (currentLineNumberTableEntryIndex < entries.length - 1) {
-            if (pc >= entries[currentLineNumberTableEntryIndex + 1].getStartPC()) {
+        if (currentLineNumberTableEntryIndex < entries.size() - 1) {
+            if (pc >= entries.get(currentLineNumberTableEntryIndex + 1).getStartPC()) {
                 currentLineNumberTableEntryIndex++;
             }
         }
 
-        return entries[currentLineNumberTableEntryIndex].getLineNumber();
+        return entries.get(currentLineNumberTableEntryIndex).getLineNumber();
     }
 }
@@ -4,7 +4,6 @@ import io.recode.classfile.*;
 import io.recode.decompile.*;
 import io.recode.model.Expression;
 import io.recode.model.Signature;
-import io.recode.model.impl.MethodCallImpl;
 import io.recode.model.MethodSignature;
 
 import java.io.IOException;
@@ -104,7 +103,7 @@ public final class MethodCallInstructions implements DecompilerDelegation {
     }
 
     private static void invoke(DecompilationContext context, MethodRefDescriptor methodReference, boolean isStatic) {
-        final Signature signature = MethodSignature.parse(methodReference.getDescriptor());
+        final Signature signature = MethodSignature.parse(methodReference.getDescriptor(), context::resolveType);
         final Expression[] arguments = new Expression[signature.getParameterTypes().size()];
         final Type targetType = context.resolveType(methodReference.getClassName());
 
@@ -128,7 +127,7 @@ public final class MethodCallInstructions implements DecompilerDelegation {
             thiz = context.pop();
         }
 
-        context.push(new MethodCallImpl(
+        context.push(context.getModelFactory().call(
                 targetType,
                 methodReference.getMethodName(),
                 signature,
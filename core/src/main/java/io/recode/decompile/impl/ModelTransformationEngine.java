@@ -0,0 +1,279 @@
+package io.recode.decompile.impl;
+
+import io.recode.decompile.DecompilerConfiguration;
+import io.recode.model.*;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Applies the model transformations of a {@link DecompilerConfiguration} to elements until no transformation
+ * applies. Transformations are indexed by element type and, for transformations configured with a discriminator,
+ * by the discriminator of the element (see {@link #discriminatorOf(Element)}). Elements that no transformation can
+ * match are returned immediately and the number of transformation rounds per element is bounded. A transformation
+ * that returns the element itself is considered not to have been applied.
+ */
+public final class ModelTransformationEngine {
+
+    public static final int DEFAULT_MAX_ITERATIONS = 32;
+
+    private static final Rule[] NO_RULES = new Rule[0];
+
+    private final Rule[] rules;
+
+    private final Rule[][] undiscriminatedRules;
+
+    private final Map<Object, Rule[]>[] discriminatedRules;
+
+    private final int maxIterations;
+
+    private final LongAdder unmatchedElements = new LongAdder();
+
+    private final LongAdder iterationLimitExceeded = new LongAdder();
+
+    public ModelTransformationEngine(DecompilerConfiguration configuration) {
+        this(configuration, DEFAULT_MAX_ITERATIONS);
+    }
+
+    @SuppressWarnings("unchecked")
+    public ModelTransformationEngine(DecompilerConfiguration configuration, int maxIterations) {
+        assert configuration != null : "Configuration can't be null";
+        assert maxIterations > 0 : "Max iterations must be positive";
+
+        final ElementType[] elementTypes = ElementType.values();
+        final List<Rule> allRules = new ArrayList<>();
+
+        this.undiscriminatedRules = new Rule[elementTypes.length][];
+        this.discriminatedRules = new Map[elementTypes.length];
+        this.maxIterations = maxIterations;
+
+        for (ElementType elementType : elementTypes) {
+            final ModelTransformation<Element, Element>[] transformations = configuration.getTransformations(elementType);
+            final List<Rule> rulesForType = new ArrayList<>();
+            final Set<Object> discriminators = new LinkedHashSet<>();
+
+            if (transformations != null) {
+                for (ModelTransformation<Element, Element> transformation : transformations) {
+                    final Object discriminator = (transformation instanceof ModelQueryTransformation
+                            ? ((ModelQueryTransformation) transformation).getDiscriminator().orElse(null)
+                            : null);
+
+                    final Rule rule = new Rule(transformation, discriminator);
+
+                    rulesForType.add(rule);
+
+                    if (discriminator != null) {
+                        discriminators.add(discriminator);
+                    }
+                }
+            }
+
+            allRules.addAll(rulesForType);
+
+            undiscriminatedRules[elementType.ordinal()] = rulesFor(rulesForType, null);
+
+            if (!discriminators.isEmpty()) {
+                final Map<Object, Rule[]> rulesByDiscriminator = new HashMap<>();
+
+                for (Object discriminator : discriminators) {
+                    rulesByDiscriminator.put(discriminator, rulesFor(rulesForType, discriminator));
+                }
+
+                discriminatedRules[elementType.ordinal()] = rulesByDiscriminator;
+            }
+        }
+
+        this.rules = allRules.toArray(new Rule[allRules.size()]);
+    }
+
+    public Element transform(Element element) {
+        return transform(element, Function.identity());
+    }
+
+    /**
+     * Transforms an element until no transformation applies or the maximum number of iterations is reached. Reaching
+     * the maximum number of iterations means that the transformations don't converge, which fails an assertion if
+     * assertions are enabled and is otherwise recorded, see {@link #getIterationLimitExceededCount()}.
+     *
+     * @param element The element to transform.
+     * @param normalizer Function applied to the element and to the result of every applied transformation, before
+     *                   transformations are matched against it.
+     * @return The transformed element, or the normalized element if no transformation applied.
+     */
+    public Element transform(Element element, Function<Element, Element> normalizer) {
+        assert element != null : "Element can't be null";
+        assert normalizer != null : "Normalizer can't be null";
+
+        Element currentElement = normalizer.apply(element);
+
+        for (int iteration = 0; ; iteration++) {
+            final Rule[] candidates = candidatesFor(currentElement);
+
+            if (candidates.length == 0) {
+                if (iteration == 0) {
+                    unmatchedElements.increment();
+                }
+
+                return currentElement;
+            }
+
+            if (iteration == maxIterations) {
+                iterationLimitExceeded.increment();
+
+                assert false : "Transformations of " + currentElement.getElementType() + " didn't converge within "
+                        + maxIterations + " iterations: " + currentElement;
+
+                return currentElement;
+            }
+
+            final Element result = applyFirst(candidates, currentElement);
+
+            if (result == null) {
+                return currentElement;
+            }
+
+            currentElement = normalizer.apply(result);
+        }
+    }
+
+    /**
+     * Returns the number of elements for which no transformation was a candidate, i.e. elements that were
+     * returned without evaluating any model query.
+     *
+     * @return The number of unmatched elements.
+     */
+    public long getUnmatchedElementCount() {
+        return unmatchedElements.sum();
+    }
+
+    public long getIterationLimitExceededCount() {
+        return iterationLimitExceeded.sum();
+    }
+
+    public Map<ModelTransformation<Element, Element>, Long> getEvaluationCounts() {
+        final Map<ModelTransformation<Element, Element>, Long> counts = new LinkedHashMap<>();
+
+        for (Rule rule : rules) {
+            counts.merge(rule.transformation, rule.evaluations.sum(), Long::sum);
+        }
+
+        return counts;
+    }
+
+    public Map<ModelTransformation<Element, Element>, Long> getApplicationCounts() {
+        final Map<ModelTransformation<Element, Element>, Long> counts = new LinkedHashMap<>();
+
+        for (Rule rule : rules) {
+            counts.merge(rule.transformation, rule.applications.sum(), Long::sum);
+        }
+
+        return counts;
+    }
+
+    /**
+     * Returns the discriminator of an element, which is the property that discriminated transformations are
+     * indexed by. The discriminator is the method name for method calls, the field name for field references
+     * and field assignments, the operator type for unary and binary operators and branches, the variable name
+     * for variable references and assignments, the type for constants, instantiations, allocations and casts,
+     * the component type for arrays and the functional interface for lambdas.
+     *
+     * @param element The element whose discriminator should be returned.
+     * @return The discriminator of the element, or <code>null</code> if the element type has no discriminator.
+     */
+    public static Object discriminatorOf(Element element) {
+        assert element != null : "Element can't be null";
+
+        switch (element.getElementType()) {
+            case METHOD_CALL:
+                return ((MethodCall) element).getMethodName();
+            case FIELD_REFERENCE:
+                return ((FieldReference) element).getFieldName();
+            case FIELD_ASSIGNMENT:
+                return ((FieldAssignment) element).getFieldReference().getFieldName();
+            case BINARY_OPERATOR:
+                return ((BinaryOperator) element).getOperatorType();
+            case UNARY_OPERATOR:
+                return ((UnaryOperator) element).getOperatorType();
+            case BRANCH:
+                return ((Branch) element).getOperatorType();
+            case VARIABLE_REFERENCE:
+                return ((LocalVariableReference) element).getName();
+            case VARIABLE_ASSIGNMENT:
+                return ((VariableAssignment) element).getVariableName();
+            case CONSTANT:
+            case NEW:
+            case ALLOCATE:
+            case CAST:
+                return ((Expression) element).getType();
+            case NEW_ARRAY:
+                return ((NewArray) element).getComponentType();
+            case LAMBDA:
+                return ((Lambda) element).getFunctionalInterface();
+            default:
+                return null;
+        }
+    }
+
+    private Rule[] candidatesFor(Element element) {
+        final int index = element.getElementType().ordinal();
+        final Map<Object, Rule[]> rulesByDiscriminator = discriminatedRules[index];
+
+        if (rulesByDiscriminator != null) {
+            final Object discriminator = discriminatorOf(element);
+
+            if (discriminator != null) {
+                final Rule[] candidates = rulesByDiscriminator.get(discriminator);
+
+                if (candidates != null) {
+                    return candidates;
+                }
+            }
+        }
+
+        return undiscriminatedRules[index];
+    }
+
+    private static Element applyFirst(Rule[] candidates, Element element) {
+        for (Rule rule : candidates) {
+            rule.evaluations.increment();
+
+            final Optional<Element> result = rule.transformation.apply(element);
+
+            if (result.isPresent() && result.get() != element) {
+                rule.applications.increment();
+                return result.get();
+            }
+        }
+
+        return null;
+    }
+
+    private static Rule[] rulesFor(List<Rule> rules, Object discriminator) {
+        final List<Rule> selectedRules = new ArrayList<>(rules.size());
+
+        for (Rule rule : rules) {
+            if (rule.discriminator == null || rule.discriminator.equals(discriminator)) {
+                selectedRules.add(rule);
+            }
+        }
+
+        return (selectedRules.isEmpty() ? NO_RULES : selectedRules.toArray(new Rule[selectedRules.size()]));
+    }
+
+    private static final class Rule {
+
+        private final ModelTransformation<Element, Element> transformation;
+
+        private final Object discriminator;
+
+        private final LongAdder evaluations = new LongAdder();
+
+        private final LongAdder applications = new LongAdder();
+
+        private Rule(ModelTransformation<Element, Element> transformation, Object discriminator) {
+            this.transformation = transformation;
+            this.discriminator = discriminator;
+        }
+    }
+}
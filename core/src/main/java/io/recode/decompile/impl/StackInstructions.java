@@ -6,7 +6,6 @@ import io.recode.decompile.*;
 import io.recode.model.Expression;
 
 import java.io.IOException;
-import java.util.List;
 
 public final class StackInstructions implements DecompilerDelegation {
 
@@ -31,7 +30,7 @@ public final class StackInstructions implements DecompilerDelegation {
             public void apply(DecompilationContext context, CodeStream codeStream, int byteCode) throws IOException {
                 if (!context.isStackCompliantWithComputationalCategories(1)) {
                     throw new ClassFileFormatException("Stack must comply with computational categories [1]; " +
-                            "actual stack was " + context.getStackedExpressions());
+                            "actual stack was " + context.getStack().tail(0));
                 }
 
                 if (!context.reduce()) {
@@ -48,7 +47,7 @@ public final class StackInstructions implements DecompilerDelegation {
                 if (context.isStackCompliantWithComputationalCategories(1, 1)) {
                     if (!context.reduce() || !context.reduce()) {
                         throw new ClassFileFormatException("Stack contains irreducible operand; exactly " +
-                                "two reducible operands expected, was  " + context.getStackedExpressions());
+                                "two reducible operands expected, was  " + context.getStack().tail(0));
                     }
 
                     return;
@@ -57,14 +56,14 @@ public final class StackInstructions implements DecompilerDelegation {
                 if (context.isStackCompliantWithComputationalCategories(2)) {
                     if (!context.reduce()) {
                         throw new ClassFileFormatException("Stack contains irreducible operand; exactly one " +
-                                "reducible operand expected, was " + context.getStackedExpressions());
+                                "reducible operand expected, was " + context.getStack().tail(0));
                     }
 
                     return;
                 }
 
                 throw new ClassFileFormatException("Stack is not valid for <pop2>; expected stack with types of " +
-                        "computational categories [2] or [1, 1], was " + context.getStackedExpressions());
+                        "computational categories [2] or [1, 1], was " + context.getStack().tail(0));
             }
         };
     }
@@ -75,7 +74,7 @@ public final class StackInstructions implements DecompilerDelegation {
             public void apply(DecompilationContext context, CodeStream codeStream, int byteCode) throws IOException {
                 if (!context.isStackCompliantWithComputationalCategories(1)) {
                     throw new ClassFileFormatException("Stack must comply with computational type categories [1], " +
-                            "actual stack was " + context.getStackedExpressions());
+                            "actual stack was " + context.getStack().tail(0));
                 }
 
                 context.push(context.peek());
@@ -89,7 +88,7 @@ public final class StackInstructions implements DecompilerDelegation {
             public void apply(DecompilationContext context, CodeStream codeStream, int byteCode) throws IOException {
                 if (!context.isStackCompliantWithComputationalCategories(1, 1)) {
                     throw new ClassFileFormatException("Stack must comply with computational type categories [1, 1], " +
-                            "actual stack was " + context.getStackedExpressions());
+                            "actual stack was " + context.getStack().tail(0));
                 }
 
                 context.insert(-2, context.peek());
@@ -107,7 +106,7 @@ public final class StackInstructions implements DecompilerDelegation {
                     context.insert(-2, context.peek());
                 } else {
                     throw new ClassFileFormatException("Stack must comply with computational type categories [1, 1, 1] or [1, 2], " +
-                            "actual stack was " + context.getStackedExpressions());
+                            "actual stack was " + context.getStack().tail(0));
                 }
             }
         };
@@ -117,16 +116,17 @@ public final class StackInstructions implements DecompilerDelegation {
         return new DecompilerDelegate() {
             @Override
             public void apply(DecompilationContext context, CodeStream codeStream, int byteCode) throws IOException {
-                final List<Expression> stack = context.getStackedExpressions();
-
                 if (context.isStackCompliantWithComputationalCategories(1, 1)) {
-                    context.push(stack.get(stack.size() - 2));
-                    context.push(stack.get(stack.size() - 1));
+                    final Expression value1 = context.peek(0);
+                    final Expression value2 = context.peek(1);
+
+                    context.push(value2);
+                    context.push(value1);
                 } else if (context.isStackCompliantWithComputationalCategories(2)) {
-                    context.push(stack.get(stack.size() - 1));
+                    context.push(context.peek());
                 } else {
                     throw new ClassFileFormatException("Stack must comply with computational type categories [1, 1] or [2], " +
-                            "actual stack was " + context.getStackedExpressions());
+                            "actual stack was " + context.getStack().tail(0));
                 }
             }
         };
@@ -136,16 +136,17 @@ public final class StackInstructions implements DecompilerDelegation {
         return new DecompilerDelegate() {
             @Override
             public void apply(DecompilationContext context, CodeStream codeStream, int byteCode) throws IOException {
-                final List<Expression> stack = context.getStackedExpressions();
-
                 if (context.isStackCompliantWithComputationalCategories(1, 1, 1)) {
-                    context.insert(-3, stack.get(stack.size() - 2));
-                    context.insert(-3, stack.get(stack.size() - 1));
+                    final Expression value1 = context.peek(0);
+                    final Expression value2 = context.peek(1);
+
+                    context.insert(-3, value2);
+                    context.insert(-3, value1);
                 } else if (context.isStackCompliantWithComputationalCategories(1, 2)) {
-                    context.insert(-2, stack.get(stack.size() - 1));
+                    context.insert(-2, context.peek());
                 } else {
                     throw new ClassFileFormatException("Stack must comply with computational type categories [1, 1, 1] or [2, 1], " +
-                            "actual stack was " + context.getStackedExpressions());
+                            "actual stack was " + context.getStack().tail(0));
                 }
             }
         };
@@ -155,21 +156,25 @@ public final class StackInstructions implements DecompilerDelegation {
         return new DecompilerDelegate() {
             @Override
             public void apply(DecompilationContext context, CodeStream codeStream, int byteCode) throws IOException {
-                final List<Expression> stack = context.getStackedExpressions();
-
                 if (context.isStackCompliantWithComputationalCategories(1, 1, 1, 1)) {
-                    context.insert(-4, stack.get(stack.size() - 2));
-                    context.insert(-4, stack.get(stack.size() - 1));
+                    final Expression value1 = context.peek(0);
+                    final Expression value2 = context.peek(1);
+
+                    context.insert(-4, value2);
+                    context.insert(-4, value1);
                 } else if (context.isStackCompliantWithComputationalCategories(2, 1, 1)) {
-                    context.insert(-3, stack.get(stack.size() - 2));
-                    context.insert(-3, stack.get(stack.size() - 1));
+                    final Expression value1 = context.peek(0);
+                    final Expression value2 = context.peek(1);
+
+                    context.insert(-3, value2);
+                    context.insert(-3, value1);
                 } else if (context.isStackCompliantWithComputationalCategories(1, 1, 2)) {
                     context.insert(-3, context.peek());
                 } else if (context.isStackCompliantWithComputationalCategories(2, 2)) {
                     context.insert(-2, context.peek());
                 } else {
                     throw new ClassFileFormatException("Stack must comply with computational type categories [1, 1, 1, 1], [2, 1, 1], [1, 1, 2] or [2, 2]" +
-                            "actual stack was " + context.getStackedExpressions());
+                            "actual stack was " + context.getStack().tail(0));
                 }
             }
         };
@@ -181,7 +186,7 @@ public final class StackInstructions implements DecompilerDelegation {
             public void apply(DecompilationContext context, CodeStream codeStream, int byteCode) throws IOException {
                 if (!context.isStackCompliantWithComputationalCategories(1, 1)) {
                     throw new ClassFileFormatException("Stack must comply with computational type categories [1, 1], " +
-                            "actual stack was " + context.getStackedExpressions());
+                            "actual stack was " + context.getStack().tail(0));
                 } else {
                     context.insert(-1, context.pop());
                 }
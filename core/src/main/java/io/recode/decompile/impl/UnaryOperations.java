@@ -4,15 +4,14 @@ import io.recode.decompile.*;
 import io.recode.model.*;
 import io.recode.classfile.ByteCode;
 import io.recode.classfile.LocalVariable;
-import io.recode.model.impl.ConstantImpl;
-import io.recode.model.impl.IncrementImpl;
-import io.recode.model.impl.LocalVariableReferenceImpl;
 
 import java.io.IOException;
 import java.util.Optional;
 
 import static io.recode.decompile.DecompilationContextQueries.*;
+import static io.recode.decompile.DecompilationStateSelector.Dependencies;
 import static io.recode.decompile.DecompilationStateSelectors.atLeastOneStatement;
+import static io.recode.decompile.DecompilationStateSelectors.dependingOn;
 import static io.recode.decompile.DecompilationStateSelectors.elementIsStacked;
 import static io.recode.model.AST.constant;
 import static io.recode.model.ModelQueries.*;
@@ -84,12 +83,12 @@ public final class UnaryOperations implements DecompilerDelegation {
                 final int value = codeStream.nextByte();
                 final LocalVariable localVariable = context.getMethod().getLocalVariableForIndex(variableIndex);
 
-                context.push(new IncrementImpl(
-                        new LocalVariableReferenceImpl(
+                context.push(context.getModelFactory().increment(
+                        context.getModelFactory().local(
                                 localVariable.getName(),
                                 localVariable.getType(),
-                                variableIndex),
-                        new ConstantImpl(value, int.class),
+                                variableIndex).as(LocalVariableReference.class),
+                        context.getModelFactory().constant(value, int.class),
                         int.class,
                         Affix.UNDEFINED
                 ));
@@ -107,7 +106,7 @@ public final class UnaryOperations implements DecompilerDelegation {
         return (context, codeStream, byteCode) -> {
             final Increment increment = context.getStack().pop().as(Increment.class);
 
-            context.getStack().swap(new IncrementImpl(
+            context.getStack().swap(context.getModelFactory().increment(
                     increment.getLocalVariable(),
                     increment.getValue(),
                     int.class, Affix.POSTFIX));
@@ -125,7 +124,7 @@ public final class UnaryOperations implements DecompilerDelegation {
             final LocalVariableReference localVariableReference = context.pop().as(LocalVariableReference.class);
             final Increment increment = context.peek().as(Increment.class);
 
-            context.getStack().swap(new IncrementImpl(localVariableReference, increment.getValue(), int.class, Affix.PREFIX));
+            context.getStack().swap(context.getModelFactory().increment(localVariableReference, increment.getValue(), int.class, Affix.PREFIX));
         };
     }
 
@@ -139,14 +138,14 @@ public final class UnaryOperations implements DecompilerDelegation {
                 .as(Increment.class)
                 .where(affixIsUndefined());
 
-        return (context, byteCode) -> {
+        return dependingOn(Dependencies.stack(2), (context, byteCode) -> {
             final Optional<Increment> increment = query.from(context);
             final Optional<Expression> localVariable = previousValue().from(context);
 
             return increment.isPresent()
                     && localVariable.isPresent()
                     && increment.get().getLocalVariable().equals(localVariable.get());
-        };
+        });
     }
 
     /**
@@ -159,12 +158,12 @@ public final class UnaryOperations implements DecompilerDelegation {
                 .as(Increment.class)
                 .where(affixIsUndefined());
 
-        return (context, byteCode) -> {
+        return dependingOn(Dependencies.stack(2), (context, byteCode) -> {
             final Optional<Increment> optionalIncrement = query.from(context);
 
             return optionalIncrement.isPresent() && optionalIncrement.get().getLocalVariable().equals(context.peek());
 
-        };
+        });
     }
 
     /**
@@ -201,7 +200,7 @@ public final class UnaryOperations implements DecompilerDelegation {
             context.removeStatement(context.getStatements().size() - 1);
             context.pop();
 
-            context.push(new IncrementImpl(
+            context.push(context.getModelFactory().increment(
                     loadedVariable,
                     constant(increment.get().getOperatorType() == OperatorType.MINUS ? -1 : 1),
                     loadedVariable.getType(), Affix.PREFIX));
@@ -239,7 +238,7 @@ public final class UnaryOperations implements DecompilerDelegation {
             final LocalVariableReference local = context.getStack().pop().as(LocalVariableReference.class);
 
             context.removeStatement(context.getStatements().size() - 1);
-            context.getStack().push(new IncrementImpl(
+            context.getStack().push(context.getModelFactory().increment(
                     local,
                     constant(result.get().getOperatorType() == OperatorType.MINUS ? -1 : 1),
                     local.getType(),
@@ -299,11 +298,11 @@ public final class UnaryOperations implements DecompilerDelegation {
                 final OperatorType operatorType = variableAssignment.getValue().as(BinaryOperator.class).getOperatorType();
 
                 context.removeStatement(context.getStatements().size() - 1);
-                context.getStack().swap(new IncrementImpl(
-                        new LocalVariableReferenceImpl(
+                context.getStack().swap(context.getModelFactory().increment(
+                        context.getModelFactory().local(
                                 variableAssignment.getVariableName(),
                                 variableAssignment.getVariableType(),
-                                variableAssignment.getVariableIndex()),
+                                variableAssignment.getVariableIndex()).as(LocalVariableReference.class),
                         operatorType == OperatorType.MINUS ? decrementConstant : incrementConstant,
                         incrementConstant.getType(),
                         Affix.PREFIX
@@ -348,11 +347,11 @@ public final class UnaryOperations implements DecompilerDelegation {
                 }
 
                 final VariableAssignment variableAssignment = variableAssignmentOptional.get();
-                final LocalVariableReferenceImpl local = new LocalVariableReferenceImpl(
+                final LocalVariableReference local = context.getModelFactory().local(
                         variableAssignment.getVariableName(),
                         variableAssignment.getVariableType(),
                         variableAssignment.getVariableIndex()
-                );
+                ).as(LocalVariableReference.class);
 
                 if (!context.getStack().peek().equals(local)) {
                     return;
@@ -361,7 +360,7 @@ public final class UnaryOperations implements DecompilerDelegation {
                 final BinaryOperator binaryOperator = variableAssignment.getValue().as(BinaryOperator.class);
 
                 context.removeStatement(context.getStatements().size() - 1);
-                context.getStack().swap(new IncrementImpl(
+                context.getStack().swap(context.getModelFactory().increment(
                         local,
                         binaryOperator.getOperatorType() == OperatorType.MINUS ? decrementConstant : incrementConstant,
                         incrementConstant.getType(),
@@ -5,7 +5,6 @@ import io.recode.decompile.DecompilationContext;
 import io.recode.decompile.DecompilerConfigurationBuilder;
 import io.recode.decompile.DecompilerDelegate;
 import io.recode.decompile.DecompilerDelegation;
-import io.recode.model.AST;
 import io.recode.util.Methods;
 import io.recode.classfile.ByteCode;
 import io.recode.classfile.LocalVariable;
@@ -119,7 +118,7 @@ public final class VariableInstructions implements DecompilerDelegation {
 
         final LocalVariable localVariable = localVariableOptional.get();
 
-        context.enlist(AST.set(index, localVariable.getName(), localVariable.getType(), context.pop()));
+        context.enlist(context.getModelFactory().assignLocal(context.pop(), index, localVariable.getName(), localVariable.getType()));
     }
 
     private static void load(DecompilationContext context, int index) {
@@ -131,7 +130,7 @@ public final class VariableInstructions implements DecompilerDelegation {
             // TODO: Make sure this is handled for static methods and for parameters as well
             if (!Modifier.isStatic(context.getMethod().getAccessFlags())) {
                 if (index == 0) {
-                    context.push(AST.local("this", context.resolveType(context.getMethod().getClassFile().getName().replace('.', '/')), index));
+                    context.push(context.getModelFactory().local("this", context.resolveType(context.getMethod().getClassFile().getName().replace('.', '/')), index));
                     return;
                 }
             }
@@ -141,7 +140,7 @@ public final class VariableInstructions implements DecompilerDelegation {
 
         final LocalVariable localVariable = localVariableOptional.get();
 
-        context.push(AST.local(localVariable.getName(), localVariable.getType(), localVariable.getIndex()));
+        context.push(context.getModelFactory().local(localVariable.getName(), localVariable.getType(), localVariable.getIndex()));
     }
 
     private static LocalVariableNotAvailableException localVariableNotAvailableException(String message, DecompilationContext context, int index, int pc) {
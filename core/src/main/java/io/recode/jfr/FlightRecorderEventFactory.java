@@ -0,0 +1,196 @@
+package io.recode.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Creates Java Flight Recorder events. This class, and the events, must only be loaded if the
+ * <code>jdk.jfr</code> API is available. Events are only allocated if they're enabled.
+ */
+final class FlightRecorderEventFactory implements RecodeEvents.EventFactory {
+
+    private final EventType classFileReadEventType = EventType.getEventType(ClassFileReadEvent.class);
+
+    private final EventType methodDecompilationEventType = EventType.getEventType(MethodDecompilationEvent.class);
+
+    private final EventType lambdaResolutionEventType = EventType.getEventType(LambdaResolutionEvent.class);
+
+    private final EventType codeGenerationEventType = EventType.getEventType(CodeGenerationEvent.class);
+
+    @Override
+    public RecodeEvents.ClassFileRead beginClassFileRead() {
+        if (!classFileReadEventType.isEnabled()) {
+            return NoopEventFactory.EVENT;
+        }
+
+        final ClassFileReadEvent event = new ClassFileReadEvent();
+
+        event.begin();
+
+        return event;
+    }
+
+    @Override
+    public RecodeEvents.MethodDecompilation beginMethodDecompilation() {
+        if (!methodDecompilationEventType.isEnabled()) {
+            return NoopEventFactory.EVENT;
+        }
+
+        final MethodDecompilationEvent event = new MethodDecompilationEvent();
+
+        event.begin();
+
+        return event;
+    }
+
+    @Override
+    public RecodeEvents.LambdaResolution beginLambdaResolution() {
+        if (!lambdaResolutionEventType.isEnabled()) {
+            return NoopEventFactory.EVENT;
+        }
+
+        final LambdaResolutionEvent event = new LambdaResolutionEvent();
+
+        event.begin();
+
+        return event;
+    }
+
+    @Override
+    public RecodeEvents.CodeGeneration beginCodeGeneration() {
+        if (!codeGenerationEventType.isEnabled()) {
+            return NoopEventFactory.EVENT;
+        }
+
+        final CodeGenerationEvent event = new CodeGenerationEvent();
+
+        event.begin();
+
+        return event;
+    }
+
+    @Name("io.recode.ClassFileRead")
+    @Label("Class File Read")
+    @Category("Recode")
+    @Description("A class file was read and parsed")
+    @StackTrace(false)
+    static final class ClassFileReadEvent extends Event implements RecodeEvents.ClassFileRead {
+
+        @Label("Class Name")
+        String className;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Override
+        public void setClassName(String className) {
+            this.className = className;
+        }
+
+        @Override
+        public void setBytes(long bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    @Name("io.recode.MethodDecompilation")
+    @Label("Method Decompilation")
+    @Category("Recode")
+    @Description("Byte code of a method, or a range of it, was decompiled")
+    static final class MethodDecompilationEvent extends Event implements RecodeEvents.MethodDecompilation {
+
+        @Label("Class Name")
+        String className;
+
+        @Label("Method Name")
+        String methodName;
+
+        @Label("Line Number")
+        int lineNumber;
+
+        @Label("Instruction Count")
+        int instructionCount;
+
+        @Override
+        public void setClassName(String className) {
+            this.className = className;
+        }
+
+        @Override
+        public void setMethodName(String methodName) {
+            this.methodName = methodName;
+        }
+
+        @Override
+        public void setLineNumber(int lineNumber) {
+            this.lineNumber = lineNumber;
+        }
+
+        @Override
+        public void setInstructionCount(int instructionCount) {
+            this.instructionCount = instructionCount;
+        }
+    }
+
+    @Name("io.recode.LambdaResolution")
+    @Label("Lambda Resolution")
+    @Category("Recode")
+    @Description("The declaration of a lambda was resolved from its backing method")
+    static final class LambdaResolutionEvent extends Event implements RecodeEvents.LambdaResolution {
+
+        @Label("Class Name")
+        String className;
+
+        @Label("Backing Method Name")
+        String methodName;
+
+        @Label("Resolved")
+        boolean resolved;
+
+        @Override
+        public void setClassName(String className) {
+            this.className = className;
+        }
+
+        @Override
+        public void setMethodName(String methodName) {
+            this.methodName = methodName;
+        }
+
+        @Override
+        public void setResolved(boolean resolved) {
+            this.resolved = resolved;
+        }
+    }
+
+    @Name("io.recode.CodeGeneration")
+    @Label("Code Generation")
+    @Category("Recode")
+    @Description("Code was generated for a decompiled element")
+    static final class CodeGenerationEvent extends Event implements RecodeEvents.CodeGeneration {
+
+        @Label("Element Type")
+        String elementType;
+
+        @Label("Class Name")
+        String className;
+
+        @Label("Method Name")
+        String methodName;
+
+        @Override
+        public void setElementType(String elementType) {
+            this.elementType = elementType;
+        }
+
+        @Override
+        public void setClassName(String className) {
+            this.className = className;
+        }
+
+        @Override
+        public void setMethodName(String methodName) {
+            this.methodName = methodName;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package io.recode.jfr;
+
+/**
+ * Event factory used when flight recording is unavailable or an event is disabled. All events are the same
+ * stateless instance.
+ */
+final class NoopEventFactory implements RecodeEvents.EventFactory {
+
+    static final NoopEventFactory INSTANCE = new NoopEventFactory();
+
+    static final NoopEvent EVENT = new NoopEvent();
+
+    private NoopEventFactory() {
+    }
+
+    @Override
+    public RecodeEvents.ClassFileRead beginClassFileRead() {
+        return EVENT;
+    }
+
+    @Override
+    public RecodeEvents.MethodDecompilation beginMethodDecompilation() {
+        return EVENT;
+    }
+
+    @Override
+    public RecodeEvents.LambdaResolution beginLambdaResolution() {
+        return EVENT;
+    }
+
+    @Override
+    public RecodeEvents.CodeGeneration beginCodeGeneration() {
+        return EVENT;
+    }
+
+    static final class NoopEvent implements RecodeEvents.ClassFileRead, RecodeEvents.MethodDecompilation,
+            RecodeEvents.LambdaResolution, RecodeEvents.CodeGeneration {
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public void commit() {
+        }
+
+        @Override
+        public void setClassName(String className) {
+        }
+
+        @Override
+        public void setMethodName(String methodName) {
+        }
+
+        @Override
+        public void setBytes(long bytes) {
+        }
+
+        @Override
+        public void setLineNumber(int lineNumber) {
+        }
+
+        @Override
+        public void setInstructionCount(int instructionCount) {
+        }
+
+        @Override
+        public void setResolved(boolean resolved) {
+        }
+
+        @Override
+        public void setElementType(String elementType) {
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.recode.jfr;
+
+/**
+ * Flight recorder events of recode operations. Events are emitted through Java Flight Recorder when it's
+ * available, i.e. on JDK 8u262 and later, and are enabled or disabled through the usual JFR settings
+ * (event names are prefixed with <code>io.recode.</code>). When JFR is unavailable or an event is
+ * disabled, the <code>begin</code> methods return a shared no-op event, so that instrumented code neither
+ * allocates nor records anything:
+ * <pre>
+ *     final RecodeEvents.ClassFileRead event = RecodeEvents.beginClassFileRead();
+ *     ...
+ *     if (event.isEnabled()) {
+ *         event.setClassName(classFile.getName());
+ *         event.commit();
+ *     }
+ * </pre>
+ */
+public final class RecodeEvents {
+
+    private static final EventFactory EVENT_FACTORY = createEventFactory();
+
+    private RecodeEvents() {
+    }
+
+    public static boolean isAvailable() {
+        return EVENT_FACTORY != NoopEventFactory.INSTANCE;
+    }
+
+    public static ClassFileRead beginClassFileRead() {
+        return EVENT_FACTORY.beginClassFileRead();
+    }
+
+    public static MethodDecompilation beginMethodDecompilation() {
+        return EVENT_FACTORY.beginMethodDecompilation();
+    }
+
+    public static LambdaResolution beginLambdaResolution() {
+        return EVENT_FACTORY.beginLambdaResolution();
+    }
+
+    public static CodeGeneration beginCodeGeneration() {
+        return EVENT_FACTORY.beginCodeGeneration();
+    }
+
+    private static EventFactory createEventFactory() {
+        try {
+            Class.forName("jdk.jfr.FlightRecorder", false, RecodeEvents.class.getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            return NoopEventFactory.INSTANCE;
+        }
+
+        try {
+            return new FlightRecorderEventFactory();
+        } catch (LinkageError | RuntimeException e) {
+            // E.g. when JFR classes exist but the VM doesn't support flight recording
+            return NoopEventFactory.INSTANCE;
+        }
+    }
+
+    public interface Event {
+
+        /**
+         * Returns whether or not the event is recorded. Event details need only be computed if it is.
+         *
+         * @return Whether or not the event will be recorded when committed.
+         */
+        boolean isEnabled();
+
+        void commit();
+
+    }
+
+    public interface ClassFileRead extends Event {
+
+        void setClassName(String className);
+
+        void setBytes(long bytes);
+
+    }
+
+    public interface MethodDecompilation extends Event {
+
+        void setClassName(String className);
+
+        void setMethodName(String methodName);
+
+        void setLineNumber(int lineNumber);
+
+        void setInstructionCount(int instructionCount);
+
+    }
+
+    public interface LambdaResolution extends Event {
+
+        void setClassName(String className);
+
+        void setMethodName(String methodName);
+
+        void setResolved(boolean resolved);
+
+    }
+
+    public interface CodeGeneration extends Event {
+
+        void setElementType(String elementType);
+
+        void setClassName(String className);
+
+        void setMethodName(String methodName);
+
+    }
+
+    interface EventFactory {
+
+        ClassFileRead beginClassFileRead();
+
+        MethodDecompilation beginMethodDecompilation();
+
+        LambdaResolution beginLambdaResolution();
+
+        CodeGeneration beginCodeGeneration();
+
+    }
+}
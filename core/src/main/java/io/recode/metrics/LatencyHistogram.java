@@ -0,0 +1,108 @@
+package io.recode.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of latencies. Latencies are recorded in nanoseconds into power-of-two buckets, so
+ * percentiles are approximate: a percentile is reported as the upper bound of the bucket containing it, which
+ * is at most twice the actual value.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKET_COUNT = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        final long value = Math.max(nanos, 0L);
+
+        buckets[BUCKET_COUNT - Long.numberOfLeadingZeros(value)].increment();
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMeanNanos() {
+        final long count = getCount();
+
+        return (count == 0 ? 0L : getTotalNanos() / count);
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns an approximation of a percentile of the recorded latencies.
+     *
+     * @param percentile The percentile, in the range [0, 100].
+     * @return The upper bound of the bucket containing the percentile, capped by the maximum latency, or 0 if
+     * no latencies have been recorded.
+     */
+    public long getPercentileNanos(double percentile) {
+        assert percentile >= 0 && percentile <= 100 : "Percentile must be in range [0, 100]";
+
+        final long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+
+        if (total == 0) {
+            return 0L;
+        }
+
+        final long rank = Math.max((long) Math.ceil(total * percentile / 100d), 1L);
+        long accumulated = 0;
+
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            accumulated += counts[i];
+
+            if (accumulated >= rank) {
+                return Math.min(upperBound(i), getMaxNanos());
+            }
+        }
+
+        return getMaxNanos();
+    }
+
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    /**
+     * Bucket 0 contains 0, bucket n contains values in [2^(n-1), 2^n - 1].
+     */
+    private static long upperBound(int bucket) {
+        return (bucket == 0 ? 0L : (bucket >= 63 ? Long.MAX_VALUE : (1L << bucket) - 1));
+    }
+}
@@ -0,0 +1,70 @@
+package io.recode.metrics;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * A snapshot of a latency histogram, in microseconds.
+ */
+public final class LatencySnapshot {
+
+    private final long count;
+
+    private final long meanMicros;
+
+    private final long p50Micros;
+
+    private final long p99Micros;
+
+    private final long maxMicros;
+
+    @ConstructorProperties({"count", "meanMicros", "p50Micros", "p99Micros", "maxMicros"})
+    public LatencySnapshot(long count, long meanMicros, long p50Micros, long p99Micros, long maxMicros) {
+        this.count = count;
+        this.meanMicros = meanMicros;
+        this.p50Micros = p50Micros;
+        this.p99Micros = p99Micros;
+        this.maxMicros = maxMicros;
+    }
+
+    public static LatencySnapshot of(LatencyHistogram histogram) {
+        assert histogram != null : "Histogram can't be null";
+
+        return new LatencySnapshot(
+                histogram.getCount(),
+                histogram.getMeanNanos() / 1000,
+                histogram.getPercentileNanos(50) / 1000,
+                histogram.getPercentileNanos(99) / 1000,
+                histogram.getMaxNanos() / 1000);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMeanMicros() {
+        return meanMicros;
+    }
+
+    public long getP50Micros() {
+        return p50Micros;
+    }
+
+    public long getP99Micros() {
+        return p99Micros;
+    }
+
+    public long getMaxMicros() {
+        return maxMicros;
+    }
+
+    @Override
+    public String toString() {
+        return "LatencySnapshot{" +
+                "count=" + count +
+                ", meanMicros=" + meanMicros +
+                ", p50Micros=" + p50Micros +
+                ", p99Micros=" + p99Micros +
+                ", maxMicros=" + maxMicros +
+                '}';
+    }
+}
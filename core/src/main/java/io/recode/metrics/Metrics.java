@@ -0,0 +1,113 @@
+package io.recode.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Entry point of the opt-in metrics. Metrics are disabled by default, in which case {@link #registry()}
+ * returns <code>null</code> and instrumented code records nothing:
+ * <pre>
+ *     final MetricsRegistry metrics = Metrics.registry();
+ *     final long start = (metrics != null ? System.nanoTime() : 0L);
+ *     ...
+ *     if (metrics != null) {
+ *         metrics.recordCodeGeneration(System.nanoTime() - start);
+ *     }
+ * </pre>
+ */
+public final class Metrics {
+
+    public static final String OBJECT_NAME = "io.recode:type=Metrics";
+
+    private static volatile MetricsRegistry registry;
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the installed metrics registry.
+     *
+     * @return The registry, or <code>null</code> if metrics are disabled.
+     */
+    public static MetricsRegistry registry() {
+        return registry;
+    }
+
+    /**
+     * Records a cache hit or miss if metrics are enabled.
+     *
+     * @param cache The accessed cache.
+     * @param hit Whether or not the accessed entry was present.
+     */
+    public static void recordCacheAccess(MetricsRegistry.Cache cache, boolean hit) {
+        final MetricsRegistry metrics = registry;
+
+        if (metrics != null) {
+            if (hit) {
+                metrics.recordCacheHit(cache);
+            } else {
+                metrics.recordCacheMiss(cache);
+            }
+        }
+    }
+
+    public static boolean isEnabled() {
+        return registry != null;
+    }
+
+    /**
+     * Enables metrics and registers the registry with the platform MBean server. Enabling metrics that are
+     * already enabled returns the installed registry.
+     *
+     * @return The installed registry.
+     */
+    public static synchronized MetricsRegistry enable() {
+        if (registry != null) {
+            return registry;
+        }
+
+        final MetricsRegistry newRegistry = new MetricsRegistry();
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+        try {
+            final ObjectName objectName = new ObjectName(OBJECT_NAME);
+
+            try {
+                mBeanServer.registerMBean(newRegistry, objectName);
+            } catch (InstanceAlreadyExistsException e) {
+                // Registered by another class loader or a previous installation; replace it
+                mBeanServer.unregisterMBean(objectName);
+                mBeanServer.registerMBean(newRegistry, objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register metrics MBean '" + OBJECT_NAME + "'", e);
+        }
+
+        registry = newRegistry;
+
+        return newRegistry;
+    }
+
+    /**
+     * Disables metrics and unregisters the registry from the platform MBean server.
+     */
+    public static synchronized void disable() {
+        if (registry == null) {
+            return;
+        }
+
+        registry = null;
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(OBJECT_NAME));
+        } catch (InstanceNotFoundException e) {
+            // Already unregistered
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to unregister metrics MBean '" + OBJECT_NAME + "'", e);
+        }
+    }
+}
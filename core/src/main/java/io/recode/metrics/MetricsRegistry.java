@@ -0,0 +1,159 @@
+package io.recode.metrics;
+
+/**
+ * Collects metrics of class file reading, decompilation and code generation. Recording only updates
+ * contention-free counters, see {@link Counter} and {@link LatencyHistogram}, and can therefore be done on
+ * the hot path. The registry is normally installed and exposed through JMX by {@link Metrics#enable()}.
+ */
+public final class MetricsRegistry implements MetricsRegistryMXBean {
+
+    public enum Cache {
+
+        DECOMPILED_METHOD,
+
+        MEMBER_INDEX,
+
+        CLASS_FILE
+
+    }
+
+    private final Counter classFileReadBytes = new Counter();
+
+    private final LatencyHistogram classFileReadLatency = new LatencyHistogram();
+
+    private final Counter decompiledInstructions = new Counter();
+
+    private final Counter decompiledElements = new Counter();
+
+    private final LatencyHistogram decompilationLatency = new LatencyHistogram();
+
+    private final LatencyHistogram codeLocationDecompilationLatency = new LatencyHistogram();
+
+    private final LatencyHistogram codeGenerationLatency = new LatencyHistogram();
+
+    private final Counter[] cacheHits = counters(Cache.values().length);
+
+    private final Counter[] cacheMisses = counters(Cache.values().length);
+
+    public void recordClassFileRead(long bytes, long nanos) {
+        classFileReadBytes.add(bytes);
+        classFileReadLatency.record(nanos);
+    }
+
+    public void recordDecompilation(int instructions, int elements, long nanos) {
+        decompiledInstructions.add(instructions);
+        decompiledElements.add(elements);
+        decompilationLatency.record(nanos);
+    }
+
+    public void recordCodeLocationDecompilation(long nanos) {
+        codeLocationDecompilationLatency.record(nanos);
+    }
+
+    public void recordCodeGeneration(long nanos) {
+        codeGenerationLatency.record(nanos);
+    }
+
+    public void recordCacheHit(Cache cache) {
+        cacheHits[cache.ordinal()].increment();
+    }
+
+    public void recordCacheMiss(Cache cache) {
+        cacheMisses[cache.ordinal()].increment();
+    }
+
+    public double getCacheHitRatio(Cache cache) {
+        assert cache != null : "Cache can't be null";
+
+        final long hits = cacheHits[cache.ordinal()].get();
+        final long total = hits + cacheMisses[cache.ordinal()].get();
+
+        return (total == 0 ? 0d : (double) hits / total);
+    }
+
+    @Override
+    public long getClassFileReadCount() {
+        return classFileReadLatency.getCount();
+    }
+
+    @Override
+    public long getClassFileReadBytes() {
+        return classFileReadBytes.get();
+    }
+
+    @Override
+    public LatencySnapshot getClassFileReadLatency() {
+        return LatencySnapshot.of(classFileReadLatency);
+    }
+
+    @Override
+    public long getDecompilationCount() {
+        return decompilationLatency.getCount();
+    }
+
+    @Override
+    public long getDecompiledInstructionCount() {
+        return decompiledInstructions.get();
+    }
+
+    @Override
+    public long getDecompiledElementCount() {
+        return decompiledElements.get();
+    }
+
+    @Override
+    public LatencySnapshot getDecompilationLatency() {
+        return LatencySnapshot.of(decompilationLatency);
+    }
+
+    @Override
+    public LatencySnapshot getCodeLocationDecompilationLatency() {
+        return LatencySnapshot.of(codeLocationDecompilationLatency);
+    }
+
+    @Override
+    public LatencySnapshot getCodeGenerationLatency() {
+        return LatencySnapshot.of(codeGenerationLatency);
+    }
+
+    @Override
+    public double getDecompiledMethodCacheHitRatio() {
+        return getCacheHitRatio(Cache.DECOMPILED_METHOD);
+    }
+
+    @Override
+    public double getMemberIndexCacheHitRatio() {
+        return getCacheHitRatio(Cache.MEMBER_INDEX);
+    }
+
+    @Override
+    public double getClassFileCacheHitRatio() {
+        return getCacheHitRatio(Cache.CLASS_FILE);
+    }
+
+    @Override
+    public void reset() {
+        classFileReadBytes.reset();
+        classFileReadLatency.reset();
+        decompiledInstructions.reset();
+        decompiledElements.reset();
+        decompilationLatency.reset();
+        codeLocationDecompilationLatency.reset();
+        codeGenerationLatency.reset();
+
+        for (int i = 0; i < cacheHits.length; i++) {
+            cacheHits[i].reset();
+            cacheMisses[i].reset();
+        }
+    }
+
+    private static Counter[] counters(int count) {
+        final Counter[] counters = new Counter[count];
+
+        for (int i = 0; i < count; i++) {
+            counters[i] = new Counter();
+        }
+
+        return counters;
+    }
+}
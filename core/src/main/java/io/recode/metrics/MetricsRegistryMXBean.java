@@ -0,0 +1,34 @@
+package io.recode.metrics;
+
+/**
+ * Management interface of the recode metrics, registered as <code>io.recode:type=Metrics</code>.
+ */
+public interface MetricsRegistryMXBean {
+
+    long getClassFileReadCount();
+
+    long getClassFileReadBytes();
+
+    LatencySnapshot getClassFileReadLatency();
+
+    long getDecompilationCount();
+
+    long getDecompiledInstructionCount();
+
+    long getDecompiledElementCount();
+
+    LatencySnapshot getDecompilationLatency();
+
+    LatencySnapshot getCodeLocationDecompilationLatency();
+
+    LatencySnapshot getCodeGenerationLatency();
+
+    double getDecompiledMethodCacheHitRatio();
+
+    double getMemberIndexCacheHitRatio();
+
+    double getClassFileCacheHitRatio();
+
+    void reset();
+
+}
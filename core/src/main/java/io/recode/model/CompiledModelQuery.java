@@ -0,0 +1,151 @@
+package io.recode.model;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A model query that is evaluated without wrapping intermediate results. A compiled query yields its result, or
+ * <code>null</code> if there's no result, through {@link #evaluate(Object)}; queries chained from a compiled
+ * query (through e.g. {@link #get(ModelQuery)}, {@link #where(Predicate)} or {@link #is(Predicate)}) are
+ * compiled as well and evaluate the chain directly, so that evaluating a chain of compiled queries, or testing
+ * a predicate created from one, doesn't allocate. All queries created through the default methods of
+ * {@link ModelQuery} are compiled; queries that aren't, e.g. lambdas, are adapted once when the chain is built.
+ *
+ * @param <S> The type of the source of the query.
+ * @param <R> The type of the query result.
+ */
+@SuppressWarnings("unchecked")
+public abstract class CompiledModelQuery<S, R> implements ModelQuery.WhereContinuation<S, R> {
+
+    /**
+     * Evaluates the query.
+     *
+     * @param source The source of the query. Can be <code>null</code>.
+     * @return The result of the query, or <code>null</code> if the query has no result.
+     */
+    public abstract R evaluate(S source);
+
+    @Override
+    public final Optional<R> from(S source) {
+        return Optional.ofNullable(evaluate(source));
+    }
+
+    /**
+     * Returns a compiled form of a query. A query that is already compiled is returned as is.
+     *
+     * @param query The query to compile.
+     * @param <S> The type of the source of the query.
+     * @param <R> The type of the query result.
+     * @return The compiled query.
+     */
+    public static <S, R> CompiledModelQuery<S, R> compile(ModelQuery<S, R> query) {
+        assert query != null : "Query can't be null";
+
+        if (query instanceof CompiledModelQuery) {
+            return (CompiledModelQuery<S, R>) query;
+        }
+
+        return new CompiledModelQuery<S, R>() {
+            @Override
+            public R evaluate(S source) {
+                return query.from(source).orElse(null);
+            }
+        };
+    }
+
+    /**
+     * Creates a compiled query from a function that returns <code>null</code> if there's no result. The function
+     * is not called with a <code>null</code> source; the query has no result in that case.
+     *
+     * @param function The function that evaluates the query.
+     * @param <S> The type of the source of the query.
+     * @param <R> The type of the query result.
+     * @return A compiled query that evaluates the function.
+     */
+    public static <S, R> CompiledModelQuery<S, R> of(Function<S, R> function) {
+        assert function != null : "Function can't be null";
+
+        return new CompiledModelQuery<S, R>() {
+            @Override
+            public R evaluate(S source) {
+                return (source == null ? null : function.apply(source));
+            }
+        };
+    }
+
+    @Override
+    public Predicate<S> is(Predicate<? extends R> predicate) {
+        assert predicate != null : "Predicate can't be null";
+
+        final Predicate<R> resultPredicate = (Predicate<R>) predicate;
+
+        return source -> {
+            final R result = evaluate(source);
+
+            return result != null && resultPredicate.test(result);
+        };
+    }
+
+    @Override
+    public <E> CompiledModelQuery<S, E> get(ModelQuery<? extends R, E> modelQuery) {
+        assert modelQuery != null : "Model query can't be null";
+
+        final CompiledModelQuery<R, E> compiledModelQuery = compile((ModelQuery<R, E>) modelQuery);
+
+        return new CompiledModelQuery<S, E>() {
+            @Override
+            public E evaluate(S source) {
+                final R intermediateResult = CompiledModelQuery.this.evaluate(source);
+
+                return (intermediateResult == null ? null : compiledModelQuery.evaluate(intermediateResult));
+            }
+        };
+    }
+
+    @Override
+    public <E> CompiledModelQuery<S, R> join(ModelQuery<R, E> query) {
+        assert query != null : "Query can't be null";
+
+        final CompiledModelQuery<R, E> compiledQuery = compile(query);
+
+        return new CompiledModelQuery<S, R>() {
+            @Override
+            public R evaluate(S source) {
+                final R result = CompiledModelQuery.this.evaluate(source);
+
+                return (result == null || compiledQuery.evaluate(result) == null ? null : result);
+            }
+        };
+    }
+
+    @Override
+    public CompiledModelQuery<S, R> where(Predicate<? extends R> predicate) {
+        assert predicate != null : "Predicate can't be null";
+
+        final Predicate<R> resultPredicate = (Predicate<R>) predicate;
+
+        return new CompiledModelQuery<S, R>() {
+            @Override
+            public R evaluate(S source) {
+                final R result = CompiledModelQuery.this.evaluate(source);
+
+                return (result == null || !resultPredicate.test(result) ? null : result);
+            }
+        };
+    }
+
+    @Override
+    public <T> CompiledModelQuery<S, T> as(Class<T> type) {
+        assert type != null : "Type can't be null";
+
+        return new CompiledModelQuery<S, T>() {
+            @Override
+            public T evaluate(S source) {
+                final R result = CompiledModelQuery.this.evaluate(source);
+
+                return (type.isInstance(result) ? (T) result : null);
+            }
+        };
+    }
+}
@@ -2,15 +2,17 @@ package io.recode.model;
 
 public final class ElementContextMetaData implements ElementMetaData {
 
-    private final int programCounter;
+    private static final int NO_LINE_NUMBER = -1;
 
-    private final int lineNumber;
+    /**
+     * Program counter in the upper 32 bits and line number in the lower 32 bits.
+     */
+    private final long programCounterAndLineNumber;
 
     public ElementContextMetaData(int programCounter, int lineNumber) {
         assert programCounter >= 0 : "Program counter must be positive";
 
-        this.programCounter = programCounter;
-        this.lineNumber = lineNumber;
+        this.programCounterAndLineNumber = pack(programCounter, lineNumber);
     }
 
     @Override
@@ -20,12 +22,12 @@ public final class ElementContextMetaData implements ElementMetaData {
 
     @Override
     public int getProgramCounter() {
-        return programCounter;
+        return (int) (programCounterAndLineNumber >>> 32);
     }
 
     @Override
     public boolean hasLineNumber() {
-        return (lineNumber != -1);
+        return (lineNumberOf(programCounterAndLineNumber) != NO_LINE_NUMBER);
     }
 
     @Override
@@ -34,7 +36,19 @@ public final class ElementContextMetaData implements ElementMetaData {
             throw new IllegalStateException("Line number is not available");
         }
 
-        return lineNumber;
+        return lineNumberOf(programCounterAndLineNumber);
+    }
+
+    public long getPackedValue() {
+        return programCounterAndLineNumber;
+    }
+
+    public static long pack(int programCounter, int lineNumber) {
+        return ((long) programCounter << 32) | (lineNumber & 0xFFFFFFFFL);
+    }
+
+    private static int lineNumberOf(long programCounterAndLineNumber) {
+        return (int) programCounterAndLineNumber;
     }
 
     @Override
@@ -44,24 +58,21 @@ public final class ElementContextMetaData implements ElementMetaData {
 
         ElementContextMetaData metaData = (ElementContextMetaData) o;
 
-        if (lineNumber != metaData.lineNumber) return false;
-        if (programCounter != metaData.programCounter) return false;
+        if (programCounterAndLineNumber != metaData.programCounterAndLineNumber) return false;
 
         return true;
     }
 
     @Override
     public int hashCode() {
-        int result = programCounter;
-        result = 31 * result + lineNumber;
-        return result;
+        return 31 * getProgramCounter() + lineNumberOf(programCounterAndLineNumber);
     }
 
     @Override
     public String toString() {
         return "ElementContextMetaData{" +
-                "programCounter=" + programCounter +
-                ", lineNumber=" + lineNumber +
+                "programCounter=" + getProgramCounter() +
+                ", lineNumber=" + lineNumberOf(programCounterAndLineNumber) +
                 '}';
     }
 }
@@ -0,0 +1,12 @@
+package io.recode.model;
+
+public class ElementFormatException extends RuntimeException {
+
+    public ElementFormatException(String message) {
+        super(message);
+    }
+
+    public ElementFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,17 @@
+package io.recode.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+public interface ElementReader extends Closeable {
+
+    /**
+     * Reads the next element from the underlying stream.
+     *
+     * @return The next element, or <code>null</code> if the end of the stream has been reached.
+     * @throws IOException If the element could not be read from the stream.
+     * @throws ElementFormatException If the stream content is not a valid element.
+     */
+    Element read() throws IOException, ElementFormatException;
+
+}
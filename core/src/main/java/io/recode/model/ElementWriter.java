@@ -0,0 +1,11 @@
+package io.recode.model;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+
+public interface ElementWriter extends Flushable, Closeable {
+
+    void write(Element element) throws IOException;
+
+}
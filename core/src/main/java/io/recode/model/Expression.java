@@ -1,9 +1,21 @@
 package io.recode.model;
 
+import io.recode.util.TypeKind;
+
 import java.lang.reflect.Type;
 
 public interface Expression extends Element {
 
     Type getType();
 
+    /**
+     * Returns the kind of the type of the expression, which describes e.g. whether the type is primitive and its
+     * computational category without inspecting the type name.
+     *
+     * @return The kind of the type of the expression.
+     */
+    default TypeKind getTypeKind() {
+        return TypeKind.of(getType());
+    }
+
 }
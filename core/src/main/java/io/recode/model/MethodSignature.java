@@ -1,5 +1,7 @@
 package io.recode.model;
 
+import io.recode.SymbolicType;
+import io.recode.TypeResolver;
 import io.recode.classfile.ClassFileFormatException;
 import io.recode.util.StringReader;
 
@@ -39,7 +41,7 @@ public final class MethodSignature implements Signature {
     public boolean test(Method method) {
         assert method != null : "method can't be null";
 
-        return MethodSignature.from(method).equals(this);
+        return MethodSignature.from(method).specification.equals(specification);
     }
 
     public static MethodSignature create(Type[] parameters, Type returnType) {
@@ -66,6 +68,20 @@ public final class MethodSignature implements Signature {
     public static MethodSignature parse(String spec) {
         assert spec != null && !spec.isEmpty() : "Signature specification can't be null or empty";
 
+        return parse(spec, null);
+    }
+
+    /**
+     * Parses a method descriptor and resolves the referenced types through a type resolver rather than
+     * loading them from the class loader of this class.
+     *
+     * @param spec The method descriptor, e.g. <code>(Ljava/lang/String;)V</code>.
+     * @param typeResolver The resolver of the referenced types.
+     * @return The parsed signature.
+     */
+    public static MethodSignature parse(String spec, TypeResolver typeResolver) {
+        assert spec != null && !spec.isEmpty() : "Signature specification can't be null or empty";
+
         final StringReader reader = new StringReader(spec);
         final List<Type> parameterTypes = new LinkedList<>();
 
@@ -85,10 +101,10 @@ public final class MethodSignature implements Signature {
                 break;
             }
 
-            parameterTypes.add(readType(reader));
+            parameterTypes.add(readType(reader, typeResolver));
         }
 
-        final Type returnType = readType(reader);
+        final Type returnType = readType(reader, typeResolver);
 
         return new MethodSignature(spec, parameterTypes.toArray(new Type[parameterTypes.size()]), returnType);
     }
@@ -125,7 +141,13 @@ public final class MethodSignature implements Signature {
     }
 
     public static Type parseType(String string) {
-        return readType(new StringReader(string));
+        return readType(new StringReader(string), null);
+    }
+
+    public static Type parseType(String string, TypeResolver typeResolver) {
+        assert typeResolver != null : "Type resolver can't be null";
+
+        return readType(new StringReader(string), typeResolver);
     }
 
     private static String shortSignature(Type type) {
@@ -165,6 +187,12 @@ public final class MethodSignature implements Signature {
             return "F";
         }
 
+        if (type instanceof SymbolicType) {
+            final String name = ((SymbolicType) type).getName().replace('.', '/');
+
+            return (((SymbolicType) type).isArray() ? name : "L" + name + ";");
+        }
+
         if (type instanceof Class) {
             final Class clazz = (Class) type;
 
@@ -176,7 +204,7 @@ public final class MethodSignature implements Signature {
         return "L" + type.getTypeName().replace('.', '/') + ";";
     }
 
-    private static Type readType(StringReader reader) {
+    private static Type readType(StringReader reader, TypeResolver typeResolver) {
         final int shortType = reader.read();
 
         if (shortType == -1) {
@@ -212,6 +240,10 @@ public final class MethodSignature implements Signature {
 
                     final String actualTypeName = typeName.get().replace('/', '.');
 
+                    if (typeResolver != null) {
+                        return typeResolver.resolveType(actualTypeName);
+                    }
+
                     try {
                         return Class.forName(actualTypeName);
                     } catch (ClassNotFoundException e) {
@@ -225,8 +257,12 @@ public final class MethodSignature implements Signature {
                 }
             }
             case '[': {
+                if (typeResolver != null) {
+                    return typeResolver.resolveType(readArrayTypeName(reader));
+                }
+
                 final int shortComponentType = reader.peek();
-                final Class componentType = (Class) readType(reader);
+                final Class componentType = (Class) readType(reader, null);
                 final String arrayClassName;
 
                 if (componentType.isPrimitive()) {
@@ -248,5 +284,37 @@ public final class MethodSignature implements Signature {
         }
     }
 
+    /**
+     * Reads the binary name of an array type, e.g. <code>[[Ljava.lang.String;</code>, following the first
+     * '[' of the descriptor.
+     */
+    private static String readArrayTypeName(StringReader reader) {
+        final StringBuilder arrayTypeName = new StringBuilder("[");
+
+        while (reader.peek() == '[') {
+            reader.skip(1);
+            arrayTypeName.append('[');
+        }
+
+        final int elementType = reader.read();
+
+        if (elementType == -1) {
+            throw new ClassFileFormatException("Could not read array type due to premature EOF");
+        }
+
+        arrayTypeName.append((char) elementType);
 
+        if (elementType == 'L') {
+            final Optional<String> typeName = reader.readUntil(Pattern.compile(";"));
+
+            if (!typeName.isPresent()) {
+                throw new ClassFileFormatException("Malformed signature around '..." + reader.remainder() + "'; expected ';' after object");
+            }
+
+            reader.skip(1);
+            arrayTypeName.append(typeName.get().replace('/', '.')).append(';');
+        }
+
+        return arrayTypeName.toString();
+    }
 }
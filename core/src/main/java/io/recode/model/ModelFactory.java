@@ -1,6 +1,7 @@
 package io.recode.model;
 
 import io.recode.classfile.ReferenceKind;
+import io.recode.model.impl.ArrayInitializerImpl;
 
 import java.lang.reflect.Type;
 import java.util.List;
@@ -61,4 +62,8 @@ public interface ModelFactory {
 
     Statement assignLocal(Expression value, int variableIndex, String variableName, Type variableType);
 
+    default ArrayInitializer initializer(int index, Expression value) {
+        return new ArrayInitializerImpl(index, value);
+    }
+
 }
@@ -5,7 +5,6 @@ import io.recode.annotations.DSL;
 
 import java.lang.reflect.Type;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.function.Predicate;
 
 @DSL
@@ -38,11 +37,11 @@ public final class ModelQueries {
     }
 
     public static ModelQuery<TypeCast, Expression> castValue() {
-        return cast -> cast == null ? Optional.empty() : Optional.of(cast.getValue());
+        return CompiledModelQuery.of(TypeCast::getValue);
     }
 
     public static ModelQuery<VariableAssignment, Expression> assignedValue() {
-        return from -> from == null ? Optional.<Expression>empty() : Optional.of(from.getValue());
+        return CompiledModelQuery.of(VariableAssignment::getValue);
     }
 
     public static Predicate<VariableAssignment> assignedVariableTypeIs(Class<?> type) {
@@ -57,23 +56,23 @@ public final class ModelQueries {
     }
 
     public static ModelQuery<BinaryOperator, Expression> leftOperand() {
-        return o -> o == null ? Optional.<Expression>empty() : Optional.of(o.getLeftOperand());
+        return CompiledModelQuery.of(BinaryOperator::getLeftOperand);
     }
 
     public static ModelQuery<BinaryOperator, Expression> rightOperand() {
-        return o -> o == null ? Optional.<Expression>empty() : Optional.of(o.getRightOperand());
+        return CompiledModelQuery.of(BinaryOperator::getRightOperand);
     }
 
     public static ModelQuery<Branch, Expression> leftComparativeOperand() {
-        return b -> b == null ? Optional.<Expression>empty() : Optional.of(b.getLeftOperand());
+        return CompiledModelQuery.of(Branch::getLeftOperand);
     }
 
     public static ModelQuery<Branch, Expression> rightComparativeOperand() {
-        return b -> b == null ? Optional.<Expression>empty() : Optional.of(b.getRightOperand());
+        return CompiledModelQuery.of(Branch::getRightOperand);
     }
 
     public static ModelQuery<BinaryOperator, OperatorType> operatorType() {
-        return o -> o == null ? Optional.<OperatorType>empty() : Optional.of(o.getOperatorType());
+        return CompiledModelQuery.of(BinaryOperator::getOperatorType);
     }
 
     public static Predicate<Branch> operatorTypeIs(OperatorType operatorType) {
@@ -90,7 +89,7 @@ public final class ModelQueries {
     }
 
     public static <E extends Expression> ModelQuery<E, Type> runtimeType() {
-        return e -> e == null ? Optional.<Type>empty() : Optional.of(e.getType());
+        return CompiledModelQuery.of(Expression::getType);
     }
 
     public static <E extends Expression> Predicate<E> ofRuntimeType(Class<?> type) {
@@ -103,7 +102,7 @@ public final class ModelQueries {
     }
 
     public static <E extends Element> ModelQuery<E, E> value() {
-        return Optional::ofNullable;
+        return CompiledModelQuery.of(element -> element);
     }
 
 
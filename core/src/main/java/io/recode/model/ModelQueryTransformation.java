@@ -8,12 +8,28 @@ public final class ModelQueryTransformation<S extends Element, R extends Element
 
     private final ModelTransformation<R, T> modelTransformation;
 
+    private final Object discriminator;
+
     public ModelQueryTransformation(ModelQuery<S, R> modelQuery, ModelTransformation<R, T> modelTransformation) {
+        this(modelQuery, modelTransformation, null);
+    }
+
+    /**
+     * Creates a model query transformation that is only applicable to elements with a particular discriminator,
+     * e.g. the method name of a method call or the operator type of a binary operator. The discriminator allows
+     * the transformation to be indexed and is not evaluated by the transformation itself.
+     *
+     * @param modelQuery The query that selects the transformation source.
+     * @param modelTransformation The transformation to apply to the query result.
+     * @param discriminator The discriminator of applicable elements, or <code>null</code> if any element applies.
+     */
+    public ModelQueryTransformation(ModelQuery<S, R> modelQuery, ModelTransformation<R, T> modelTransformation, Object discriminator) {
         assert modelQuery != null : "Model query can't be null";
         assert modelTransformation != null : "Model transformation can't be null";
 
         this.modelQuery = modelQuery;
         this.modelTransformation = modelTransformation;
+        this.discriminator = discriminator;
     }
 
     @Override
@@ -34,4 +50,8 @@ public final class ModelQueryTransformation<S extends Element, R extends Element
     public ModelTransformation<R, T> getTargetTransformation() {
         return modelTransformation;
     }
+
+    public Optional<Object> getDiscriminator() {
+        return Optional.ofNullable(discriminator);
+    }
 }
@@ -1,13 +1,46 @@
 package io.recode.model;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 
+/**
+ * Visits syntax trees in post-order, i.e. the children of an element are visited before the element itself.
+ * Traversal is iterative and uses an explicit stack, so deeply nested trees don't consume call stack and an
+ * aborted traversal doesn't need to unwind through an exception.
+ */
 public final class SyntaxTreeVisitor {
 
+    private static final int INITIAL_STACK_SIZE = 16;
+
+    private static final boolean[] LEAF_TYPES = typeSet(
+            ElementType.CONSTANT,
+            ElementType.RETURN,
+            ElementType.VARIABLE_REFERENCE,
+            ElementType.GOTO,
+            ElementType.ALLOCATE,
+            ElementType.UNARY_OPERATOR,
+            ElementType.INCREMENT,
+            ElementType.COMPARE);
+
+    private static final boolean[] EXPRESSION_TYPES = typeSet(
+            ElementType.CONSTANT,
+            ElementType.UNARY_OPERATOR,
+            ElementType.BINARY_OPERATOR,
+            ElementType.VARIABLE_REFERENCE,
+            ElementType.METHOD_CALL,
+            ElementType.FIELD_REFERENCE,
+            ElementType.LAMBDA,
+            ElementType.NEW,
+            ElementType.NEW_ARRAY,
+            ElementType.CAST,
+            ElementType.ARRAY_LOAD,
+            ElementType.INCREMENT,
+            ElementType.ALLOCATE,
+            ElementType.COMPARE);
+
     public interface Walker {
 
         void abort();
@@ -24,10 +57,11 @@ public final class SyntaxTreeVisitor {
         assert elements != null : "elements can't be null";
         assert predicate != null : "predicate can't be null";
 
-        final LinkedList<Element> result = new LinkedList<>();
+        final ArrayList<Element> result = new ArrayList<>();
+        final Traversal traversal = new Traversal(null);
 
         for (final Element element : elements) {
-            visit(element, (walker, currentElement) -> {
+            traversal.walk(element, (walker, currentElement) -> {
                 if (predicate.test(currentElement)) {
                     result.add(currentElement);
                 }
@@ -37,153 +71,303 @@ public final class SyntaxTreeVisitor {
         return result;
     }
 
-    public static Optional<Element> search(Element[] elements, Predicate<Element> predicate) {
+    /**
+     * Collects all elements of a particular type that matches a predicate. Subtrees that can't contain an element
+     * of the target type, e.g. constants and variable references when searching for method calls or any nested
+     * element when searching for statements, are not traversed.
+     *
+     * @param elements The elements to collect matching elements from.
+     * @param elementType The type of the elements to collect.
+     * @param predicate The predicate that the elements must match. Only called for elements of the target type.
+     * @return All matching elements, in the order they were visited.
+     */
+    public static List<Element> collect(Element[] elements, ElementType elementType, Predicate<Element> predicate) {
         assert elements != null : "Elements can't be null";
+        assert elementType != null : "Element type can't be null";
         assert predicate != null : "Predicate can't be null";
 
-        for (Element element : elements) {
-            final Optional<Element> result = search(element, predicate);
+        final ArrayList<Element> result = new ArrayList<>();
+        final Traversal traversal = new Traversal(elementType);
 
-            if (result.isPresent()) {
-                return result;
-            }
+        for (final Element element : elements) {
+            traversal.walk(element, (walker, currentElement) -> {
+                if (currentElement.getElementType() == elementType && predicate.test(currentElement)) {
+                    result.add(currentElement);
+                }
+            });
         }
 
-        return Optional.empty();
+        return result;
+    }
+
+    public static Optional<Element> search(Element[] elements, Predicate<Element> predicate) {
+        assert elements != null : "Elements can't be null";
+        assert predicate != null : "Predicate can't be null";
+
+        return search(elements, new Traversal(null), predicate);
+    }
+
+    /**
+     * Searches for the first element of a particular type that matches a predicate. Subtrees that can't contain
+     * an element of the target type are not traversed.
+     *
+     * @param elements The elements to search.
+     * @param elementType The type of the element to search for.
+     * @param predicate The predicate that the element must match. Only called for elements of the target type.
+     * @return The first matching element, or an empty optional if no element matches.
+     */
+    public static Optional<Element> search(Element[] elements, ElementType elementType, Predicate<Element> predicate) {
+        assert elements != null : "Elements can't be null";
+        assert elementType != null : "Element type can't be null";
+        assert predicate != null : "Predicate can't be null";
+
+        return search(elements, new Traversal(elementType), e -> e.getElementType() == elementType && predicate.test(e));
+    }
+
+    public static Optional<Element> search(Element element, ElementType elementType, Predicate<Element> predicate) {
+        assert element != null : "Element can't be null";
+        assert elementType != null : "Element type can't be null";
+        assert predicate != null : "Predicate can't be null";
+
+        return Optional.ofNullable(new Traversal(elementType).find(element, e -> e.getElementType() == elementType && predicate.test(e)));
     }
 
     public static Optional<Element> search(Element element, Predicate<Element> predicate) {
         assert element != null : "Element can't be null";
         assert predicate != null : "Predicate can't be null";
 
-        final AtomicReference<Optional<Element>> result = new AtomicReference<>(Optional.<Element>empty());
+        return Optional.ofNullable(new Traversal(null).find(element, predicate));
+    }
+
+    public static void visit(Element element, Callback callback) {
+        assert element != null : "Element can't be null";
+        assert callback != null : "Callback can't be null";
+
+        new Traversal(null).walk(element, callback);
+    }
+
+    /**
+     * Returns whether an element of a particular type can contain (or be) an element of another type, as
+     * traversed by this visitor.
+     *
+     * @param containerType The type of the element being traversed.
+     * @param elementType The type of the element being searched for.
+     * @return Whether or not the subtree of the container can contain an element of the provided type.
+     */
+    public static boolean mayContain(ElementType containerType, ElementType elementType) {
+        assert containerType != null : "Container type can't be null";
+        assert elementType != null : "Element type can't be null";
+
+        return containerType == elementType || (!LEAF_TYPES[containerType.ordinal()] && EXPRESSION_TYPES[elementType.ordinal()]);
+    }
 
-        visit(element, (w, e) -> {
-            if (predicate.test(e)) {
-                result.set(Optional.of(e));
-                w.abort();
+    private static Optional<Element> search(Element[] elements, Traversal traversal, Predicate<Element> predicate) {
+        for (Element element : elements) {
+            final Element result = traversal.find(element, predicate);
+
+            if (result != null) {
+                return Optional.of(result);
             }
-        });
+        }
 
-        return result.get();
+        return Optional.empty();
     }
 
-    public static void visit(Element element, Callback callback) {
-        try {
-            visitNonAbortable(element, callback, () -> { throw new Abort(); });
-        } catch (Abort abort) {
+    private static boolean[] typeSet(ElementType... elementTypes) {
+        final boolean[] set = new boolean[ElementType.values().length];
+
+        for (ElementType elementType : elementTypes) {
+            set[elementType.ordinal()] = true;
         }
+
+        return set;
     }
 
-    private static void visitNonAbortable(Element element, Callback callback, Walker walker) {
-        assert element != null : "Element can't be null";
-        assert callback != null : "Callback can't be null";
+    private static final class Traversal implements Walker {
 
+        private final ElementType targetType;
 
-        switch (element.getElementType()) {
-            case RETURN_VALUE: {
-                visitNonAbortable(element.as(ReturnValue.class).getValue(), callback, walker);
-                break;
-            }
-            case BINARY_OPERATOR: {
-                final BinaryOperator binaryOperator = element.as(BinaryOperator.class);
-                visitNonAbortable(binaryOperator.getLeftOperand(), callback, walker);
-                visitNonAbortable(binaryOperator.getRightOperand(), callback, walker);
-                break;
-            }
-            case METHOD_CALL: {
-                final MethodCall methodCall = element.as(MethodCall.class);
+        private Element[] elements = new Element[INITIAL_STACK_SIZE];
 
-                if (methodCall.getTargetInstance() != null) {
-                    visitNonAbortable(methodCall.getTargetInstance(), callback, walker);
-                }
+        private boolean[] expanded = new boolean[INITIAL_STACK_SIZE];
 
-                for (Expression parameter : methodCall.getParameters()) {
-                    visitNonAbortable(parameter, callback, walker);
+        private int size;
+
+        private boolean aborted;
+
+        private Element match;
+
+        private Traversal(ElementType targetType) {
+            this.targetType = targetType;
+        }
+
+        @Override
+        public void abort() {
+            aborted = true;
+        }
+
+        private Element find(Element element, Predicate<Element> predicate) {
+            match = null;
+
+            walk(element, (walker, currentElement) -> {
+                if (predicate.test(currentElement)) {
+                    match = currentElement;
+                    walker.abort();
                 }
+            });
+
+            return match;
+        }
 
-                break;
+        private void walk(Element root, Callback callback) {
+            size = 0;
+            aborted = false;
+
+            push(root);
+
+            while (size > 0 && !aborted) {
+                final int top = size - 1;
+                final Element element = elements[top];
+
+                if (expanded[top]) {
+                    elements[top] = null;
+                    size = top;
+
+                    callback.visit(this, element);
+                } else {
+                    expanded[top] = true;
+                    pushChildren(element);
+                }
             }
-            case FIELD_REFERENCE: {
-                final FieldReference fieldReference = element.as(FieldReference.class);
 
-                if (fieldReference.getTargetInstance().isPresent()) {
-                    visitNonAbortable(fieldReference.getTargetInstance().get(), callback, walker);
+            Arrays.fill(elements, 0, size, null);
+            size = 0;
+        }
+
+        /**
+         * Pushes the children of an element onto the stack in reverse order, so that they are popped, and
+         * thereby visited, in declaration order.
+         */
+        private void pushChildren(Element element) {
+            switch (element.getElementType()) {
+                case RETURN_VALUE: {
+                    push(element.as(ReturnValue.class).getValue());
+                    break;
                 }
+                case BINARY_OPERATOR: {
+                    final BinaryOperator binaryOperator = element.as(BinaryOperator.class);
 
-                break;
-            }
-            case VARIABLE_ASSIGNMENT: {
-                final VariableAssignment variableAssignment = element.as(VariableAssignment.class);
+                    push(binaryOperator.getRightOperand());
+                    push(binaryOperator.getLeftOperand());
+                    break;
+                }
+                case METHOD_CALL: {
+                    final MethodCall methodCall = element.as(MethodCall.class);
+                    final List<Expression> parameters = methodCall.getParameters();
 
-                visitNonAbortable(variableAssignment.getValue(), callback, walker);
+                    for (int i = parameters.size() - 1; i >= 0; i--) {
+                        push(parameters.get(i));
+                    }
 
-                break;
-            }
-            case LAMBDA: {
-                final Lambda lambda = element.as(Lambda.class);
+                    if (methodCall.getTargetInstance() != null) {
+                        push(methodCall.getTargetInstance());
+                    }
 
-                if (lambda.getSelf().isPresent()) {
-                    visitNonAbortable(lambda.getSelf().get(), callback, walker);
+                    break;
                 }
+                case FIELD_REFERENCE: {
+                    final FieldReference fieldReference = element.as(FieldReference.class);
 
-                break;
-            }
-            case BRANCH: {
-                final Branch branch = element.as(Branch.class);
+                    if (fieldReference.getTargetInstance().isPresent()) {
+                        push(fieldReference.getTargetInstance().get());
+                    }
 
-                visitNonAbortable(branch.getLeftOperand(), callback, walker);
-                visitNonAbortable(branch.getRightOperand(), callback, walker);
-                break;
-            }
-            case NEW: {
-                element.as(NewInstance.class).getParameters().forEach(e -> visitNonAbortable(e, callback, walker));
-                break;
-            }
-            case NEW_ARRAY: {
-                final NewArray newArray = element.as(NewArray.class);
+                    break;
+                }
+                case VARIABLE_ASSIGNMENT: {
+                    push(element.as(VariableAssignment.class).getValue());
+                    break;
+                }
+                case LAMBDA: {
+                    final Lambda lambda = element.as(Lambda.class);
 
-                visitNonAbortable(newArray.getLength(), callback, walker);
-                newArray.getInitializers().forEach(i -> visitNonAbortable(i.getValue(), callback, walker));
-                break;
-            }
-            case ARRAY_STORE: {
-                final ArrayStore arrayStore = element.as(ArrayStore.class);
+                    if (lambda.getSelf().isPresent()) {
+                        push(lambda.getSelf().get());
+                    }
 
-                visitNonAbortable(arrayStore.getArray(), callback, walker);
-                visitNonAbortable(arrayStore.getIndex(), callback, walker);
-                visitNonAbortable(arrayStore.getValue(), callback, walker);
+                    break;
+                }
+                case BRANCH: {
+                    final Branch branch = element.as(Branch.class);
 
-                break;
-            }
-            case FIELD_ASSIGNMENT: {
-                final FieldAssignment assignment = element.as(FieldAssignment.class);
+                    push(branch.getRightOperand());
+                    push(branch.getLeftOperand());
+                    break;
+                }
+                case NEW: {
+                    final List<Expression> parameters = element.as(NewInstance.class).getParameters();
 
-                visitNonAbortable(assignment.getFieldReference(), callback, walker);
-                visitNonAbortable(assignment.getValue(), callback, walker);
+                    for (int i = parameters.size() - 1; i >= 0; i--) {
+                        push(parameters.get(i));
+                    }
 
-                break;
-            }
-            case CAST: {
-                final TypeCast typeCast = element.as(TypeCast.class);
+                    break;
+                }
+                case NEW_ARRAY: {
+                    final NewArray newArray = element.as(NewArray.class);
+                    final List<ArrayInitializer> initializers = newArray.getInitializers();
 
-                visitNonAbortable(typeCast.getValue(), callback, walker);
+                    for (int i = initializers.size() - 1; i >= 0; i--) {
+                        push(initializers.get(i).getValue());
+                    }
 
-                break;
-            }
-            case ARRAY_LOAD: {
-                final ArrayLoad arrayLoad = element.as(ArrayLoad.class);
+                    push(newArray.getLength());
+                    break;
+                }
+                case ARRAY_STORE: {
+                    final ArrayStore arrayStore = element.as(ArrayStore.class);
 
-                visitNonAbortable(arrayLoad.getArray(), callback, walker);
-                visitNonAbortable(arrayLoad.getIndex(), callback, walker);
+                    push(arrayStore.getValue());
+                    push(arrayStore.getIndex());
+                    push(arrayStore.getArray());
+                    break;
+                }
+                case FIELD_ASSIGNMENT: {
+                    final FieldAssignment assignment = element.as(FieldAssignment.class);
+
+                    push(assignment.getValue());
+                    push(assignment.getFieldReference());
+                    break;
+                }
+                case CAST: {
+                    push(element.as(TypeCast.class).getValue());
+                    break;
+                }
+                case ARRAY_LOAD: {
+                    final ArrayLoad arrayLoad = element.as(ArrayLoad.class);
 
-                break;
+                    push(arrayLoad.getIndex());
+                    push(arrayLoad.getArray());
+                    break;
+                }
             }
         }
 
-        callback.visit(walker, element);
-    }
+        private void push(Element element) {
+            assert element != null : "Element can't be null";
 
-    private static final class Abort extends RuntimeException {}
+            if (targetType != null && !mayContain(element.getElementType(), targetType)) {
+                return;
+            }
+
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+                expanded = Arrays.copyOf(expanded, size * 2);
+            }
 
+            elements[size] = element;
+            expanded[size] = false;
+            size++;
+        }
+    }
 }
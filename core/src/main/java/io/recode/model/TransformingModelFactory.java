@@ -108,6 +108,11 @@ public final class TransformingModelFactory implements ModelFactory {
         return transform(targetModelFactory.newArray(arrayType, componentType, length, initializers));
     }
 
+    @Override
+    public ArrayInitializer initializer(int index, Expression value) {
+        return targetModelFactory.initializer(index, value);
+    }
+
     @Override
     public Expression newInstance(Type type, Signature constructorSignature, List<Expression> parameters) {
         return transform(targetModelFactory.newInstance(type, constructorSignature, parameters));
@@ -14,6 +14,8 @@ public final class ArrayLoadImpl extends AbstractElement implements ArrayLoad {
 
     private final Type type;
 
+    private int hash;
+
     public ArrayLoadImpl(Expression array, Expression index, Type type) {
         this(array, index, type, null);
     }
@@ -50,6 +52,8 @@ public final class ArrayLoadImpl extends AbstractElement implements ArrayLoad {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
+        if (hash != 0 && ((ArrayLoadImpl) o).hash != 0 && hash != ((ArrayLoadImpl) o).hash) return false;
+
         ArrayLoadImpl arrayLoad = (ArrayLoadImpl) o;
 
         if (!array.equals(arrayLoad.array)) return false;
@@ -61,9 +65,15 @@ public final class ArrayLoadImpl extends AbstractElement implements ArrayLoad {
 
     @Override
     public int hashCode() {
-        int result = array.hashCode();
-        result = 31 * result + index.hashCode();
-        result = 31 * result + type.hashCode();
+        int result = hash;
+
+        if (result == 0) {
+            result = array.hashCode();
+            result = 31 * result + index.hashCode();
+            result = 31 * result + type.hashCode();
+            hash = result;
+        }
+
         return result;
     }
 
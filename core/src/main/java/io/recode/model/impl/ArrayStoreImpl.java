@@ -12,6 +12,8 @@ public class ArrayStoreImpl extends AbstractElement implements ArrayStore {
 
     private final Expression value;
 
+    private int hash;
+
     public ArrayStoreImpl(Expression array, Expression index, Expression value) {
         this(array, index, value, null);
     }
@@ -48,6 +50,8 @@ public class ArrayStoreImpl extends AbstractElement implements ArrayStore {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
+        if (hash != 0 && ((ArrayStoreImpl) o).hash != 0 && hash != ((ArrayStoreImpl) o).hash) return false;
+
         ArrayStoreImpl that = (ArrayStoreImpl) o;
 
         if (!array.equals(that.array)) return false;
@@ -59,9 +63,15 @@ public class ArrayStoreImpl extends AbstractElement implements ArrayStore {
 
     @Override
     public int hashCode() {
-        int result = array.hashCode();
-        result = 31 * result + index.hashCode();
-        result = 31 * result + value.hashCode();
+        int result = hash;
+
+        if (result == 0) {
+            result = array.hashCode();
+            result = 31 * result + index.hashCode();
+            result = 31 * result + value.hashCode();
+            hash = result;
+        }
+
         return result;
     }
 
@@ -0,0 +1,127 @@
+package io.recode.model.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Constants and primitive encodings shared by {@link BinaryElementWriter} and {@link BinaryElementReader}.
+ * A stream consists of a header (magic number and version) followed by a sequence of element records. Each
+ * record starts with a tag that is the ordinal of the element type plus one; a zero tag denotes an absent
+ * element or, at the top level, the end of the stream. Strings and types are written once and subsequently
+ * referred to by their index in a table that both sides build incrementally, which allows the stream to be
+ * decoded without reading it in full first.
+ */
+final class BinaryElementFormat {
+
+    static final int MAGIC_NUMBER = 0x52454344;
+
+    static final int VERSION = 1;
+
+    static final int TAG_NONE = 0;
+
+    static final int REFERENCE_NULL = 0;
+
+    static final int REFERENCE_DEFINITION = 1;
+
+    static final int REFERENCE_OFFSET = 2;
+
+    static final int METADATA_PROGRAM_COUNTER = 0x01;
+
+    static final int METADATA_LINE_NUMBER = 0x02;
+
+    static final int CONSTANT_NULL = 0;
+
+    static final int CONSTANT_INT = 1;
+
+    static final int CONSTANT_LONG = 2;
+
+    static final int CONSTANT_FLOAT = 3;
+
+    static final int CONSTANT_DOUBLE = 4;
+
+    static final int CONSTANT_BOOLEAN = 5;
+
+    static final int CONSTANT_CHAR = 6;
+
+    static final int CONSTANT_BYTE = 7;
+
+    static final int CONSTANT_SHORT = 8;
+
+    static final int CONSTANT_STRING = 9;
+
+    static final int CONSTANT_TYPE = 10;
+
+    private BinaryElementFormat() {
+    }
+
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        out.writeByte(value);
+    }
+
+    static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte(((int) value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        out.writeByte((int) value);
+    }
+
+    static void writeSignedVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    static void writeSignedVarLong(DataOutputStream out, long value) throws IOException {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    static int readVarInt(DataInputStream in) throws IOException {
+        int result = 0;
+
+        for (int shift = 0; shift < 35; shift += 7) {
+            final int b = in.readUnsignedByte();
+
+            result |= (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+
+        throw new IOException("Malformed variable length integer");
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long result = 0;
+
+        for (int shift = 0; shift < 70; shift += 7) {
+            final int b = in.readUnsignedByte();
+
+            result |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+
+        throw new IOException("Malformed variable length long");
+    }
+
+    static int readSignedVarInt(DataInputStream in) throws IOException {
+        final int value = readVarInt(in);
+
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long readSignedVarLong(DataInputStream in) throws IOException {
+        final long value = readVarLong(in);
+
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,406 @@
+package io.recode.model.impl;
+
+import io.recode.RuntimeTypeResolver;
+import io.recode.TypeResolver;
+import io.recode.classfile.ReferenceKind;
+import io.recode.model.*;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.*;
+
+import static io.recode.model.impl.BinaryElementFormat.*;
+
+public final class BinaryElementReader implements ElementReader {
+
+    private static final ElementType[] ELEMENT_TYPES = ElementType.values();
+
+    private static final OperatorType[] OPERATOR_TYPES = OperatorType.values();
+
+    private static final ReferenceKind[] REFERENCE_KINDS = ReferenceKind.values();
+
+    private static final Affix[] AFFIXES = Affix.values();
+
+    private static final Map<String, Class> PRIMITIVE_TYPES = new HashMap<>();
+
+    static {
+        for (Class type : new Class[]{void.class, boolean.class, byte.class, char.class, short.class, int.class, long.class, float.class, double.class}) {
+            PRIMITIVE_TYPES.put(type.getName(), type);
+        }
+    }
+
+    private final DataInputStream in;
+
+    private final TypeResolver typeResolver;
+
+    private final List<String> strings = new ArrayList<>();
+
+    private final List<Type> types = new ArrayList<>();
+
+    private final Map<String, Signature> signatures = new HashMap<>();
+
+    private boolean endOfStream = false;
+
+    public BinaryElementReader(InputStream in) throws IOException {
+        this(in, new RuntimeTypeResolver());
+    }
+
+    public BinaryElementReader(InputStream in, TypeResolver typeResolver) throws IOException {
+        assert in != null : "Input stream can't be null";
+        assert typeResolver != null : "Type resolver can't be null";
+
+        this.in = new DataInputStream(in instanceof BufferedInputStream ? in : new BufferedInputStream(in));
+        this.typeResolver = typeResolver;
+
+        final int magicNumber = this.in.readInt();
+
+        if (magicNumber != MAGIC_NUMBER) {
+            throw new ElementFormatException("Stream must begin with magic number (0x" + Integer.toHexString(MAGIC_NUMBER).toUpperCase() + ")");
+        }
+
+        final int version = this.in.readUnsignedByte();
+
+        if (version != VERSION) {
+            throw new ElementFormatException("Unsupported element stream version: " + version);
+        }
+    }
+
+    @Override
+    public Element read() throws IOException, ElementFormatException {
+        if (endOfStream) {
+            return null;
+        }
+
+        final int tag = in.read();
+
+        if (tag == -1 || tag == TAG_NONE) {
+            endOfStream = true;
+            return null;
+        }
+
+        return readElement(tag);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private Element readElement() throws IOException {
+        final int tag = in.readUnsignedByte();
+
+        if (tag == TAG_NONE) {
+            return null;
+        }
+
+        return readElement(tag);
+    }
+
+    private Element readElement(int tag) throws IOException {
+        if (tag > ELEMENT_TYPES.length) {
+            throw new ElementFormatException("Invalid element tag: " + tag);
+        }
+
+        final ElementMetaData metaData = readMetaData();
+
+        switch (ELEMENT_TYPES[tag - 1]) {
+            case CONSTANT: {
+                final Type type = readType();
+
+                return new ConstantImpl(readConstant(), type, metaData);
+            }
+            case RETURN_VALUE:
+                return new ReturnValueImpl(readExpression(), metaData);
+            case UNARY_OPERATOR: {
+                final Expression operand = readExpression();
+                final OperatorType operatorType = readEnum(OPERATOR_TYPES);
+
+                return new UnaryOperatorImpl(operand, operatorType, readType(), metaData);
+            }
+            case BINARY_OPERATOR: {
+                final Expression leftOperand = readExpression();
+                final OperatorType operatorType = readEnum(OPERATOR_TYPES);
+                final Expression rightOperand = readExpression();
+
+                return new BinaryOperatorImpl(leftOperand, operatorType, rightOperand, readType(), metaData);
+            }
+            case RETURN:
+                return new ReturnImpl(metaData);
+            case VARIABLE_REFERENCE: {
+                final String name = readString();
+                final Type type = readType();
+
+                return new LocalVariableReferenceImpl(name, type, readVarInt(in), metaData);
+            }
+            case METHOD_CALL: {
+                final Type targetType = readType();
+                final String methodName = readString();
+                final Signature signature = readSignature();
+                final Expression targetInstance = readExpression();
+                final List<Expression> parameters = readElements(Expression.class);
+
+                return new MethodCallImpl(targetType, methodName, signature, targetInstance,
+                        parameters.toArray(new Expression[parameters.size()]), readType(), metaData);
+            }
+            case FIELD_REFERENCE: {
+                final Expression targetInstance = readExpression();
+                final Type declaringType = readType();
+                final Type fieldType = readType();
+
+                return new FieldReferenceImpl(targetInstance, declaringType, fieldType, readString(), metaData);
+            }
+            case VARIABLE_ASSIGNMENT: {
+                final Expression value = readExpression();
+                final int variableIndex = readVarInt(in);
+                final String variableName = readString();
+
+                return new VariableAssignmentImpl(value, variableIndex, variableName, readType(), metaData);
+            }
+            case LAMBDA: {
+                final Expression self = readExpression();
+                final ReferenceKind referenceKind = readEnum(REFERENCE_KINDS);
+                final Type functionalInterface = readType();
+                final String functionalMethodName = readString();
+                final Signature interfaceMethodSignature = readSignature();
+                final Type declaringClass = readType();
+                final String backingMethodName = readString();
+                final Signature backingMethodSignature = readSignature();
+
+                return new LambdaImpl(Optional.ofNullable(self), referenceKind, functionalInterface, functionalMethodName,
+                        interfaceMethodSignature, declaringClass, backingMethodName, backingMethodSignature,
+                        readElements(LocalVariableReference.class), metaData);
+            }
+            case BRANCH: {
+                final Expression leftOperand = readExpression();
+                final OperatorType operatorType = readEnum(OPERATOR_TYPES);
+                final Expression rightOperand = readExpression();
+
+                return new BranchImpl(leftOperand, operatorType, rightOperand, readVarInt(in), metaData);
+            }
+            case NEW: {
+                final Type type = readType();
+                final Signature constructorSignature = readSignature();
+
+                return new NewInstanceImpl(type, constructorSignature, readElements(Expression.class), metaData);
+            }
+            case NEW_ARRAY: {
+                final Type arrayType = readType();
+                final Type componentType = readType();
+                final Expression length = readExpression();
+                final int count = readVarInt(in);
+                final List<ArrayInitializer> initializers = new ArrayList<>(count);
+
+                for (int i = 0; i < count; i++) {
+                    final int index = readVarInt(in);
+
+                    initializers.add(new ArrayInitializerImpl(index, readExpression()));
+                }
+
+                return new NewArrayImpl(arrayType, componentType, length, initializers, metaData);
+            }
+            case ARRAY_STORE: {
+                final Expression array = readExpression();
+                final Expression index = readExpression();
+
+                return new ArrayStoreImpl(array, index, readExpression(), metaData);
+            }
+            case FIELD_ASSIGNMENT: {
+                final FieldReference fieldReference = readElement(FieldReference.class);
+
+                return new FieldAssignmentImpl(fieldReference, readExpression(), metaData);
+            }
+            case CAST: {
+                final Expression value = readExpression();
+
+                return new TypeCastImpl(value, readType(), metaData);
+            }
+            case ARRAY_LOAD: {
+                final Expression array = readExpression();
+                final Expression index = readExpression();
+
+                return new ArrayLoadImpl(array, index, readType(), metaData);
+            }
+            case INCREMENT: {
+                final LocalVariableReference localVariable = readElement(LocalVariableReference.class);
+                final Expression value = readExpression();
+                final Type type = readType();
+
+                return new IncrementImpl(localVariable, value, type, readEnum(AFFIXES), metaData);
+            }
+            case ALLOCATE:
+                return new InstanceAllocationImpl(readType(), metaData);
+            case GOTO:
+                return new GotoImpl(readVarInt(in), metaData);
+            case COMPARE: {
+                final Expression leftOperand = readExpression();
+
+                return new CompareImpl(leftOperand, readExpression(), metaData);
+            }
+            default:
+                throw new ElementFormatException("Unsupported element tag: " + tag);
+        }
+    }
+
+    private Expression readExpression() throws IOException {
+        return readElement(Expression.class);
+    }
+
+    private <E extends Element> E readElement(Class<E> type) throws IOException {
+        final Element element = readElement();
+
+        if (element == null) {
+            return null;
+        }
+
+        if (!type.isInstance(element)) {
+            throw new ElementFormatException("Expected element of type " + type.getSimpleName() + ", was: " + element);
+        }
+
+        return type.cast(element);
+    }
+
+    private <E extends Element> List<E> readElements(Class<E> type) throws IOException {
+        final int count = readVarInt(in);
+
+        if (count == 0) {
+            return Collections.emptyList();
+        }
+
+        final List<E> elements = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            elements.add(readElement(type));
+        }
+
+        return elements;
+    }
+
+    private ElementMetaData readMetaData() throws IOException {
+        final int flags = in.readUnsignedByte();
+
+        if ((flags & METADATA_PROGRAM_COUNTER) == 0) {
+            return null;
+        }
+
+        final int programCounter = readVarInt(in);
+        final int lineNumber = ((flags & METADATA_LINE_NUMBER) != 0 ? readVarInt(in) : -1);
+
+        return new ElementContextMetaData(programCounter, lineNumber);
+    }
+
+    private Object readConstant() throws IOException {
+        final int tag = in.readUnsignedByte();
+
+        switch (tag) {
+            case CONSTANT_NULL:
+                return null;
+            case CONSTANT_INT:
+                return readSignedVarInt(in);
+            case CONSTANT_LONG:
+                return readSignedVarLong(in);
+            case CONSTANT_FLOAT:
+                return in.readFloat();
+            case CONSTANT_DOUBLE:
+                return in.readDouble();
+            case CONSTANT_BOOLEAN:
+                return in.readBoolean();
+            case CONSTANT_CHAR:
+                return in.readChar();
+            case CONSTANT_BYTE:
+                return in.readByte();
+            case CONSTANT_SHORT:
+                return in.readShort();
+            case CONSTANT_STRING:
+                return readString();
+            case CONSTANT_TYPE:
+                return readType();
+            default:
+                throw new ElementFormatException("Invalid constant tag: " + tag);
+        }
+    }
+
+    private <T extends Enum<T>> T readEnum(T[] values) throws IOException {
+        final int ordinal = readVarInt(in);
+
+        if (ordinal >= values.length) {
+            throw new ElementFormatException("Invalid ordinal " + ordinal + " for " + values.getClass().getComponentType().getSimpleName());
+        }
+
+        return values[ordinal];
+    }
+
+    private Signature readSignature() throws IOException {
+        final String specification = readString();
+
+        if (specification == null) {
+            return null;
+        }
+
+        Signature signature = signatures.get(specification);
+
+        if (signature == null) {
+            signature = MethodSignature.parse(specification);
+            signatures.put(specification, signature);
+        }
+
+        return signature;
+    }
+
+    private Type readType() throws IOException {
+        final int reference = readVarInt(in);
+
+        if (reference == REFERENCE_NULL) {
+            return null;
+        }
+
+        if (reference == REFERENCE_DEFINITION) {
+            final String typeName = readString();
+
+            if (typeName == null) {
+                throw new ElementFormatException("Type definition must have a name");
+            }
+
+            final Class primitiveType = PRIMITIVE_TYPES.get(typeName);
+            final Type type = (primitiveType != null ? primitiveType : typeResolver.resolveType(typeName));
+
+            types.add(type);
+
+            return type;
+        }
+
+        final int index = reference - REFERENCE_OFFSET;
+
+        if (index >= types.size()) {
+            throw new ElementFormatException("Invalid type reference: " + index);
+        }
+
+        return types.get(index);
+    }
+
+    private String readString() throws IOException {
+        final int reference = readVarInt(in);
+
+        if (reference == REFERENCE_NULL) {
+            return null;
+        }
+
+        if (reference == REFERENCE_DEFINITION) {
+            final String string = in.readUTF();
+
+            strings.add(string);
+
+            return string;
+        }
+
+        final int index = reference - REFERENCE_OFFSET;
+
+        if (index >= strings.size()) {
+            throw new ElementFormatException("Invalid string reference: " + index);
+        }
+
+        return strings.get(index);
+    }
+}
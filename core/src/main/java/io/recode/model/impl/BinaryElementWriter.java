@@ -0,0 +1,354 @@
+package io.recode.model.impl;
+
+import io.recode.model.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.recode.model.impl.BinaryElementFormat.*;
+
+public final class BinaryElementWriter implements ElementWriter {
+
+    private final DataOutputStream out;
+
+    private final Map<String, Integer> strings = new HashMap<>();
+
+    private final Map<Type, Integer> types = new HashMap<>();
+
+    private boolean closed = false;
+
+    public BinaryElementWriter(OutputStream out) throws IOException {
+        assert out != null : "Output stream can't be null";
+
+        this.out = new DataOutputStream(out instanceof BufferedOutputStream ? out : new BufferedOutputStream(out));
+        this.out.writeInt(MAGIC_NUMBER);
+        this.out.writeByte(VERSION);
+    }
+
+    @Override
+    public void write(Element element) throws IOException {
+        assert element != null : "Element can't be null";
+
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+
+        writeElement(element);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            out.writeByte(TAG_NONE);
+            out.close();
+        }
+    }
+
+    private void writeElement(Element element) throws IOException {
+        if (element == null) {
+            out.writeByte(TAG_NONE);
+            return;
+        }
+
+        final ElementType elementType = element.getElementType();
+
+        out.writeByte(elementType.ordinal() + 1);
+
+        writeMetaData(element.getMetaData());
+
+        switch (elementType) {
+            case CONSTANT: {
+                final Constant constant = (Constant) element;
+
+                writeType(constant.getType());
+                writeConstant(constant.getConstant());
+                break;
+            }
+            case RETURN_VALUE:
+                writeElement(((ReturnValue) element).getValue());
+                break;
+            case UNARY_OPERATOR: {
+                final UnaryOperator unaryOperator = (UnaryOperator) element;
+
+                writeElement(unaryOperator.getOperand());
+                writeVarInt(out, unaryOperator.getOperatorType().ordinal());
+                writeType(unaryOperator.getType());
+                break;
+            }
+            case BINARY_OPERATOR: {
+                final BinaryOperator binaryOperator = (BinaryOperator) element;
+
+                writeElement(binaryOperator.getLeftOperand());
+                writeVarInt(out, binaryOperator.getOperatorType().ordinal());
+                writeElement(binaryOperator.getRightOperand());
+                writeType(binaryOperator.getType());
+                break;
+            }
+            case RETURN:
+                break;
+            case VARIABLE_REFERENCE: {
+                final LocalVariableReference localVariableReference = (LocalVariableReference) element;
+
+                writeString(localVariableReference.getName());
+                writeType(localVariableReference.getType());
+                writeVarInt(out, localVariableReference.getIndex());
+                break;
+            }
+            case METHOD_CALL: {
+                final MethodCall methodCall = (MethodCall) element;
+
+                writeType(methodCall.getTargetType());
+                writeString(methodCall.getMethodName());
+                writeSignature(methodCall.getSignature());
+                writeElement(methodCall.getTargetInstance());
+                writeElements(methodCall.getParameters());
+                writeType(methodCall.getType());
+                break;
+            }
+            case FIELD_REFERENCE:
+                writeFieldReference((FieldReference) element);
+                break;
+            case VARIABLE_ASSIGNMENT: {
+                final VariableAssignment variableAssignment = (VariableAssignment) element;
+
+                writeElement(variableAssignment.getValue());
+                writeVarInt(out, variableAssignment.getVariableIndex());
+                writeString(variableAssignment.getVariableName());
+                writeType(variableAssignment.getVariableType());
+                break;
+            }
+            case LAMBDA: {
+                final Lambda lambda = (Lambda) element;
+
+                writeElement(lambda.getSelf().orElse(null));
+                writeVarInt(out, lambda.getReferenceKind().ordinal());
+                writeType(lambda.getFunctionalInterface());
+                writeString(lambda.getFunctionalMethodName());
+                writeSignature(lambda.getInterfaceMethodSignature());
+                writeType(lambda.getDeclaringClass());
+                writeString(lambda.getBackingMethodName());
+                writeSignature(lambda.getBackingMethodSignature());
+                writeElements(lambda.getEnclosedVariables());
+                break;
+            }
+            case BRANCH: {
+                final Branch branch = (Branch) element;
+
+                writeElement(branch.getLeftOperand());
+                writeVarInt(out, branch.getOperatorType().ordinal());
+                writeElement(branch.getRightOperand());
+                writeVarInt(out, branch.getTargetProgramCounter());
+                break;
+            }
+            case NEW: {
+                final NewInstance newInstance = (NewInstance) element;
+
+                writeType(newInstance.getType());
+                writeSignature(newInstance.getConstructorSignature());
+                writeElements(newInstance.getParameters());
+                break;
+            }
+            case NEW_ARRAY: {
+                final NewArray newArray = (NewArray) element;
+                final List<ArrayInitializer> initializers = newArray.getInitializers();
+
+                writeType(newArray.getType());
+                writeType(newArray.getComponentType());
+                writeElement(newArray.getLength());
+                writeVarInt(out, initializers.size());
+
+                for (ArrayInitializer initializer : initializers) {
+                    writeVarInt(out, initializer.getIndex());
+                    writeElement(initializer.getValue());
+                }
+
+                break;
+            }
+            case ARRAY_STORE: {
+                final ArrayStore arrayStore = (ArrayStore) element;
+
+                writeElement(arrayStore.getArray());
+                writeElement(arrayStore.getIndex());
+                writeElement(arrayStore.getValue());
+                break;
+            }
+            case FIELD_ASSIGNMENT: {
+                final FieldAssignment fieldAssignment = (FieldAssignment) element;
+
+                writeElement(fieldAssignment.getFieldReference());
+                writeElement(fieldAssignment.getValue());
+                break;
+            }
+            case CAST: {
+                final TypeCast typeCast = (TypeCast) element;
+
+                writeElement(typeCast.getValue());
+                writeType(typeCast.getType());
+                break;
+            }
+            case ARRAY_LOAD: {
+                final ArrayLoad arrayLoad = (ArrayLoad) element;
+
+                writeElement(arrayLoad.getArray());
+                writeElement(arrayLoad.getIndex());
+                writeType(arrayLoad.getType());
+                break;
+            }
+            case INCREMENT: {
+                final Increment increment = (Increment) element;
+
+                writeElement(increment.getLocalVariable());
+                writeElement(increment.getValue());
+                writeType(increment.getType());
+                writeVarInt(out, increment.getAffix().ordinal());
+                break;
+            }
+            case ALLOCATE:
+                writeType(((InstanceAllocation) element).getType());
+                break;
+            case GOTO:
+                writeVarInt(out, ((Goto) element).getTargetProgramCounter());
+                break;
+            case COMPARE: {
+                final Compare compare = (Compare) element;
+
+                writeElement(compare.getLeftOperand());
+                writeElement(compare.getRightOperand());
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported element: " + element);
+        }
+    }
+
+    private void writeFieldReference(FieldReference fieldReference) throws IOException {
+        final Optional<Expression> targetInstance = fieldReference.getTargetInstance();
+
+        writeElement(targetInstance.orElse(null));
+        writeType(fieldReference.getDeclaringType());
+        writeType(fieldReference.getFieldType());
+        writeString(fieldReference.getFieldName());
+    }
+
+    private void writeElements(List<? extends Element> elements) throws IOException {
+        writeVarInt(out, elements.size());
+
+        for (Element element : elements) {
+            writeElement(element);
+        }
+    }
+
+    private void writeMetaData(ElementMetaData metaData) throws IOException {
+        // A line number is only meaningful together with a program counter; see ElementContextMetaData
+        if (metaData == null || !metaData.hasProgramCounter()) {
+            out.writeByte(0);
+            return;
+        }
+
+        if (metaData.hasLineNumber()) {
+            out.writeByte(METADATA_PROGRAM_COUNTER | METADATA_LINE_NUMBER);
+            writeVarInt(out, metaData.getProgramCounter());
+            writeVarInt(out, metaData.getLineNumber());
+        } else {
+            out.writeByte(METADATA_PROGRAM_COUNTER);
+            writeVarInt(out, metaData.getProgramCounter());
+        }
+    }
+
+    private void writeConstant(Object constant) throws IOException {
+        if (constant == null) {
+            out.writeByte(CONSTANT_NULL);
+        } else if (constant instanceof Integer) {
+            out.writeByte(CONSTANT_INT);
+            writeSignedVarInt(out, (Integer) constant);
+        } else if (constant instanceof Long) {
+            out.writeByte(CONSTANT_LONG);
+            writeSignedVarLong(out, (Long) constant);
+        } else if (constant instanceof Float) {
+            out.writeByte(CONSTANT_FLOAT);
+            out.writeFloat((Float) constant);
+        } else if (constant instanceof Double) {
+            out.writeByte(CONSTANT_DOUBLE);
+            out.writeDouble((Double) constant);
+        } else if (constant instanceof Boolean) {
+            out.writeByte(CONSTANT_BOOLEAN);
+            out.writeBoolean((Boolean) constant);
+        } else if (constant instanceof Character) {
+            out.writeByte(CONSTANT_CHAR);
+            out.writeChar((Character) constant);
+        } else if (constant instanceof Byte) {
+            out.writeByte(CONSTANT_BYTE);
+            out.writeByte((Byte) constant);
+        } else if (constant instanceof Short) {
+            out.writeByte(CONSTANT_SHORT);
+            out.writeShort((Short) constant);
+        } else if (constant instanceof String) {
+            out.writeByte(CONSTANT_STRING);
+            writeString((String) constant);
+        } else if (constant instanceof Type) {
+            out.writeByte(CONSTANT_TYPE);
+            writeType((Type) constant);
+        } else {
+            throw new IllegalArgumentException("Unsupported constant value: " + constant + " (" + constant.getClass().getName() + ")");
+        }
+    }
+
+    private void writeSignature(Signature signature) throws IOException {
+        if (signature == null) {
+            writeString(null);
+        } else if (signature instanceof MethodSignature) {
+            writeString(signature.toString());
+        } else {
+            final List<Type> parameterTypes = signature.getParameterTypes();
+
+            writeString(MethodSignature.create(parameterTypes.toArray(new Type[parameterTypes.size()]), signature.getReturnType()).toString());
+        }
+    }
+
+    private void writeType(Type type) throws IOException {
+        if (type == null) {
+            writeVarInt(out, REFERENCE_NULL);
+            return;
+        }
+
+        final Integer index = types.get(type);
+
+        if (index != null) {
+            writeVarInt(out, index + REFERENCE_OFFSET);
+        } else {
+            types.put(type, types.size());
+            writeVarInt(out, REFERENCE_DEFINITION);
+            writeString(type instanceof Class ? ((Class) type).getName() : type.getTypeName());
+        }
+    }
+
+    private void writeString(String string) throws IOException {
+        if (string == null) {
+            writeVarInt(out, REFERENCE_NULL);
+            return;
+        }
+
+        final Integer index = strings.get(string);
+
+        if (index != null) {
+            writeVarInt(out, index + REFERENCE_OFFSET);
+        } else {
+            strings.put(string, strings.size());
+            writeVarInt(out, REFERENCE_DEFINITION);
+            out.writeUTF(string);
+        }
+    }
+}
@@ -17,6 +17,8 @@ public final class BinaryOperatorImpl extends AbstractElement implements BinaryO
 
     private final Type resultType;
 
+    private int hash;
+
     public BinaryOperatorImpl(Expression leftOperand, OperatorType operatorType, Expression rightOperand, Type resultType) {
         this(leftOperand, operatorType, rightOperand, resultType, null);
     }
@@ -60,6 +62,8 @@ public final class BinaryOperatorImpl extends AbstractElement implements BinaryO
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
+        if (hash != 0 && ((BinaryOperatorImpl) o).hash != 0 && hash != ((BinaryOperatorImpl) o).hash) return false;
+
         BinaryOperatorImpl that = (BinaryOperatorImpl) o;
 
         if (!leftOperand.equals(that.leftOperand)) return false;
@@ -72,10 +76,16 @@ public final class BinaryOperatorImpl extends AbstractElement implements BinaryO
 
     @Override
     public int hashCode() {
-        int result = leftOperand.hashCode();
-        result = 31 * result + operatorType.hashCode();
-        result = 31 * result + rightOperand.hashCode();
-        result = 31 * result + resultType.hashCode();
+        int result = hash;
+
+        if (result == 0) {
+            result = leftOperand.hashCode();
+            result = 31 * result + operatorType.hashCode();
+            result = 31 * result + rightOperand.hashCode();
+            result = 31 * result + resultType.hashCode();
+            hash = result;
+        }
+
         return result;
     }
 
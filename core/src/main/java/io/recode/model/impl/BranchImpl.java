@@ -15,6 +15,8 @@ public final class BranchImpl extends AbstractElement implements Branch {
 
     private final int targetProgramCounter;
 
+    private int hash;
+
     public BranchImpl(Expression leftOperand, OperatorType operatorType, Expression rightOperand, int targetProgramCounter) {
         this(leftOperand, operatorType, rightOperand, targetProgramCounter, null);
     }
@@ -58,6 +60,8 @@ public final class BranchImpl extends AbstractElement implements Branch {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
+        if (hash != 0 && ((BranchImpl) o).hash != 0 && hash != ((BranchImpl) o).hash) return false;
+
         BranchImpl branch = (BranchImpl) o;
 
         if (targetProgramCounter != branch.targetProgramCounter) return false;
@@ -70,9 +74,15 @@ public final class BranchImpl extends AbstractElement implements Branch {
 
     @Override
     public int hashCode() {
-        int result = leftOperand.hashCode();
-        result = 31 * result + operatorType.hashCode();
-        result = 31 * result + rightOperand.hashCode();
+        int result = hash;
+
+        if (result == 0) {
+            result = leftOperand.hashCode();
+            result = 31 * result + operatorType.hashCode();
+            result = 31 * result + rightOperand.hashCode();
+            hash = result;
+        }
+
         return result;
     }
 
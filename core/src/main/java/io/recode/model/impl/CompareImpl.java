@@ -13,6 +13,8 @@ public final class CompareImpl extends AbstractElement implements Compare {
 
     private final Expression rightOperand;
 
+    private int hash;
+
     public CompareImpl(Expression leftOperand, Expression rightOperand) {
         this(leftOperand, rightOperand, null);
     }
@@ -52,6 +54,8 @@ public final class CompareImpl extends AbstractElement implements Compare {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
+        if (hash != 0 && ((CompareImpl) o).hash != 0 && hash != ((CompareImpl) o).hash) return false;
+
         CompareImpl compare = (CompareImpl) o;
 
         if (!leftOperand.equals(compare.leftOperand)) return false;
@@ -62,8 +66,14 @@ public final class CompareImpl extends AbstractElement implements Compare {
 
     @Override
     public int hashCode() {
-        int result = leftOperand.hashCode();
-        result = 31 * result + rightOperand.hashCode();
+        int result = hash;
+
+        if (result == 0) {
+            result = leftOperand.hashCode();
+            result = 31 * result + rightOperand.hashCode();
+            hash = result;
+        }
+
         return result;
     }
 
@@ -45,13 +45,14 @@ public final class ConstantImpl extends AbstractElement implements Constant {
         ConstantImpl that = (ConstantImpl) o;
 
         if (!Objects.equals(constant, that.constant)) return false;
+        if (!type.equals(that.type)) return false;
 
         return true;
     }
 
     @Override
     public int hashCode() {
-        return constant.hashCode();
+        return Objects.hashCode(constant);
     }
 
     @Override
@@ -0,0 +1,82 @@
+package io.recode.model.impl;
+
+import io.recode.model.Element;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bounded pool of canonical elements, see {@link InterningModelFactory}. When the pool reaches its capacity it's
+ * cleared and refilled by subsequent lookups; elements that have already been shared remain valid, since elements
+ * are immutable.
+ */
+public final class ElementPool {
+
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private final ConcurrentMap<Element, Element> elements = new ConcurrentHashMap<>();
+
+    private final int capacity;
+
+    public ElementPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ElementPool(int capacity) {
+        assert capacity > 0 : "Capacity must be positive";
+
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the canonical element that is equal to the provided element.
+     *
+     * @param element The element to look up.
+     * @param <E> The type of the element.
+     * @return The canonical element, or <code>null</code> if no equal element is pooled.
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Element> E get(E element) {
+        assert element != null : "Element can't be null";
+
+        return (E) elements.get(element);
+    }
+
+    /**
+     * Returns the canonical instance of an element, making the element canonical if no equal element is pooled.
+     *
+     * @param element The element to intern.
+     * @param <E> The type of the element.
+     * @return The canonical element that is equal to the provided element.
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Element> E intern(E element) {
+        assert element != null : "Element can't be null";
+
+        final Element existingElement = elements.get(element);
+
+        if (existingElement != null) {
+            return (E) existingElement;
+        }
+
+        if (elements.size() >= capacity) {
+            elements.clear();
+        }
+
+        final Element internedElement = elements.putIfAbsent(element, element);
+
+        return (internedElement == null ? element : (E) internedElement);
+    }
+
+    public int size() {
+        return elements.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        elements.clear();
+    }
+}
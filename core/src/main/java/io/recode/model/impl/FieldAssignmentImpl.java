@@ -11,6 +11,8 @@ public final class FieldAssignmentImpl extends AbstractElement implements FieldA
 
     private final Expression value;
 
+    private int hash;
+
     public FieldAssignmentImpl(FieldReference fieldReference, Expression value) {
         this(fieldReference, value, null);
     }
@@ -40,6 +42,8 @@ public final class FieldAssignmentImpl extends AbstractElement implements FieldA
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
+        if (hash != 0 && ((FieldAssignmentImpl) o).hash != 0 && hash != ((FieldAssignmentImpl) o).hash) return false;
+
         FieldAssignmentImpl that = (FieldAssignmentImpl) o;
 
         if (!fieldReference.equals(that.fieldReference)) return false;
@@ -50,8 +54,14 @@ public final class FieldAssignmentImpl extends AbstractElement implements FieldA
 
     @Override
     public int hashCode() {
-        int result = fieldReference.hashCode();
-        result = 31 * result + value.hashCode();
+        int result = hash;
+
+        if (result == 0) {
+            result = fieldReference.hashCode();
+            result = 31 * result + value.hashCode();
+            hash = result;
+        }
+
         return result;
     }
 
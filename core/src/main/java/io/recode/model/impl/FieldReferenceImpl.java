@@ -18,6 +18,8 @@ public final class FieldReferenceImpl extends AbstractElement implements FieldRe
     private final String fieldName;
     private boolean aStatic;
 
+    private int hash;
+
     public FieldReferenceImpl(Expression targetInstance, Type declaringType, Type fieldType, String fieldName) {
         this(targetInstance, declaringType, fieldType, fieldName, null);
     }
@@ -68,6 +70,8 @@ public final class FieldReferenceImpl extends AbstractElement implements FieldRe
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
+        if (hash != 0 && ((FieldReferenceImpl) o).hash != 0 && hash != ((FieldReferenceImpl) o).hash) return false;
+
         FieldReferenceImpl that = (FieldReferenceImpl) o;
 
         if (aStatic != that.aStatic) return false;
@@ -82,11 +86,17 @@ public final class FieldReferenceImpl extends AbstractElement implements FieldRe
 
     @Override
     public int hashCode() {
-        int result = targetInstance != null ? targetInstance.hashCode() : 0;
-        result = 31 * result + declaringType.hashCode();
-        result = 31 * result + fieldType.hashCode();
-        result = 31 * result + fieldName.hashCode();
-        result = 31 * result + (aStatic ? 1 : 0);
+        int result = hash;
+
+        if (result == 0) {
+            result = targetInstance != null ? targetInstance.hashCode() : 0;
+            result = 31 * result + declaringType.hashCode();
+            result = 31 * result + fieldType.hashCode();
+            result = 31 * result + fieldName.hashCode();
+            result = 31 * result + (aStatic ? 1 : 0);
+            hash = result;
+        }
+
         return result;
     }
 
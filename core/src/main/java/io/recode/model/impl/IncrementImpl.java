@@ -14,6 +14,8 @@ public class IncrementImpl extends AbstractElement implements Increment {
 
     private final Affix affix;
 
+    private int hash;
+
     public IncrementImpl(LocalVariableReference localVariableReference, Expression value, Type resultType, Affix affix) {
         this(localVariableReference, value, resultType, affix, null);
     }
@@ -57,6 +59,8 @@ public class IncrementImpl extends AbstractElement implements Increment {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
+        if (hash != 0 && ((IncrementImpl) o).hash != 0 && hash != ((IncrementImpl) o).hash) return false;
+
         IncrementImpl increment = (IncrementImpl) o;
 
         if (!localVariableReference.equals(increment.localVariableReference)) return false;
@@ -68,9 +72,15 @@ public class IncrementImpl extends AbstractElement implements Increment {
 
     @Override
     public int hashCode() {
-        int result = localVariableReference.hashCode();
-        result = 31 * result + value.hashCode();
-        result = 31 * result + affix.hashCode();
+        int result = hash;
+
+        if (result == 0) {
+            result = localVariableReference.hashCode();
+            result = 31 * result + value.hashCode();
+            result = 31 * result + affix.hashCode();
+            hash = result;
+        }
+
         return result;
     }
 
@@ -0,0 +1,341 @@
+package io.recode.model.impl;
+
+import io.recode.classfile.ReferenceKind;
+import io.recode.model.*;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Model factory that shares structurally equal expressions. Constants, variable references, field references and
+ * side effect free operators (binary and unary operators, casts, array loads and comparisons) are replaced by a
+ * canonical instance from an {@link ElementPool}, so that trees created through the factory share their common
+ * subtrees.
+ * <p>
+ * Meta data is not part of element equality, so canonical instances never carry meta data. Elements created by
+ * the delegate keep their meta data, and so do the operands of expressions and branches, since the decompiler
+ * relies on the program counters of stacked expressions and of the operands of boolean expressions. The operands
+ * of statements, method calls and instantiations are replaced by canonical instances, since their meta data isn't
+ * used once they're part of such an element.
+ * </p>
+ */
+public final class InterningModelFactory implements ModelFactory {
+
+    private static final ModelFactory CANONICAL_MODEL_FACTORY = new BasicModelFactory();
+
+    private final ModelFactory delegate;
+
+    private final ElementPool elementPool;
+
+    public InterningModelFactory() {
+        this(new BasicModelFactory());
+    }
+
+    public InterningModelFactory(ModelFactory delegate) {
+        this(delegate, new ElementPool());
+    }
+
+    public InterningModelFactory(ModelFactory delegate, ElementPool elementPool) {
+        assert delegate != null : "Delegate can't be null";
+        assert elementPool != null : "Element pool can't be null";
+
+        this.delegate = delegate;
+        this.elementPool = elementPool;
+    }
+
+    public ElementPool getElementPool() {
+        return elementPool;
+    }
+
+    /**
+     * Returns the canonical instance of an element. Elements with meta data are never interned.
+     *
+     * @param element The element to intern.
+     * @param <E> The type of the element.
+     * @return The canonical element that is equal to the provided element, or the element itself if no equal
+     * element has been interned or if the element has meta data.
+     */
+    public <E extends Element> E intern(E element) {
+        assert element != null : "Element can't be null";
+
+        final ElementMetaData metaData = element.getMetaData();
+
+        if (metaData.hasProgramCounter() || metaData.hasLineNumber()) {
+            return element;
+        }
+
+        return elementPool.intern(element);
+    }
+
+    /**
+     * Returns the canonical instance of an operand. Unlike {@link #intern(Element)}, the meta data of the operand
+     * is discarded.
+     *
+     * @param expression The operand to share.
+     * @param <E> The type of the operand.
+     * @return A canonical expression that is equal to the operand, or the operand itself if it, or any of its
+     * operands, can't be shared (e.g. method calls).
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Expression> E share(E expression) {
+        if (expression == null) {
+            return null;
+        }
+
+        final Expression canonicalExpression = canonical(expression);
+
+        return (canonicalExpression == null ? expression : (E) canonicalExpression);
+    }
+
+    public int getInternedElementCount() {
+        return elementPool.size();
+    }
+
+    public void clear() {
+        elementPool.clear();
+    }
+
+    private Expression canonical(Expression expression) {
+        switch (expression.getElementType()) {
+            case CONSTANT:
+            case VARIABLE_REFERENCE:
+            case FIELD_REFERENCE:
+            case BINARY_OPERATOR:
+            case UNARY_OPERATOR:
+            case CAST:
+            case ARRAY_LOAD:
+            case COMPARE:
+                break;
+            default:
+                return null;
+        }
+
+        final Expression pooledExpression = elementPool.get(expression);
+
+        if (pooledExpression != null) {
+            return pooledExpression;
+        }
+
+        final Expression canonicalExpression;
+
+        switch (expression.getElementType()) {
+            case CONSTANT: {
+                final Constant constant = (Constant) expression;
+
+                canonicalExpression = new ConstantImpl(constant.getConstant(), constant.getType());
+                break;
+            }
+            case VARIABLE_REFERENCE: {
+                final LocalVariableReference local = (LocalVariableReference) expression;
+
+                canonicalExpression = CANONICAL_MODEL_FACTORY.local(local.getName(), local.getType(), local.getIndex());
+                break;
+            }
+            case FIELD_REFERENCE: {
+                final FieldReference field = (FieldReference) expression;
+                final Expression targetInstance;
+
+                if (field.getTargetInstance().isPresent()) {
+                    if ((targetInstance = canonical(field.getTargetInstance().get())) == null) {
+                        return null;
+                    }
+                } else {
+                    targetInstance = null;
+                }
+
+                canonicalExpression = CANONICAL_MODEL_FACTORY.field(targetInstance, field.getDeclaringType(), field.getFieldType(), field.getFieldName());
+                break;
+            }
+            case BINARY_OPERATOR: {
+                final BinaryOperator binaryOperator = (BinaryOperator) expression;
+                final Expression leftOperand = canonical(binaryOperator.getLeftOperand());
+                final Expression rightOperand = canonical(binaryOperator.getRightOperand());
+
+                if (leftOperand == null || rightOperand == null) {
+                    return null;
+                }
+
+                canonicalExpression = CANONICAL_MODEL_FACTORY.binary(leftOperand, binaryOperator.getOperatorType(), rightOperand, binaryOperator.getType());
+                break;
+            }
+            case UNARY_OPERATOR: {
+                final UnaryOperator unaryOperator = (UnaryOperator) expression;
+                final Expression operand = canonical(unaryOperator.getOperand());
+
+                if (operand == null) {
+                    return null;
+                }
+
+                canonicalExpression = CANONICAL_MODEL_FACTORY.unary(operand, unaryOperator.getOperatorType(), unaryOperator.getType());
+                break;
+            }
+            case CAST: {
+                final TypeCast typeCast = (TypeCast) expression;
+                final Expression value = canonical(typeCast.getValue());
+
+                if (value == null) {
+                    return null;
+                }
+
+                canonicalExpression = CANONICAL_MODEL_FACTORY.cast(value, typeCast.getType());
+                break;
+            }
+            case ARRAY_LOAD: {
+                final ArrayLoad arrayLoad = (ArrayLoad) expression;
+                final Expression array = canonical(arrayLoad.getArray());
+                final Expression index = canonical(arrayLoad.getIndex());
+
+                if (array == null || index == null) {
+                    return null;
+                }
+
+                canonicalExpression = CANONICAL_MODEL_FACTORY.get(array, index, arrayLoad.getType());
+                break;
+            }
+            default: {
+                final Compare compare = (Compare) expression;
+                final Expression leftOperand = canonical(compare.getLeftOperand());
+                final Expression rightOperand = canonical(compare.getRightOperand());
+
+                if (leftOperand == null || rightOperand == null) {
+                    return null;
+                }
+
+                canonicalExpression = CANONICAL_MODEL_FACTORY.compare(leftOperand, rightOperand);
+                break;
+            }
+        }
+
+        return elementPool.intern(canonicalExpression);
+    }
+
+    private Expression[] share(Expression[] expressions) {
+        if (expressions == null) {
+            return null;
+        }
+
+        final Expression[] sharedExpressions = new Expression[expressions.length];
+
+        for (int i = 0; i < expressions.length; i++) {
+            sharedExpressions[i] = share(expressions[i]);
+        }
+
+        return sharedExpressions;
+    }
+
+    @Override
+    public Expression constant(Object constant, Class type) {
+        return intern(delegate.constant(constant, type));
+    }
+
+    @Override
+    public Statement returnValue(Expression value) {
+        return delegate.returnValue(share(value));
+    }
+
+    @Override
+    public StatementAndExpression newInstance(Type type) {
+        return delegate.newInstance(type);
+    }
+
+    @Override
+    public Expression get(Expression array, Expression index, Type elementType) {
+        return intern(delegate.get(array, index, elementType));
+    }
+
+    @Override
+    public Statement set(Expression array, Expression index, Expression value) {
+        return delegate.set(share(array), share(index), share(value));
+    }
+
+    @Override
+    public Expression binary(Expression leftOperand, OperatorType operatorType, Expression rightOperand, Type resultType) {
+        return intern(delegate.binary(leftOperand, operatorType, rightOperand, resultType));
+    }
+
+    @Override
+    public Statement branch(Expression leftOperand, OperatorType operatorType, Expression rightOperand, int targetProgramCounter) {
+        return delegate.branch(leftOperand, operatorType, rightOperand, targetProgramCounter);
+    }
+
+    @Override
+    public Expression cast(Expression value, Type type) {
+        return intern(delegate.cast(value, type));
+    }
+
+    @Override
+    public Expression compare(Expression leftOperand, Expression rightOperand) {
+        return intern(delegate.compare(leftOperand, rightOperand));
+    }
+
+    @Override
+    public Statement assignField(FieldReference fieldReference, Expression value) {
+        return delegate.assignField(share(fieldReference), share(value));
+    }
+
+    @Override
+    public Expression field(Expression targetInstance, Type declaringType, Type fieldType, String fieldName) {
+        return intern(delegate.field(targetInstance, declaringType, fieldType, fieldName));
+    }
+
+    @Override
+    public Statement jump(int targetProgramCounter) {
+        return delegate.jump(targetProgramCounter);
+    }
+
+    @Override
+    public StatementAndExpression increment(LocalVariableReference localVariableReference, Expression value, Type resultType, Affix affix) {
+        return delegate.increment(share(localVariableReference), share(value), resultType, affix);
+    }
+
+    @Override
+    public <E extends Element> E createFrom(E element) {
+        return delegate.createFrom(element);
+    }
+
+    @Override
+    public Lambda createLambda(Optional<Expression> self, ReferenceKind referenceKind, Type functionalInterface, String functionalMethodName, Signature interfaceMethodSignature, Type declaringClass, String backingMethodName, Signature backingMethodSignature, List<LocalVariableReference> enclosedVariables) {
+        return delegate.createLambda(self, referenceKind, functionalInterface, functionalMethodName, interfaceMethodSignature, declaringClass, backingMethodName, backingMethodSignature, enclosedVariables);
+    }
+
+    @Override
+    public Expression local(String variableName, Type variableType, int index) {
+        return intern(delegate.local(variableName, variableType, index));
+    }
+
+    @Override
+    public Expression call(Type targetType, String methodName, Signature signature, Expression targetInstance, Expression[] parameters, Type resultType) {
+        return delegate.call(targetType, methodName, signature, share(targetInstance), share(parameters), resultType);
+    }
+
+    @Override
+    public Expression newArray(Type arrayType, Type componentType, Expression length, List<ArrayInitializer> initializers) {
+        return delegate.newArray(arrayType, componentType, share(length), initializers);
+    }
+
+    @Override
+    public ArrayInitializer initializer(int index, Expression value) {
+        return delegate.initializer(index, share(value));
+    }
+
+    @Override
+    public Expression newInstance(Type type, Signature constructorSignature, List<Expression> parameters) {
+        return delegate.newInstance(type, constructorSignature, parameters);
+    }
+
+    @Override
+    public Statement doReturn() {
+        return delegate.doReturn();
+    }
+
+    @Override
+    public Expression unary(Expression operand, OperatorType operatorType, Type type) {
+        return intern(delegate.unary(operand, operatorType, type));
+    }
+
+    @Override
+    public Statement assignLocal(Expression value, int variableIndex, String variableName, Type variableType) {
+        return delegate.assignLocal(share(value), variableIndex, variableName, variableType);
+    }
+}
@@ -22,6 +22,8 @@ public final class MethodCallImpl extends AbstractElement implements MethodCall
 
     private final Type expressionType;
 
+    private int hash;
+
     public MethodCallImpl(Type targetType, String methodName, Signature signature, Expression targetInstance, Expression[] parameters) {
         this(targetType, methodName, signature, targetInstance, parameters, signature == null ? null : signature.getReturnType());
     }
@@ -119,6 +121,8 @@ public final class MethodCallImpl extends AbstractElement implements MethodCall
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
+        if (hash != 0 && ((MethodCallImpl) o).hash != 0 && hash != ((MethodCallImpl) o).hash) return false;
+
         MethodCallImpl that = (MethodCallImpl) o;
 
         if (!expressionType.equals(that.expressionType)) return false;
@@ -134,12 +138,18 @@ public final class MethodCallImpl extends AbstractElement implements MethodCall
 
     @Override
     public int hashCode() {
-        int result = targetType.hashCode();
-        result = 31 * result + methodName.hashCode();
-        result = 31 * result + signature.hashCode();
-        result = 31 * result + (targetInstance != null ? targetInstance.hashCode() : 0);
-        result = 31 * result + Arrays.hashCode(parameters);
-        result = 31 * result + expressionType.hashCode();
+        int result = hash;
+
+        if (result == 0) {
+            result = targetType.hashCode();
+            result = 31 * result + methodName.hashCode();
+            result = 31 * result + signature.hashCode();
+            result = 31 * result + (targetInstance != null ? targetInstance.hashCode() : 0);
+            result = 31 * result + Arrays.hashCode(parameters);
+            result = 31 * result + expressionType.hashCode();
+            hash = result;
+        }
+
         return result;
     }
 
@@ -19,6 +19,8 @@ public final class NewArrayImpl extends AbstractElement implements NewArray {
 
     private final List<ArrayInitializer> initializers;
 
+    private int hash;
+
     public NewArrayImpl(Type arrayType, Type componentType, Expression length, List<ArrayInitializer> initializers) {
         this(arrayType, componentType, length, initializers, null);
     }
@@ -62,6 +64,8 @@ public final class NewArrayImpl extends AbstractElement implements NewArray {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
+        if (hash != 0 && ((NewArrayImpl) o).hash != 0 && hash != ((NewArrayImpl) o).hash) return false;
+
         NewArrayImpl newArray = (NewArrayImpl) o;
 
         if (!arrayType.equals(newArray.arrayType)) return false;
@@ -74,10 +78,16 @@ public final class NewArrayImpl extends AbstractElement implements NewArray {
 
     @Override
     public int hashCode() {
-        int result = arrayType.hashCode();
-        result = 31 * result + componentType.hashCode();
-        result = 31 * result + length.hashCode();
-        result = 31 * result + initializers.hashCode();
+        int result = hash;
+
+        if (result == 0) {
+            result = arrayType.hashCode();
+            result = 31 * result + componentType.hashCode();
+            result = 31 * result + length.hashCode();
+            result = 31 * result + initializers.hashCode();
+            hash = result;
+        }
+
         return result;
     }
 
@@ -17,6 +17,8 @@ public final class NewInstanceImpl extends AbstractElement implements NewInstanc
 
     private final List<Expression> parameters;
 
+    private int hash;
+
     public NewInstanceImpl(Type type, Signature constructorSignature, List<Expression> parameters) {
         this(type, constructorSignature, parameters, null);
     }
@@ -53,6 +55,8 @@ public final class NewInstanceImpl extends AbstractElement implements NewInstanc
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
+        if (hash != 0 && ((NewInstanceImpl) o).hash != 0 && hash != ((NewInstanceImpl) o).hash) return false;
+
         NewInstanceImpl that = (NewInstanceImpl) o;
 
         if (!constructorSignature.equals(that.constructorSignature)) return false;
@@ -64,9 +68,15 @@ public final class NewInstanceImpl extends AbstractElement implements NewInstanc
 
     @Override
     public int hashCode() {
-        int result = type.hashCode();
-        result = 31 * result + constructorSignature.hashCode();
-        result = 31 * result + parameters.hashCode();
+        int result = hash;
+
+        if (result == 0) {
+            result = type.hashCode();
+            result = 31 * result + constructorSignature.hashCode();
+            result = 31 * result + parameters.hashCode();
+            hash = result;
+        }
+
         return result;
     }
 
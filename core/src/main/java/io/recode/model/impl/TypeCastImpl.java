@@ -12,6 +12,8 @@ public final class TypeCastImpl extends AbstractElement implements TypeCast {
 
     private final Type type;
 
+    private int hash;
+
     public TypeCastImpl(Expression value, Type type) {
         this(value, type, null);
     }
@@ -41,6 +43,8 @@ public final class TypeCastImpl extends AbstractElement implements TypeCast {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
+        if (hash != 0 && ((TypeCastImpl) o).hash != 0 && hash != ((TypeCastImpl) o).hash) return false;
+
         TypeCastImpl cast = (TypeCastImpl) o;
 
         if (!type.equals(cast.type)) return false;
@@ -51,8 +55,14 @@ public final class TypeCastImpl extends AbstractElement implements TypeCast {
 
     @Override
     public int hashCode() {
-        int result = value.hashCode();
-        result = 31 * result + type.hashCode();
+        int result = hash;
+
+        if (result == 0) {
+            result = value.hashCode();
+            result = 31 * result + type.hashCode();
+            hash = result;
+        }
+
         return result;
     }
 
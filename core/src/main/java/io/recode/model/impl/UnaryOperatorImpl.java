@@ -12,6 +12,8 @@ public final class UnaryOperatorImpl extends AbstractElement implements UnaryOpe
 
     private final Type type;
 
+    private int hash;
+
     public UnaryOperatorImpl(Expression operand, OperatorType operatorType, Type type) {
         this(operand, operatorType, type, null);
     }
@@ -53,6 +55,8 @@ public final class UnaryOperatorImpl extends AbstractElement implements UnaryOpe
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
+        if (hash != 0 && ((UnaryOperatorImpl) o).hash != 0 && hash != ((UnaryOperatorImpl) o).hash) return false;
+
         UnaryOperatorImpl that = (UnaryOperatorImpl) o;
 
         if (!operand.equals(that.operand)) return false;
@@ -64,9 +68,15 @@ public final class UnaryOperatorImpl extends AbstractElement implements UnaryOpe
 
     @Override
     public int hashCode() {
-        int result = operand.hashCode();
-        result = 31 * result + operatorType.hashCode();
-        result = 31 * result + type.hashCode();
+        int result = hash;
+
+        if (result == 0) {
+            result = operand.hashCode();
+            result = 31 * result + operatorType.hashCode();
+            result = 31 * result + type.hashCode();
+            hash = result;
+        }
+
         return result;
     }
 
@@ -18,6 +18,8 @@ public final class VariableAssignmentImpl extends AbstractElement implements Var
 
     private final Type variableType;
 
+    private int hash;
+
     public VariableAssignmentImpl(Expression value, int variableIndex, String variableName, Type variableType) {
         this(value, variableIndex, variableName, variableType, null);
     }
@@ -72,6 +74,8 @@ public final class VariableAssignmentImpl extends AbstractElement implements Var
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
 
+        if (hash != 0 && ((VariableAssignmentImpl) o).hash != 0 && hash != ((VariableAssignmentImpl) o).hash) return false;
+
         VariableAssignmentImpl that = (VariableAssignmentImpl) o;
 
         if (variableIndex != that.variableIndex) return false;
@@ -84,10 +88,16 @@ public final class VariableAssignmentImpl extends AbstractElement implements Var
 
     @Override
     public int hashCode() {
-        int result = value.hashCode();
-        result = 31 * result + variableIndex;
-        result = 31 * result + variableName.hashCode();
-        result = 31 * result + variableType.hashCode();
+        int result = hash;
+
+        if (result == 0) {
+            result = value.hashCode();
+            result = 31 * result + variableIndex;
+            result = 31 * result + variableName.hashCode();
+            result = 31 * result + variableType.hashCode();
+            hash = result;
+        }
+
         return result;
     }
 
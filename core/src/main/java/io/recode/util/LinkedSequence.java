@@ -46,6 +46,11 @@ public final class LinkedSequence<T> extends AbstractCollection<T> implements Se
         return new LinkSelector(last);
     }
 
+    @Override
+    public T peekLast() {
+        return (last == null ? null : last.element());
+    }
+
     @Override
     public SingleElement<T> last(Predicate<T> predicate) {
         assert predicate != null : "Predicate can't be null";
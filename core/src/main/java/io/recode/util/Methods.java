@@ -11,48 +11,108 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.*;
+import java.util.List;
 import java.util.Optional;
 
 public final class Methods {
 
+    /**
+     * Checks whether the provided method call targets a varargs method. The target method is looked up in the
+     * {@link MemberIndexCache#shared() shared} member index cache.
+     *
+     * @param methodCall The method call to check.
+     * @return Whether or not the target method is known to be a varargs method.
+     */
     public static boolean isDefinitelyVarArgsMethodCall(MethodCall methodCall) {
         assert methodCall != null : "methodCall can't be null";
 
-        if (!(methodCall.getTargetType() instanceof Class)) {
-            return false;
-        }
+        return isDefinitelyVarArgsMethodCall(MemberIndexCache.shared(), methodCall);
+    }
 
-        final Optional<java.lang.reflect.Method> methodOptional = findMethodForNameAndSignature(
-                (Class) methodCall.getTargetType(),
-                methodCall.getMethodName(),
-                methodCall.getSignature());
+    /**
+     * Checks whether the provided method call targets a varargs method. The target method is looked up in the
+     * member index of the target type, so the target type is not loaded. Class types whose class files can't
+     * be resolved are inspected through reflection instead.
+     *
+     * @param memberIndexCache The member indexes that should be used to find the target method.
+     * @param methodCall The method call to check.
+     * @return Whether or not the target method is known to be a varargs method.
+     */
+    public static boolean isDefinitelyVarArgsMethodCall(MemberIndexCache memberIndexCache, MethodCall methodCall) {
+        assert memberIndexCache != null : "memberIndexCache can't be null";
+        assert methodCall != null : "methodCall can't be null";
 
-        if (!methodOptional.isPresent()) {
-            return false;
-        }
+        final Optional<MemberIndex> memberIndex = memberIndexCache.get(methodCall.getTargetType());
+
+        if (!memberIndex.isPresent()) {
+            if (!(methodCall.getTargetType() instanceof Class)) {
+                return false;
+            }
 
-        final java.lang.reflect.Method method = methodOptional.get();
-        final Parameter[] parameters = method.getParameters();
+            final Optional<java.lang.reflect.Method> method = findMethodForNameAndSignature(
+                    (Class) methodCall.getTargetType(),
+                    methodCall.getMethodName(),
+                    methodCall.getSignature());
 
-        if (parameters.length == 0) {
-            return false;
+            return method.isPresent() && method.get().isVarArgs();
         }
 
-        return parameters[parameters.length - 1].isVarArgs();
+        return memberIndex.get().isVarArgsMethod(methodCall.getMethodName(), methodCall.getSignature());
+    }
+
+    /**
+     * Returns the method declared by a type with the provided name and descriptor. The method is looked up in
+     * the member index of the type, so the type is not loaded.
+     *
+     * @param memberIndexCache The member indexes that should be used to find the method.
+     * @param type The type that declares the method.
+     * @param name The name of the method.
+     * @param descriptor The descriptor of the method.
+     * @return The method, or an empty optional if the type doesn't declare the method or if the class file of
+     * the type can't be resolved.
+     */
+    public static Optional<Method> findMethodForNameAndDescriptor(MemberIndexCache memberIndexCache, Type type, String name, String descriptor) {
+        assert memberIndexCache != null : "memberIndexCache can't be null";
+        assert type != null : "type can't be null";
+
+        return memberIndexCache.get(type).flatMap(memberIndex -> memberIndex.findMethod(name, descriptor));
     }
 
+    /**
+     * Returns the method declared by a loaded class with the provided name and signature. The method is looked
+     * up directly by its parameter types rather than by searching the declared methods of the class, so the
+     * parameter types of the signature must be classes.
+     *
+     * @param type The class that declares the method.
+     * @param name The name of the method.
+     * @param signature The signature of the method.
+     * @return The method, or an empty optional if the class doesn't declare the method.
+     */
     public static Optional<java.lang.reflect.Method> findMethodForNameAndSignature(Class<?> type, String name, Signature signature) {
         assert type != null : "type can't be null";
         assert name != null && !name.isEmpty() : "name can't be null or empty";
         assert signature != null : "signature can't be null";
 
-        for (final java.lang.reflect.Method method : type.getDeclaredMethods()) {
-            if (method.getName().equals(name) && signature.test(method)) {
-                return Optional.of(method);
+        final List<Type> parameterTypes = signature.getParameterTypes();
+        final Class<?>[] parameterClasses = new Class<?>[parameterTypes.size()];
+
+        for (int i = 0; i < parameterClasses.length; i++) {
+            if (!(parameterTypes.get(i) instanceof Class)) {
+                return Optional.empty();
             }
+
+            parameterClasses[i] = (Class<?>) parameterTypes.get(i);
         }
 
-        return Optional.empty();
+        final java.lang.reflect.Method method;
+
+        try {
+            method = type.getDeclaredMethod(name, parameterClasses);
+        } catch (NoSuchMethodException e) {
+            return Optional.empty();
+        }
+
+        return (signature.test(method) ? Optional.of(method) : Optional.empty());
     }
 
     public static Optional<Method> findMethodForNameAndLineNumber(ClassFile classFile, String methodName, int lineNumber) {
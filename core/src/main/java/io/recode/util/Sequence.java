@@ -9,6 +9,13 @@ public interface Sequence<T> extends Collection<T> {
 
     SingleElement<T> last();
 
+    /**
+     * Returns the last element of the sequence without creating a selector.
+     *
+     * @return The last element, or <code>null</code> if the sequence is empty.
+     */
+    T peekLast();
+
     SingleElement<T> last(Predicate<T> predicate);
 
     SingleElement<T> first();
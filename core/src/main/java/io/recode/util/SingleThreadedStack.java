@@ -81,6 +81,11 @@ public final class SingleThreadedStack<E> implements Stack<E> {
         }
     }
 
+    @Override
+    public E get(int index) {
+        return targetList.get(index);
+    }
+
     public void insert(int index, E element) {
         targetList.add(index, element);
 
@@ -16,6 +16,15 @@ public interface Stack<E> extends Iterable<E> {
 
     E peek();
 
+    /**
+     * Returns an element on the stack without copying the stack.
+     *
+     * @param index The index of the element, where 0 is the bottom of the stack.
+     * @return The element at the index.
+     * @throws IndexOutOfBoundsException Thrown if the index is outside of the stack.
+     */
+    E get(int index);
+
     void insert(int index, E element);
 
     int size();
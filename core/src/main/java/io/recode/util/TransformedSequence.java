@@ -32,6 +32,13 @@ public final class TransformedSequence<T, S> extends AbstractCollection<T> imple
         return transformed(sourceSequence.last());
     }
 
+    @Override
+    public T peekLast() {
+        final S last = sourceSequence.peekLast();
+
+        return (last == null ? null : retrieveTransform.apply(last));
+    }
+
     @Override
     public SingleElement<T> last(Predicate<T> predicate) {
         assert predicate != null : "Predicate can't be null";
@@ -63,6 +63,11 @@ public final class TransformedStack<S, T> implements io.recode.util.Stack<S> {
         return retrieveTransform.apply(targetStack.peek());
     }
 
+    @Override
+    public S get(int index) {
+        return retrieveTransform.apply(targetStack.get(index));
+    }
+
     @Override
     public void insert(int index, S element) {
         targetStack.insert(index, acceptTransform.apply(element));
@@ -0,0 +1,213 @@
+package io.recode.util;
+
+import io.recode.SymbolicType;
+
+import java.lang.reflect.Type;
+
+/**
+ * Describes the properties of a type that the decompiler and code generator inspect frequently, i.e. whether
+ * the type is primitive, its computational category, its array dimensions and its box type. A type kind is
+ * computed once per class and cached, so that the properties can be compared without inspecting type names.
+ */
+public final class TypeKind {
+
+    public enum Sort {
+
+        BOOLEAN(Boolean.class),
+
+        BYTE(Byte.class),
+
+        SHORT(Short.class),
+
+        CHAR(Character.class),
+
+        INT(Integer.class),
+
+        LONG(Long.class),
+
+        FLOAT(Float.class),
+
+        DOUBLE(Double.class),
+
+        VOID(null),
+
+        REFERENCE(null);
+
+        private final Class<?> boxType;
+
+        Sort(Class<?> boxType) {
+            this.boxType = boxType;
+        }
+    }
+
+    private static final int CACHED_ARRAY_DIMENSIONS = 8;
+
+    public static final TypeKind BOOLEAN = new TypeKind(Sort.BOOLEAN, 0);
+
+    public static final TypeKind BYTE = new TypeKind(Sort.BYTE, 0);
+
+    public static final TypeKind SHORT = new TypeKind(Sort.SHORT, 0);
+
+    public static final TypeKind CHAR = new TypeKind(Sort.CHAR, 0);
+
+    public static final TypeKind INT = new TypeKind(Sort.INT, 0);
+
+    public static final TypeKind LONG = new TypeKind(Sort.LONG, 0);
+
+    public static final TypeKind FLOAT = new TypeKind(Sort.FLOAT, 0);
+
+    public static final TypeKind DOUBLE = new TypeKind(Sort.DOUBLE, 0);
+
+    public static final TypeKind VOID = new TypeKind(Sort.VOID, 0);
+
+    public static final TypeKind REFERENCE = new TypeKind(Sort.REFERENCE, 0);
+
+    private static final TypeKind[] ARRAYS = new TypeKind[CACHED_ARRAY_DIMENSIONS + 1];
+
+    private static final ClassValue<TypeKind> CLASS_KINDS = new ClassValue<TypeKind>() {
+        @Override
+        protected TypeKind computeValue(Class<?> type) {
+            return of(type.getTypeName());
+        }
+    };
+
+    static {
+        ARRAYS[0] = REFERENCE;
+
+        for (int dimensions = 1; dimensions <= CACHED_ARRAY_DIMENSIONS; dimensions++) {
+            ARRAYS[dimensions] = new TypeKind(Sort.REFERENCE, dimensions);
+        }
+    }
+
+    private final Sort sort;
+
+    private final int arrayDimensions;
+
+    private TypeKind(Sort sort, int arrayDimensions) {
+        this.sort = sort;
+        this.arrayDimensions = arrayDimensions;
+    }
+
+    /**
+     * Returns the kind of a type. The kinds of classes are cached; the kinds of symbolic types are derived from
+     * their dimensions. Other types, e.g. generic types, are described by their type names.
+     *
+     * @param type The type whose kind should be returned.
+     * @return The kind of the type.
+     */
+    public static TypeKind of(Type type) {
+        assert type != null : "Type can't be null";
+
+        if (type instanceof Class) {
+            return CLASS_KINDS.get((Class<?>) type);
+        }
+
+        if (type instanceof SymbolicType) {
+            return array(((SymbolicType) type).getDimensions());
+        }
+
+        return of(type.getTypeName());
+    }
+
+    /**
+     * Returns the kind of a reference type with the specified number of array dimensions.
+     *
+     * @param dimensions The number of array dimensions; 0 if the type isn't an array.
+     * @return The kind of the reference type.
+     */
+    public static TypeKind array(int dimensions) {
+        assert dimensions >= 0 : "Dimensions can't be negative";
+
+        if (dimensions <= CACHED_ARRAY_DIMENSIONS) {
+            return ARRAYS[dimensions];
+        }
+
+        return new TypeKind(Sort.REFERENCE, dimensions);
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+
+    /**
+     * Returns whether or not the type is primitive. Note that <code>void</code> is not considered primitive.
+     *
+     * @return Whether or not the type is primitive.
+     */
+    public boolean isPrimitive() {
+        return sort.boxType != null;
+    }
+
+    public boolean isArray() {
+        return arrayDimensions > 0;
+    }
+
+    public int getArrayDimensions() {
+        return arrayDimensions;
+    }
+
+    /**
+     * Returns the computational category of the type, i.e. the number of stack slots occupied by a value of the
+     * type. This is 2 for <code>long</code> and <code>double</code> and 1 for all other types.
+     *
+     * @return The computational category of the type.
+     */
+    public int getComputationalCategory() {
+        return (sort == Sort.LONG || sort == Sort.DOUBLE ? 2 : 1);
+    }
+
+    /**
+     * Returns the box type of a primitive type, e.g. <code>Integer</code> for <code>int</code>.
+     *
+     * @return The box type, or <code>null</code> if the type isn't primitive.
+     */
+    public Class<?> getBoxType() {
+        return sort.boxType;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder buffer = new StringBuilder("TypeKind{").append(sort);
+
+        for (int i = 0; i < arrayDimensions; i++) {
+            buffer.append("[]");
+        }
+
+        return buffer.append("}").toString();
+    }
+
+    private static TypeKind of(String typeName) {
+        int dimensions = 0;
+
+        for (int end = typeName.length(); end >= 2 && typeName.startsWith("[]", end - 2); end -= 2) {
+            dimensions++;
+        }
+
+        if (dimensions > 0) {
+            return array(dimensions);
+        }
+
+        switch (typeName) {
+            case "boolean":
+                return BOOLEAN;
+            case "byte":
+                return BYTE;
+            case "short":
+                return SHORT;
+            case "char":
+                return CHAR;
+            case "int":
+                return INT;
+            case "long":
+                return LONG;
+            case "float":
+                return FLOAT;
+            case "double":
+                return DOUBLE;
+            case "void":
+                return VOID;
+            default:
+                return REFERENCE;
+        }
+    }
+}
@@ -7,62 +7,31 @@ public final class Types {
     public static boolean isArray(Type type) {
         assert type != null : "Type can't be null";
 
-        return type.getTypeName().endsWith("[]");
+        return TypeKind.of(type).isArray();
     }
 
     public static boolean isPrimitive(Type type) {
         assert type != null : "Type can't be null";
 
-        switch (type.getTypeName()) {
-            case "boolean":
-            case "byte":
-            case "short":
-            case "char":
-            case "int":
-            case "long":
-            case "float":
-            case "double":
-                return true;
-        }
-
-        return false;
+        return TypeKind.of(type).isPrimitive();
     }
 
     public static int getComputationalCategory(Type type) {
         assert type != null : "Type can't be null";
 
-        switch (type.getTypeName()) {
-            case "double":
-            case "long":
-                return 2;
-            default:
-                return 1;
-        }
+        return TypeKind.of(type).getComputationalCategory();
     }
 
     public static Type getBoxType(Type primitiveType) {
         assert primitiveType != null : "Primitive type can't be null";
 
-        switch (primitiveType.getTypeName()) {
-            case "int":
-                return Integer.class;
-            case "boolean":
-                return Boolean.class;
-            case "long":
-                return Long.class;
-            case "double":
-                return Double.class;
-            case "char":
-                return Character.class;
-            case "float":
-                return Float.class;
-            case "short":
-                return Short.class;
-            case "byte":
-                return Byte.class;
-            default:
-                throw new IllegalArgumentException("Type is not a primitive: " + primitiveType.getTypeName());
+        final Class<?> boxType = TypeKind.of(primitiveType).getBoxType();
+
+        if (boxType == null) {
+            throw new IllegalArgumentException("Type is not a primitive: " + primitiveType.getTypeName());
         }
+
+        return boxType;
     }
 
     /**
@@ -90,23 +59,38 @@ public final class Types {
             return true;
         }
 
-        if (Types.isPrimitive(expectedType)) {
-            if (getBoxType(expectedType).equals(valueType)) {
-                return true;
-            }
+        final Class<?> expectedBoxType = TypeKind.of(expectedType).getBoxType();
 
-            return false;
+        if (expectedBoxType != null) {
+            return expectedBoxType.getTypeName().equals(valueType.getTypeName());
         }
 
-        if (Types.isPrimitive(valueType)) {
-            if (getBoxType(valueType).equals(expectedType)) {
-                return true;
-            }
+        final Class<?> valueBoxType = TypeKind.of(valueType).getBoxType();
 
-            return false;
+        if (valueBoxType != null) {
+            return valueBoxType.getTypeName().equals(expectedType.getTypeName());
         }
 
         return true;
     }
 
+    /**
+     * Returns the simple name of a type, i.e. the name of the type without package or enclosing class.
+     * This is the same as {@link Class#getSimpleName()} for classes, but doesn't require the type to be loaded.
+     *
+     * @param type The type whose simple name should be returned.
+     * @return The simple name of the type.
+     */
+    public static String getSimpleName(Type type) {
+        assert type != null : "Type can't be null";
+
+        if (type instanceof Class) {
+            return ((Class) type).getSimpleName();
+        }
+
+        final String typeName = type.getTypeName();
+
+        return typeName.substring(Math.max(typeName.lastIndexOf('.'), typeName.lastIndexOf('$')) + 1);
+    }
+
 }
@@ -43,6 +43,11 @@ public final class UnmodifiableSequence<E> extends AbstractCollection<E> impleme
         return unmodifiableSelector(sourceSequence.last());
     }
 
+    @Override
+    public E peekLast() {
+        return sourceSequence.peekLast();
+    }
+
     @Override
     public SingleElement<E> first() {
         return unmodifiableSelector(sourceSequence.first());
@@ -0,0 +1,107 @@
+package io.recode;
+
+import io.recode.classfile.ClassFile;
+import io.recode.classfile.Method;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import io.recode.decompile.CodeStream;
+import io.recode.decompile.Decompiler;
+import io.recode.decompile.impl.DecompilerImpl;
+import io.recode.decompile.impl.InputStreamCodeStream;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+
+import static io.recode.test.AllocationMeter.assertAllocationWithinBudget;
+
+/**
+ * Allocation budgets of the hot paths of reading and decompiling class files. A failure means that a change
+ * made the operation allocate more; if that's intended, update the budget (see {@link io.recode.test.AllocationMeter}).
+ */
+public class AllocationBudgetTest {
+
+    private static final long READ_CLASS_FILE_BUDGET = 28_500;
+
+    private static final long DECOMPILE_ARITHMETIC_BUDGET = 27_000;
+
+    private static final long DECOMPILE_LOOP_BUDGET = 34_500;
+
+    private static final long DECOMPILE_METHOD_CALLS_BUDGET = 34_500;
+
+    private final ClassFileReaderImpl classFileReader = new ClassFileReaderImpl();
+
+    private final Decompiler decompiler = new DecompilerImpl();
+
+    @Test
+    public void readClassFileShouldStayWithinBudget() throws Exception {
+        final byte[] classBytes;
+
+        try (InputStream in = ReferenceMethods.class.getResourceAsStream("/" + ReferenceMethods.class.getName().replace('.', '/') + ".class")) {
+            classBytes = IOUtils.toByteArray(in);
+        }
+
+        assertAllocationWithinBudget("ClassFileReaderImpl.read", READ_CLASS_FILE_BUDGET,
+                () -> classFileReader.read(new ByteArrayInputStream(classBytes)));
+    }
+
+    @Test
+    public void decompileArithmeticShouldStayWithinBudget() throws Exception {
+        assertDecompilationWithinBudget("arithmetic", DECOMPILE_ARITHMETIC_BUDGET);
+    }
+
+    @Test
+    public void decompileLoopShouldStayWithinBudget() throws Exception {
+        assertDecompilationWithinBudget("loop", DECOMPILE_LOOP_BUDGET);
+    }
+
+    @Test
+    public void decompileMethodCallsShouldStayWithinBudget() throws Exception {
+        assertDecompilationWithinBudget("methodCalls", DECOMPILE_METHOD_CALLS_BUDGET);
+    }
+
+    private void assertDecompilationWithinBudget(String methodName, long budget) {
+        final ClassFile classFile = ClassModelTestUtils.classFileOf(ReferenceMethods.class);
+        final Method method = ClassModelTestUtils.methodWithName(classFile, methodName);
+
+        assertAllocationWithinBudget("DecompilerImpl.parse(" + methodName + ")", budget, () -> {
+            try (CodeStream code = new InputStreamCodeStream(method.getCode().getCode())) {
+                decompiler.parse(method, code);
+            }
+        });
+    }
+
+    /**
+     * Reference methods; changing these invalidates the budgets.
+     */
+    static final class ReferenceMethods {
+
+        static int arithmetic(int a, int b) {
+            final int sum = a + b;
+            final int product = a * b;
+
+            return sum * 2 - product / 3;
+        }
+
+        static int loop(int[] values) {
+            int sum = 0;
+
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] > 0) {
+                    sum += values[i];
+                }
+            }
+
+            return sum;
+        }
+
+        static String methodCalls(List<String> values) {
+            final StringBuilder builder = new StringBuilder();
+
+            builder.append(values.get(0).trim()).append(',').append(values.size());
+
+            return builder.toString().toUpperCase();
+        }
+    }
+}
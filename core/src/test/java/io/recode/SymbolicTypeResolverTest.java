@@ -0,0 +1,40 @@
+package io.recode;
+
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SymbolicTypeResolverTest {
+
+    private final SymbolicTypeResolver resolver = new SymbolicTypeResolver();
+
+    @Test
+    public void resolveTypeShouldNotAcceptNullOrEmptyTypeName() {
+        assertThrown(() -> resolver.resolveType(null), AssertionError.class);
+        assertThrown(() -> resolver.resolveType(""), AssertionError.class);
+    }
+
+    @Test
+    public void primitiveTypesShouldBeResolvedToClasses() {
+        assertEquals(int.class, resolver.resolveType("int"));
+        assertEquals(boolean.class, resolver.resolveType("boolean"));
+    }
+
+    @Test
+    public void referenceTypesShouldBeResolvedToSymbolicTypes() {
+        assertEquals(SymbolicType.of("java.lang.String"), resolver.resolveType("java.lang.String"));
+        assertEquals(SymbolicType.of("[Ljava.lang.String;"), resolver.resolveType("[Ljava.lang.String;"));
+        assertEquals(SymbolicType.of("com.example.DoesNotExist"), resolver.resolveType("com.example.DoesNotExist"));
+    }
+
+    @Test
+    public void resolvedTypesShouldBeShared() {
+        final Type type = resolver.resolveType("java.lang.String");
+
+        assertSame(type, resolver.resolveType("java.lang.String"));
+    }
+}
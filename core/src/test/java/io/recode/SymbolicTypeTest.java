@@ -0,0 +1,74 @@
+package io.recode;
+
+import org.junit.Test;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+
+public class SymbolicTypeTest {
+
+    @Test
+    public void ofShouldNotAcceptNullOrEmptyName() {
+        assertThrown(() -> SymbolicType.of(null), AssertionError.class);
+        assertThrown(() -> SymbolicType.of(""), AssertionError.class);
+    }
+
+    @Test
+    public void ofShouldNotAcceptPrimitiveOrInvalidArrayTypes() {
+        assertThrown(() -> SymbolicType.of("int"), IllegalArgumentException.class);
+        assertThrown(() -> SymbolicType.of("[X"), IllegalArgumentException.class);
+        assertThrown(() -> SymbolicType.of("[Ljava.lang.String"), IllegalArgumentException.class);
+    }
+
+    @Test
+    public void classTypeShouldHaveSameNamesAsClass() {
+        final SymbolicType type = SymbolicType.of("java/lang/String");
+
+        assertEquals(String.class.getName(), type.getName());
+        assertEquals(String.class.getTypeName(), type.getTypeName());
+        assertFalse(type.isArray());
+        assertEquals(0, type.getDimensions());
+        assertNull(type.getComponentType());
+    }
+
+    @Test
+    public void arrayTypeShouldHaveSameNamesAsClass() {
+        final SymbolicType type = SymbolicType.of(String[][].class.getName());
+
+        assertEquals(String[][].class.getName(), type.getName());
+        assertEquals(String[][].class.getTypeName(), type.getTypeName());
+        assertTrue(type.isArray());
+        assertEquals(2, type.getDimensions());
+        assertEquals(SymbolicType.of("[Ljava.lang.String;"), type.getComponentType());
+        assertEquals(SymbolicType.of("java.lang.String"), SymbolicType.of("[Ljava.lang.String;").getComponentType());
+    }
+
+    @Test
+    public void primitiveArrayTypeShouldHavePrimitiveComponentType() {
+        final SymbolicType type = SymbolicType.of("[I");
+
+        assertEquals(int[].class.getTypeName(), type.getTypeName());
+        assertEquals(int.class, type.getComponentType());
+    }
+
+    @Test
+    public void typeCanBeResolvedOnDemand() throws ClassNotFoundException {
+        assertEquals(String[].class, SymbolicType.of("[Ljava.lang.String;").resolve(getClass().getClassLoader()));
+        assertThrown(() -> SymbolicType.of("com.example.DoesNotExist").resolve(getClass().getClassLoader()), ClassNotFoundException.class);
+    }
+
+    @Test
+    public void getPrimitiveTypeShouldReturnClassOfPrimitiveType() {
+        assertEquals(int.class, SymbolicType.getPrimitiveType("int"));
+        assertEquals(void.class, SymbolicType.getPrimitiveType("void"));
+        assertNull(SymbolicType.getPrimitiveType("java.lang.Integer"));
+    }
+
+    @Test
+    public void typesWithEqualNamesShouldBeEqual() {
+        assertEquals(SymbolicType.of("java.lang.String"), SymbolicType.of("java/lang/String"));
+        assertEquals(SymbolicType.of("java.lang.String").hashCode(), SymbolicType.of("java/lang/String").hashCode());
+        assertNotEquals(SymbolicType.of("java.lang.String"), SymbolicType.of("java.lang.Object"));
+        assertNotEquals(SymbolicType.of("java.lang.String"), String.class);
+    }
+}
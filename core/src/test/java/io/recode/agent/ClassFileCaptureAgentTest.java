@@ -0,0 +1,85 @@
+package io.recode.agent;
+
+import io.recode.classfile.InMemoryClassFileResolver;
+import org.junit.After;
+import org.junit.Test;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.Instrumentation;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+public class ClassFileCaptureAgentTest {
+
+    private final Instrumentation instrumentation = mock(Instrumentation.class);
+
+    @After
+    public void tearDown() {
+        ClassFileCaptureAgent.uninstall();
+    }
+
+    @Test
+    public void classFileResolverShouldNotBePresentIfAgentIsNotInstalled() {
+        assertFalse(ClassFileCaptureAgent.getClassFileResolver().isPresent());
+    }
+
+    @Test
+    public void premainShouldInstallTransformerWithoutRetransformation() {
+        ClassFileCaptureAgent.premain(null, instrumentation);
+
+        verify(instrumentation).addTransformer(any(ClassFileCaptureTransformer.class), eq(false));
+        verify(instrumentation, never()).getAllLoadedClasses();
+
+        assertTrue(ClassFileCaptureAgent.getClassFileResolver().isPresent());
+        assertFalse(ClassFileCaptureAgent.getClassFileResolver().get().isCompressed());
+    }
+
+    @Test
+    public void agentShouldOnlyBeInstalledOnce() {
+        final InMemoryClassFileResolver resolver = ClassFileCaptureAgent.install(null, instrumentation, false);
+
+        assertSame(resolver, ClassFileCaptureAgent.install(null, instrumentation, false));
+        verify(instrumentation, times(1)).addTransformer(any(ClassFileTransformer.class), anyBoolean());
+    }
+
+    @Test
+    public void agentmainShouldRetransformLoadedClassesInConfiguredPackages() throws Exception {
+        when(instrumentation.isRetransformClassesSupported()).thenReturn(true);
+        when(instrumentation.getAllLoadedClasses()).thenReturn(new Class[]{String.class, getClass(), int.class});
+        when(instrumentation.isModifiableClass(any())).thenReturn(true);
+
+        ClassFileCaptureAgent.agentmain("packages=io.recode.agent", instrumentation);
+
+        verify(instrumentation).addTransformer(any(ClassFileCaptureTransformer.class), eq(true));
+        verify(instrumentation).retransformClasses(getClass());
+        verify(instrumentation, never()).retransformClasses(String.class);
+    }
+
+    @Test
+    public void argumentsCanBeParsed() {
+        final ClassFileCaptureAgent.Configuration configuration = ClassFileCaptureAgent.Configuration.parse("packages=com.acme, org.example;compress=true");
+
+        assertEquals(Arrays.asList("com.acme", "org.example"), configuration.packageNames);
+        assertTrue(configuration.compress);
+    }
+
+    @Test
+    public void missingArgumentsShouldYieldDefaultConfiguration() {
+        final ClassFileCaptureAgent.Configuration configuration = ClassFileCaptureAgent.Configuration.parse(null);
+
+        assertEquals(Collections.emptyList(), configuration.packageNames);
+        assertFalse(configuration.compress);
+    }
+
+    @Test
+    public void invalidArgumentsShouldBeRejected() {
+        assertThrown(() -> ClassFileCaptureAgent.Configuration.parse("packages"), IllegalArgumentException.class);
+        assertThrown(() -> ClassFileCaptureAgent.Configuration.parse("foo=bar"), IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,53 @@
+package io.recode.agent;
+
+import io.recode.classfile.InMemoryClassFileResolver;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+
+public class ClassFileCaptureTransformerTest {
+
+    private final InMemoryClassFileResolver classFileResolver = new InMemoryClassFileResolver(new ClassFileReaderImpl());
+
+    @Test
+    public void constructorShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> new ClassFileCaptureTransformer(null, Collections.emptyList()), AssertionError.class);
+        assertThrown(() -> new ClassFileCaptureTransformer(classFileResolver, null), AssertionError.class);
+    }
+
+    @Test
+    public void allClassesShouldBeIncludedIfNoPackagesAreConfigured() {
+        final ClassFileCaptureTransformer transformer = new ClassFileCaptureTransformer(classFileResolver, Collections.emptyList());
+
+        assertTrue(transformer.isIncluded("java/lang/String"));
+    }
+
+    @Test
+    public void classesInConfiguredPackagesShouldBeIncluded() {
+        final ClassFileCaptureTransformer transformer = new ClassFileCaptureTransformer(classFileResolver, Arrays.asList("com.acme", "org.example"));
+
+        assertTrue(transformer.isIncluded("com/acme/Foo"));
+        assertTrue(transformer.isIncluded("com/acme/bar/Foo"));
+        assertTrue(transformer.isIncluded("org/example/Foo"));
+        assertFalse(transformer.isIncluded("com/acmeinc/Foo"));
+        assertFalse(transformer.isIncluded("java/lang/String"));
+    }
+
+    @Test
+    public void transformShouldRecordIncludedClassesWithoutTransformingThem() {
+        final ClassFileCaptureTransformer transformer = new ClassFileCaptureTransformer(classFileResolver, Collections.singletonList("com.acme"));
+        final byte[] bytes = {1, 2, 3};
+
+        assertNull(transformer.transform(null, "com/acme/Foo", null, null, bytes));
+        assertNull(transformer.transform(null, "org/example/Foo", null, null, bytes));
+        assertNull(transformer.transform(null, null, null, null, bytes));
+
+        assertArrayEquals(bytes, classFileResolver.getClassBytes("com.acme.Foo").get());
+        assertEquals(1, classFileResolver.size());
+    }
+}
@@ -9,6 +9,7 @@ import java.util.Arrays;
 import java.util.List;
 
 import static io.recode.classfile.ByteCode.*;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -72,4 +73,11 @@ public class ByteCodeTest {
         assertTrue(instructions.containsAll(Arrays.asList(lload, lload_0, lload_1, lload_2, lload_3)));
         assertFalse(instructions.containsAll(Arrays.asList(aload, aload_0, aload_1, aload_2, aload_3)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void widthShouldBeDefinedForAllFixedLengthInstructions() {
+        for (int byteCode : new int[]{fload_0, fload_1, fload_2, fload_3, i2l}) {
+            assertEquals(1, ByteCode.getWidth(byteCode));
+        }
+    }
+}
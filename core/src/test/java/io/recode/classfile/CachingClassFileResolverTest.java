@@ -0,0 +1,165 @@
+package io.recode.classfile;
+
+import io.recode.SymbolicType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class CachingClassFileResolverTest {
+
+    private final ClassFileResolver delegate = mock(ClassFileResolver.class);
+
+    private final CachingClassFileResolver resolver = new CachingClassFileResolver(delegate);
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private final Executor executor = tasks::add;
+
+    @Test
+    public void constructorShouldNotAcceptNullResolver() {
+        assertThrown(() -> new CachingClassFileResolver(null), AssertionError.class);
+    }
+
+    @Test
+    public void prefetchShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> resolver.prefetch(null, executor), AssertionError.class);
+        assertThrown(() -> resolver.prefetch(String.class, null), AssertionError.class);
+    }
+
+    @Test
+    public void classFileShouldBeResolvedOnce() {
+        final ClassFile classFile = mock(ClassFile.class);
+
+        when(delegate.resolveClassFile(any())).thenReturn(classFile);
+
+        assertSame(classFile, resolver.resolveClassFile(String.class));
+        assertSame(classFile, resolver.resolveClassFile(SymbolicType.of("java.lang.String")));
+        assertTrue(resolver.contains(String.class));
+
+        verify(delegate, times(1)).resolveClassFile(any());
+    }
+
+    @Test
+    public void failedResolutionShouldNotBeCached() {
+        final ClassFile classFile = mock(ClassFile.class);
+
+        when(delegate.resolveClassFile(any())).thenThrow(new ClassFileNotFoundException("not found")).thenReturn(classFile);
+
+        assertThrown(() -> resolver.resolveClassFile(String.class), ClassFileNotFoundException.class);
+        assertFalse(resolver.contains(String.class));
+        assertSame(classFile, resolver.resolveClassFile(String.class));
+    }
+
+    @Test
+    public void prefetchShouldResolveClassFileOnExecutor() {
+        final ClassFile classFile = mock(ClassFile.class);
+
+        when(delegate.resolveClassFile(any())).thenReturn(classFile);
+
+        final CompletableFuture<ClassFile> future = resolver.prefetch(String.class, executor);
+
+        assertFalse(future.isDone());
+        verifyZeroInteractions(delegate);
+
+        tasks.forEach(Runnable::run);
+
+        assertSame(classFile, future.getNow(null));
+        assertSame(classFile, resolver.resolveClassFile(String.class));
+        verify(delegate, times(1)).resolveClassFile(any());
+    }
+
+    @Test
+    public void classFileShouldOnlyBePrefetchedOnce() {
+        when(delegate.resolveClassFile(any())).thenReturn(mock(ClassFile.class));
+
+        assertSame(resolver.prefetch(String.class, executor), resolver.prefetch(String.class, executor));
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    public void rejectedPrefetchShouldNotBeCached() {
+        final ClassFile classFile = mock(ClassFile.class);
+
+        when(delegate.resolveClassFile(any())).thenReturn(classFile);
+
+        final CompletableFuture<ClassFile> future = resolver.prefetch(String.class, task -> {
+            throw new IllegalStateException();
+        });
+
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(0, resolver.size());
+        assertSame(classFile, resolver.resolveClassFile(String.class));
+    }
+
+    @Test
+    public void prefetchDiscardedByExecutorShouldBeResolvedOnDemand() {
+        final ClassFile classFile = mock(ClassFile.class);
+
+        when(delegate.resolveClassFile(any())).thenReturn(classFile);
+
+        final CompletableFuture<ClassFile> future = resolver.prefetch(String.class, task -> {});
+
+        assertSame(classFile, resolver.resolveClassFile(String.class));
+        assertSame(classFile, future.getNow(null));
+        verify(delegate, times(1)).resolveClassFile(any());
+    }
+
+    @Test
+    public void prefetchShouldNotBeResolvedAgainIfResolvedOnDemand() {
+        when(delegate.resolveClassFile(any())).thenReturn(mock(ClassFile.class));
+
+        resolver.prefetch(String.class, executor);
+        resolver.resolveClassFile(String.class);
+        tasks.forEach(Runnable::run);
+
+        verify(delegate, times(1)).resolveClassFile(any());
+    }
+
+    @Test
+    public void cancelledPrefetchShouldCompleteExceptionallyAndNotBeCached() {
+        final ClassFile classFile = mock(ClassFile.class);
+
+        when(delegate.resolveClassFile(any())).thenReturn(classFile);
+
+        final CompletableFuture<ClassFile> future = resolver.prefetch(String.class, executor);
+
+        assertTrue(resolver.cancel(tasks.get(0)));
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(0, resolver.size());
+
+        tasks.forEach(Runnable::run);
+
+        verifyZeroInteractions(delegate);
+        assertSame(classFile, resolver.resolveClassFile(String.class));
+    }
+
+    @Test
+    public void startedPrefetchShouldNotBeCancelled() {
+        when(delegate.resolveClassFile(any())).thenReturn(mock(ClassFile.class));
+
+        resolver.prefetch(String.class, executor);
+        tasks.forEach(Runnable::run);
+
+        assertFalse(resolver.cancel(tasks.get(0)));
+        assertFalse(resolver.cancel(() -> {}));
+        assertTrue(resolver.contains(String.class));
+    }
+
+    @Test
+    public void clearShouldRemoveClassFiles() {
+        when(delegate.resolveClassFile(any())).thenReturn(mock(ClassFile.class));
+
+        resolver.resolveClassFile(String.class);
+        resolver.clear();
+
+        assertEquals(0, resolver.size());
+    }
+}
@@ -0,0 +1,45 @@
+package io.recode.classfile;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+
+public class ClassBytesCompressionTest {
+
+    @Test
+    public void compressShouldNotAcceptNullBytes() {
+        assertThrown(() -> ClassBytesCompression.compress(null), AssertionError.class);
+    }
+
+    @Test
+    public void decompressShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> ClassBytesCompression.decompress(null, 0), AssertionError.class);
+        assertThrown(() -> ClassBytesCompression.decompress(new byte[0], -1), AssertionError.class);
+    }
+
+    @Test
+    public void compressedBytesShouldBeDecompressed() {
+        final byte[] bytes = new byte[10000];
+
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i % 17);
+        }
+
+        final byte[] compressedBytes = ClassBytesCompression.compress(bytes);
+
+        assertTrue(compressedBytes.length < bytes.length);
+        assertArrayEquals(bytes, ClassBytesCompression.decompress(compressedBytes, bytes.length));
+    }
+
+    @Test
+    public void decompressShouldFailForCorruptBytes() {
+        final byte[] bytes = new byte[100];
+
+        Arrays.fill(bytes, (byte) 0xFF);
+
+        assertThrown(() -> ClassBytesCompression.decompress(bytes, 1000), ClassFileResolutionException.class);
+    }
+}
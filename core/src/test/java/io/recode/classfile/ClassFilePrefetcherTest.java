@@ -0,0 +1,124 @@
+package io.recode.classfile;
+
+import io.recode.Caller;
+import io.recode.SymbolicType;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class ClassFilePrefetcherTest {
+
+    private final CachingClassFileResolver classFileResolver = new CachingClassFileResolver(new ClassPathClassFileResolver(new ClassFileReaderImpl()));
+
+    private final Executor directExecutor = Runnable::run;
+
+    @Test
+    public void constructorShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> new ClassFilePrefetcher(null, directExecutor), AssertionError.class);
+        assertThrown(() -> new ClassFilePrefetcher(classFileResolver, null), AssertionError.class);
+        assertThrown(() -> new ClassFilePrefetcher(classFileResolver, directExecutor, null), AssertionError.class);
+    }
+
+    @Test
+    public void classFilesOfCallStackShouldBePrefetched() throws Exception {
+        try (ClassFilePrefetcher prefetcher = new ClassFilePrefetcher(classFileResolver)) {
+            prefetcher.prefetch(Caller.me()).get(10, TimeUnit.SECONDS);
+        }
+
+        assertTrue(classFileResolver.contains(getClass()));
+        assertFalse(classFileResolver.contains(Thread.class));
+    }
+
+    @Test
+    public void classFilesOfThrowableAndCausesShouldBePrefetched() throws Exception {
+        final Throwable cause = new RuntimeException();
+
+        cause.setStackTrace(new StackTraceElement[]{new StackTraceElement(String.class.getName(), "foo", "String.java", 1)});
+
+        new ClassFilePrefetcher(classFileResolver, directExecutor, element -> true)
+                .prefetch(new RuntimeException(cause)).get(10, TimeUnit.SECONDS);
+
+        assertTrue(classFileResolver.contains(getClass()));
+        assertTrue(classFileResolver.contains(String.class));
+    }
+
+    @Test
+    public void eachClassShouldBePrefetchedOnce() throws Exception {
+        final StackTraceElement first = new StackTraceElement(getClass().getName(), "foo", null, 1);
+        final StackTraceElement second = new StackTraceElement(getClass().getName(), "bar", null, 2);
+        final int[] tasks = new int[1];
+
+        new ClassFilePrefetcher(classFileResolver, task -> {
+            tasks[0]++;
+            task.run();
+        }).prefetch(Arrays.asList(first, second)).get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, tasks[0]);
+        assertEquals(1, classFileResolver.size());
+    }
+
+    @Test
+    public void framesRejectedByPredicateShouldNotBePrefetched() throws Exception {
+        new ClassFilePrefetcher(classFileResolver, directExecutor, element -> !element.getClassName().equals(getClass().getName()))
+                .prefetch(Arrays.asList(new StackTraceElement(getClass().getName(), "foo", null, 1))).get(10, TimeUnit.SECONDS);
+
+        assertEquals(0, classFileResolver.size());
+    }
+
+    @Test
+    public void failedPrefetchShouldCompleteNormally() throws Exception {
+        new ClassFilePrefetcher(classFileResolver, directExecutor)
+                .prefetch(Arrays.asList(new StackTraceElement("com.example.DoesNotExist", "foo", null, 1))).get(10, TimeUnit.SECONDS);
+
+        assertEquals(0, classFileResolver.size());
+    }
+
+    @Test
+    public void queuedPrefetchesShouldBeCancelledWhenPrefetcherIsClosed() throws Exception {
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch released = new CountDownLatch(1);
+        final ClassFile classFile = mock(ClassFile.class);
+        final CachingClassFileResolver classFileResolver = new CachingClassFileResolver(type -> {
+            started.countDown();
+
+            try {
+                released.await();
+            } catch (InterruptedException e) {
+                throw new ClassFileResolutionException("Interrupted", e);
+            }
+
+            return classFile;
+        });
+
+        final ClassFilePrefetcher prefetcher = new ClassFilePrefetcher(classFileResolver);
+        final List<StackTraceElement> stackTraceElements = new ArrayList<>();
+
+        for (int i = 0; i < 5; i++) {
+            stackTraceElements.add(new StackTraceElement("com.example.Class" + i, "foo", null, 1));
+        }
+
+        final CompletableFuture<Void> prefetch = prefetcher.prefetch(stackTraceElements);
+
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        prefetcher.close();
+        released.countDown();
+
+        prefetch.get(10, TimeUnit.SECONDS);
+
+        final CompletableFuture<ClassFile> resolution = CompletableFuture.supplyAsync(() -> classFileResolver.resolveClassFile(SymbolicType.of("com.example.Class4")));
+
+        assertSame(classFile, resolution.get(10, TimeUnit.SECONDS));
+    }
+}
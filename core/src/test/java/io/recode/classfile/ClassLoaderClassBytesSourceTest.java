@@ -0,0 +1,46 @@
+package io.recode.classfile;
+
+import io.recode.SymbolicType;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+
+public class ClassLoaderClassBytesSourceTest {
+
+    private final ClassLoaderClassBytesSource classBytesSource = new ClassLoaderClassBytesSource(getClass().getClassLoader());
+
+    @Test
+    public void constructorShouldNotAcceptNullClassLoader() {
+        assertThrown(() -> new ClassLoaderClassBytesSource(null), AssertionError.class);
+    }
+
+    @Test
+    public void readShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> classBytesSource.read(null, in -> null), AssertionError.class);
+        assertThrown(() -> classBytesSource.read(String.class, null), AssertionError.class);
+    }
+
+    @Test
+    public void classBytesShouldBeReadFromClassLoader() throws IOException {
+        final byte[] classBytes = classBytesSource.getClassBytes(SymbolicType.of("java.lang.String"));
+
+        assertEquals(0xCAFEBABE, ((classBytes[0] & 0xFF) << 24) | ((classBytes[1] & 0xFF) << 16) | ((classBytes[2] & 0xFF) << 8) | (classBytes[3] & 0xFF));
+        assertEquals("java.lang.String", classBytesSource.read(String.class, new ClassFileReaderImpl()::read).getName());
+    }
+
+    @Test
+    public void missingClassFileShouldNotBeFound() {
+        assertThrown(() -> classBytesSource.getClassBytes(SymbolicType.of("com.example.DoesNotExist")), ClassFileNotFoundException.class);
+    }
+
+    @Test
+    public void failureToReadResourceShouldFailResolution() {
+        assertThrown(() -> classBytesSource.read(String.class, in -> {
+            throw new IOException("failed");
+        }), ClassFileResolutionException.class);
+    }
+}
@@ -0,0 +1,78 @@
+package io.recode.classfile;
+
+import io.recode.SymbolicType;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+
+public class InMemoryClassFileResolverTest {
+
+    private final InMemoryClassFileResolver resolver = new InMemoryClassFileResolver(new ClassFileReaderImpl());
+
+    private final InMemoryClassFileResolver compressingResolver = new InMemoryClassFileResolver(new ClassFileReaderImpl(), true);
+
+    @Test
+    public void constructorShouldNotAcceptNullClassFileReader() {
+        assertThrown(() -> new InMemoryClassFileResolver(null), AssertionError.class);
+    }
+
+    @Test
+    public void putShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> resolver.put(null, new byte[0]), AssertionError.class);
+        assertThrown(() -> resolver.put("", new byte[0]), AssertionError.class);
+        assertThrown(() -> resolver.put("foo", null), AssertionError.class);
+    }
+
+    @Test
+    public void resolveClassFileShouldFailForUnknownType() {
+        assertThrown(() -> resolver.resolveClassFile(String.class), ClassFileNotFoundException.class);
+    }
+
+    @Test
+    public void recordedClassFileCanBeResolved() throws IOException {
+        resolver.put(getClass().getName().replace('.', '/'), classBytes());
+
+        assertTrue(resolver.contains(getClass().getName()));
+        assertEquals(1, resolver.size());
+        assertEquals(getClass().getName(), resolver.resolveClassFile(getClass()).getName());
+        assertEquals(getClass().getName(), resolver.resolveClassFile(SymbolicType.of(getClass().getName())).getName());
+    }
+
+    @Test
+    public void compressedClassFileCanBeResolved() throws IOException {
+        final byte[] bytes = classBytes();
+
+        compressingResolver.put(getClass().getName(), bytes);
+
+        assertTrue(compressingResolver.isCompressed());
+        assertArrayEquals(bytes, compressingResolver.getClassBytes(getClass().getName()).get());
+        assertEquals(getClass().getName(), compressingResolver.resolveClassFile(getClass()).getName());
+    }
+
+    @Test
+    public void recordedBytesShouldNotBeAffectedByModificationOfProvidedBytes() throws IOException {
+        final byte[] bytes = classBytes();
+
+        resolver.put(getClass().getName(), bytes);
+        bytes[0] = 0;
+
+        assertEquals(getClass().getName(), resolver.resolveClassFile(getClass()).getName());
+    }
+
+    @Test
+    public void getClassBytesShouldReturnEmptyOptionalForUnknownClass() {
+        assertFalse(resolver.getClassBytes("java.lang.String").isPresent());
+    }
+
+    private byte[] classBytes() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream(getClass().getSimpleName() + ".class")) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+}
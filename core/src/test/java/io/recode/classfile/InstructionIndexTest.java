@@ -0,0 +1,166 @@
+package io.recode.classfile;
+
+import io.recode.classfile.impl.ExceptionTableEntryImpl;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+
+public class InstructionIndexTest {
+
+    @Test
+    public void buildShouldNotAcceptNullArguments() {
+        assertThrown(() -> InstructionIndex.build(null, Collections.emptyList()), AssertionError.class);
+        assertThrown(() -> InstructionIndex.build(new byte[0], null), AssertionError.class);
+    }
+
+    @Test
+    public void emptyCodeShouldHaveNoInstructions() {
+        final InstructionIndex index = InstructionIndex.build(new byte[0], Collections.emptyList());
+
+        assertEquals(0, index.getInstructionCount());
+        assertEquals(0, index.getBasicBlockCount());
+        assertEquals(-1, index.indexOfInstructionAt(0));
+    }
+
+    @Test
+    public void instructionsOfFixedLengthShouldBeIndexed() {
+        final InstructionIndex index = InstructionIndex.build(code(
+                ByteCode.iconst_0,
+                ByteCode.istore, 1,
+                ByteCode.sipush, 0, 100,
+                ByteCode.return_), Collections.emptyList());
+
+        assertEquals(4, index.getInstructionCount());
+        assertArrayEquals(new int[]{0, 1, 3, 6}, pcs(index));
+        assertEquals(2, index.getInstructionLength(1));
+        assertEquals(3, index.getInstructionLength(2));
+        assertTrue(index.isInstructionStart(3));
+        assertFalse(index.isInstructionStart(4));
+        assertEquals(2, index.indexOfInstructionAt(5));
+        assertEquals(6, index.getNextInstructionPC(4));
+        assertEquals(7, index.getNextInstructionPC(6));
+    }
+
+    @Test
+    public void wideInstructionsShouldIncludeExtendedInstruction() {
+        final InstructionIndex index = InstructionIndex.build(code(
+                ByteCode.wide, ByteCode.iload, 1, 0,
+                ByteCode.wide, ByteCode.iinc, 1, 0, 0, 1,
+                ByteCode.return_), Collections.emptyList());
+
+        assertArrayEquals(new int[]{0, 4, 10}, pcs(index));
+    }
+
+    @Test
+    public void tableSwitchShouldBeIndexedWithPaddingAndTargets() {
+        final InstructionIndex index = InstructionIndex.build(code(
+                ByteCode.iload_1,
+                ByteCode.tableswitch, 0, 0,
+                0, 0, 0, 25,  // default
+                0, 0, 0, 0,   // low
+                0, 0, 0, 1,   // high
+                0, 0, 0, 23,  // 0
+                0, 0, 0, 24,  // 1
+                ByteCode.nop,
+                ByteCode.nop,
+                ByteCode.return_), Collections.emptyList());
+
+        assertArrayEquals(new int[]{0, 1, 24, 25, 26}, pcs(index));
+        assertEquals(23, index.getInstructionLength(1));
+        assertArrayEquals(new int[]{0, 24, 25, 26}, blocks(index));
+    }
+
+    @Test
+    public void lookupSwitchShouldBeIndexedWithPaddingAndTargets() {
+        final InstructionIndex index = InstructionIndex.build(code(
+                ByteCode.iload_1,
+                ByteCode.iload_1,
+                ByteCode.lookupswitch, 0,
+                0, 0, 0, 18,  // default
+                0, 0, 0, 1,   // pairs
+                0, 0, 0, 7, 0, 0, 0, 19,
+                ByteCode.nop,
+                ByteCode.return_), Collections.emptyList());
+
+        assertArrayEquals(new int[]{0, 1, 2, 20, 21}, pcs(index));
+        assertEquals(18, index.getInstructionLength(2));
+        assertArrayEquals(new int[]{0, 20, 21}, blocks(index));
+    }
+
+    @Test
+    public void branchTargetsAndExceptionHandlersShouldStartBasicBlocks() {
+        final InstructionIndex index = InstructionIndex.build(code(
+                ByteCode.iload_1,
+                ByteCode.ifeq, 0, 5,
+                ByteCode.iconst_1,
+                ByteCode.ireturn,
+                ByteCode.iconst_0,
+                ByteCode.ireturn,
+                ByteCode.astore_2,
+                ByteCode.iconst_2,
+                ByteCode.ireturn), Arrays.asList(new ExceptionTableEntryImpl(0, 7, 9, null)));
+
+        assertArrayEquals(new int[]{0, 4, 6, 7, 8, 9}, blocks(index));
+        assertTrue(index.isBasicBlockStart(7));
+        assertFalse(index.isBasicBlockStart(5));
+        assertEquals(1, index.getBasicBlockIndex(5));
+        assertEquals(5, index.getBasicBlockIndex(10));
+        assertEquals(-1, index.getBasicBlockIndex(11));
+        assertEquals(4, index.getBasicBlockEnd(0));
+        assertEquals(6, index.getBasicBlockEnd(5));
+        assertEquals(11, index.getBasicBlockEnd(10));
+        assertThrown(() -> index.getBasicBlockEnd(11), IllegalArgumentException.class);
+    }
+
+    @Test
+    public void buildShouldFailForTruncatedOrInvalidCode() {
+        assertThrown(() -> InstructionIndex.build(code(ByteCode.sipush, 0), Collections.emptyList()), ClassFileFormatException.class);
+        assertThrown(() -> InstructionIndex.build(code(ByteCode.goto_, 0, 100), Collections.emptyList()), ClassFileFormatException.class);
+        assertThrown(() -> InstructionIndex.build(code(255), Collections.emptyList()), ClassFileFormatException.class);
+    }
+
+    @Test
+    public void wideBranchTargetsShouldStartBasicBlocks() {
+        final InstructionIndex index = InstructionIndex.build(code(
+                ByteCode.aload_0, ByteCode.invokevirtual, 0, 1,
+                ByteCode.goto_w, 0, 0, 0, 5,
+                ByteCode.return_), Collections.emptyList());
+
+        assertArrayEquals(new int[]{0, 1, 4, 9}, pcs(index));
+        assertArrayEquals(new int[]{0, 9}, blocks(index));
+    }
+
+    private static byte[] code(int... bytes) {
+        final byte[] code = new byte[bytes.length];
+
+        for (int i = 0; i < bytes.length; i++) {
+            code[i] = (byte) bytes[i];
+        }
+
+        return code;
+    }
+
+    private static int[] pcs(InstructionIndex index) {
+        final int[] pcs = new int[index.getInstructionCount()];
+
+        for (int i = 0; i < pcs.length; i++) {
+            pcs[i] = index.getInstructionPC(i);
+        }
+
+        return pcs;
+    }
+
+    private static int[] blocks(InstructionIndex index) {
+        final int[] blocks = new int[index.getBasicBlockCount()];
+
+        for (int i = 0; i < blocks.length; i++) {
+            blocks[i] = index.getBasicBlockPC(i);
+        }
+
+        return blocks;
+    }
+}
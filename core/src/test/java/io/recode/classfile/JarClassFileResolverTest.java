@@ -0,0 +1,207 @@
+package io.recode.classfile;
+
+import io.recode.SymbolicType;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+public class JarClassFileResolverTest {
+
+    private final List<File> files = new ArrayList<>();
+
+    private final List<JarClassFileResolver> resolvers = new ArrayList<>();
+
+    @After
+    public void tearDown() throws IOException {
+        resolvers.forEach(JarClassFileResolver::close);
+
+        for (File file : files) {
+            Files.walk(file.toPath())
+                    .sorted(Collections.reverseOrder())
+                    .forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void constructorShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> new JarClassFileResolver(null, Collections.emptyList()), AssertionError.class);
+        assertThrown(() -> new JarClassFileResolver(mock(ClassFileReader.class), null), AssertionError.class);
+        assertThrown(() -> new JarClassFileResolver(mock(ClassFileReader.class), Collections.emptyList(), 0), AssertionError.class);
+    }
+
+    @Test
+    public void classFileShouldBeResolvedFromDeflatedJarEntry() throws IOException {
+        final JarClassFileResolver resolver = resolver(1, jar(ZipEntry.DEFLATED, String.class, Integer.class));
+
+        assertEquals("java.lang.String", resolver.resolveClassFile(String.class).getName());
+        assertEquals("java.lang.Integer", resolver.resolveClassFile(SymbolicType.of("java.lang.Integer")).getName());
+    }
+
+    @Test
+    public void classFileShouldBeResolvedFromStoredJarEntry() throws IOException {
+        final JarClassFileResolver resolver = resolver(1, jar(ZipEntry.STORED, String.class));
+
+        assertEquals("java.lang.String", resolver.resolveClassFile(String.class).getName());
+    }
+
+    @Test
+    public void classFileShouldBeResolvedFromDirectory() throws IOException {
+        final File directory = Files.createTempDirectory("classes").toFile();
+        final File packageDirectory = new File(directory, "java/lang");
+
+        files.add(directory);
+        assertTrue(packageDirectory.mkdirs());
+        Files.write(new File(packageDirectory, "String.class").toPath(), classBytes(String.class));
+
+        assertEquals("java.lang.String", resolver(1, directory).resolveClassFile(String.class).getName());
+    }
+
+    @Test
+    public void missingClassFileShouldNotBeResolved() throws IOException {
+        final JarClassFileResolver resolver = resolver(1, jar(ZipEntry.DEFLATED, String.class));
+
+        assertThrown(() -> resolver.resolveClassFile(Integer.class), ClassFileNotFoundException.class);
+    }
+
+    @Test
+    public void openFilesShouldBeBounded() throws IOException {
+        final JarClassFileResolver resolver = resolver(1, jar(ZipEntry.DEFLATED, String.class), jar(ZipEntry.DEFLATED, Integer.class));
+
+        resolver.resolveClassFile(String.class);
+        resolver.resolveClassFile(Integer.class);
+
+        assertEquals(1, resolver.getOpenFileCount());
+        assertEquals("java.lang.String", resolver.resolveClassFile(String.class).getName());
+    }
+
+    @Test
+    public void classFilesShouldBeResolvedConcurrently() throws Exception {
+        final JarClassFileResolver resolver = resolver(1, jar(ZipEntry.DEFLATED, String.class), jar(ZipEntry.STORED, Integer.class));
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            final List<Future<String>> names = new ArrayList<>();
+
+            for (int i = 0; i < 100; i++) {
+                final Class<?> type = (i % 2 == 0 ? String.class : Integer.class);
+
+                names.add(executor.submit(() -> resolver.resolveClassFile(type).getName()));
+            }
+
+            for (int i = 0; i < names.size(); i++) {
+                assertEquals(i % 2 == 0 ? "java.lang.String" : "java.lang.Integer", names.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(resolver.getOpenFileCount() <= 1);
+    }
+
+    @Test
+    public void interruptOfResolvingThreadShouldNotFailOtherThreads() throws Exception {
+        final JarClassFileResolver resolver = resolver(1, jar(ZipEntry.DEFLATED, String.class, Integer.class));
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        resolver.resolveClassFile(String.class);
+
+        try {
+            Thread.currentThread().interrupt();
+            assertThrown(() -> resolver.resolveClassFile(Integer.class), ClassFileResolutionException.class);
+        } finally {
+            assertTrue(Thread.interrupted());
+        }
+
+        try {
+            assertEquals("java.lang.Integer", executor.submit(() -> resolver.resolveClassFile(Integer.class).getName()).get());
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals("java.lang.String", resolver.resolveClassFile(String.class).getName());
+        assertEquals(1, resolver.getOpenFileCount());
+    }
+
+    @Test
+    public void closeShouldCloseOpenFiles() throws IOException {
+        final JarClassFileResolver resolver = resolver(2, jar(ZipEntry.DEFLATED, String.class));
+
+        resolver.resolveClassFile(String.class);
+        resolver.close();
+
+        assertEquals(0, resolver.getOpenFileCount());
+        assertThrown(() -> resolver.resolveClassFile(String.class), IllegalStateException.class);
+    }
+
+    @Test
+    public void systemClassPathShouldContainTestClasses() {
+        final File testClasses = new File(getClass().getProtectionDomain().getCodeSource().getLocation().getPath());
+
+        assertTrue(JarClassFileResolver.systemClassPath().stream().anyMatch(file -> file.getAbsoluteFile().equals(testClasses.getAbsoluteFile())));
+    }
+
+    private JarClassFileResolver resolver(int maxOpenFiles, File... classPath) {
+        final JarClassFileResolver resolver = new JarClassFileResolver(new ClassFileReaderImpl(), Arrays.asList(classPath), maxOpenFiles);
+
+        resolvers.add(resolver);
+
+        return resolver;
+    }
+
+    private File jar(int method, Class<?>... classes) throws IOException {
+        final File file = File.createTempFile("classes", ".jar");
+
+        files.add(file);
+
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            for (Class<?> type : classes) {
+                final byte[] bytes = classBytes(type);
+                final ZipEntry entry = new ZipEntry(type.getName().replace('.', '/') + ".class");
+
+                entry.setMethod(method);
+
+                if (method == ZipEntry.STORED) {
+                    final CRC32 crc = new CRC32();
+
+                    crc.update(bytes);
+                    entry.setSize(bytes.length);
+                    entry.setCompressedSize(bytes.length);
+                    entry.setCrc(crc.getValue());
+                }
+
+                out.putNextEntry(entry);
+                out.write(bytes);
+                out.closeEntry();
+            }
+        }
+
+        return file;
+    }
+
+    private static byte[] classBytes(Class<?> type) throws IOException {
+        try (InputStream in = JarClassFileResolverTest.class.getResourceAsStream("/" + type.getName().replace('.', '/') + ".class")) {
+            return IOUtils.toByteArray(in);
+        }
+    }
+}
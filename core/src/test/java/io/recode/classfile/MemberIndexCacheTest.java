@@ -0,0 +1,82 @@
+package io.recode.classfile;
+
+import io.recode.SymbolicType;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import io.recode.model.MethodSignature;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.Optional;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class MemberIndexCacheTest {
+
+    private final ClassFileResolver classFileResolver = mock(ClassFileResolver.class);
+
+    private final MemberIndexCache cache = new MemberIndexCache(classFileResolver);
+
+    @Before
+    public void setup() {
+        final ClassFileResolver classPathClassFileResolver = new ClassPathClassFileResolver(new ClassFileReaderImpl());
+
+        when(classFileResolver.resolveClassFile(any())).then(invocation -> classPathClassFileResolver.resolveClassFile((Type) invocation.getArguments()[0]));
+    }
+
+    @Test
+    public void constructorShouldNotAcceptNullClassFileResolver() {
+        assertThrown(() -> new MemberIndexCache(null), AssertionError.class);
+    }
+
+    @Test
+    public void getShouldNotAcceptNullType() {
+        assertThrown(() -> cache.get(null), AssertionError.class);
+    }
+
+    @Test
+    public void memberIndexShouldBeResolvedOnce() {
+        final Optional<MemberIndex> memberIndex = cache.get(String.class);
+
+        assertTrue(memberIndex.isPresent());
+        assertSame(memberIndex.get(), cache.get(String.class).get());
+        assertEquals(1, cache.size());
+
+        verify(classFileResolver, times(1)).resolveClassFile(any());
+    }
+
+    @Test
+    public void symbolicAndReflectiveTypesShouldShareMemberIndex() {
+        final Optional<MemberIndex> memberIndex = cache.get(SymbolicType.of("java.lang.String"));
+
+        assertTrue(memberIndex.get().isVarArgsMethod("format", MethodSignature.parse("(Ljava/lang/String;[Ljava/lang/Object;)Ljava/lang/String;")));
+        assertSame(memberIndex.get(), cache.get(String.class).get());
+    }
+
+    @Test
+    public void unresolvableTypeShouldBeRememberedAsEmpty() {
+        final SymbolicType type = SymbolicType.of("com.example.DoesNotExist");
+
+        assertFalse(cache.get(type).isPresent());
+        assertFalse(cache.get(type).isPresent());
+
+        verify(classFileResolver, times(1)).resolveClassFile(any());
+    }
+
+    @Test
+    public void sharedCacheShouldResolveClassFilesFromClassPath() {
+        assertSame(MemberIndexCache.shared(), MemberIndexCache.shared());
+        assertTrue(MemberIndexCache.shared().get(SymbolicType.of("java.lang.String")).isPresent());
+    }
+
+    @Test
+    public void clearShouldRemoveMemberIndexes() {
+        cache.get(String.class);
+        cache.clear();
+
+        assertEquals(0, cache.size());
+    }
+}
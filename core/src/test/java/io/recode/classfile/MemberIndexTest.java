@@ -0,0 +1,80 @@
+package io.recode.classfile;
+
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import io.recode.model.MethodSignature;
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+
+public class MemberIndexTest {
+
+    private final MemberIndex memberIndex = MemberIndex.of(new ClassPathClassFileResolver(new ClassFileReaderImpl()).resolveClassFile(ExampleClass.class));
+
+    @Test
+    public void ofShouldNotAcceptNullClassFile() {
+        assertThrown(() -> MemberIndex.of(null), AssertionError.class);
+    }
+
+    @Test
+    public void findMethodShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> memberIndex.findMethod(null, MethodSignature.parse("()V")), AssertionError.class);
+        assertThrown(() -> memberIndex.findMethod("", MethodSignature.parse("()V")), AssertionError.class);
+        assertThrown(() -> memberIndex.findMethod("foo", (MethodSignature) null), AssertionError.class);
+        assertThrown(() -> memberIndex.findMethod("foo", (String) null), AssertionError.class);
+        assertThrown(() -> memberIndex.findMethod("foo", ""), AssertionError.class);
+    }
+
+    @Test
+    public void classNameShouldBeRetained() {
+        assertEquals(ExampleClass.class.getName(), memberIndex.getClassName());
+    }
+
+    @Test
+    public void methodShouldBeFoundByNameAndSignature() {
+        final Optional<Method> method = memberIndex.findMethod("overloaded", MethodSignature.parse("(Ljava/lang/String;)V"));
+
+        assertTrue(method.isPresent());
+        assertEquals("overloaded", method.get().getName());
+        assertEquals("(Ljava/lang/String;)V", method.get().getSignature().toString());
+    }
+
+    @Test
+    public void methodShouldBeFoundByNameAndDescriptor() {
+        final Optional<Method> method = memberIndex.findMethod("overloaded", "(I)V");
+
+        assertTrue(method.isPresent());
+        assertEquals("(I)V", method.get().getSignature().toString());
+        assertFalse(memberIndex.findMethod("overloaded", "(J)V").isPresent());
+    }
+
+    @Test
+    public void findMethodShouldReturnEmptyOptionalForMissingMethod() {
+        assertFalse(memberIndex.findMethod("overloaded", MethodSignature.parse("(J)V")).isPresent());
+        assertFalse(memberIndex.findMethod("missing", MethodSignature.parse("()V")).isPresent());
+    }
+
+    @Test
+    public void varArgsMethodShouldBeDetected() {
+        assertTrue(memberIndex.isVarArgsMethod("varArgs", MethodSignature.parse("([Ljava/lang/Object;)V")));
+        assertFalse(memberIndex.isVarArgsMethod("array", MethodSignature.parse("([Ljava/lang/Object;)V")));
+        assertFalse(memberIndex.isVarArgsMethod("missing", MethodSignature.parse("([Ljava/lang/Object;)V")));
+    }
+
+    private static class ExampleClass {
+
+        void overloaded(String s) {
+        }
+
+        void overloaded(int n) {
+        }
+
+        void varArgs(Object... objects) {
+        }
+
+        void array(Object[] objects) {
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package io.recode.classfile;
+
+import io.recode.SymbolicType;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class TieredClassFileResolverTest {
+
+    private final ClassFileReader classFileReader = mock(ClassFileReader.class);
+
+    private final ClassFileReader delegateReader = new ClassFileReaderImpl();
+
+    public TieredClassFileResolverTest() throws Exception {
+        when(classFileReader.read(any(InputStream.class))).then(invocation -> delegateReader.read((InputStream) invocation.getArguments()[0]));
+    }
+
+    @Test
+    public void builderShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> new TieredClassFileResolver.Builder().setClassFileReader(null), AssertionError.class);
+        assertThrown(() -> new TieredClassFileResolver.Builder().setClassLoader(null), AssertionError.class);
+        assertThrown(() -> new TieredClassFileResolver.Builder().setClassBytesSource(null), AssertionError.class);
+        assertThrown(() -> new TieredClassFileResolver.Builder().setHotTierCapacity(0), AssertionError.class);
+        assertThrown(() -> new TieredClassFileResolver.Builder().setColdTierBudget(-1), AssertionError.class);
+    }
+
+    @Test
+    public void buildShouldFailIfClassFileReaderIsNotSet() {
+        assertThrown(() -> new TieredClassFileResolver.Builder().build(), IllegalStateException.class);
+    }
+
+    @Test
+    public void resolvedClassFileShouldBeReturnedFromHotTier() throws Exception {
+        final TieredClassFileResolver resolver = resolver(2, 1024 * 1024);
+        final ClassFile classFile = resolver.resolveClassFile(String.class);
+
+        assertEquals("java.lang.String", classFile.getName());
+        assertSame(classFile, resolver.resolveClassFile(SymbolicType.of("java.lang.String")));
+        assertEquals(1, resolver.getMisses());
+        assertEquals(1, resolver.getHotTierHits());
+        assertEquals(1, resolver.getHotTierSize());
+        assertEquals(1, resolver.getColdTierSize());
+        assertTrue(resolver.getColdTierBytes() > 0);
+
+        verify(classFileReader, times(1)).read(any(InputStream.class));
+    }
+
+    @Test
+    public void classFileEvictedFromHotTierShouldBePromotedFromColdTier() throws Exception {
+        final TieredClassFileResolver resolver = resolver(1, 1024 * 1024);
+
+        resolver.resolveClassFile(String.class);
+        resolver.resolveClassFile(Integer.class);
+
+        assertEquals(1, resolver.getHotTierEvictions());
+        assertEquals(1, resolver.getHotTierSize());
+        assertEquals(2, resolver.getColdTierSize());
+
+        final ClassFile classFile = resolver.resolveClassFile(String.class);
+
+        assertEquals("java.lang.String", classFile.getName());
+        assertEquals(1, resolver.getPromotions());
+        assertEquals(2, resolver.getMisses());
+        assertEquals(2, resolver.getHotTierEvictions());
+    }
+
+    @Test
+    public void coldTierShouldEvictLeastRecentlyUsedClassBytesWhenBudgetIsExceeded() throws Exception {
+        final TieredClassFileResolver probe = resolver(1, 1024 * 1024);
+
+        probe.resolveClassFile(String.class);
+
+        final long stringClassBytes = probe.getColdTierBytes();
+        final TieredClassFileResolver resolver = resolver(1, stringClassBytes + 100);
+
+        resolver.resolveClassFile(String.class);
+        resolver.resolveClassFile(Integer.class);
+
+        assertEquals(1, resolver.getColdTierEvictions());
+        assertEquals(1, resolver.getColdTierSize());
+        assertTrue(resolver.getColdTierBytes() <= resolver.getColdTierBudget());
+
+        resolver.resolveClassFile(String.class);
+
+        assertEquals(0, resolver.getPromotions());
+        assertEquals(3, resolver.getMisses());
+    }
+
+    @Test
+    public void classBytesExceedingColdTierBudgetShouldNotBeKept() throws Exception {
+        final TieredClassFileResolver resolver = resolver(1, 16);
+
+        assertEquals("java.lang.String", resolver.resolveClassFile(String.class).getName());
+        assertEquals(0, resolver.getColdTierSize());
+        assertEquals(0, resolver.getColdTierBytes());
+    }
+
+    @Test
+    public void coldTierShouldNotAllocateMoreThanBudgetOffHeap() {
+        final TieredClassFileResolver resolver = resolver(1, 16 * 1024);
+
+        for (Class<?> type : new Class<?>[]{String.class, Integer.class, Long.class, Double.class, Character.class,
+                StringBuilder.class, ArrayList.class, Thread.class, ClassLoader.class, Class.class}) {
+            resolver.resolveClassFile(type);
+
+            assertTrue(resolver.getColdTierAllocatedBytes() <= resolver.getColdTierBudget());
+            assertTrue(resolver.getColdTierBytes() <= resolver.getColdTierAllocatedBytes());
+        }
+
+        assertTrue(resolver.getColdTierEvictions() > 0);
+    }
+
+    @Test
+    public void classFilesShouldBeReadFromClassBytesSource() throws Exception {
+        final List<String> requestedTypes = new ArrayList<>();
+        final InMemoryClassFileResolver classBytes = new InMemoryClassFileResolver(delegateReader);
+        final TieredClassFileResolver resolver = new TieredClassFileResolver.Builder()
+                .setClassFileReader(classFileReader)
+                .setClassBytesSource(type -> {
+                    requestedTypes.add(type.getTypeName());
+                    return classBytes.getClassBytes(type.getTypeName())
+                            .orElseThrow(() -> new ClassFileNotFoundException(type.getTypeName()));
+                })
+                .setHotTierCapacity(1)
+                .build();
+
+        try (InputStream in = String.class.getResourceAsStream("String.class")) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+
+            for (int n = in.read(buffer); n != -1; n = in.read(buffer)) {
+                out.write(buffer, 0, n);
+            }
+
+            classBytes.put("java.lang.String", out.toByteArray());
+        }
+
+        assertEquals("java.lang.String", resolver.resolveClassFile(String.class).getName());
+        assertThrown(() -> resolver.resolveClassFile(Integer.class), ClassFileNotFoundException.class);
+        assertEquals("java.lang.String", resolver.resolveClassFile(String.class).getName());
+
+        assertEquals(1, resolver.getHotTierHits());
+        assertEquals(2, resolver.getMisses());
+        assertEquals(Arrays.asList("java.lang.String", "java.lang.Integer"), requestedTypes);
+    }
+
+    @Test
+    public void missingClassFileShouldFailAndNotBeCached() {
+        final TieredClassFileResolver resolver = resolver(1, 1024);
+
+        assertThrown(() -> resolver.resolveClassFile(SymbolicType.of("com.example.DoesNotExist")), ClassFileNotFoundException.class);
+        assertEquals(0, resolver.getHotTierSize());
+        assertEquals(0, resolver.getColdTierSize());
+    }
+
+    @Test
+    public void clearShouldRemoveAllTiers() {
+        final TieredClassFileResolver resolver = resolver(1, 1024 * 1024);
+
+        resolver.resolveClassFile(String.class);
+        resolver.clear();
+
+        assertEquals(0, resolver.getHotTierSize());
+        assertEquals(0, resolver.getColdTierSize());
+        assertEquals(0, resolver.getColdTierBytes());
+    }
+
+    private TieredClassFileResolver resolver(int hotTierCapacity, long coldTierBudget) {
+        return new TieredClassFileResolver.Builder()
+                .setClassFileReader(classFileReader)
+                .setClassLoader(getClass().getClassLoader())
+                .setHotTierCapacity(hotTierCapacity)
+                .setColdTierBudget(coldTierBudget)
+                .build();
+    }
+}
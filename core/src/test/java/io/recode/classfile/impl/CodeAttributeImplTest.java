@@ -14,6 +14,7 @@ import java.util.List;
 import static io.recode.test.Assertions.assertThrown;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -98,4 +99,17 @@ public class CodeAttributeImplTest {
         assertArrayEquals(new Object[]{otherAttribute, newTable}, attr.getAttributes().toArray());
     }
 
+
+    @Test
+    public void instructionIndexShouldBeBuiltOnceFromCode() {
+        final CodeAttributeImpl codeAttribute = new CodeAttributeImpl(1, 1,
+                ByteBuffer.wrap(new byte[]{ByteCode.iconst_0, ByteCode.istore_1, (byte) ByteCode.return_}),
+                emptyExceptionTable, emptyAttributes);
+
+        final InstructionIndex instructionIndex = codeAttribute.getInstructionIndex();
+
+        assertEquals(3, instructionIndex.getInstructionCount());
+        assertSame(instructionIndex, codeAttribute.getInstructionIndex());
+        assertSame(instructionIndex, codeAttribute.withLocalVariableTable(mock(LocalVariableTable.class)).getInstructionIndex());
+    }
 }
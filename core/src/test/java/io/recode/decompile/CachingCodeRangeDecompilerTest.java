@@ -0,0 +1,96 @@
+package io.recode.decompile;
+
+import io.recode.Caller;
+import io.recode.CodeLocation;
+import io.recode.classfile.ClassFile;
+import io.recode.classfile.ClassPathClassFileResolver;
+import io.recode.classfile.Method;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import io.recode.decompile.impl.DecompilerImpl;
+import io.recode.model.AST;
+import io.recode.model.Element;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+public class CachingCodeRangeDecompilerTest {
+
+    private final DecompiledMethodCache cache = new DecompiledMethodCache(new DecompilerImpl());
+
+    private final CodeRangeDecompiler fallbackDecompiler = mock(CodeRangeDecompiler.class);
+
+    private final CachingCodeRangeDecompiler codeRangeDecompiler = new CachingCodeRangeDecompiler(cache, fallbackDecompiler);
+
+    @Test
+    public void constructorShouldNotAcceptNullArguments() {
+        assertThrown(() -> new CachingCodeRangeDecompiler(null, fallbackDecompiler), AssertionError.class);
+        assertThrown(() -> new CachingCodeRangeDecompiler(cache, null), AssertionError.class);
+    }
+
+    @Test
+    public void linesWithinMethodCanBeDecompiled() throws Exception {
+        // code for decompilation
+        nop1();
+        nop2();
+        nop3();
+
+        // test
+        final int ref = Caller.me().getLineNumber();
+        final Method method = getThisMethod();
+
+        assertArrayEquals(new Element[]{
+                AST.call(AST.local("this", getClass(), 0), "nop1", void.class),
+                AST.call(AST.local("this", getClass(), 0), "nop2", void.class),
+                AST.call(AST.local("this", getClass(), 0), "nop3", void.class)
+        }, codeRangeDecompiler.decompileRange(method, ref - 5, ref - 2));
+
+        assertArrayEquals(new Element[]{
+                AST.call(AST.local("this", getClass(), 0), "nop2", void.class)
+        }, codeRangeDecompiler.decompileRange(getThisMethod(), ref - 4, ref - 4));
+
+        assertEquals(1, cache.size());
+        verifyZeroInteractions(fallbackDecompiler);
+    }
+
+    @Test
+    public void codeRangeNotContainedWithinMethodCannotBeDecompiled() {
+        final int ref = Caller.me().getLineNumber();
+
+        assertThrown(() -> codeRangeDecompiler.decompileRange(getThisMethod(), ref - 3, ref + 1), IllegalArgumentException.class);
+        assertThrown(() -> codeRangeDecompiler.decompileRange(getThisMethod(), ref, ref + 50), IllegalArgumentException.class);
+    }
+
+    @Test
+    public void methodThatCannotBeDecompiledAsWholeShouldBeDecompiledByFallback() throws IOException {
+        final Method method = mock(Method.class);
+        final Element[] expectedElements = {AST.constant(1)};
+
+        when(method.getLineNumberTable()).thenReturn(Optional.empty());
+        when(fallbackDecompiler.decompileRange(method, 1, 2)).thenReturn(expectedElements);
+
+        assertArrayEquals(expectedElements, codeRangeDecompiler.decompileRange(method, 1, 2));
+    }
+
+    private Method getThisMethod() {
+        final CodeLocation caller = Caller.me().getCaller().get();
+
+        return getThisClassFile().getMethods().stream()
+                .filter(m -> m.getName().equals(caller.getMethodName()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Method '" + caller.getMethodName() + "' not found in class file"));
+    }
+
+    private ClassFile getThisClassFile() {
+        return new ClassPathClassFileResolver(new ClassFileReaderImpl()).resolveClassFile(getClass());
+    }
+
+    private void nop1() {}
+    private void nop2() {}
+    private void nop3() {}
+}
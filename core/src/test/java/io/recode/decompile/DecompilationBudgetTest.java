@@ -0,0 +1,61 @@
+package io.recode.decompile;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+
+public class DecompilationBudgetTest {
+
+    @Test
+    public void unlimitedBudgetShouldHaveNoLimits() {
+        final DecompilationBudget budget = DecompilationBudget.unlimited();
+
+        assertTrue(budget.isUnlimited());
+        assertFalse(budget.hasTimeout());
+        assertEquals(Integer.MAX_VALUE, budget.getMaxInstructions());
+        assertEquals(Integer.MAX_VALUE, budget.getMaxElements());
+    }
+
+    @Test
+    public void limitsShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> DecompilationBudget.unlimited().withTimeout(0, TimeUnit.SECONDS), AssertionError.class);
+        assertThrown(() -> DecompilationBudget.unlimited().withTimeout(1, null), AssertionError.class);
+        assertThrown(() -> DecompilationBudget.unlimited().withMaxInstructions(0), AssertionError.class);
+        assertThrown(() -> DecompilationBudget.unlimited().withMaxElements(-1), AssertionError.class);
+    }
+
+    @Test
+    public void limitsCanBeCombined() {
+        final DecompilationBudget budget = DecompilationBudget.unlimited()
+                .withTimeout(2, TimeUnit.MILLISECONDS)
+                .withMaxInstructions(100)
+                .withMaxElements(200);
+
+        assertFalse(budget.isUnlimited());
+        assertTrue(budget.hasTimeout());
+        assertEquals(2000000L, budget.getTimeoutNanos());
+        assertEquals(100, budget.getMaxInstructions());
+        assertEquals(200, budget.getMaxElements());
+    }
+
+    @Test
+    public void limitShouldNotModifyOriginalBudget() {
+        final DecompilationBudget budget = DecompilationBudget.unlimited();
+
+        budget.withMaxInstructions(10);
+
+        assertTrue(budget.isUnlimited());
+    }
+
+    @Test
+    public void equalsAndHashCodeShouldBeBasedOnLimits() {
+        final DecompilationBudget budget = DecompilationBudget.unlimited().withMaxInstructions(10);
+
+        assertEquals(budget, DecompilationBudget.unlimited().withMaxInstructions(10));
+        assertEquals(budget.hashCode(), DecompilationBudget.unlimited().withMaxInstructions(10).hashCode());
+        assertNotEquals(budget, DecompilationBudget.unlimited().withMaxElements(10));
+    }
+}
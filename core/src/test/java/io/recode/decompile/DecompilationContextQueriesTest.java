@@ -4,8 +4,6 @@ import io.recode.model.Expression;
 import io.recode.model.Statement;
 import org.junit.Test;
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.Optional;
 
 import static io.recode.util.Sequences.emptySequence;
@@ -47,14 +45,15 @@ public class DecompilationContextQueriesTest {
 
     @Test
     public void previousValueShouldReturnNonPresentResultIfStackIsEmpty() {
-        when(decompilationContext.getStackedExpressions()).thenReturn(Collections.emptyList());
+        when(decompilationContext.getStackSize()).thenReturn(0);
 
         assertFalse(DecompilationContextQueries.previousValue().from(decompilationContext).isPresent());
     }
 
     @Test
     public void previousValueShouldReturnNonPresentResultIfContextContainsSingleValue() {
-        when(decompilationContext.getStackedExpressions()).thenReturn(Arrays.asList(mock(Expression.class)));
+        when(decompilationContext.getStackSize()).thenReturn(1);
+        when(decompilationContext.peek(0)).thenReturn(mock(Expression.class));
 
         assertFalse(DecompilationContextQueries.previousValue().from(decompilationContext).isPresent());
     }
@@ -65,7 +64,10 @@ public class DecompilationContextQueriesTest {
         final Expression value2 = mock(Expression.class);
         final Expression value3 = mock(Expression.class);
 
-        when(decompilationContext.getStackedExpressions()).thenReturn(Arrays.asList(value1, value2, value3));
+        when(decompilationContext.getStackSize()).thenReturn(3);
+        when(decompilationContext.peek(0)).thenReturn(value3);
+        when(decompilationContext.peek(1)).thenReturn(value2);
+        when(decompilationContext.peek(2)).thenReturn(value1);
 
         assertEquals(Optional.of(value2), DecompilationContextQueries.previousValue().from(decompilationContext));
     }
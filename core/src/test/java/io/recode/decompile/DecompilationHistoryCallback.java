@@ -13,7 +13,7 @@ public final class DecompilationHistoryCallback extends DecompilationProgressCal
 
     @Override
     public void afterInstruction(DecompilationContext context, int instruction) {
-        decompilerStates.add(new DecompilerState(new ArrayList<>(context.getStackedExpressions()), new ArrayList<>(context.getStatements())));
+        decompilerStates.add(new DecompilerState(new ArrayList<>(context.getStack().tail(0)), new ArrayList<>(context.getStatements())));
     }
 
     public DecompilerState[] getDecompilerStates() {
@@ -0,0 +1,34 @@
+package io.recode.decompile;
+
+import org.junit.Test;
+
+import java.util.Optional;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+
+public class DecompilationResultTest {
+
+    @Test
+    public void constructorShouldNotAcceptNullResult() {
+        assertThrown(() -> new DecompilationResult<>(null), AssertionError.class);
+    }
+
+    @Test
+    public void resultWithoutTruncationShouldNotBeTruncated() {
+        final String[] elements = {"foo"};
+        final DecompilationResult<String> result = new DecompilationResult<>(elements);
+
+        assertSame(elements, result.get());
+        assertFalse(result.isTruncated());
+        assertFalse(result.getTruncation().isPresent());
+    }
+
+    @Test
+    public void resultWithTruncationShouldBeTruncated() {
+        final DecompilationResult<String> result = new DecompilationResult<>(new String[0], DecompilationResult.Truncation.TIMEOUT);
+
+        assertTrue(result.isTruncated());
+        assertEquals(Optional.of(DecompilationResult.Truncation.TIMEOUT), result.getTruncation());
+    }
+}
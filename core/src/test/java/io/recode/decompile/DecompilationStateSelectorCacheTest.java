@@ -0,0 +1,176 @@
+package io.recode.decompile;
+
+import io.recode.classfile.ByteCode;
+import io.recode.model.Expression;
+import io.recode.model.Statement;
+import io.recode.util.LinkedSequence;
+import io.recode.util.Sequence;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.recode.decompile.DecompilationStateSelector.Dependencies;
+import static io.recode.model.AST.constant;
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DecompilationStateSelectorCacheTest {
+
+    private final DecompilationStateSelectorCache cache = new DecompilationStateSelectorCache();
+
+    private final DecompilationContext context = mock(DecompilationContext.class);
+
+    private final Sequence<Statement> statements = new LinkedSequence<>();
+
+    private final AtomicInteger evaluations = new AtomicInteger();
+
+    @Before
+    public void setup() {
+        when(context.getStatements()).thenReturn(statements);
+        stack(constant(1), constant(2));
+    }
+
+    @Test
+    public void selectShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> cache.select(null, context, ByteCode.nop), AssertionError.class);
+        assertThrown(() -> cache.select(DecompilationStateSelector.ALL, null, ByteCode.nop), AssertionError.class);
+    }
+
+    @Test
+    public void selectionShouldBeMemoizedWithinStepWhileStateIsUnchanged() {
+        final DecompilationStateSelector selector = countingSelector(Dependencies.stack(1));
+
+        assertTrue(cache.select(selector, context, ByteCode.nop));
+        assertTrue(cache.select(selector, context, ByteCode.nop));
+
+        assertEquals(1, evaluations.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getEvaluationCount());
+    }
+
+    @Test
+    public void selectionShouldNotBeMemoizedAcrossSteps() {
+        final DecompilationStateSelector selector = countingSelector(Dependencies.stack(1));
+
+        cache.select(selector, context, ByteCode.nop);
+        cache.nextStep();
+        cache.select(selector, context, ByteCode.nop);
+
+        assertEquals(2, evaluations.get());
+    }
+
+    @Test
+    public void selectionShouldBeReevaluatedIfStackSizeChanges() {
+        final DecompilationStateSelector selector = countingSelector(Dependencies.stack(0));
+
+        cache.select(selector, context, ByteCode.nop);
+        stack(constant(1));
+        cache.select(selector, context, ByteCode.nop);
+
+        assertEquals(2, evaluations.get());
+    }
+
+    @Test
+    public void selectionShouldBeReevaluatedIfInspectedStackElementIsReplaced() {
+        final DecompilationStateSelector selector = countingSelector(Dependencies.stack(1));
+
+        cache.select(selector, context, ByteCode.nop);
+        stack(constant(1), constant(3));
+        cache.select(selector, context, ByteCode.nop);
+
+        assertEquals(2, evaluations.get());
+    }
+
+    @Test
+    public void selectionShouldNotBeReevaluatedIfStackElementBelowInspectedDepthIsReplaced() {
+        final Expression top = constant(2);
+        final DecompilationStateSelector selector = countingSelector(Dependencies.stack(1));
+
+        stack(constant(1), top);
+        cache.select(selector, context, ByteCode.nop);
+        stack(constant(3), top);
+        cache.select(selector, context, ByteCode.nop);
+
+        assertEquals(1, evaluations.get());
+    }
+
+    @Test
+    public void selectionShouldBeReevaluatedIfLastStatementChanges() {
+        final DecompilationStateSelector selector = countingSelector(Dependencies.lastStatement());
+
+        cache.select(selector, context, ByteCode.nop);
+        cache.select(selector, context, ByteCode.nop);
+        statements.add(mock(Statement.class));
+        cache.select(selector, context, ByteCode.nop);
+
+        assertEquals(2, evaluations.get());
+    }
+
+    @Test
+    public void selectorWithUnknownDependenciesShouldAlwaysBeEvaluated() {
+        final DecompilationStateSelector selector = countingSelector(Dependencies.UNKNOWN);
+
+        cache.select(selector, context, ByteCode.nop);
+        cache.select(selector, context, ByteCode.nop);
+
+        assertEquals(2, evaluations.get());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void selectorsOfConjunctionShouldBeMemoizedIndividually() {
+        final DecompilationStateSelector shared = countingSelector(Dependencies.lastStatement());
+        final DecompilationStateSelector conjunction1 = shared.and(stackSizeIsAtLeast(1));
+        final DecompilationStateSelector conjunction2 = shared.and(stackSizeIsAtLeast(3));
+
+        assertTrue(cache.select(conjunction1, context, ByteCode.nop));
+        assertFalse(cache.select(conjunction2, context, ByteCode.nop));
+
+        assertEquals(1, evaluations.get());
+    }
+
+    @Test
+    public void clearShouldDiscardMemoizedSelections() {
+        final DecompilationStateSelector selector = countingSelector(Dependencies.stack(1));
+
+        cache.select(selector, context, ByteCode.nop);
+        cache.clear();
+        cache.select(selector, context, ByteCode.nop);
+
+        assertEquals(2, evaluations.get());
+    }
+
+    @Test
+    public void removeAllShouldDiscardSelectors() {
+        final DecompilationStateSelector selector = countingSelector(Dependencies.stack(1));
+
+        cache.select(selector, context, ByteCode.nop);
+        cache.removeAll();
+        cache.select(selector, context, ByteCode.nop);
+
+        assertEquals(2, evaluations.get());
+        assertEquals(0, cache.getHitCount());
+    }
+
+    private DecompilationStateSelector countingSelector(Dependencies dependencies) {
+        return DecompilationStateSelectors.dependingOn(dependencies, (context, byteCode) -> {
+            evaluations.incrementAndGet();
+            return true;
+        });
+    }
+
+    private DecompilationStateSelector stackSizeIsAtLeast(int size) {
+        return DecompilationStateSelectors.dependingOn(Dependencies.stack(0), (context, byteCode) -> context.getStackSize() >= size);
+    }
+
+    private void stack(Expression... expressions) {
+        when(context.getStackSize()).thenReturn(expressions.length);
+
+        for (int depth = 0; depth < expressions.length; depth++) {
+            when(context.peek(depth)).thenReturn(expressions[expressions.length - 1 - depth]);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package io.recode.decompile;
 
 import io.recode.classfile.ByteCode;
+import io.recode.model.ElementType;
 import org.junit.Test;
 
 import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -33,4 +35,46 @@ public class DecompilationStateSelectorTest {
         assertFalse(selector1.and(selector2).select(decompilationContext, ByteCode.nop));
         assertFalse(selector2.and(selector1).select(decompilationContext, ByteCode.nop));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void allShouldHaveNoDependencies() {
+        assertEquals(DecompilationStateSelector.Dependencies.NONE, DecompilationStateSelector.ALL.getDependencies());
+    }
+
+    @Test
+    public void dependenciesShouldBeUnknownByDefault() {
+        final DecompilationStateSelector selector = (context, byteCode) -> true;
+
+        assertFalse(selector.getDependencies().isKnown());
+    }
+
+    @Test
+    public void andShouldCombineDependenciesOfSelectors() {
+        final DecompilationStateSelector selector1 = DecompilationStateSelectors.stackSizeIsAtLeast(1);
+        final DecompilationStateSelector selector2 = DecompilationStateSelectors.lastStatementIs(ElementType.RETURN);
+        final DecompilationStateSelector.Dependencies dependencies = selector1.and(selector2).getDependencies();
+
+        assertTrue(dependencies.isKnown());
+        assertEquals(0, dependencies.getStackDepth());
+        assertTrue(dependencies.dependsOnLastStatement());
+        assertFalse(selector1.and((context, byteCode) -> true).getDependencies().isKnown());
+    }
+
+    @Test
+    public void stackDependenciesShouldNotAcceptNegativeDepth() {
+        assertThrown(() -> DecompilationStateSelector.Dependencies.stack(-1), AssertionError.class);
+    }
+
+    @Test
+    public void dependenciesShouldBeCombinedWithLargestStackDepth() {
+        final DecompilationStateSelector.Dependencies dependencies = DecompilationStateSelector.Dependencies.stack(1)
+                .and(DecompilationStateSelector.Dependencies.stack(3))
+                .and(DecompilationStateSelector.Dependencies.NONE);
+
+        assertEquals(DecompilationStateSelector.Dependencies.stack(3), dependencies);
+        assertTrue(dependencies.dependsOnStack());
+        assertFalse(dependencies.dependsOnLastStatement());
+        assertFalse(DecompilationStateSelector.Dependencies.lastStatement().dependsOnStack());
+        assertEquals(DecompilationStateSelector.Dependencies.UNKNOWN, dependencies.and(DecompilationStateSelector.Dependencies.UNKNOWN));
+    }
+}
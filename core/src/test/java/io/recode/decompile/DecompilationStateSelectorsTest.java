@@ -7,18 +7,16 @@ import io.recode.model.Statement;
 import io.recode.util.Stack;
 import org.junit.Before;
 import org.junit.Test;
-import org.mockito.Matchers;
 
-import java.util.Arrays;
 import java.util.function.Predicate;
 
+import static io.recode.decompile.DecompilationStateSelector.Dependencies;
 import static io.recode.model.AST.constant;
 import static io.recode.model.ModelQueries.equalTo;
 import static io.recode.test.Assertions.assertThrown;
 import static io.recode.util.Sequences.emptySequence;
 import static io.recode.util.Sequences.sequenceOf;
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -118,7 +116,8 @@ public class DecompilationStateSelectorsTest {
     @Test
     public void elementsAreStackedWithPredicatesShouldNotMatchIfAnyPredicateDoesNotMatch() {
         when(stack.size()).thenReturn(2);
-        when(stack.tail(Matchers.eq(-2))).thenReturn(Arrays.asList(constant(1), constant(2)));
+        when(stack.get(0)).thenReturn(constant(1));
+        when(stack.get(1)).thenReturn(constant(2));
 
         assertFalse(DecompilationStateSelectors.elementsAreStacked(equalTo(constant(1)), equalTo(constant(3))).select(decompilationContext, ByteCode.nop));
     }
@@ -126,8 +125,40 @@ public class DecompilationStateSelectorsTest {
     @Test
     public void elementsAreStackedWithPredicatesShouldMatchIfAllPredicatesMatch() {
         when(stack.size()).thenReturn(2);
-        when(stack.tail(Matchers.eq(-2))).thenReturn(Arrays.asList(constant(1), constant(2)));
+        when(stack.get(0)).thenReturn(constant(1));
+        when(stack.get(1)).thenReturn(constant(2));
 
         assertTrue(DecompilationStateSelectors.elementsAreStacked(equalTo(constant(1)), equalTo(constant(2))).select(decompilationContext, ByteCode.nop));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void elementIsStackedShouldReturnSharedSelectorForElementType() {
+        assertSame(DecompilationStateSelectors.elementIsStacked(ElementType.CONSTANT), DecompilationStateSelectors.elementIsStacked(ElementType.CONSTANT));
+        assertNotSame(DecompilationStateSelectors.elementIsStacked(ElementType.CONSTANT), DecompilationStateSelectors.elementIsStacked(ElementType.CAST));
+    }
+
+    @Test
+    public void selectorsShouldDeclareDependencies() {
+        assertEquals(Dependencies.lastStatement(), DecompilationStateSelectors.atLeastOneStatement().getDependencies());
+        assertEquals(Dependencies.lastStatement(), DecompilationStateSelectors.lastStatementIs(ElementType.RETURN).getDependencies());
+        assertEquals(Dependencies.stack(0), DecompilationStateSelectors.stackSizeIsAtLeast(4).getDependencies());
+        assertEquals(Dependencies.stack(1), DecompilationStateSelectors.elementIsStacked(ElementType.CONSTANT).getDependencies());
+        assertEquals(Dependencies.stack(2), DecompilationStateSelectors.elementsAreStacked(constant(1), constant(2)).getDependencies());
+        assertEquals(Dependencies.stack(1), DecompilationStateSelectors.elementsAreStacked(equalTo(constant(1))).getDependencies());
+    }
+
+    @Test
+    public void dependingOnShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> DecompilationStateSelectors.dependingOn(null, DecompilationStateSelector.ALL), AssertionError.class);
+        assertThrown(() -> DecompilationStateSelectors.dependingOn(Dependencies.stack(1), null), AssertionError.class);
+    }
+
+    @Test
+    public void dependingOnShouldDeclareDependenciesOfSelector() {
+        final DecompilationStateSelector selector = DecompilationStateSelectors.dependingOn(Dependencies.stack(1), (context, byteCode) -> byteCode == ByteCode.pop);
+
+        assertEquals(Dependencies.stack(1), selector.getDependencies());
+        assertTrue(selector.select(decompilationContext, ByteCode.pop));
+        assertFalse(selector.select(decompilationContext, ByteCode.nop));
+    }
+}
@@ -0,0 +1,138 @@
+package io.recode.decompile;
+
+import io.recode.Caller;
+import io.recode.classfile.ClassFile;
+import io.recode.classfile.ClassFileResolutionException;
+import io.recode.classfile.ClassPathClassFileResolver;
+import io.recode.classfile.Method;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import io.recode.decompile.impl.DecompilerImpl;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class DecompiledMethodCacheTest {
+
+    private final DecompiledMethodCache cache = new DecompiledMethodCache(new DecompilerImpl());
+
+    @Test
+    public void constructorShouldNotAcceptNullDecompiler() {
+        assertThrown(() -> new DecompiledMethodCache(null), AssertionError.class);
+        assertThrown(() -> new DecompiledMethodCache(new DecompilerImpl(), 0), AssertionError.class);
+    }
+
+    @Test
+    public void getShouldNotAcceptNullMethod() {
+        assertThrown(() -> cache.get(null), AssertionError.class);
+        assertThrown(() -> cache.getIfPresent(null), AssertionError.class);
+    }
+
+    @Test
+    public void methodShouldBeDecompiledOnceForEveryClassFileRead() {
+        final Method method = getThisMethod();
+        final Method sameMethod = getThisMethod();
+
+        assertNotSame(method, sameMethod);
+
+        final Optional<DecompiledMethod> decompiledMethod = cache.get(method);
+
+        assertTrue(decompiledMethod.isPresent());
+        assertSame(decompiledMethod.get(), cache.get(sameMethod).get());
+        assertSame(decompiledMethod.get(), cache.getIfPresent(sameMethod).get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void getIfPresentShouldNotDecompileMethod() {
+        assertFalse(cache.getIfPresent(getThisMethod()).isPresent());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void methodWithoutLineNumberTableShouldNotBeDecompiled() {
+        final Method method = mock(Method.class);
+
+        when(method.getLineNumberTable()).thenReturn(Optional.empty());
+
+        assertFalse(cache.get(method).isPresent());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void methodThatCannotBeDecompiledShouldBeRememberedAsUnsupported() throws IOException {
+        final Decompiler decompiler = mock(Decompiler.class);
+        final DecompiledMethodCache cache = new DecompiledMethodCache(decompiler);
+
+        when(decompiler.parse(any(Method.class), any(CodeStream.class), any(DecompilationProgressCallback.class))).thenThrow(new IllegalStateException());
+
+        assertFalse(cache.get(getThisMethod()).isPresent());
+        assertFalse(cache.get(getThisMethod()).isPresent());
+        assertEquals(1, cache.size());
+
+        verify(decompiler, times(1)).parse(any(Method.class), any(CodeStream.class), any(DecompilationProgressCallback.class));
+    }
+
+    @Test
+    public void methodThatFailsWithResolutionErrorShouldNotBeRemembered() throws IOException {
+        final Decompiler decompiler = mock(Decompiler.class);
+        final DecompiledMethodCache cache = new DecompiledMethodCache(decompiler);
+
+        when(decompiler.parse(any(Method.class), any(CodeStream.class), any(DecompilationProgressCallback.class)))
+                .thenThrow(new ClassFileResolutionException("foo"))
+                .thenThrow(new IOException());
+
+        assertFalse(cache.get(getThisMethod()).isPresent());
+        assertFalse(cache.get(getThisMethod()).isPresent());
+        assertEquals(0, cache.size());
+
+        verify(decompiler, times(2)).parse(any(Method.class), any(CodeStream.class), any(DecompilationProgressCallback.class));
+    }
+
+    @Test
+    public void leastRecentlyUsedMethodShouldBeEvictedWhenCapacityIsExceeded() {
+        final DecompiledMethodCache cache = new DecompiledMethodCache(new DecompilerImpl(), 2);
+        final Method first = getMethod("constructorShouldNotAcceptNullDecompiler");
+        final Method second = getMethod("getShouldNotAcceptNullMethod");
+        final Method third = getMethod("getIfPresentShouldNotDecompileMethod");
+
+        cache.get(first);
+        cache.get(second);
+        cache.get(first);
+        cache.get(third);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertTrue(cache.getIfPresent(first).isPresent());
+        assertFalse(cache.getIfPresent(second).isPresent());
+        assertTrue(cache.getIfPresent(third).isPresent());
+    }
+
+    @Test
+    public void clearShouldRemoveDecompiledMethods() {
+        cache.get(getThisMethod());
+        cache.clear();
+
+        assertEquals(0, cache.size());
+    }
+
+    private Method getThisMethod() {
+        return getMethod(Caller.me().getCaller().get().getMethodName());
+    }
+
+    private Method getMethod(String methodName) {
+        return getThisClassFile().getMethods().stream()
+                .filter(m -> m.getName().equals(methodName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Method '" + methodName + "' not found in class file"));
+    }
+
+    private ClassFile getThisClassFile() {
+        return new ClassPathClassFileResolver(new ClassFileReaderImpl()).resolveClassFile(getClass());
+    }
+}
@@ -0,0 +1,157 @@
+package io.recode.decompile;
+
+import io.recode.Caller;
+import io.recode.CodeLocation;
+import io.recode.classfile.ClassFile;
+import io.recode.classfile.ClassPathClassFileResolver;
+import io.recode.classfile.LineNumberTableEntry;
+import io.recode.classfile.Method;
+import io.recode.classfile.impl.ClassFileReaderImpl;
+import io.recode.classfile.impl.LineNumberTableEntryImpl;
+import io.recode.classfile.impl.LineNumberTableImpl;
+import io.recode.decompile.impl.DecompilerImpl;
+import io.recode.model.AST;
+import io.recode.model.Statement;
+import io.recode.model.VariableAssignment;
+import io.recode.util.Range;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DecompiledMethodTest {
+
+    private final Statement statement1 = AST.call(String.class, "valueOf", String.class, AST.constant(1));
+
+    private final Statement statement2 = AST.call(String.class, "valueOf", String.class, AST.constant(2));
+
+    private final Statement statement3 = AST.call(String.class, "valueOf", String.class, AST.constant(3));
+
+    @Test
+    public void constructorShouldNotAcceptInvalidArguments() {
+        final Method method = methodWithLineNumbers();
+
+        assertThrown(() -> new DecompiledMethod(null, new Statement[0], new Range[0]), AssertionError.class);
+        assertThrown(() -> new DecompiledMethod(method, null, new Range[0]), AssertionError.class);
+        assertThrown(() -> new DecompiledMethod(method, new Statement[0], null), AssertionError.class);
+        assertThrown(() -> new DecompiledMethod(method, new Statement[]{statement1}, new Range[0]), AssertionError.class);
+    }
+
+    @Test
+    public void constructorShouldNotAcceptMethodWithoutLineNumberTable() {
+        final Method method = mock(Method.class);
+
+        when(method.getLineNumberTable()).thenReturn(Optional.empty());
+
+        assertThrown(() -> new DecompiledMethod(method, new Statement[0], new Range[0]), IllegalArgumentException.class);
+    }
+
+    @Test
+    public void statementsShouldBeAnnotatedWithLineRanges() {
+        final DecompiledMethod decompiledMethod = exampleMethod();
+
+        assertEquals(new Range(10, 10), decompiledMethod.getLineRange(0));
+        assertEquals(new Range(11, 12), decompiledMethod.getLineRange(1));
+        assertEquals(new Range(13, 13), decompiledMethod.getLineRange(2));
+        assertEquals(new Range(5, 9), decompiledMethod.getCodeRange(1));
+    }
+
+    @Test
+    public void sliceShouldReturnStatementsOverlappingCodeRange() {
+        final DecompiledMethod decompiledMethod = exampleMethod();
+
+        assertArrayEquals(new Statement[]{statement1}, decompiledMethod.slice(new Range(0, 4)));
+        assertArrayEquals(new Statement[]{statement2}, decompiledMethod.slice(new Range(7, 9)));
+        assertArrayEquals(new Statement[]{statement1, statement2, statement3}, decompiledMethod.slice(new Range(0, Integer.MAX_VALUE)));
+    }
+
+    @Test
+    public void sliceLinesShouldReturnStatementsSpanningLines() {
+        final DecompiledMethod decompiledMethod = exampleMethod();
+
+        assertArrayEquals(new Statement[]{statement1}, decompiledMethod.sliceLines(10, 10));
+        assertArrayEquals(new Statement[]{statement2}, decompiledMethod.sliceLines(12, 12));
+        assertArrayEquals(new Statement[]{statement2, statement3}, decompiledMethod.sliceLines(11, 13));
+        assertArrayEquals(new Statement[0], decompiledMethod.sliceLines(20, 21));
+    }
+
+    @Test
+    public void methodCanBeDecompiled() throws IOException {
+        nop1();
+        nop2();
+
+        final DecompiledMethod decompiledMethod = DecompiledMethod.decompile(new DecompilerImpl(), getThisMethod());
+        final int ref = Caller.me().getLineNumber();
+
+        assertArrayEquals(new Statement[]{
+                AST.call(AST.local("this", getClass(), 0), "nop1", void.class)
+        }, decompiledMethod.sliceLines(ref - 4, ref - 4));
+
+        assertArrayEquals(new Statement[]{
+                AST.call(AST.local("this", getClass(), 0), "nop2", void.class)
+        }, decompiledMethod.sliceLines(ref - 3, ref - 3));
+    }
+
+    @Test
+    @SuppressWarnings("unused")
+    public void lineWithBooleanExpressionOfManyOperandsCanBeSliced() throws IOException {
+        int x = 1;
+        boolean r = isTrue() && isTrue() && isTrue() && isTrue();
+        int y = 2;
+        int z = 3;
+
+        final DecompiledMethod decompiledMethod = DecompiledMethod.decompile(new DecompilerImpl(), getThisMethod());
+        final int ref = Caller.me().getLineNumber();
+        final Statement[] booleanLine = decompiledMethod.sliceLines(ref - 5, ref - 5);
+
+        assertEquals(1, booleanLine.length);
+        assertEquals("r", ((VariableAssignment) booleanLine[0]).getVariableName());
+        assertArrayEquals(new Statement[]{AST.set(3, "y", int.class, AST.constant(2))}, decompiledMethod.sliceLines(ref - 4, ref - 4));
+        assertArrayEquals(new Statement[]{AST.set(4, "z", int.class, AST.constant(3))}, decompiledMethod.sliceLines(ref - 3, ref - 3));
+    }
+
+    private DecompiledMethod exampleMethod() {
+        return new DecompiledMethod(methodWithLineNumbers(),
+                new Statement[]{statement1, statement2, statement3},
+                new Range[]{new Range(0, 4), new Range(5, 9), new Range(10, 12)});
+    }
+
+    private Method methodWithLineNumbers() {
+        final Method method = mock(Method.class);
+
+        when(method.getLineNumberTable()).thenReturn(Optional.of(new LineNumberTableImpl(new LineNumberTableEntry[]{
+                new LineNumberTableEntryImpl(0, 10),
+                new LineNumberTableEntryImpl(5, 11),
+                new LineNumberTableEntryImpl(7, 12),
+                new LineNumberTableEntryImpl(10, 13)
+        }, new Range(10, 13))));
+
+        return method;
+    }
+
+    private Method getThisMethod() {
+        final CodeLocation caller = Caller.me().getCaller().get();
+
+        return getThisClassFile().getMethods().stream()
+                .filter(m -> m.getName().equals(caller.getMethodName()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Method '" + caller.getMethodName() + "' not found in class file"));
+    }
+
+    private ClassFile getThisClassFile() {
+        return new ClassPathClassFileResolver(new ClassFileReaderImpl()).resolveClassFile(getClass());
+    }
+
+    private boolean isTrue() {
+        return true;
+    }
+
+    private void nop1() {}
+    private void nop2() {}
+}
@@ -0,0 +1,63 @@
+package io.recode.decompile;
+
+import io.recode.classfile.Method;
+import io.recode.decompile.impl.ProgramCounterImpl;
+import io.recode.model.Element;
+import io.recode.model.ElementContextMetaData;
+import io.recode.model.Statement;
+import io.recode.model.impl.LocalVariableReferenceImpl;
+import io.recode.model.impl.ReturnImpl;
+import io.recode.model.impl.VariableAssignmentImpl;
+import io.recode.util.Range;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static io.recode.model.AST.constant;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DecompilerTest {
+
+    private final Method method = mock(Method.class);
+
+    private final CodeStream codeStream = mock(CodeStream.class);
+
+    @Test
+    public void parseToSinkShouldOnlyProvideStatements() throws Exception {
+        final Statement assignment = new VariableAssignmentImpl(constant(1), 1, "n", int.class, new ElementContextMetaData(2, 10));
+        final Statement doReturn = new ReturnImpl(new ElementContextMetaData(6, 11));
+        final Element stackedExpression = new LocalVariableReferenceImpl("n", int.class, 1, new ElementContextMetaData(8, 12));
+        final Decompiler decompiler = decompilerOf(assignment, doReturn, stackedExpression);
+        final List<Statement> statements = new ArrayList<>();
+        final List<Range> codeRanges = new ArrayList<>();
+
+        when(codeStream.pc()).thenReturn(new ProgramCounterImpl(-1));
+
+        decompiler.parse(method, codeStream, DecompilationProgressCallback.NULL, (statement, codeRange) -> {
+            statements.add(statement);
+            codeRanges.add(codeRange);
+            return true;
+        });
+
+        assertEquals(Arrays.asList(assignment, doReturn), statements);
+        assertEquals(Arrays.asList(new Range(0, 2), new Range(3, 6)), codeRanges);
+    }
+
+    private static Decompiler decompilerOf(Element... elements) {
+        return new Decompiler() {
+            @Override
+            public Element[] parse(Method method, CodeStream codeStream) {
+                return elements;
+            }
+
+            @Override
+            public Element[] parse(Method method, CodeStream codeStream, DecompilationProgressCallback callback) {
+                return elements;
+            }
+        };
+    }
+}
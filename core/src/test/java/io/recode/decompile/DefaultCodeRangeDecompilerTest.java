@@ -17,6 +17,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.mock;
@@ -43,6 +44,20 @@ public class DefaultCodeRangeDecompilerTest {
         assertEquals(AST.call(AST.local("this", getClass(), 0), "nop3", void.class), codePointers[2]);
     }
 
+    @Test
+    public void linesAtEndOfMethodCanBeDecompiled() throws Exception {
+        final Method method = getThisMethod();
+        final int lastLine = method.getLineNumberTable().get().getSourceFileRange().getTo();
+        final Element[] elements = defaultCodeRangeDecompiler.decompileRange(method, lastLine - 1, lastLine);
+
+        assertArrayEquals(new Element[]{
+                AST.call(AST.local("this", getClass(), 0), "nop1", void.class),
+                AST.$return()
+        }, elements);
+
+        nop1();
+    }
+
     @Test
     public void codeRangeNotContainedWithinMethodCannotBeDecompiled() {
         final int ref = Caller.me().getLineNumber();
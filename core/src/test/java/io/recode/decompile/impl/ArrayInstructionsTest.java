@@ -1,5 +1,7 @@
 package io.recode.decompile.impl;
 
+import io.recode.RuntimeTypeResolver;
+import io.recode.SymbolicType;
 import io.recode.classfile.ByteCode;
 import io.recode.classfile.ClassFileFormatException;
 import io.recode.decompile.*;
@@ -11,6 +13,8 @@ import io.recode.model.impl.ArrayLoadImpl;
 import io.recode.model.impl.ArrayStoreImpl;
 import io.recode.model.impl.FieldReferenceImpl;
 import io.recode.model.impl.NewArrayImpl;
+import io.recode.model.impl.BasicModelFactory;
+import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
@@ -18,6 +22,7 @@ import java.util.Collections;
 
 import static io.recode.test.Assertions.assertThrown;
 import static org.junit.Assert.assertNotNull;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -27,6 +32,12 @@ public class ArrayInstructionsTest {
 
     private final CodeStream code = mock(CodeStream.class);
 
+    @Before
+    public void setup() {
+        when(context.getModelFactory()).thenReturn(new BasicModelFactory());
+        when(context.resolveType(anyString())).then(invocation -> new RuntimeTypeResolver().resolveType((String) invocation.getArguments()[0]));
+    }
+
     @Test
     public void configureShouldNotAcceptNullConfigurationBuilder() {
         assertThrown(() -> new ArrayInstructions().configure(null), AssertionError.class);
@@ -75,6 +86,17 @@ public class ArrayInstructionsTest {
         assertThrown(() -> ArrayInstructions.newarray().apply(context, code, ByteCode.newarray), ClassFileFormatException.class);
     }
 
+    @Test
+    public void newarrayShouldResolveArrayTypeThroughContext() throws Exception {
+        when(context.pop()).thenReturn(AST.constant(1));
+        when(context.resolveType("[I")).thenReturn(SymbolicType.of("[I"));
+        when(code.nextUnsignedByte()).thenReturn(10);
+
+        ArrayInstructions.newarray().apply(context, code, ByteCode.newarray);
+
+        verify(context).push(eq(new NewArrayImpl(SymbolicType.of("[I"), int.class, AST.constant(1), Collections.emptyList())));
+    }
+
     @Test
     public void newarrayCanPushBooleanArrayOntoStack() throws Exception {
         when(context.pop()).thenReturn(AST.constant(1));
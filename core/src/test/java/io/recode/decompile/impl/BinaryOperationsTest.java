@@ -7,6 +7,7 @@ import io.recode.decompile.DecompilerConfigurationBuilder;
 import io.recode.model.Expression;
 import io.recode.util.Iterators;
 import io.recode.util.SingleThreadedStack;
+import io.recode.model.impl.BasicModelFactory;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -28,6 +29,7 @@ public class BinaryOperationsTest {
 
     @Before
     public void setup() {
+        when(decompilationContext.getModelFactory()).thenReturn(new BasicModelFactory());
         when(decompilationContext.getStack()).thenReturn(stack);
     }
 
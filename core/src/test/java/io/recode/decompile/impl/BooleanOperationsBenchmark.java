@@ -0,0 +1,95 @@
+package io.recode.decompile.impl;
+
+import io.recode.ClassModelTestUtils;
+import io.recode.classfile.ClassFile;
+import io.recode.classfile.Method;
+import io.recode.decompile.CodeStream;
+import io.recode.decompile.Decompiler;
+import io.recode.model.BinaryOperator;
+import io.recode.model.ModelQueries;
+import io.recode.model.OperatorType;
+import io.recode.model.impl.BinaryOperatorImpl;
+import io.recode.test.AllocationMeter;
+import io.recode.test.Assertions;
+
+import java.util.function.Predicate;
+
+import static io.recode.model.AST.constant;
+import static io.recode.model.AST.local;
+import static io.recode.model.ModelQueries.*;
+
+/**
+ * Measures the time and allocation of decompiling boolean-heavy methods, whose decompilation evaluates model
+ * queries after most instructions, and of evaluating a compiled query chain. Run with <code>main</code>; not
+ * part of the build.
+ */
+public class BooleanOperationsBenchmark {
+
+    private static final int ITERATIONS = 2000;
+
+    private static final String[] METHOD_NAMES = {"conjunction", "disjunction", "mixed", "negation"};
+
+    public static void main(String[] args) throws Throwable {
+        final Decompiler decompiler = new DecompilerImpl();
+        final ClassFile classFile = ClassModelTestUtils.classFileOf(BooleanMethods.class);
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println("-- round " + (round + 1));
+
+            for (String methodName : METHOD_NAMES) {
+                final Method method = ClassModelTestUtils.methodWithName(classFile, methodName);
+
+                report(methodName, () -> {
+                    try (CodeStream code = new InputStreamCodeStream(method.getCode().getCode())) {
+                        decompiler.parse(method, code);
+                    }
+                });
+            }
+
+            final BinaryOperator operator = new BinaryOperatorImpl(local("b", boolean.class, 1), OperatorType.NE, constant(0), boolean.class);
+            final Predicate<BinaryOperator> query = ModelQueries.<BinaryOperator>value()
+                    .where(operatorType().is(equalTo(OperatorType.NE)))
+                    .and(leftOperand().get(runtimeType()).is(equalTo(boolean.class)))
+                    .and(rightOperand().is(equalTo(constant(0))))
+                    .is(any());
+
+            report("query", () -> {
+                if (!query.test(operator)) {
+                    throw new IllegalStateException("Query doesn't match");
+                }
+            });
+        }
+    }
+
+    private static void report(String name, Assertions.ThrowingCommand command) throws Throwable {
+        final long allocatedBytes = AllocationMeter.measure(command);
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            command.call();
+        }
+
+        System.out.println(String.format("%-12s %10.2f us/op %10d bytes/op", name, (System.nanoTime() - start) / 1000d / ITERATIONS, allocatedBytes));
+    }
+
+    static final class BooleanMethods {
+
+        static boolean conjunction(int a, int b, boolean c) {
+            return a > 0 && b > 0 && c;
+        }
+
+        static boolean disjunction(int a, int b, boolean c) {
+            return a > 0 || b < 0 || c;
+        }
+
+        static boolean mixed(int a, int b, boolean c) {
+            final boolean result = (a > b && c) || (a < 0 && !c);
+
+            return result;
+        }
+
+        static boolean negation(boolean a, boolean b) {
+            return !a && !b;
+        }
+    }
+}
@@ -1,20 +1,31 @@
 package io.recode.decompile.impl;
 
 import io.recode.Caller;
+import io.recode.SymbolicType;
 import io.recode.classfile.ByteCode;
+import io.recode.classfile.ClassFileNotFoundException;
+import io.recode.classfile.ClassFileReader;
+import io.recode.classfile.ClassFileResolver;
+import io.recode.classfile.InMemoryClassFileResolver;
 import io.recode.classfile.LineNumberTable;
 import io.recode.classfile.LineNumberTableEntry;
+import io.recode.classfile.Method;
 import io.recode.classfile.ReferenceKind;
+import io.recode.classfile.impl.ClassFileReaderImpl;
 import io.recode.decompile.*;
 import io.recode.model.*;
 import io.recode.model.impl.ArrayLoadImpl;
 import io.recode.model.impl.ConstantImpl;
 import io.recode.model.impl.VariableAssignmentImpl;
+import io.recode.util.Methods;
+import io.recode.util.Range;
 import org.apache.commons.io.IOUtils;
 import org.junit.Ignore;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -26,7 +37,8 @@ import static io.recode.Caller.adjacent;
 import static io.recode.Caller.me;
 import static io.recode.test.Assertions.assertThrown;
 import static org.junit.Assert.*;
-import static org.mockito.Mockito.mock;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
 
 public class CodeLocationDecompilerImplTest {
 
@@ -38,6 +50,33 @@ public class CodeLocationDecompilerImplTest {
         assertThrown(() -> codeLocationDecompiler.decompileCodeLocation(me(), null), AssertionError.class);
     }
 
+    @Test
+    public void decompileCodeLocationWithBudgetShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> codeLocationDecompiler.decompileCodeLocation(null, DecompilationProgressCallback.NULL, DecompilationBudget.unlimited()), AssertionError.class);
+        assertThrown(() -> codeLocationDecompiler.decompileCodeLocation(me(), null, DecompilationBudget.unlimited()), AssertionError.class);
+        assertThrown(() -> codeLocationDecompiler.decompileCodeLocation(me(), DecompilationProgressCallback.NULL, null), AssertionError.class);
+    }
+
+    @Test
+    public void decompileCodeLocationWithBudgetShouldReturnCompleteResultWithinBudget() throws IOException {
+        int n = 100;
+
+        final DecompilationResult<CodePointer> result = codeLocationDecompiler.decompileCodeLocation(adjacent(-2), DecompilationProgressCallback.NULL, DecompilationBudget.unlimited().withMaxInstructions(100));
+
+        assertFalse(result.isTruncated());
+        assertEquals(new VariableAssignmentImpl(new ConstantImpl(100, int.class), 1, "n", int.class), result.get()[0].getElement());
+    }
+
+    @Test
+    public void decompileCodeLocationWithBudgetShouldReturnTruncatedResultIfBudgetIsExceeded() throws IOException {
+        int n = 100;
+
+        final DecompilationResult<CodePointer> result = codeLocationDecompiler.decompileCodeLocation(adjacent(-2), DecompilationProgressCallback.NULL, DecompilationBudget.unlimited().withMaxInstructions(1));
+
+        assertTrue(result.isTruncated());
+        assertEquals(new ConstantImpl(100, int.class), result.get()[0].getElement());
+    }
+
     @Test
     public void decompileCallerCanDecompileSimpleStatement() throws IOException {
         int n = 100;
@@ -49,6 +88,37 @@ public class CodeLocationDecompilerImplTest {
         }, elements);
     }
 
+    @Test
+    public void decompilationShouldStartAtLineAndStopAfterIt() throws IOException {
+        int n = 100;
+
+        final Caller caller = adjacent(-2);
+        final List<Integer> programCounters = new ArrayList<>();
+        final CodePointer[] codePointers = ((CodeLocationDecompilerImpl) codeLocationDecompiler).decompileCodeLocation(caller, new DecompilationProgressCallbackAdapter() {
+            @Override
+            public void afterInstruction(DecompilationContext context, int instruction) {
+                programCounters.add(context.getProgramCounter().get());
+            }
+        });
+
+        final Method method = codePointers[0].getMethod();
+        final Range codeRange = Methods.getCodeRangeForLineNumber(method, caller.getLineNumber());
+
+        assertEquals(Arrays.asList(codeRange.getFrom() + 1, codeRange.getTo()), programCounters);
+        assertArrayEquals(new Element[]{new VariableAssignmentImpl(new ConstantImpl(100, int.class), 1, "n", int.class)}, elementsOf(codePointers));
+    }
+
+    @Test
+    public void callToVoidMethodShouldBeDecompiledWithoutFollowingStatements() throws IOException {
+        Arrays.asList("foo").forEach(Objects::requireNonNull);
+        int n = 100;
+
+        final Element[] elements = decompileCaller(adjacent(-3));
+
+        assertEquals(1, elements.length);
+        assertEquals("forEach", elements[0].as(MethodCall.class).getMethodName());
+    }
+
     @Test
     public void decompileCallerCanDecompileSimpleLambda() throws IOException {
         Supplier<String> s = () -> "foo";
@@ -215,6 +285,109 @@ public class CodeLocationDecompilerImplTest {
         return (Lambda) variableAssignment.getValue();
     }
 
+    @Test
+    public void cachingCodeLocationDecompilerShouldDecompileEachMethodOnce() throws IOException {
+        final DecompiledMethodCache cache = new DecompiledMethodCache(new DecompilerImpl());
+        final CodeLocationDecompiler decompiler = new CodeLocationDecompilerImpl.Builder().setClassFileReader(new ClassFileReaderImpl()).setDecompiler(new DecompilerImpl()).setDecompiledMethodCache(cache).build();
+
+        int n = 100;
+        String str = new String("foo")
+                .toString();
+
+        final CodePointer[] first = decompiler.decompileCodeLocation(adjacent(-4));
+        final CodePointer[] second = decompiler.decompileCodeLocation(adjacent(-4));
+        final CodePointer[] third = decompiler.decompileCodeLocation(adjacent(-4));
+
+        assertEquals(1, cache.size());
+        assertArrayEquals(new Element[]{new VariableAssignmentImpl(new ConstantImpl(100, int.class), 3, "n", int.class)}, elementsOf(first));
+        assertArrayEquals(new Element[]{
+                AST.set(4, "str", String.class, AST.call(AST.newInstance(String.class, AST.constant("foo")), "toString", String.class))
+        }, elementsOf(second));
+        assertArrayEquals(elementsOf(second), elementsOf(third));
+    }
+
+    @Test
+    public void cachingCodeLocationDecompilerShouldNotDecompileMethodWithinBudget() throws IOException {
+        final DecompiledMethodCache cache = new DecompiledMethodCache(new DecompilerImpl());
+        final CodeLocationDecompiler decompiler = new CodeLocationDecompilerImpl.Builder().setClassFileReader(new ClassFileReaderImpl()).setDecompiler(new DecompilerImpl()).setDecompiledMethodCache(cache).build();
+
+        int n = 100;
+
+        final DecompilationResult<CodePointer> result = decompiler.decompileCodeLocation(adjacent(-2), DecompilationProgressCallback.NULL, DecompilationBudget.unlimited().withMaxInstructions(100));
+
+        assertEquals(0, cache.size());
+        assertEquals(new VariableAssignmentImpl(new ConstantImpl(100, int.class), 3, "n", int.class), result.get()[0].getElement());
+    }
+
+    @Test
+    public void builderShouldNotAcceptNullArguments() {
+        assertThrown(() -> new CodeLocationDecompilerImpl.Builder().setClassFileReader(null), AssertionError.class);
+        assertThrown(() -> new CodeLocationDecompilerImpl.Builder().setClassFileResolver(null), AssertionError.class);
+        assertThrown(() -> new CodeLocationDecompilerImpl.Builder().setDecompiler(null), AssertionError.class);
+        assertThrown(() -> new CodeLocationDecompilerImpl.Builder().setDecompiledMethodCache(null), AssertionError.class);
+    }
+
+    @Test
+    public void classFileShouldBeResolvedThroughClassFileResolverIfProvided() throws IOException {
+        final InMemoryClassFileResolver classFileResolver = new InMemoryClassFileResolver(new ClassFileReaderImpl(), true);
+        final ClassFileReader classFileReader = mock(ClassFileReader.class);
+        final CodeLocationDecompiler decompiler = new CodeLocationDecompilerImpl.Builder().setClassFileReader(classFileReader).setClassFileResolver(classFileResolver).setDecompiler(new DecompilerImpl()).setDecompiledMethodCache(new DecompiledMethodCache(new DecompilerImpl())).build();
+
+        try (InputStream in = getClass().getResourceAsStream("/" + getClass().getName().replace('.', '/') + ".class")) {
+            classFileResolver.put(getClass().getName(), IOUtils.toByteArray(in));
+        }
+
+        int n = 100;
+
+        final CodePointer[] codePointers = decompiler.decompileCodeLocation(adjacent(-2));
+
+        assertArrayEquals(new Element[]{new VariableAssignmentImpl(new ConstantImpl(100, int.class), 4, "n", int.class)}, elementsOf(codePointers));
+        verifyZeroInteractions(classFileReader);
+    }
+
+    @Test
+    public void classFileShouldBeReadFromClassPathIfNotKnownToClassFileResolver() throws IOException {
+        final ClassFileResolver classFileResolver = mock(ClassFileResolver.class);
+        final CodeLocationDecompiler decompiler = new CodeLocationDecompilerImpl.Builder().setClassFileReader(new ClassFileReaderImpl()).setClassFileResolver(classFileResolver).setDecompiler(new DecompilerImpl()).setDecompiledMethodCache(new DecompiledMethodCache(new DecompilerImpl())).build();
+
+        when(classFileResolver.resolveClassFile(any())).thenThrow(new ClassFileNotFoundException("not found"));
+
+        int n = 100;
+
+        final CodePointer[] codePointers = decompiler.decompileCodeLocation(adjacent(-2));
+
+        assertArrayEquals(new Element[]{new VariableAssignmentImpl(new ConstantImpl(100, int.class), 3, "n", int.class)}, elementsOf(codePointers));
+        verify(classFileResolver).resolveClassFile(SymbolicType.of(getClass().getName()));
+    }
+
+    @Test
+    public void classFileResolverCanBeUsedWithoutDecompiledMethodCache() throws IOException {
+        final InMemoryClassFileResolver classFileResolver = new InMemoryClassFileResolver(new ClassFileReaderImpl(), true);
+        final ClassFileReader classFileReader = mock(ClassFileReader.class);
+        final CodeLocationDecompiler decompiler = new CodeLocationDecompilerImpl.Builder().setClassFileReader(classFileReader).setClassFileResolver(classFileResolver).setDecompiler(new DecompilerImpl()).build();
+
+        try (InputStream in = getClass().getResourceAsStream("/" + getClass().getName().replace('.', '/') + ".class")) {
+            classFileResolver.put(getClass().getName(), IOUtils.toByteArray(in));
+        }
+
+        int n = 100;
+
+        final CodePointer[] codePointers = decompiler.decompileCodeLocation(adjacent(-2));
+
+        assertArrayEquals(new Element[]{new VariableAssignmentImpl(new ConstantImpl(100, int.class), 4, "n", int.class)}, elementsOf(codePointers));
+        verifyZeroInteractions(classFileReader);
+    }
+
+    @Test
+    public void buildShouldFailIfClassFileReaderOrDecompilerIsNotSet() {
+        assertThrown(() -> new CodeLocationDecompilerImpl.Builder().setDecompiler(new DecompilerImpl()).build(), IllegalStateException.class);
+        assertThrown(() -> new CodeLocationDecompilerImpl.Builder().setClassFileReader(new ClassFileReaderImpl()).build(), IllegalStateException.class);
+    }
+
+    private Element[] elementsOf(CodePointer[] codePointers) {
+        return Arrays.stream(codePointers).map(CodePointer::getElement).toArray(Element[]::new);
+    }
+
     private Element[] decompileCaller(Caller caller) throws IOException {
         return Arrays.stream(codeLocationDecompiler.decompileCodeLocation(caller))
                 .map(CodePointer::getElement)
@@ -127,7 +127,7 @@ public class ConstantInstructionsTest {
         final InOrder inOrder = Mockito.inOrder(decompilationContext);
 
         inOrder.verify(decompilationContext).push(eq(new ConstantImpl(0L, long.class)));
-        inOrder.verify(decompilationContext).push(eq(new ConstantImpl(1L, int.class)));
+        inOrder.verify(decompilationContext).push(eq(new ConstantImpl(1L, long.class)));
         inOrder.verifyNoMoreInteractions();
     }
 
@@ -12,6 +12,7 @@ import io.recode.model.impl.GotoImpl;
 import io.recode.model.impl.ReturnImpl;
 import io.recode.util.SingleThreadedStack;
 import io.recode.util.Stack;
+import io.recode.model.impl.BasicModelFactory;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InOrder;
@@ -35,6 +36,7 @@ public class ControlFlowInstructionsTest {
 
     @Before
     public void setup() {
+        when(decompilationContext.getModelFactory()).thenReturn(new BasicModelFactory());
         when(decompilationContext.getStack()).thenReturn(stack);
     }
 
@@ -205,11 +205,13 @@ public class DecompilationContextImplTest {
     }
 
     @Test
+    @SuppressWarnings("deprecation")
     public void getStackedExpressionsShouldReturnEmptyCollectionIfNoExpressionsAreStacked() {
         assertTrue(context.getStackedExpressions().isEmpty());
     }
 
     @Test
+    @SuppressWarnings("deprecation")
     public void getStackedExpressionsShouldReturnExpressionsOnStack() {
         final Expression expression = mock(Expression.class);
 
@@ -230,7 +232,27 @@ public class DecompilationContextImplTest {
         context.push(stackedExpression);
 
         assertEquals(stackedExpression, context.peek());
-        assertArrayEquals(new Object[]{stackedExpression}, context.getStackedExpressions().toArray());
+        assertArrayEquals(new Object[]{stackedExpression}, context.getStack().stream().toArray());
+    }
+
+    @Test
+    public void peekWithDepthShouldFailIfStackIsNotDeepEnough() {
+        context.push(mock(Expression.class));
+
+        assertThrown(() -> context.peek(1), IllegalStateException.class);
+    }
+
+    @Test
+    public void peekWithDepthShouldReturnStackedElementWithoutChangingTheStack() {
+        final Expression expression1 = mock(Expression.class);
+        final Expression expression2 = mock(Expression.class);
+
+        context.push(expression1);
+        context.push(expression2);
+
+        assertEquals(expression2, context.peek(0));
+        assertEquals(expression1, context.peek(1));
+        assertEquals(2, context.getStackSize());
     }
 
     @Test
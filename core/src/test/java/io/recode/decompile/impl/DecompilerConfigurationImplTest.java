@@ -13,6 +13,7 @@ import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static io.recode.model.AST.constant;
 import static io.recode.model.ModelQueries.runtimeType;
@@ -424,11 +425,43 @@ public class DecompilerConfigurationImplTest {
         verifyZeroInteractions(transformation2);
     }
 
+    @Test
+    public void transformationCanBeConfiguredWithDiscriminator() {
+        final ModelTransformation expectedTransformation = mock(ModelTransformation.class);
+
+        final DecompilerConfiguration configuration = DecompilerConfigurationImpl.newBuilder()
+                .map(ElementType.CONSTANT).discriminatedBy(String.class).forQuery(value()).to(expectedTransformation)
+                .build();
+
+        final ModelTransformation<Element, Element>[] it = configuration.getTransformations(ElementType.CONSTANT);
+
+        assertEquals(1, it.length);
+        assertEquals(Optional.of(String.class), ((ModelQueryTransformation) it[0]).getDiscriminator());
+    }
+
+    @Test
+    public void mergeShouldRetainTransformationDiscriminators() {
+        final DecompilerConfiguration configuration1 = DecompilerConfigurationImpl.newBuilder()
+                .map(ElementType.CONSTANT).discriminatedBy(String.class).forQuery(value()).to(mock(ModelTransformation.class))
+                .build();
+
+        final DecompilerConfiguration configuration2 = DecompilerConfigurationImpl.newBuilder()
+                .map(ElementType.CONSTANT).forQuery(value()).to(mock(ModelTransformation.class))
+                .build();
+
+        final ModelTransformation<Element, Element>[] it = configuration1.merge(configuration2).getTransformations(ElementType.CONSTANT);
+
+        assertEquals(2, it.length);
+        assertEquals(Optional.of(String.class), ((ModelQueryTransformation) it[0]).getDiscriminator());
+        assertEquals(Optional.empty(), ((ModelQueryTransformation) it[1]).getDiscriminator());
+    }
+
     @Test
     public void modelQueryConfigurationShouldNotAcceptInvalidArguments() {
         final DecompilerConfigurationBuilder builder = DecompilerConfigurationImpl.newBuilder();
 
         assertThrown(() -> builder.map((ElementType) null), AssertionError.class);
+        assertThrown(() -> builder.map(ElementType.CONSTANT).discriminatedBy(null), AssertionError.class);
         assertThrown(() -> builder.map(ElementType.CONSTANT).forQuery(null), AssertionError.class);
         assertThrown(() -> builder.map(ElementType.CONSTANT).forQuery(mock(ModelQuery.class)).withPriority(null), AssertionError.class);
         assertThrown(() -> builder.map(ElementType.CONSTANT).forQuery(mock(ModelQuery.class)).withPriority(Priority.DEFAULT).to(null), AssertionError.class);
@@ -447,4 +480,28 @@ public class DecompilerConfigurationImplTest {
 
         return Optional.empty();
     }
+
+    @Test
+    public void selectionsShouldBeMemoizedWithinInstructionStepIfSelectorCacheIsProvided() {
+        final AtomicInteger evaluations = new AtomicInteger();
+        final DecompilationStateSelector selector = DecompilationStateSelectors.dependingOn(DecompilationStateSelector.Dependencies.stack(0), (context, byteCode) -> {
+            evaluations.incrementAndGet();
+            return true;
+        });
+
+        final DecompilerConfiguration configuration = builder
+                .before(ByteCode.nop).when(selector).then(enhancement1)
+                .on(ByteCode.nop).when(selector).then(extension1)
+                .build();
+
+        final DecompilationStateSelectorCache selectorCache = new DecompilationStateSelectorCache();
+
+        assertArrayEquals(new Object[]{enhancement1}, Iterators.toList(configuration.getAdvisoryDecompilerEnhancements(decompilationContext, ByteCode.nop, selectorCache)).toArray());
+        assertEquals(extension1, configuration.getDecompilerDelegate(decompilationContext, ByteCode.nop, selectorCache));
+        assertEquals(1, evaluations.get());
+
+        configuration.getDecompilerDelegate(decompilationContext, ByteCode.nop);
+        assertEquals(2, evaluations.get());
+    }
+
 }
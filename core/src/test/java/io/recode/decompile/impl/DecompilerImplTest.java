@@ -2,6 +2,8 @@ package io.recode.decompile.impl;
 
 import io.recode.Caller;
 import io.recode.ClassModelTestUtils;
+import io.recode.SymbolicType;
+import io.recode.SymbolicTypeResolver;
 import io.recode.classfile.*;
 import io.recode.classfile.impl.*;
 import io.recode.decompile.*;
@@ -20,10 +22,14 @@ import org.mockito.stubbing.Answer;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.lang.ref.WeakReference;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import static io.recode.Caller.adjacent;
@@ -62,12 +68,16 @@ public class DecompilerImplTest {
     }
 
     @Test
-    public void elementShouldGetComplementedWithMetaDataWhenPushedToStack() throws IOException {
+    public void expressionCreatedByModelFactoryShouldHaveMetaDataWhenPushedToStack() throws IOException {
         final DecompilerDelegate delegate = mock(DecompilerDelegate.class);
         final Decompiler decompiler = decompilerWithDelegate(ByteCode.nop, delegate);
         final Method method = methodWithLineNumberTable();
 
-        doAnswer(pushExpression(call(String.class, "valueOf", String.class))).when(delegate).apply(any(), any(), eq(ByteCode.nop));
+        doAnswer(a -> {
+            final DecompilationContext context = (DecompilationContext) a.getArguments()[0];
+            context.getStack().push(context.getModelFactory().call(String.class, "valueOf", MethodSignature.parse("()Ljava/lang/String;"), null, new Expression[0], String.class));
+            return null;
+        }).when(delegate).apply(any(), any(), eq(ByteCode.nop));
 
         final Element[] elements = decompiler.parse(method, CodeStreamTestUtils.codeStream(ByteCode.nop));
 
@@ -78,12 +88,16 @@ public class DecompilerImplTest {
     }
 
     @Test
-    public void statementShouldGetComplementedWithMetaDataWhenEnlisted() throws IOException {
+    public void statementCreatedByModelFactoryShouldHaveMetaDataWhenEnlisted() throws IOException {
         final DecompilerDelegate delegate = mock(DecompilerDelegate.class);
         final Decompiler decompiler = decompilerWithDelegate(ByteCode.nop, delegate);
         final Method method = methodWithLineNumberTable();
 
-        doAnswer(enlistStatement(call(String.class, "valueOf", String.class))).when(delegate).apply(any(), any(), eq(ByteCode.nop));
+        doAnswer(a -> {
+            final DecompilationContext context = (DecompilationContext) a.getArguments()[0];
+            context.getStatements().add((Statement) context.getModelFactory().call(String.class, "valueOf", MethodSignature.parse("()Ljava/lang/String;"), null, new Expression[0], String.class));
+            return null;
+        }).when(delegate).apply(any(), any(), eq(ByteCode.nop));
 
         final Element[] elements = decompiler.parse(method, CodeStreamTestUtils.codeStream(ByteCode.nop));
 
@@ -93,6 +107,61 @@ public class DecompilerImplTest {
         assertEquals(10, elements[0].getMetaData().getLineNumber());
     }
 
+    @Test
+    public void consecutiveDecompilationsShouldNotShareState() throws IOException {
+        final DecompilerDelegate delegate = mock(DecompilerDelegate.class);
+        final Decompiler decompiler = decompilerWithDelegate(ByteCode.nop, delegate);
+        final Method method = methodWithLineNumberTable();
+
+        doAnswer(enlistStatement(call(String.class, "valueOf", String.class))).when(delegate).apply(any(), any(), eq(ByteCode.nop));
+
+        assertEquals(1, decompiler.parse(method, CodeStreamTestUtils.codeStream(ByteCode.nop)).length);
+        assertEquals(2, decompiler.parse(method, CodeStreamTestUtils.codeStream(ByteCode.nop, ByteCode.nop)).length);
+        assertEquals(1, decompiler.parse(method, CodeStreamTestUtils.codeStream(ByteCode.nop)).length);
+    }
+
+    @Test
+    public void decompilationShouldNotBeAffectedByFailedDecompilation() throws IOException {
+        final DecompilerDelegate delegate = mock(DecompilerDelegate.class);
+        final Decompiler decompiler = decompilerWithDelegate(ByteCode.nop, delegate);
+        final Method method = methodWithLineNumberTable();
+
+        doAnswer(a -> {
+            ((DecompilationContext) a.getArguments()[0]).push(constant(1));
+            throw new IllegalStateException();
+        }).doAnswer(enlistStatement(call(String.class, "valueOf", String.class))).when(delegate).apply(any(), any(), eq(ByteCode.nop));
+
+        assertThrown(() -> decompiler.parse(method, CodeStreamTestUtils.codeStream(ByteCode.nop)), IllegalStateException.class);
+
+        assertArrayEquals(new Element[]{call(String.class, "valueOf", String.class)}, decompiler.parse(method, CodeStreamTestUtils.codeStream(ByteCode.nop)));
+    }
+
+    @Test
+    public void nestedDecompilationShouldNotAffectEnclosingDecompilation() throws IOException {
+        final DecompilerDelegate delegate = mock(DecompilerDelegate.class);
+        final Decompiler decompiler = decompilerWithDelegate(ByteCode.nop, delegate);
+        final Method method = methodWithLineNumberTable();
+        final Element[][] nestedElements = new Element[1][];
+
+        doAnswer(a -> {
+            final DecompilationContext context = (DecompilationContext) a.getArguments()[0];
+
+            context.getStatements().add(call(String.class, "valueOf", String.class));
+
+            if (nestedElements[0] == null) {
+                nestedElements[0] = new Element[0];
+                nestedElements[0] = context.getDecompiler().parse(method, CodeStreamTestUtils.codeStream(ByteCode.nop, ByteCode.nop));
+            }
+
+            return null;
+        }).when(delegate).apply(any(), any(), eq(ByteCode.nop));
+
+        final Element[] elements = decompiler.parse(method, CodeStreamTestUtils.codeStream(ByteCode.nop));
+
+        assertEquals(1, elements.length);
+        assertEquals(2, nestedElements[0].length);
+    }
+
     private Method methodWithLineNumberTable() {
         final Method method = mock(Method.class);
 
@@ -115,13 +184,6 @@ public class DecompilerImplTest {
         };
     }
 
-    private Answer pushExpression(Expression expression) {
-        return a -> {
-            ((DecompilationContext) a.getArguments()[0]).getStack().push(expression);
-            return null;
-        };
-    }
-
     @Test
     public void constructorShouldNotAcceptNullDecompilerConfiguration() {
         assertThrown(() -> new DecompilerImpl(null), AssertionError.class);
@@ -223,12 +285,12 @@ public class DecompilerImplTest {
         doAnswer(i -> {
             final DecompilationContext context = (DecompilationContext) i.getArguments()[0];
 
-            if (context.getStackedExpressions().isEmpty()) {
+            if (context.getStack().isEmpty()) {
                 context.abort();
             }
 
             return null;
-        }).when(callback).afterInstruction(any(), any());
+        }).when(callback).afterInstruction(any(), anyInt());
 
         decompileCallerWithCallback(caller, new CompositeDecompilationProgressCallback(new DecompilationProgressCallback[]{callback, history}));
 
@@ -238,6 +300,133 @@ public class DecompilerImplTest {
         }, history.getDecompilerStates());
     }
 
+    @Test
+    public void decompilationWithinBudgetShouldNotBeTruncated() throws IOException {
+        final DecompilationResult<Element> result = parseWithBudget("methodWithIntegerReturn", DecompilationBudget.unlimited().withMaxInstructions(100));
+
+        assertFalse(result.isTruncated());
+        assertArrayEquals(new Element[]{$return(constant(1234))}, result.get());
+    }
+
+    @Test
+    public void decompilationShouldBeTruncatedWhenInstructionLimitIsReached() throws IOException {
+        final DecompilationResult<Element> result = parseWithBudget("methodWithIntegerReturn", DecompilationBudget.unlimited().withMaxInstructions(1));
+
+        assertEquals(Optional.of(DecompilationResult.Truncation.INSTRUCTION_LIMIT), result.getTruncation());
+        assertArrayEquals(new Element[]{constant(1234)}, result.get());
+    }
+
+    @Test
+    public void decompilationShouldBeTruncatedWhenElementLimitIsReached() throws IOException {
+        final DecompilationResult<Element> result = parseWithBudget("methodWithIntegerReturn", DecompilationBudget.unlimited().withMaxElements(1));
+
+        assertEquals(Optional.of(DecompilationResult.Truncation.ELEMENT_LIMIT), result.getTruncation());
+        assertArrayEquals(new Element[]{constant(1234)}, result.get());
+    }
+
+    @Test
+    public void decompilationShouldBeTruncatedWhenDeadlineHasPassed() throws IOException {
+        final DecompilationResult<Element> result = parseWithBudget("methodWithIntegerReturn", DecompilationBudget.unlimited().withTimeout(1, TimeUnit.NANOSECONDS));
+
+        assertEquals(Optional.of(DecompilationResult.Truncation.TIMEOUT), result.getTruncation());
+        assertEquals(0, result.get().length);
+    }
+
+    @Test
+    public void sinkShouldReceiveAllStatementsInOrder() throws IOException {
+        final List<Statement> statements = new ArrayList<>();
+        final List<Range> codeRanges = new ArrayList<>();
+
+        parseWithSink("constantsOfAllTypes", (statement, codeRange) -> {
+            statements.add(statement);
+            codeRanges.add(codeRange);
+            return true;
+        });
+
+        assertArrayEquals(parseMethodBody("constantsOfAllTypes"), statements.toArray());
+
+        assertEquals(0, codeRanges.get(0).getFrom());
+
+        for (int i = 1; i < codeRanges.size(); i++) {
+            assertTrue(codeRanges.get(i).getFrom() > codeRanges.get(i - 1).getTo());
+        }
+    }
+
+    @Test
+    public void decompilationShouldStopWhenSinkRejectsFurtherStatements() throws IOException {
+        final List<Statement> statements = new ArrayList<>();
+        final DecompilationProgressCallback callback = mock(DecompilationProgressCallback.class);
+
+        parseWithSink("constantsOfAllTypes", callback, (statement, codeRange) -> {
+            statements.add(statement);
+            return false;
+        });
+
+        assertEquals(Arrays.asList(set(1, "z", boolean.class, constant(true))), statements);
+        verify(callback, atMost(8)).afterInstruction(any(), anyInt());
+    }
+
+    @Test
+    public void sinkShouldNotReceiveStatementsBeforeTheyAreFinal() throws IOException {
+        final List<Statement> statements = new ArrayList<>();
+
+        parseWithSink("methodWithLambdaDeclarationAndInvocation", (statement, codeRange) -> {
+            statements.add(statement);
+            return true;
+        });
+
+        assertArrayEquals(parseMethodBody("methodWithLambdaDeclarationAndInvocation"), statements.toArray());
+    }
+
+    @Test
+    public void sinkShouldReceiveStatementsAfterBooleanExpressionWithManyOperands() throws IOException {
+        final List<Statement> statements = new ArrayList<>();
+
+        parseWithSink("methodWithBooleanChain", (statement, codeRange) -> {
+            statements.add(statement);
+            return true;
+        });
+
+        final Element[] expectedStatements = parseMethodBody("methodWithBooleanChain");
+
+        assertEquals(6, expectedStatements.length);
+        assertArrayEquals(expectedStatements, statements.toArray());
+    }
+
+    @Test
+    public void sinkShouldReceiveStatementsAroundVoidCallInOrder() throws IOException {
+        final List<Statement> statements = new ArrayList<>();
+
+        parseWithSink("methodWithVoidCallBetweenAssignments", (statement, codeRange) -> {
+            statements.add(statement);
+            return true;
+        });
+
+        assertArrayEquals(parseMethodBody("methodWithVoidCallBetweenAssignments"), statements.toArray());
+    }
+
+    @Test
+    public void decompilerShouldNotBeRetainedByThreadAfterParse() throws Exception {
+        final Method method = ClassModelTestUtils.methodWithName(ExampleClass.class, "methodWithBooleanChain");
+
+        DecompilerImpl decompiler = new DecompilerImpl(CoreDecompilerDelegation.configuration());
+
+        try (CodeStream code = new InputStreamCodeStream(method.getCode().getCode())) {
+            decompiler.parse(method, code);
+        }
+
+        final WeakReference<DecompilerImpl> reference = new WeakReference<>(decompiler);
+
+        decompiler = null;
+
+        for (int i = 0; i < 20 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull(reference.get());
+    }
+
     @Test
     public void emptyMethodCanBeParsed() {
         assertArrayEquals(new Element[]{$return()}, parseMethodBody("emptyMethod"));
@@ -646,10 +835,122 @@ public class DecompilerImplTest {
                 2, "s", short.class), ClassModelTestUtils.code(adjacent(-7))[0].getElement());
     }
 
+    @Test
+    public void methodCanBeDecompiledWithSymbolicTypesWithoutLoadingClasses() throws Exception {
+        final Method method = ClassModelTestUtils.methodWithName(ExampleClass.class, "callToSymbolicallyReferencedClass");
+        final Decompiler decompiler = new DecompilerImpl(CoreDecompilerDelegation.configuration(), new SymbolicTypeResolver());
+        final Element[] elements;
+
+        try (CodeStream code = new InputStreamCodeStream(method.getCode().getCode())) {
+            elements = decompiler.parse(method, code);
+        }
+
+        final MethodCall methodCall = (MethodCall) ((ReturnValue) elements[0]).getValue();
+
+        assertEquals(SymbolicType.of(getClass().getName() + "$NeverLoadedClass"), methodCall.getTargetType());
+        assertEquals("value", methodCall.getMethodName());
+        assertFalse(isLoaded(getClass().getName() + "$NeverLoadedClass"));
+    }
+
+    @Test
+    public void instanceMethodReferenceWithSymbolicTypesShouldNotIncludeGetClassCall() throws Exception {
+        final Element[] elements = parseWithSymbolicTypes("methodWithInstanceMethodReference");
+        final Lambda lambda = ((ReturnValue) elements[0]).getValue().as(Lambda.class);
+
+        assertEquals(1, elements.length);
+        assertEquals("length", lambda.getBackingMethodName());
+    }
+
+    @Test
+    public void primitiveArrayWithSymbolicTypesShouldHaveResolvedArrayType() throws Exception {
+        final Element[] elements = parseWithSymbolicTypes("methodWithPrimitiveArray");
+        final NewArray newArray = ((VariableAssignment) elements[0]).getValue().as(NewArray.class);
+        final FieldReference length = ((ReturnValue) elements[1]).getValue().as(FieldReference.class);
+
+        assertEquals(SymbolicType.of("[I"), newArray.getType());
+        assertEquals(int.class, newArray.getComponentType());
+        assertEquals("length", length.getFieldName());
+    }
+
+    @Test
+    public void decompilerWithElementPoolShouldShareEqualOperands() throws Exception {
+        final Method method = ClassModelTestUtils.methodWithName(ExampleClass.class, "methodWithRepeatedOperands");
+        final ElementPool elementPool = new ElementPool();
+        final Decompiler decompiler = new DecompilerImpl(CoreDecompilerDelegation.configuration(), new SymbolicTypeResolver(), elementPool);
+        final Element[] elements;
+
+        try (CodeStream code = new InputStreamCodeStream(method.getCode().getCode())) {
+            elements = decompiler.parse(method, code);
+        }
+
+        final VariableAssignment first = (VariableAssignment) elements[0];
+        final VariableAssignment second = (VariableAssignment) elements[1];
+
+        assertEquals(mul(local("n", int.class, 1), constant(2), int.class), first.getValue());
+        assertSame(first.getValue(), second.getValue());
+        assertTrue(first.getMetaData().hasProgramCounter());
+        assertTrue(first.getMetaData().hasLineNumber());
+        assertTrue(elementPool.size() > 0);
+    }
+
+    @Test
+    public void decompilerWithElementPoolShouldReduceBooleanExpressions() throws Exception {
+        final Method method = ClassModelTestUtils.methodWithName(ExampleClass.class, "methodWithBooleanOperands");
+        final Decompiler decompiler = new DecompilerImpl(CoreDecompilerDelegation.configuration(), new SymbolicTypeResolver(), new ElementPool());
+
+        try (CodeStream code = new InputStreamCodeStream(method.getCode().getCode())) {
+            assertArrayEquals(parseWithSymbolicTypes("methodWithBooleanOperands"), decompiler.parse(method, code));
+        }
+    }
+
+    @Test
+    public void decompilerWithoutElementPoolShouldNotShareOperands() throws Exception {
+        final Element[] elements = parseWithSymbolicTypes("methodWithRepeatedOperands");
+
+        assertNotSame(((VariableAssignment) elements[0]).getValue(), ((VariableAssignment) elements[1]).getValue());
+    }
+
+    private Element[] parseWithSymbolicTypes(String methodName) throws IOException {
+        final Method method = ClassModelTestUtils.methodWithName(ExampleClass.class, methodName);
+        final Decompiler decompiler = new DecompilerImpl(CoreDecompilerDelegation.configuration(), new SymbolicTypeResolver());
+
+        try (CodeStream code = new InputStreamCodeStream(method.getCode().getCode())) {
+            return decompiler.parse(method, code);
+        }
+    }
+
+    private boolean isLoaded(String className) throws Exception {
+        final java.lang.reflect.Method findLoadedClass = ClassLoader.class.getDeclaredMethod("findLoadedClass", String.class);
+
+        findLoadedClass.setAccessible(true);
+
+        return findLoadedClass.invoke(getClass().getClassLoader(), className) != null;
+    }
+
     private Element[] parseMethodBody(String methodName) {
         return ClassModelTestUtils.methodBodyOf(ExampleClass.class, methodName);
     }
 
+    private DecompilationResult<Element> parseWithBudget(String methodName, DecompilationBudget budget) throws IOException {
+        final Method method = ClassModelTestUtils.methodWithName(ExampleClass.class, methodName);
+
+        try (CodeStream code = new InputStreamCodeStream(method.getCode().getCode())) {
+            return new DecompilerImpl().parse(method, code, DecompilationProgressCallback.NULL, budget);
+        }
+    }
+
+    private void parseWithSink(String methodName, StatementSink sink) throws IOException {
+        parseWithSink(methodName, DecompilationProgressCallback.NULL, sink);
+    }
+
+    private void parseWithSink(String methodName, DecompilationProgressCallback callback, StatementSink sink) throws IOException {
+        final Method method = ClassModelTestUtils.methodWithName(ExampleClass.class, methodName);
+
+        try (CodeStream code = new InputStreamCodeStream(method.getCode().getCode())) {
+            new DecompilerImpl().parse(method, code, callback, sink);
+        }
+    }
+
     private void decompileCallerWithCallback(Caller caller, DecompilationProgressCallback callback) throws IOException {
         final Decompiler decompiler = new DecompilerImpl();
         final Method method = ClassModelTestUtils.methodWithName(getClass(), caller.getMethodName());
@@ -664,6 +965,30 @@ public class DecompilerImplTest {
 
     private static class ExampleClass {
 
+        private int callToSymbolicallyReferencedClass() {
+            return NeverLoadedClass.value();
+        }
+
+        private Supplier<Integer> methodWithInstanceMethodReference(String str) {
+            return str::length;
+        }
+
+        private boolean methodWithBooleanOperands(int a, int b) {
+            final boolean x = a == 1 || b == 2 && a != b;
+            return x && (a > b || b > 3);
+        }
+
+        private int methodWithRepeatedOperands(int n) {
+            final int a = n * 2;
+            final int b = n * 2;
+            return a + b;
+        }
+
+        private int methodWithPrimitiveArray() {
+            final int[] array = new int[2];
+            return array.length;
+        }
+
         public static String STATIC_STRING = "foo";
 
         private String string = new String("Hello World!");
@@ -706,6 +1031,45 @@ public class DecompilerImplTest {
         private void emptyMethod() {
         }
 
+        private int methodWithBooleanChain() {
+            int x = 1;
+            boolean r = a() && b() && c() && d();
+            int y = 2;
+            int z = 3;
+            p(r);
+            return x + y + z;
+        }
+
+        private void methodWithVoidCallBetweenAssignments() {
+            int v = 0;
+            int u = 1;
+            int t = 2;
+            p(true);
+            int x = 1;
+            int y = 2;
+            int z = 3;
+            int w = 4;
+        }
+
+        private boolean a() {
+            return true;
+        }
+
+        private boolean b() {
+            return true;
+        }
+
+        private boolean c() {
+            return true;
+        }
+
+        private boolean d() {
+            return true;
+        }
+
+        private void p(boolean value) {
+        }
+
         private int methodWithIntegerReturn() {
             return 1234;
         }
@@ -739,4 +1103,11 @@ public class DecompilerImplTest {
         }
 
     }
+
+    private static class NeverLoadedClass {
+
+        static int value() {
+            return 1;
+        }
+    }
 }
@@ -19,6 +19,7 @@ import io.recode.model.impl.FieldReferenceImpl;
 import io.recode.util.Iterators;
 import io.recode.util.SingleThreadedStack;
 import io.recode.util.Stack;
+import io.recode.model.impl.BasicModelFactory;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -44,6 +45,7 @@ public class FieldInstructionsTest {
 
     @Before
     public void setup() {
+        when(context.getModelFactory()).thenReturn(new BasicModelFactory());
         when(context.getMethod()).thenReturn(exampleMethod);
         when(exampleMethod.getClassFile()).thenReturn(exampleClassFile);
         when(exampleClassFile.getConstantPool()).thenReturn(constantPool);
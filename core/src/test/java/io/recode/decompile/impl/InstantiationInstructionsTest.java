@@ -14,6 +14,7 @@ import io.recode.model.NewInstance;
 import io.recode.model.VariableAssignment;
 import io.recode.model.impl.ConstantImpl;
 import io.recode.model.impl.InstanceAllocationImpl;
+import io.recode.model.impl.BasicModelFactory;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
@@ -52,6 +53,7 @@ public class InstantiationInstructionsTest {
 
         when(method.getClassFile()).thenReturn(classFile);
         when(context.getMethod()).thenReturn(method);
+        when(context.getModelFactory()).thenReturn(new BasicModelFactory());
         when(context.resolveType(eq("java/lang/String"))).thenReturn(String.class);
 
         InstantiationInstructions.newInstance().apply(context, codeStream, ByteCode.new_);
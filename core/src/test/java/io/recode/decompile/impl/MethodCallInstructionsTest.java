@@ -70,7 +70,7 @@ public class MethodCallInstructionsTest {
                         MethodSignature.parse("()V"),
                         instance,
                         new Expression[0])
-        }, context.getStackedExpressions().toArray());
+        }, context.getStack().tail(0).toArray());
     }
 
     @Test
@@ -103,7 +103,7 @@ public class MethodCallInstructionsTest {
                         MethodSignature.parse("(Ljava/lang/String;)V"),
                         instance,
                         new Expression[]{arg1})
-        }, context.getStackedExpressions().toArray());
+        }, context.getStack().tail(0).toArray());
     }
 
     @Test
@@ -0,0 +1,175 @@
+package io.recode.decompile.impl;
+
+import io.recode.decompile.DecompilerConfiguration;
+import io.recode.model.*;
+import io.recode.model.impl.ConstantImpl;
+import io.recode.util.Priority;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+import static io.recode.model.AST.*;
+import static io.recode.model.ModelQueries.equalTo;
+import static io.recode.model.ModelQueries.operatorType;
+import static io.recode.model.ModelQueries.value;
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+@SuppressWarnings("unchecked")
+public class ModelTransformationEngineTest {
+
+    private final ModelTransformation transformation = mock(ModelTransformation.class);
+
+    @Test
+    public void constructorShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> new ModelTransformationEngine(null), AssertionError.class);
+        assertThrown(() -> new ModelTransformationEngine(mock(DecompilerConfiguration.class), 0), AssertionError.class);
+    }
+
+    @Test
+    public void transformShouldNotAcceptInvalidArguments() {
+        final ModelTransformationEngine engine = new ModelTransformationEngine(DecompilerConfigurationImpl.newBuilder().build());
+
+        assertThrown(() -> engine.transform(null), AssertionError.class);
+        assertThrown(() -> engine.transform(constant(1), null), AssertionError.class);
+    }
+
+    @Test
+    public void elementWithoutCandidateTransformationsShouldBeReturnedAsUnmatched() {
+        final ModelTransformationEngine engine = new ModelTransformationEngine(DecompilerConfigurationImpl.newBuilder()
+                .map(ElementType.METHOD_CALL).forQuery(value()).to(transformation)
+                .build());
+
+        final Constant element = constant(1);
+
+        assertSame(element, engine.transform(element));
+        assertEquals(1, engine.getUnmatchedElementCount());
+
+        verifyZeroInteractions(transformation);
+    }
+
+    @Test
+    public void transformationsShouldBeAppliedUntilNoneApplies() {
+        final ModelTransformationEngine engine = new ModelTransformationEngine(DecompilerConfigurationImpl.newBuilder()
+                .map(ElementType.CONSTANT).forQuery(value()).to(increment())
+                .build());
+
+        assertEquals(constant(10), engine.transform(constant(1)));
+    }
+
+    @Test
+    public void transformationReturningSameElementShouldNotBeConsideredApplied() {
+        final ModelTransformation next = mock(ModelTransformation.class);
+        final Constant element = constant(1);
+
+        when(transformation.apply(any())).thenAnswer(i -> Optional.of(i.getArguments()[0]));
+        when(next.apply(any())).thenReturn(Optional.empty());
+
+        final ModelTransformationEngine engine = new ModelTransformationEngine(DecompilerConfigurationImpl.newBuilder()
+                .map(ElementType.CONSTANT).forQuery(value()).to(transformation)
+                .map(ElementType.CONSTANT).forQuery(value()).to(next)
+                .build());
+
+        assertSame(element, engine.transform(element));
+
+        verify(transformation, times(1)).apply(element);
+        verify(next, times(1)).apply(element);
+    }
+
+    @Test
+    public void numberOfIterationsShouldBeBounded() {
+        when(transformation.apply(any())).thenAnswer(i -> Optional.of(constant(((Constant) i.getArguments()[0]).getConstant() + "x")));
+
+        final ModelTransformationEngine engine = new ModelTransformationEngine(DecompilerConfigurationImpl.newBuilder()
+                .map(ElementType.CONSTANT).forQuery(value()).to(transformation)
+                .build(), 3);
+
+        assertThrown(() -> engine.transform(constant("")), AssertionError.class);
+        assertEquals(1, engine.getIterationLimitExceededCount());
+        verify(transformation, times(3)).apply(any());
+    }
+
+    @Test
+    public void discriminatedTransformationShouldOnlyBeEvaluatedForMatchingElements() {
+        when(transformation.apply(any())).thenReturn(Optional.of(constant(true)));
+
+        final ModelTransformationEngine engine = new ModelTransformationEngine(DecompilerConfigurationImpl.newBuilder()
+                .map(ElementType.BINARY_OPERATOR).discriminatedBy(OperatorType.NE).forQuery(value().where(operatorType().is(equalTo(OperatorType.NE)))).to(transformation)
+                .build());
+
+        final BinaryOperator eq = AST.eq(constant(1), constant(2));
+
+        assertSame(eq, engine.transform(eq));
+        assertEquals(constant(true), engine.transform(ne(constant(1), constant(2))));
+
+        verify(transformation, times(1)).apply(any());
+        assertEquals(1, engine.getUnmatchedElementCount());
+    }
+
+    @Test
+    public void undiscriminatedTransformationsShouldApplyToDiscriminatedElementsInPriorityOrder() {
+        final ModelTransformation generic = mock(ModelTransformation.class);
+
+        when(generic.apply(any())).thenReturn(Optional.of(constant("generic")));
+        when(transformation.apply(any())).thenReturn(Optional.of(constant("specific")));
+
+        final ModelTransformationEngine engine = new ModelTransformationEngine(DecompilerConfigurationImpl.newBuilder()
+                .map(ElementType.METHOD_CALL).forQuery(value()).to(generic)
+                .map(ElementType.METHOD_CALL).discriminatedBy("foo").forQuery(value()).withPriority(Priority.HIGH).to(transformation)
+                .build());
+
+        assertEquals(constant("specific"), engine.transform(call(String.class, "foo", void.class)));
+        assertEquals(constant("generic"), engine.transform(call(String.class, "bar", void.class)));
+    }
+
+    @Test
+    public void normalizerShouldBeAppliedToInputAndTransformationResults() {
+        final ModelTransformationEngine engine = new ModelTransformationEngine(DecompilerConfigurationImpl.newBuilder()
+                .map(ElementType.CONSTANT).forQuery(value()).to(increment())
+                .build());
+
+        final Function<Element, Element> normalizer = mock(Function.class);
+
+        when(normalizer.apply(any())).thenAnswer(i -> i.getArguments()[0]);
+
+        engine.transform(constant(8), normalizer);
+
+        verify(normalizer).apply(constant(8));
+        verify(normalizer).apply(constant(9));
+        verify(normalizer).apply(constant(10));
+    }
+
+    @Test
+    public void applicationsAndEvaluationsShouldBeCountedPerTransformation() {
+        final ModelTransformation increment = increment();
+        final ModelTransformationEngine engine = new ModelTransformationEngine(DecompilerConfigurationImpl.newBuilder()
+                .map(ElementType.CONSTANT).forQuery(value()).to(increment)
+                .build());
+
+        engine.transform(constant(8));
+
+        assertEquals(Long.valueOf(2), engine.getApplicationCounts().values().iterator().next());
+        assertEquals(Long.valueOf(3), engine.getEvaluationCounts().values().iterator().next());
+    }
+
+    @Test
+    public void discriminatorOfElementShouldBeDerivedFromElementType() {
+        assertEquals("foo", ModelTransformationEngine.discriminatorOf(call(String.class, "foo", void.class)));
+        assertEquals("bar", ModelTransformationEngine.discriminatorOf(field(String.class, int.class, "bar")));
+        assertEquals(OperatorType.NE, ModelTransformationEngine.discriminatorOf(ne(constant(1), constant(2))));
+        assertEquals("x", ModelTransformationEngine.discriminatorOf(local("x", int.class, 1)));
+        assertEquals(int.class, ModelTransformationEngine.discriminatorOf(new ConstantImpl(1, int.class)));
+        assertNull(ModelTransformationEngine.discriminatorOf($return()));
+    }
+
+    private static ModelTransformation increment() {
+        return element -> {
+            final int value = (Integer) ((Constant) element).getConstant();
+
+            return value < 10 ? Optional.of(constant(value + 1)) : Optional.empty();
+        };
+    }
+}
@@ -60,7 +60,7 @@ public class StackInstructionsTest {
 
         execute(ByteCode.pop);
 
-        assertTrue(decompilationContext.getStackedExpressions().isEmpty());
+        assertTrue(decompilationContext.getStack().isEmpty());
         assertEquals(Arrays.asList(element1), decompilationContext.getStatements().all().get());
     }
 
@@ -84,7 +84,7 @@ public class StackInstructionsTest {
 
         execute(ByteCode.pop2);
 
-        assertTrue(decompilationContext.getStackedExpressions().isEmpty());
+        assertTrue(decompilationContext.getStack().isEmpty());
         assertEquals(Arrays.asList(element1, element2), decompilationContext.getStatements().all().get());
     }
 
@@ -112,7 +112,7 @@ public class StackInstructionsTest {
 
         execute(ByteCode.pop2);
 
-        assertTrue(decompilationContext.getStackedExpressions().isEmpty());
+        assertTrue(decompilationContext.getStack().isEmpty());
         assertEquals(Arrays.asList(element1), decompilationContext.getStatements().all().get());
     }
 
@@ -124,7 +124,7 @@ public class StackInstructionsTest {
 
         execute(ByteCode.dup);
 
-        assertEquals(Arrays.asList(element1, element1), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(element1, element1), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -149,7 +149,7 @@ public class StackInstructionsTest {
 
         execute(ByteCode.dup_x1);
 
-        assertEquals(Arrays.asList(element1, element2, element1), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(element1, element2, element1), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -177,7 +177,7 @@ public class StackInstructionsTest {
 
         execute(ByteCode.dup_x2);
 
-        assertEquals(Arrays.asList(element1, element3, element2, element1), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(element1, element3, element2, element1), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -203,7 +203,7 @@ public class StackInstructionsTest {
 
         execute(ByteCode.dup_x2);
 
-        assertEquals(Arrays.asList(element1, element2, element1), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(element1, element2, element1), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -227,7 +227,7 @@ public class StackInstructionsTest {
 
         execute(ByteCode.dup2);
 
-        assertEquals(Arrays.asList(element2, element1, element2, element1), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(element2, element1, element2, element1), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -247,7 +247,7 @@ public class StackInstructionsTest {
 
         execute(ByteCode.dup2);
 
-        assertEquals(Arrays.asList(element1, element1), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(element1, element1), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -262,7 +262,7 @@ public class StackInstructionsTest {
 
         execute(ByteCode.dup2_x1);
 
-        assertEquals(Arrays.asList(element2, element1, element3, element2, element1), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(element2, element1, element3, element2, element1), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -288,7 +288,7 @@ public class StackInstructionsTest {
 
         execute(ByteCode.dup2_x1);
 
-        assertEquals(Arrays.asList(element1, element2, element1), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(element1, element2, element1), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -316,7 +316,7 @@ public class StackInstructionsTest {
 
         execute(ByteCode.dup2_x2);
 
-        assertEquals(Arrays.asList(element2, element1, element4, element3, element2, element1), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(element2, element1, element4, element3, element2, element1), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -346,7 +346,7 @@ public class StackInstructionsTest {
 
         execute(ByteCode.dup2_x2);
 
-        assertEquals(Arrays.asList(element1, element3, element2, element1), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(element1, element3, element2, element1), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -361,7 +361,7 @@ public class StackInstructionsTest {
 
         execute(ByteCode.dup2_x2);
 
-        assertEquals(Arrays.asList(element2, element1, element3, element2, element1), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(element2, element1, element3, element2, element1), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -374,7 +374,7 @@ public class StackInstructionsTest {
 
         execute(ByteCode.dup2_x2);
 
-        assertEquals(Arrays.asList(element1, element2, element1), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(element1, element2, element1), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -433,7 +433,7 @@ public class StackInstructionsTest {
 
         execute(ByteCode.swap);
 
-        assertEquals(Arrays.asList(element1, element2), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(element1, element2), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -7,6 +7,7 @@ import io.recode.classfile.Method;
 import io.recode.decompile.*;
 import io.recode.model.AST;
 import io.recode.model.TypeCast;
+import io.recode.model.impl.BasicModelFactory;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -30,6 +31,7 @@ public class TypeCastInstructionsTest {
 
     @Before
     public void setup() {
+        when(exampleContext.getModelFactory()).thenReturn(new BasicModelFactory());
         when(exampleContext.getMethod()).thenReturn(exampleMethod);
         when(exampleMethod.getClassFile()).thenReturn(exampleClassFile);
         when(exampleClassFile.getConstantPool()).thenReturn(constantPool);
@@ -54,7 +54,7 @@ public class UnaryOperationsTest {
         execute(ByteCode.iinc, 1, 2);
 
         assertEquals(Arrays.asList(new IncrementImpl(new LocalVariableReferenceImpl("foo", int.class, 1), AST.constant(2), int.class, Affix.UNDEFINED)),
-                decompilationContext.getStackedExpressions());
+                decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -69,7 +69,7 @@ public class UnaryOperationsTest {
                 .next()
                 .apply(decompilationContext, codeStream, ByteCode.iinc);
 
-        assertEquals(Arrays.asList(new IncrementImpl(local, AST.constant(1), int.class, Affix.POSTFIX)), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(new IncrementImpl(local, AST.constant(1), int.class, Affix.POSTFIX)), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -84,7 +84,7 @@ public class UnaryOperationsTest {
                 .next()
                 .apply(decompilationContext, codeStream, ByteCode.iinc);
 
-        assertEquals(Arrays.asList(new IncrementImpl(local, AST.constant(1), int.class,  Affix.PREFIX)), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(new IncrementImpl(local, AST.constant(1), int.class,  Affix.PREFIX)), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -96,7 +96,7 @@ public class UnaryOperationsTest {
         decompilationContext.push(local);
 
         assertFalse(configuration().getCorrectionalDecompilerEnhancements(decompilationContext, ByteCode.iload).hasNext());
-        assertEquals(Arrays.asList(originalIncrement, local), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(originalIncrement, local), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -108,7 +108,7 @@ public class UnaryOperationsTest {
         decompilationContext.push(local);
 
         assertFalse(configuration().getCorrectionalDecompilerEnhancements(decompilationContext, ByteCode.iload).hasNext());
-        assertEquals(Arrays.asList(originalIncrement, local), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(originalIncrement, local), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -120,7 +120,7 @@ public class UnaryOperationsTest {
 
         after(ByteCode.iload_1);
 
-        assertEquals(Arrays.asList(new IncrementImpl(local, constant(-1), byte.class, Affix.PREFIX)), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(new IncrementImpl(local, constant(-1), byte.class, Affix.PREFIX)), decompilationContext.getStack().tail(0));
     }
 
     @Test
@@ -132,7 +132,7 @@ public class UnaryOperationsTest {
 
         after(ByteCode.istore_1);
 
-        assertEquals(Arrays.asList(new IncrementImpl(local, constant(1), byte.class, Affix.POSTFIX)), decompilationContext.getStackedExpressions());
+        assertEquals(Arrays.asList(new IncrementImpl(local, constant(1), byte.class, Affix.POSTFIX)), decompilationContext.getStack().tail(0));
     }
 
     @Test
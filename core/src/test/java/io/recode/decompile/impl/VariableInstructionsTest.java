@@ -17,6 +17,7 @@ import io.recode.decompile.DecompilerConfiguration;
 import io.recode.decompile.DecompilerConfigurationBuilder;
 import io.recode.decompile.DecompilerDelegate;
 import io.recode.model.AST;
+import io.recode.model.impl.BasicModelFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -40,6 +41,7 @@ public class VariableInstructionsTest {
 
     @Before
     public void setup() {
+        when(context.getModelFactory()).thenReturn(new BasicModelFactory());
         final DecompilerConfigurationBuilder configurationBuilder = DecompilerConfigurationImpl.newBuilder();
 
         new VariableInstructions().configure(configurationBuilder);
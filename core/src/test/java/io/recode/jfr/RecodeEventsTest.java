@@ -0,0 +1,135 @@
+package io.recode.jfr;
+
+import io.recode.ClassModelTestUtils;
+import io.recode.classfile.ClassFile;
+import io.recode.classfile.Method;
+import io.recode.decompile.Lambdas;
+import io.recode.decompile.impl.DecompilerImpl;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+public class RecodeEventsTest {
+
+    @Before
+    public void setup() {
+        assumeTrue("Flight recorder is not available", RecodeEvents.isAvailable());
+    }
+
+    @Test
+    public void eventsShouldBeNoopIfNotRecorded() {
+        assertFalse(RecodeEvents.beginClassFileRead().isEnabled());
+        assertFalse(RecodeEvents.beginMethodDecompilation().isEnabled());
+        assertFalse(RecodeEvents.beginLambdaResolution().isEnabled());
+        assertFalse(RecodeEvents.beginCodeGeneration().isEnabled());
+        assertSame(RecodeEvents.beginClassFileRead(), RecodeEvents.beginMethodDecompilation());
+    }
+
+    @Test
+    public void eventShouldBeNoopIfDisabledInRecording() {
+        try (Recording recording = new Recording()) {
+            recording.enable("io.recode.ClassFileRead");
+            recording.disable("io.recode.MethodDecompilation");
+            recording.start();
+
+            assertTrue(RecodeEvents.beginClassFileRead().isEnabled());
+            assertFalse(RecodeEvents.beginMethodDecompilation().isEnabled());
+        }
+    }
+
+    @Test
+    public void classFileReadAndMethodDecompilationShouldBeRecorded() throws Exception {
+        final List<RecordedEvent> events = record(() -> ClassModelTestUtils.methodBodyOf(getClass(), "example"));
+
+        final RecordedEvent classFileRead = eventWithName(events, "io.recode.ClassFileRead");
+
+        assertEquals(getClass().getName(), classFileRead.getString("className"));
+        assertTrue(classFileRead.getLong("bytes") > 0);
+
+        final RecordedEvent methodDecompilation = eventWithName(events, "io.recode.MethodDecompilation");
+
+        assertEquals(getClass().getName(), methodDecompilation.getString("className"));
+        assertEquals("example", methodDecompilation.getString("methodName"));
+        assertTrue(methodDecompilation.getInt("lineNumber") > 0);
+        assertTrue(methodDecompilation.getInt("instructionCount") > 0);
+    }
+
+    @Test
+    public void lambdaResolutionShouldBeRecorded() throws Exception {
+        final ClassFile classFile = ClassModelTestUtils.classFileOf(getClass());
+        final Method backingMethod = classFile.getMethods().stream()
+                .filter(m -> m.getName().startsWith("lambda$exampleWithLambda$"))
+                .findFirst()
+                .get();
+
+        final List<RecordedEvent> events = record(() -> {
+            try {
+                return Lambdas.getLambdaDeclarationForMethod(new DecompilerImpl(), backingMethod);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        final RecordedEvent lambdaResolution = eventWithName(events, "io.recode.LambdaResolution");
+
+        assertEquals(getClass().getName(), lambdaResolution.getString("className"));
+        assertEquals(backingMethod.getName(), lambdaResolution.getString("methodName"));
+        assertTrue(lambdaResolution.getBoolean("resolved"));
+    }
+
+    private List<RecordedEvent> record(Supplier<?> action) throws Exception {
+        final Path file = Files.createTempFile("recode", ".jfr");
+
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable("io.recode.ClassFileRead");
+                recording.enable("io.recode.MethodDecompilation");
+                recording.enable("io.recode.LambdaResolution");
+                recording.enable("io.recode.CodeGeneration");
+                recording.start();
+
+                assertNotNull(action.get());
+
+                recording.stop();
+                recording.dump(file);
+            }
+
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            new File(file.toString()).delete();
+        }
+    }
+
+    private static RecordedEvent eventWithName(List<RecordedEvent> events, String name) {
+        final List<RecordedEvent> matchingEvents = events.stream()
+                .filter(e -> e.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+
+        assertFalse("No " + name + " event recorded", matchingEvents.isEmpty());
+
+        return matchingEvents.get(0);
+    }
+
+    private static int example(int n) {
+        final int doubled = n * 2;
+
+        return doubled + 1;
+    }
+
+    private static Supplier<String> exampleWithLambda() {
+        return () -> "foo";
+    }
+}
@@ -0,0 +1,27 @@
+package io.recode.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class CounterTest {
+
+    private final Counter counter = new Counter();
+
+    @Test
+    public void counterShouldInitiallyBeZero() {
+        assertEquals(0, counter.get());
+    }
+
+    @Test
+    public void counterCanBeIncrementedAndReset() {
+        counter.increment();
+        counter.add(10);
+
+        assertEquals(11, counter.get());
+
+        counter.reset();
+
+        assertEquals(0, counter.get());
+    }
+}
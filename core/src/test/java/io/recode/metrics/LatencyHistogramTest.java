@@ -0,0 +1,68 @@
+package io.recode.metrics;
+
+import org.junit.Test;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void emptyHistogramShouldReportZero() {
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMeanNanos());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0, histogram.getPercentileNanos(99));
+    }
+
+    @Test
+    public void percentileMustBeInRange() {
+        assertThrown(() -> histogram.getPercentileNanos(-1), AssertionError.class);
+        assertThrown(() -> histogram.getPercentileNanos(101), AssertionError.class);
+    }
+
+    @Test
+    public void countMeanAndMaxShouldBeExact() {
+        histogram.record(100);
+        histogram.record(300);
+
+        assertEquals(2, histogram.getCount());
+        assertEquals(400, histogram.getTotalNanos());
+        assertEquals(200, histogram.getMeanNanos());
+        assertEquals(300, histogram.getMaxNanos());
+    }
+
+    @Test
+    public void percentileShouldBeWithinFactorOfTwo() {
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        final long median = histogram.getPercentileNanos(50);
+
+        assertTrue(median >= 50_000 && median < 100_000);
+        assertEquals(100_000, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void negativeAndZeroLatenciesShouldBeRecordedAsZero() {
+        histogram.record(-5);
+        histogram.record(0);
+
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void resetShouldClearHistogram() {
+        histogram.record(100);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0, histogram.getPercentileNanos(50));
+    }
+}
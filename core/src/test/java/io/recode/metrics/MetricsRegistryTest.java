@@ -0,0 +1,68 @@
+package io.recode.metrics;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    public void classFileReadsShouldBeRecorded() {
+        registry.recordClassFileRead(1000, 2000_000);
+        registry.recordClassFileRead(500, 4000_000);
+
+        assertEquals(2, registry.getClassFileReadCount());
+        assertEquals(1500, registry.getClassFileReadBytes());
+        assertEquals(3000, registry.getClassFileReadLatency().getMeanMicros());
+        assertEquals(4000, registry.getClassFileReadLatency().getMaxMicros());
+    }
+
+    @Test
+    public void decompilationsShouldBeRecorded() {
+        registry.recordDecompilation(10, 3, 1000);
+        registry.recordDecompilation(20, 4, 1000);
+
+        assertEquals(2, registry.getDecompilationCount());
+        assertEquals(30, registry.getDecompiledInstructionCount());
+        assertEquals(7, registry.getDecompiledElementCount());
+        assertEquals(2, registry.getDecompilationLatency().getCount());
+    }
+
+    @Test
+    public void codeLocationDecompilationsAndCodeGenerationsShouldBeRecorded() {
+        registry.recordCodeLocationDecompilation(1000);
+        registry.recordCodeGeneration(1000);
+        registry.recordCodeGeneration(1000);
+
+        assertEquals(1, registry.getCodeLocationDecompilationLatency().getCount());
+        assertEquals(2, registry.getCodeGenerationLatency().getCount());
+    }
+
+    @Test
+    public void cacheHitRatiosShouldBeRecordedPerCache() {
+        registry.recordCacheHit(MetricsRegistry.Cache.DECOMPILED_METHOD);
+        registry.recordCacheHit(MetricsRegistry.Cache.DECOMPILED_METHOD);
+        registry.recordCacheHit(MetricsRegistry.Cache.DECOMPILED_METHOD);
+        registry.recordCacheMiss(MetricsRegistry.Cache.DECOMPILED_METHOD);
+        registry.recordCacheMiss(MetricsRegistry.Cache.CLASS_FILE);
+
+        assertEquals(0.75d, registry.getDecompiledMethodCacheHitRatio(), 0.0001d);
+        assertEquals(0d, registry.getClassFileCacheHitRatio(), 0.0001d);
+        assertEquals(0d, registry.getMemberIndexCacheHitRatio(), 0.0001d);
+    }
+
+    @Test
+    public void resetShouldClearAllMetrics() {
+        registry.recordClassFileRead(1000, 1000);
+        registry.recordDecompilation(10, 3, 1000);
+        registry.recordCacheHit(MetricsRegistry.Cache.MEMBER_INDEX);
+        registry.reset();
+
+        assertEquals(0, registry.getClassFileReadCount());
+        assertEquals(0, registry.getClassFileReadBytes());
+        assertEquals(0, registry.getDecompiledInstructionCount());
+        assertEquals(0d, registry.getMemberIndexCacheHitRatio(), 0.0001d);
+    }
+}
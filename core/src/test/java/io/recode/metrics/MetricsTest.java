@@ -0,0 +1,80 @@
+package io.recode.metrics;
+
+import io.recode.ClassModelTestUtils;
+import io.recode.classfile.Method;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+public class MetricsTest {
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    @After
+    public void tearDown() {
+        Metrics.disable();
+    }
+
+    @Test
+    public void metricsShouldBeDisabledByDefault() {
+        assertFalse(Metrics.isEnabled());
+        assertNull(Metrics.registry());
+    }
+
+    @Test
+    public void enableShouldInstallRegistryAndRegisterMBean() throws Exception {
+        final MetricsRegistry registry = Metrics.enable();
+
+        assertSame(registry, Metrics.registry());
+        assertSame(registry, Metrics.enable());
+        assertTrue(mBeanServer.isRegistered(new ObjectName(Metrics.OBJECT_NAME)));
+    }
+
+    @Test
+    public void disableShouldUninstallRegistryAndUnregisterMBean() throws Exception {
+        Metrics.enable();
+        Metrics.disable();
+
+        assertNull(Metrics.registry());
+        assertFalse(mBeanServer.isRegistered(new ObjectName(Metrics.OBJECT_NAME)));
+    }
+
+    @Test
+    public void recordCacheAccessShouldBeIgnoredIfMetricsAreDisabled() {
+        Metrics.recordCacheAccess(MetricsRegistry.Cache.CLASS_FILE, true);
+
+        assertEquals(0d, Metrics.enable().getClassFileCacheHitRatio(), 0.0001d);
+    }
+
+    @Test
+    public void decompilationShouldBeVisibleThroughMBean() throws Exception {
+        final MetricsRegistry registry = Metrics.enable();
+        final Method method = ClassModelTestUtils.methodWithName(getClass(), "example");
+
+        ClassModelTestUtils.methodBodyOf(method);
+
+        final ObjectName objectName = new ObjectName(Metrics.OBJECT_NAME);
+
+        assertTrue((Long) mBeanServer.getAttribute(objectName, "ClassFileReadCount") >= 1);
+        assertTrue((Long) mBeanServer.getAttribute(objectName, "ClassFileReadBytes") > 0);
+        assertTrue((Long) mBeanServer.getAttribute(objectName, "DecompilationCount") >= 1);
+        assertTrue(registry.getDecompiledInstructionCount() > 0);
+        assertTrue(registry.getDecompiledElementCount() > 0);
+
+        final CompositeData latency = (CompositeData) mBeanServer.getAttribute(objectName, "DecompilationLatency");
+
+        assertEquals(registry.getDecompilationCount(), latency.get("count"));
+    }
+
+    private static int example(int n) {
+        final int doubled = n * 2;
+
+        return doubled + 1;
+    }
+}
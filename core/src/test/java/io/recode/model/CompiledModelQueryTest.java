@@ -0,0 +1,110 @@
+package io.recode.model;
+
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.function.Predicate;
+
+import static io.recode.model.AST.constant;
+import static io.recode.model.ModelQueries.equalTo;
+import static io.recode.model.ModelQueries.leftOperand;
+import static io.recode.model.ModelQueries.operatorType;
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class CompiledModelQueryTest {
+
+    private final BinaryOperator binaryOperator = mock(BinaryOperator.class);
+
+    @Test
+    public void compileShouldNotAcceptNullQuery() {
+        assertThrown(() -> CompiledModelQuery.compile(null), AssertionError.class);
+    }
+
+    @Test
+    public void ofShouldNotAcceptNullFunction() {
+        assertThrown(() -> CompiledModelQuery.of(null), AssertionError.class);
+    }
+
+    @Test
+    public void compileShouldReturnCompiledQuery() {
+        final CompiledModelQuery<String, String> query = CompiledModelQuery.of(s -> s);
+
+        assertSame(query, CompiledModelQuery.compile(query));
+    }
+
+    @Test
+    public void compileShouldAdaptUncompiledQuery() {
+        final ModelQuery<String, Integer> query = s -> s.isEmpty() ? Optional.empty() : Optional.of(s.length());
+        final CompiledModelQuery<String, Integer> compiledQuery = CompiledModelQuery.compile(query);
+
+        assertEquals(Integer.valueOf(3), compiledQuery.evaluate("foo"));
+        assertNull(compiledQuery.evaluate(""));
+        assertEquals(Optional.of(3), compiledQuery.from("foo"));
+    }
+
+    @Test
+    public void queryCreatedFromFunctionShouldHaveNoResultForNullSource() {
+        final CompiledModelQuery<String, Integer> query = CompiledModelQuery.of(String::length);
+
+        assertNull(query.evaluate(null));
+        assertFalse(query.from(null).isPresent());
+    }
+
+    @Test
+    public void chainedQueriesShouldBeCompiled() {
+        final ModelQuery<BinaryOperator, Expression> query = leftOperand().as(Expression.class).where(e -> true).join(ModelQueries.runtimeType());
+
+        assertTrue(query instanceof CompiledModelQuery);
+    }
+
+    @Test
+    public void getShouldEvaluateChainedQuery() {
+        final Expression operand = constant(1);
+
+        when(binaryOperator.getLeftOperand()).thenReturn(operand);
+
+        final CompiledModelQuery<BinaryOperator, BinaryOperator> self = CompiledModelQuery.of(o -> o);
+
+        assertEquals(operand, self.get(leftOperand()).evaluate(binaryOperator));
+        assertNull(self.get(leftOperand()).evaluate(null));
+    }
+
+    @Test
+    public void whereShouldFilterResult() {
+        when(binaryOperator.getOperatorType()).thenReturn(OperatorType.AND);
+
+        assertEquals(OperatorType.AND, operatorType().where(equalTo(OperatorType.AND)).from(binaryOperator).get());
+        assertFalse(operatorType().where(equalTo(OperatorType.AND)).and(equalTo(OperatorType.OR)).from(binaryOperator).isPresent());
+    }
+
+    @Test
+    public void isShouldTestResult() {
+        when(binaryOperator.getLeftOperand()).thenReturn(constant(1));
+
+        final Predicate<BinaryOperator> predicate = leftOperand().is(equalTo(constant(1)));
+
+        assertTrue(predicate.test(binaryOperator));
+        assertFalse(predicate.test(null));
+        assertFalse(leftOperand().is(equalTo(constant(2))).test(binaryOperator));
+    }
+
+    @Test
+    public void asShouldHaveNoResultForIncompatibleType() {
+        when(binaryOperator.getLeftOperand()).thenReturn(constant(1));
+
+        assertNotNull(leftOperand().as(Constant.class).from(binaryOperator).orElse(null));
+        assertFalse(leftOperand().as(BinaryOperator.class).from(binaryOperator).isPresent());
+    }
+
+    @Test
+    public void joinShouldRequireResultOfJoinedQuery() {
+        when(binaryOperator.getLeftOperand()).thenReturn(constant(1));
+
+        final CompiledModelQuery<BinaryOperator, BinaryOperator> self = CompiledModelQuery.of(o -> o);
+
+        assertSame(binaryOperator, self.join(leftOperand()).evaluate(binaryOperator));
+        assertNull(self.join(CompiledModelQuery.of(o -> null)).evaluate(binaryOperator));
+    }
+}
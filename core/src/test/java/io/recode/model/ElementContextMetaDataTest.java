@@ -52,4 +52,26 @@ public class ElementContextMetaDataTest {
         assertEquals(other, exampleMetaData);
         assertEquals(other.hashCode(), exampleMetaData.hashCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void programCounterAndLineNumberShouldBePackedInto64Bits() {
+        final ElementContextMetaData it = new ElementContextMetaData(1234, 2345);
+
+        assertEquals(ElementContextMetaData.pack(1234, 2345), it.getPackedValue());
+        assertEquals((1234L << 32) | 2345L, it.getPackedValue());
+    }
+
+    @Test
+    public void maximumProgramCounterAndLineNumberCanBePacked() {
+        final ElementContextMetaData it = new ElementContextMetaData(Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+        assertEquals(Integer.MAX_VALUE, it.getProgramCounter());
+        assertEquals(Integer.MAX_VALUE, it.getLineNumber());
+    }
+
+    @Test
+    public void instancesWithDifferentLineNumbersShouldNotBeEqual() {
+        assertNotEquals(new ElementContextMetaData(10, 1), new ElementContextMetaData(10, 2));
+        assertNotEquals(new ElementContextMetaData(10, 1), new ElementContextMetaData(11, 1));
+    }
+}
@@ -23,6 +23,18 @@ public class ModelQueryTransformationTest {
         assertThrown(() -> new ModelQueryTransformation<>(modelQuery, null), AssertionError.class);
     }
 
+    @Test
+    public void discriminatorShouldBeEmptyIfNotSpecified() {
+        assertFalse(modelQueryTransformation.getDiscriminator().isPresent());
+    }
+
+    @Test
+    public void discriminatorCanBeSpecified() {
+        final ModelQueryTransformation transformation = new ModelQueryTransformation(modelQuery, modelTransformation, "foo");
+
+        assertEquals(Optional.of("foo"), transformation.getDiscriminator());
+    }
+
     @Test
     public void applyShouldReturnIfModelQueryReturnsEmptyResult() {
         final Element source = mock(Element.class);
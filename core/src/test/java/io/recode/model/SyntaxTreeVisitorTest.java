@@ -17,6 +17,7 @@ import static io.recode.model.AST.local;
 import static io.recode.test.Assertions.assertThrown;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
@@ -371,4 +372,83 @@ public class SyntaxTreeVisitorTest {
 
         assertEquals(Arrays.asList(AST.constant(1), AST.constant(2), AST.constant(3)), result);
     }
+
+    @Test
+    public void deeplyNestedTreeCanBeVisited() {
+        Expression expression = constant(0);
+
+        for (int i = 0; i < 100000; i++) {
+            expression = AST.plus(expression, constant(1));
+        }
+
+        final List<Element> result = SyntaxTreeVisitor.collect(new Element[]{expression}, e -> e.getElementType() == ElementType.CONSTANT);
+
+        assertEquals(100001, result.size());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void typedSearchShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> SyntaxTreeVisitor.search((Element[]) null, ElementType.CONSTANT, mock(Predicate.class)), AssertionError.class);
+        assertThrown(() -> SyntaxTreeVisitor.search(new Element[0], null, mock(Predicate.class)), AssertionError.class);
+        assertThrown(() -> SyntaxTreeVisitor.search(new Element[0], ElementType.CONSTANT, null), AssertionError.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void typedSearchShouldOnlyTestElementsOfTargetType() {
+        final Predicate<Element> predicate = mock(Predicate.class);
+        final MethodCall methodCall = AST.call(String.class, "valueOf", String.class, constant(1));
+
+        when(predicate.test(any())).thenReturn(true);
+
+        final Optional<Element> result = SyntaxTreeVisitor.search(new Element[]{constant(1), AST.$return(methodCall)}, ElementType.METHOD_CALL, predicate);
+
+        assertEquals(Optional.of(methodCall), result);
+        verify(predicate).test(methodCall);
+        verifyNoMoreInteractions(predicate);
+    }
+
+    @Test
+    public void typedSearchShouldNotTraverseSubtreesThatCannotContainTargetType() {
+        final BinaryOperator operator = mock(BinaryOperator.class);
+
+        when(operator.getElementType()).thenReturn(ElementType.BINARY_OPERATOR);
+
+        final Optional<Element> result = SyntaxTreeVisitor.search(new Element[]{AST.$return(operator)}, ElementType.RETURN_VALUE, e -> true);
+
+        assertEquals(ElementType.RETURN_VALUE, result.get().getElementType());
+        verify(operator, never()).getLeftOperand();
+        verify(operator, never()).getRightOperand();
+    }
+
+    @Test
+    public void typedCollectShouldReturnMatchingElementsOfTargetType() {
+        final Element[] elements = new Element[] {
+                AST.set(0, "foo", AST.call(String.class, "valueOf", String.class, constant(1))),
+                AST.$return(AST.call(constant("foo"), "length", int.class))
+        };
+
+        final List<Element> result = SyntaxTreeVisitor.collect(elements, ElementType.METHOD_CALL, e -> true);
+
+        assertEquals(Arrays.asList(AST.call(String.class, "valueOf", String.class, constant(1)), AST.call(constant("foo"), "length", int.class)), result);
+    }
+
+    @Test
+    public void mayContainShouldBeTrueForSameTypeAndNestedExpressions() {
+        assertTrue(SyntaxTreeVisitor.mayContain(ElementType.CONSTANT, ElementType.CONSTANT));
+        assertTrue(SyntaxTreeVisitor.mayContain(ElementType.METHOD_CALL, ElementType.LAMBDA));
+        assertTrue(SyntaxTreeVisitor.mayContain(ElementType.RETURN_VALUE, ElementType.CONSTANT));
+        assertFalse(SyntaxTreeVisitor.mayContain(ElementType.CONSTANT, ElementType.METHOD_CALL));
+        assertFalse(SyntaxTreeVisitor.mayContain(ElementType.VARIABLE_REFERENCE, ElementType.CONSTANT));
+        assertFalse(SyntaxTreeVisitor.mayContain(ElementType.METHOD_CALL, ElementType.RETURN_VALUE));
+    }
+
+    @Test
+    public void typedSearchInElementShouldReturnFirstMatchingElementOfTargetType() {
+        final MethodCall methodCall = AST.call(String.class, "valueOf", String.class, constant(1));
+
+        assertEquals(Optional.of(methodCall), SyntaxTreeVisitor.search(AST.$return(methodCall), ElementType.METHOD_CALL, e -> true));
+        assertFalse(SyntaxTreeVisitor.search(AST.$return(methodCall), ElementType.LAMBDA, e -> true).isPresent());
+    }
 }
@@ -0,0 +1,158 @@
+package io.recode.model.impl;
+
+import io.recode.ClassModelTestUtils;
+import io.recode.classfile.ClassFile;
+import io.recode.classfile.Method;
+import io.recode.decompile.impl.DecompilerImpl;
+import io.recode.model.*;
+
+import java.io.*;
+import java.lang.reflect.Type;
+import java.util.*;
+
+/**
+ * Compares the size and speed of the binary element format with Java serialization. The model is not
+ * serializable, so the Java serialization baseline serializes an equivalent tree of lists, strings and boxed
+ * values that is derived reflectively from the model getters. Run with <code>main</code>; not part of the build.
+ */
+public class BinaryElementFormatBenchmark {
+
+    private static final int ITERATIONS = 200;
+
+    public static void main(String[] args) throws Exception {
+        final List<Element> elements = new ArrayList<>();
+
+        for (Class<?> type : new Class<?>[]{DecompilerImpl.class, BinaryElementWriter.class, BinaryElementReader.class, MethodSignature.class}) {
+            final ClassFile classFile = ClassModelTestUtils.classFileOf(type);
+
+            for (Method method : classFile.getMethods()) {
+                try {
+                    elements.addAll(Arrays.asList(ClassModelTestUtils.methodBodyOf(method)));
+                } catch (RuntimeException e) {
+                    // Skip abstract methods and methods the decompiler can't handle yet
+                }
+            }
+        }
+
+        final Serializable mirror = mirrorOf(elements);
+
+        System.out.println("Elements (top level): " + elements.size());
+        System.out.println("Binary size:          " + binary(elements).length + " bytes");
+        System.out.println("Serialized size:      " + serialized(mirror).length + " bytes");
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println("-- round " + (round + 1));
+            System.out.println("Binary encode:        " + time(() -> binary(elements)) + " us/op");
+            System.out.println("Binary decode:        " + time(() -> decodeBinary(binary(elements))) + " us/op (incl. encode)");
+            System.out.println("Serialization encode: " + time(() -> serialized(mirror)) + " us/op");
+            System.out.println("Serialization decode: " + time(() -> deserialize(serialized(mirror))) + " us/op (incl. encode)");
+        }
+    }
+
+    private static long time(Callable callable) throws Exception {
+        final long start = System.nanoTime();
+
+        for (int i = 0; i < ITERATIONS; i++) {
+            callable.call();
+        }
+
+        return (System.nanoTime() - start) / ITERATIONS / 1000;
+    }
+
+    private static byte[] binary(List<Element> elements) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (BinaryElementWriter writer = new BinaryElementWriter(out)) {
+            for (Element element : elements) {
+                writer.write(element);
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    private static int decodeBinary(byte[] bytes) throws IOException {
+        final BinaryElementReader reader = new BinaryElementReader(new ByteArrayInputStream(bytes));
+        int count = 0;
+
+        while (reader.read() != null) {
+            count++;
+        }
+
+        return count;
+    }
+
+    private static byte[] serialized(Serializable object) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream objectOut = new ObjectOutputStream(out)) {
+            objectOut.writeObject(object);
+        }
+
+        return out.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+
+    private static Serializable mirrorOf(Object object) throws Exception {
+        if (object == null || object instanceof String || object instanceof Number || object instanceof Boolean || object instanceof Character) {
+            return (Serializable) object;
+        }
+
+        if (object instanceof Optional) {
+            return mirrorOf(((Optional<?>) object).orElse(null));
+        }
+
+        if (object instanceof Collection) {
+            final ArrayList<Serializable> list = new ArrayList<>();
+
+            for (Object element : (Collection<?>) object) {
+                list.add(mirrorOf(element));
+            }
+
+            return list;
+        }
+
+        if (object instanceof Enum) {
+            return ((Enum) object).name();
+        }
+
+        if (object instanceof Type) {
+            return ((Type) object).getTypeName();
+        }
+
+        if (object instanceof Signature) {
+            return object.toString();
+        }
+
+        final ArrayList<Serializable> fields = new ArrayList<>();
+
+        if (object instanceof Element) {
+            final ElementMetaData metaData = ((Element) object).getMetaData();
+
+            fields.add(metaData.hasProgramCounter() ? metaData.getProgramCounter() : null);
+            fields.add(metaData.hasLineNumber() ? metaData.getLineNumber() : null);
+        }
+
+        for (Class<?> modelInterface : object.getClass().getInterfaces()) {
+            for (java.lang.reflect.Method getter : modelInterface.getMethods()) {
+                if (getter.getParameterCount() == 0 && getter.getName().startsWith("get") && !getter.getName().equals("getMetaData")) {
+                    fields.add(mirrorOf(getter.invoke(object)));
+                }
+            }
+        }
+
+        return fields;
+    }
+
+    @FunctionalInterface
+    private interface Callable {
+
+        Object call() throws Exception;
+
+    }
+}
@@ -0,0 +1,225 @@
+package io.recode.model.impl;
+
+import io.recode.ClassModelTestUtils;
+import io.recode.UnresolvedType;
+import io.recode.classfile.ReferenceKind;
+import io.recode.model.*;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+import static io.recode.model.AST.*;
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+
+public class BinaryElementReaderTest {
+
+    @Test
+    public void constructorShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> new BinaryElementReader(null), AssertionError.class);
+        assertThrown(() -> new BinaryElementReader(new ByteArrayInputStream(header()), null), AssertionError.class);
+    }
+
+    @Test
+    public void constructorShouldRejectStreamWithInvalidMagicNumber() {
+        assertThrown(() -> new BinaryElementReader(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 1})), ElementFormatException.class);
+    }
+
+    @Test
+    public void constructorShouldRejectStreamWithUnsupportedVersion() {
+        final byte[] bytes = header();
+
+        bytes[4] = 100;
+
+        assertThrown(() -> new BinaryElementReader(new ByteArrayInputStream(bytes)), ElementFormatException.class);
+    }
+
+    @Test
+    public void readShouldReturnNullForEmptyStream() throws IOException {
+        final BinaryElementReader reader = new BinaryElementReader(new ByteArrayInputStream(write()));
+
+        assertNull(reader.read());
+        assertNull(reader.read());
+    }
+
+    @Test
+    public void readShouldReturnNullIfStreamEndsWithoutTerminator() throws IOException {
+        final BinaryElementReader reader = new BinaryElementReader(new ByteArrayInputStream(header()));
+
+        assertNull(reader.read());
+    }
+
+    @Test
+    public void readShouldRejectInvalidElementTag() throws IOException {
+        final byte[] bytes = Arrays.copyOf(header(), 6);
+
+        bytes[5] = 100;
+
+        final BinaryElementReader reader = new BinaryElementReader(new ByteArrayInputStream(bytes));
+
+        assertThrown(reader::read, ElementFormatException.class);
+    }
+
+    @Test
+    public void constantsCanBeRestored() throws IOException {
+        assertRoundTrip(
+                constant(1),
+                constant(-1234567),
+                constant(Long.MIN_VALUE),
+                constant(1.5f),
+                constant(Math.PI),
+                constant(true),
+                constant("foo"),
+                constant(String.class),
+                new ConstantImpl('x', char.class),
+                new ConstantImpl((byte) 12, byte.class),
+                new ConstantImpl((short) -12, short.class),
+                new ConstantImpl(null, Object.class),
+                new ConstantImpl(int[][].class, Class.class));
+    }
+
+    @Test
+    public void operatorsAndReferencesCanBeRestored() throws IOException {
+        final LocalVariableReference local = local("foo", String.class, 1);
+
+        assertRoundTrip(
+                add(constant(1), constant(2), int.class),
+                new UnaryOperatorImpl(local("x", boolean.class, 2), OperatorType.NOT, boolean.class),
+                local,
+                field(String.class, int.class, "staticField"),
+                field(local, int.class, "instanceField"),
+                new ArrayLoadImpl(local("array", int[].class, 3), constant(0), int.class),
+                new TypeCastImpl(local, Object.class),
+                new CompareImpl(constant(1L), constant(2L)),
+                new IncrementImpl(local("i", int.class, 4), constant(1), int.class, Affix.POSTFIX),
+                new InstanceAllocationImpl(String.class));
+    }
+
+    @Test
+    public void methodCallsAndInstantiationsCanBeRestored() throws IOException {
+        assertRoundTrip(
+                call(String.class, "valueOf", String.class, constant(1)),
+                call(local("str", String.class, 1), "length", int.class),
+                newInstance(StringBuilder.class, constant("foo")),
+                newArray(String[].class, constant("a"), constant("b")),
+                new NewArrayImpl(int[].class, int.class, constant(10), Collections.<ArrayInitializer>emptyList()));
+    }
+
+    @Test
+    public void statementsCanBeRestored() throws IOException {
+        assertRoundTrip(
+                $return(),
+                $return(constant(1)),
+                set(1, "foo", String.class, constant("bar")),
+                new BranchImpl(constant(1), OperatorType.EQ, constant(2), 100),
+                new GotoImpl(1234),
+                new ArrayStoreImpl(local("array", int[].class, 1), constant(0), constant(1)),
+                new FieldAssignmentImpl(field(String.class, int.class, "foo"), constant(1)));
+    }
+
+    @Test
+    public void lambdaCanBeRestored() throws IOException {
+        final Lambda lambda = new LambdaImpl(
+                Optional.of(local("this", BinaryElementReaderTest.class, 0)),
+                ReferenceKind.INVOKE_SPECIAL,
+                Runnable.class,
+                "run",
+                MethodSignature.parse("()V"),
+                BinaryElementReaderTest.class,
+                "lambda$foo$0",
+                MethodSignature.parse("(Ljava/lang/String;)V"),
+                Arrays.asList(local("str", String.class, 1)));
+
+        final Lambda restored = (Lambda) roundTrip(lambda)[0];
+
+        assertEquals(lambda, restored);
+        assertEquals(lambda.getSelf(), restored.getSelf());
+        assertEquals(ReferenceKind.INVOKE_SPECIAL, restored.getReferenceKind());
+        assertEquals(lambda.getEnclosedVariables(), restored.getEnclosedVariables());
+    }
+
+    @Test
+    public void metaDataCanBeRestored() throws IOException {
+        final Element[] restored = roundTrip(
+                new ConstantImpl(1, int.class, new ElementContextMetaData(1234, 56)),
+                new ConstantImpl(2, int.class, new ElementContextMetaData(10, -1)),
+                new ConstantImpl(3, int.class));
+
+        assertEquals(1234, restored[0].getMetaData().getProgramCounter());
+        assertEquals(56, restored[0].getMetaData().getLineNumber());
+        assertEquals(10, restored[1].getMetaData().getProgramCounter());
+        assertFalse(restored[1].getMetaData().hasLineNumber());
+        assertFalse(restored[2].getMetaData().hasProgramCounter());
+    }
+
+    @Test
+    public void unknownTypeShouldBeRestoredAsUnresolvedType() throws IOException {
+        final Element[] restored = roundTrip(new ConstantImpl(null, new UnresolvedType("com.example.DoesNotExist")));
+
+        assertEquals(new UnresolvedType("com.example.DoesNotExist"), ((Constant) restored[0]).getType());
+    }
+
+    @Test
+    public void decompiledMethodCanBeRestored() throws IOException {
+        final Element[] elements = ClassModelTestUtils.methodBodyOf(BinaryElementReaderTest.class, "decompiledMethodCanBeRestored");
+
+        assertArrayEquals(elements, roundTrip(elements));
+    }
+
+    @Test
+    public void elementsCanBeReadIncrementally() throws IOException {
+        final BinaryElementReader reader = new BinaryElementReader(new ByteArrayInputStream(write(constant(1), constant(2))));
+
+        assertEquals(constant(1), reader.read());
+        assertEquals(constant(2), reader.read());
+        assertNull(reader.read());
+    }
+
+    private static void assertRoundTrip(Element... elements) throws IOException {
+        final Element[] restored = roundTrip(elements);
+
+        for (int i = 0; i < elements.length; i++) {
+            assertEquals(elements[i], restored[i]);
+        }
+    }
+
+    private static Element[] roundTrip(Element... elements) throws IOException {
+        final BinaryElementReader reader = new BinaryElementReader(new ByteArrayInputStream(write(elements)));
+        final List<Element> restored = new ArrayList<>();
+
+        for (Element element = reader.read(); element != null; element = reader.read()) {
+            restored.add(element);
+        }
+
+        assertEquals(elements.length, restored.size());
+
+        return restored.toArray(new Element[restored.size()]);
+    }
+
+    private static byte[] write(Element... elements) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (BinaryElementWriter writer = new BinaryElementWriter(out)) {
+            for (Element element : elements) {
+                writer.write(element);
+            }
+        }
+
+        return out.toByteArray();
+    }
+
+    private static byte[] header() {
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            new BinaryElementWriter(out).flush();
+
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
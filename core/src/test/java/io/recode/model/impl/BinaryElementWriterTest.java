@@ -0,0 +1,98 @@
+package io.recode.model.impl;
+
+import io.recode.model.Element;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+import static io.recode.model.AST.*;
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+
+public class BinaryElementWriterTest {
+
+    @Test
+    public void constructorShouldNotAcceptNullStream() {
+        assertThrown(() -> new BinaryElementWriter(null), AssertionError.class);
+    }
+
+    @Test
+    public void streamShouldStartWithHeader() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        new BinaryElementWriter(out).close();
+
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(BinaryElementFormat.MAGIC_NUMBER, in.readInt());
+        assertEquals(BinaryElementFormat.VERSION, in.readUnsignedByte());
+        assertEquals(BinaryElementFormat.TAG_NONE, in.readUnsignedByte());
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void writeShouldNotAcceptNullElement() throws IOException {
+        final BinaryElementWriter writer = new BinaryElementWriter(new ByteArrayOutputStream());
+
+        assertThrown(() -> writer.write(null), AssertionError.class);
+    }
+
+    @Test
+    public void writeShouldFailWhenWriterIsClosed() throws IOException {
+        final BinaryElementWriter writer = new BinaryElementWriter(new ByteArrayOutputStream());
+
+        writer.close();
+
+        assertThrown(() -> writer.write(constant(1)), IllegalStateException.class);
+    }
+
+    @Test
+    public void closeCanBeCalledRepeatedly() throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final BinaryElementWriter writer = new BinaryElementWriter(out);
+
+        writer.close();
+        writer.close();
+
+        assertEquals(6, out.size());
+    }
+
+    @Test
+    public void repeatedStringsAndTypesShouldBeWrittenByReference() throws IOException {
+        final Element element = call(local("str", String.class, 1), "substring", String.class, constant(1));
+
+        final int first = sizeOf(element);
+        final int second = sizeOf(element, element) - first;
+
+        assertTrue(second < first / 2);
+    }
+
+    @Test
+    public void smallConstantsAndProgramCountersShouldUseVariableLengthEncoding() throws IOException {
+        assertTrue(sizeOf(constant(1)) < sizeOf(constant(Integer.MAX_VALUE)));
+        assertTrue(sizeOf(constant(1L)) < sizeOf(constant(Long.MAX_VALUE)));
+        assertTrue(sizeOf(new GotoImpl(10)) < sizeOf(new GotoImpl(100000)));
+    }
+
+    @Test
+    public void unsupportedConstantValueShouldBeRejected() throws IOException {
+        final BinaryElementWriter writer = new BinaryElementWriter(new ByteArrayOutputStream());
+
+        assertThrown(() -> writer.write(new ConstantImpl(new Object(), Object.class)), IllegalArgumentException.class);
+    }
+
+    private static int sizeOf(Element... elements) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (BinaryElementWriter writer = new BinaryElementWriter(out)) {
+            for (Element element : elements) {
+                writer.write(element);
+            }
+        }
+
+        return out.size();
+    }
+}
@@ -2,6 +2,7 @@ package io.recode.model.impl;
 
 import io.recode.model.ElementMetaData;
 import io.recode.model.ElementType;
+import io.recode.util.TypeKind;
 import org.junit.Test;
 
 import static io.recode.test.Assertions.assertThrown;
@@ -20,6 +21,12 @@ public class ConstantImplTest {
         assertThrown(() -> new ConstantImpl(1234, null), AssertionError.class);
     }
 
+    @Test
+    public void typeKindShouldDescribeTypeOfConstant() {
+        assertSame(TypeKind.LONG, new ConstantImpl(1L, long.class).getTypeKind());
+        assertSame(TypeKind.REFERENCE, new ConstantImpl("foo", String.class).getTypeKind());
+    }
+
     @Test
     public void objectConstantCanBeNull() {
         final ConstantImpl c = new ConstantImpl(null, Object.class);
@@ -45,4 +52,11 @@ public class ConstantImplTest {
         assertNotNull(new ConstantImpl("foo", String.class).getMetaData());
         assertEquals(metaData, new ConstantImpl("foo", String.class, metaData).getMetaData());
     }
+
+    @Test
+    public void constantsWithDifferentTypesShouldNotBeEqual() {
+        assertNotEquals(new ConstantImpl(null, String.class), new ConstantImpl(null, Object.class));
+        assertEquals(new ConstantImpl(null, String.class).hashCode(), new ConstantImpl(null, Object.class).hashCode());
+        assertEquals(new ConstantImpl(1, int.class), new ConstantImpl(1, int.class));
+    }
 }
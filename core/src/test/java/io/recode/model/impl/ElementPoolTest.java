@@ -0,0 +1,50 @@
+package io.recode.model.impl;
+
+import org.junit.Test;
+
+import static io.recode.model.AST.constant;
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+
+public class ElementPoolTest {
+
+    @Test
+    public void constructorShouldNotAcceptInvalidCapacity() {
+        assertThrown(() -> new ElementPool(0), AssertionError.class);
+    }
+
+    @Test
+    public void internShouldReturnCanonicalInstance() {
+        final ElementPool elementPool = new ElementPool();
+        final ConstantImpl first = new ConstantImpl(1, int.class);
+
+        assertNull(elementPool.get(first));
+        assertSame(first, elementPool.intern(first));
+        assertSame(first, elementPool.intern(new ConstantImpl(1, int.class)));
+        assertSame(first, elementPool.get(constant(1)));
+        assertEquals(1, elementPool.size());
+    }
+
+    @Test
+    public void poolShouldBeClearedWhenCapacityIsReached() {
+        final ElementPool elementPool = new ElementPool(2);
+
+        elementPool.intern(constant(1));
+        elementPool.intern(constant(2));
+        elementPool.intern(constant(3));
+
+        assertEquals(1, elementPool.size());
+        assertNull(elementPool.get(constant(1)));
+        assertNotNull(elementPool.get(constant(3)));
+    }
+
+    @Test
+    public void clearShouldRemoveAllElements() {
+        final ElementPool elementPool = new ElementPool();
+
+        elementPool.intern(constant(1));
+        elementPool.clear();
+
+        assertEquals(0, elementPool.size());
+    }
+}
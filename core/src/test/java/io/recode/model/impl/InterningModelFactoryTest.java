@@ -0,0 +1,126 @@
+package io.recode.model.impl;
+
+import io.recode.model.*;
+import org.junit.Test;
+
+import static io.recode.model.AST.constant;
+import static io.recode.model.AST.local;
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+
+public class InterningModelFactoryTest {
+
+    private final InterningModelFactory factory = new InterningModelFactory();
+
+    @Test
+    public void constructorShouldNotAcceptNullDelegate() {
+        assertThrown(() -> new InterningModelFactory(null), AssertionError.class);
+        assertThrown(() -> new InterningModelFactory(new BasicModelFactory(), null), AssertionError.class);
+    }
+
+    @Test
+    public void equalConstantsShouldBeShared() {
+        assertSame(factory.constant(1, int.class), factory.constant(1, int.class));
+        assertSame(factory.constant("foo", String.class), factory.constant("foo", String.class));
+    }
+
+    @Test
+    public void constantsWithDifferentTypesShouldNotBeShared() {
+        assertNotSame(factory.constant(null, String.class), factory.constant(null, Object.class));
+    }
+
+    @Test
+    public void equalVariableAndFieldReferencesShouldBeShared() {
+        final Expression self = factory.local("this", String.class, 0);
+
+        assertSame(self, factory.local("this", String.class, 0));
+        assertSame(factory.field(self, String.class, int.class, "hash"), factory.field(self, String.class, int.class, "hash"));
+    }
+
+    @Test
+    public void equalOperatorsShouldBeShared() {
+        final Expression left = factory.local("x", int.class, 1);
+        final Expression right = factory.constant(1, int.class);
+
+        assertSame(factory.binary(left, OperatorType.PLUS, right, int.class), factory.binary(left, OperatorType.PLUS, right, int.class));
+        assertSame(factory.cast(left, long.class), factory.cast(left, long.class));
+        assertSame(factory.unary(left, OperatorType.NOT, int.class), factory.unary(left, OperatorType.NOT, int.class));
+    }
+
+    @Test
+    public void elementsWithMetaDataShouldNotBeInterned() {
+        final InterningModelFactory factory = new InterningModelFactory(new DefaultModelFactory(() -> new ElementContextMetaData(10, 1)));
+
+        assertNotSame(factory.constant(1, int.class), factory.constant(1, int.class));
+        assertEquals(0, factory.getInternedElementCount());
+    }
+
+    @Test
+    public void operandsOfStatementsWithMetaDataShouldBeShared() {
+        final InterningModelFactory factory = new InterningModelFactory(new DefaultModelFactory(() -> new ElementContextMetaData(10, 1)));
+        final FieldReference first = (FieldReference) factory.field(factory.local("this", String.class, 0), String.class, int.class, "hash");
+        final FieldReference second = (FieldReference) factory.field(factory.local("this", String.class, 0), String.class, int.class, "hash");
+        final ReturnValue firstReturn = (ReturnValue) factory.returnValue(first);
+        final ReturnValue secondReturn = (ReturnValue) factory.returnValue(second);
+
+        assertSame(firstReturn.getValue(), secondReturn.getValue());
+        assertEquals(first, firstReturn.getValue());
+        assertFalse(firstReturn.getValue().getMetaData().hasProgramCounter());
+        assertEquals(10, firstReturn.getMetaData().getProgramCounter());
+    }
+
+    @Test
+    public void operandsOfExpressionsWithMetaDataShouldRetainMetaData() {
+        final InterningModelFactory factory = new InterningModelFactory(new DefaultModelFactory(() -> new ElementContextMetaData(10, 1)));
+        final Expression operand = factory.local("x", int.class, 1);
+        final BinaryOperator binaryOperator = (BinaryOperator) factory.binary(operand, OperatorType.AND, factory.constant(true, boolean.class), boolean.class);
+
+        assertSame(operand, binaryOperator.getLeftOperand());
+        assertEquals(10, binaryOperator.getLeftOperand().getMetaData().getProgramCounter());
+    }
+
+    @Test
+    public void operandsThatCanNotBeSharedShouldBeRetained() {
+        final Expression call = factory.call(String.class, "valueOf", MethodSignature.parse("(I)Ljava/lang/String;"), null, new Expression[]{constant(1)}, String.class);
+        final Expression cast = factory.cast(call, Object.class);
+
+        assertSame(call, factory.share(call));
+        assertSame(cast, factory.share(cast));
+        assertSame(call, ((TypeCast) cast).getValue());
+    }
+
+    @Test
+    public void factoriesWithSameElementPoolShouldShareElements() {
+        final ElementPool elementPool = new ElementPool();
+        final InterningModelFactory first = new InterningModelFactory(new BasicModelFactory(), elementPool);
+        final InterningModelFactory second = new InterningModelFactory(new BasicModelFactory(), elementPool);
+
+        assertSame(first.constant(1, int.class), second.constant(1, int.class));
+        assertSame(elementPool, first.getElementPool());
+    }
+
+    @Test
+    public void statementsAndMethodCallsShouldNotBeInterned() {
+        assertNotSame(factory.doReturn(), factory.doReturn());
+        assertNotSame(factory.call(String.class, "valueOf", MethodSignature.parse("(I)Ljava/lang/String;"), null, new Expression[]{constant(1)}, String.class),
+                factory.call(String.class, "valueOf", MethodSignature.parse("(I)Ljava/lang/String;"), null, new Expression[]{constant(1)}, String.class));
+    }
+
+    @Test
+    public void internShouldReturnCanonicalInstance() {
+        final LocalVariableReference first = local("foo", String.class, 1);
+        final LocalVariableReference second = local("foo", String.class, 1);
+
+        assertSame(first, factory.intern(first));
+        assertSame(first, factory.intern(second));
+        assertEquals(1, factory.getInternedElementCount());
+    }
+
+    @Test
+    public void clearShouldRemoveInternedElements() {
+        factory.constant(1, int.class);
+        factory.clear();
+
+        assertEquals(0, factory.getInternedElementCount());
+    }
+}
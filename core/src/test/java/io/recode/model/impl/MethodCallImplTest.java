@@ -99,4 +99,17 @@ public class MethodCallImplTest {
         assertNotNull(new MethodCallImpl(int.class, "foo", mock(Signature.class), mock(Expression.class), new Expression[0], String.class).getMetaData());
         assertEquals(metaData, new MethodCallImpl(int.class, "foo", mock(Signature.class), mock(Expression.class), new Expression[0], String.class, metaData).getMetaData());
     }
+
+    @Test
+    public void equalityShouldNotBeAffectedByCachedHashCode() {
+        final MethodCall first = call(constant("foo"), "substring", String.class, constant(1));
+        final MethodCall second = call(constant("foo"), "substring", String.class, constant(1));
+        final MethodCall other = call(constant("foo"), "substring", String.class, constant(2));
+
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first.hashCode(), other.hashCode());
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+    }
 }
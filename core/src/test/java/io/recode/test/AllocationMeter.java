@@ -0,0 +1,117 @@
+package io.recode.test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Measures the number of bytes allocated by the current thread while running a command. Used to guard hot paths
+ * against allocation regressions: each guarded operation has a checked-in budget, and the test fails if the
+ * operation allocates more than the budget plus a tolerance (10% by default, configurable through the system
+ * property <code>recode.allocation.tolerance</code>, e.g. <code>-Drecode.allocation.tolerance=0.25</code>).
+ * Run with <code>-Drecode.allocation.report=true</code> to print the measured allocations, e.g. when updating
+ * the budgets after a deliberate change.
+ */
+public final class AllocationMeter {
+
+    private static final int WARMUP_ITERATIONS = 500;
+
+    private static final int ROUNDS = 5;
+
+    private static final int ITERATIONS_PER_ROUND = 50;
+
+    private static final double DEFAULT_TOLERANCE = 0.1d;
+
+    private AllocationMeter() {
+    }
+
+    /**
+     * Returns the number of bytes allocated by a single execution of the command. The command is warmed up
+     * first, so that class loading and lazy initialization isn't included, and the smallest average of a number
+     * of rounds is returned, so that incidental allocations (e.g. by the JIT compiler) are disregarded.
+     *
+     * @param command The command to measure.
+     * @return The number of bytes allocated per execution of the command.
+     */
+    public static long measure(Assertions.ThrowingCommand command) {
+        assert command != null : "Command can't be null";
+
+        final com.sun.management.ThreadMXBean threadMXBean = getThreadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            call(command);
+        }
+
+        long bytesPerIteration = Long.MAX_VALUE;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            final long start = threadMXBean.getThreadAllocatedBytes(threadId);
+
+            for (int i = 0; i < ITERATIONS_PER_ROUND; i++) {
+                call(command);
+            }
+
+            bytesPerIteration = Math.min(bytesPerIteration, (threadMXBean.getThreadAllocatedBytes(threadId) - start) / ITERATIONS_PER_ROUND);
+        }
+
+        return bytesPerIteration;
+    }
+
+    /**
+     * Asserts that a single execution of a command doesn't allocate more than its budget, within the tolerance.
+     * The test is skipped if the JVM can't measure thread allocation.
+     *
+     * @param name The name of the measured operation, for reporting.
+     * @param budgetBytes The number of bytes the operation is expected to allocate.
+     * @param command The operation.
+     */
+    public static void assertAllocationWithinBudget(String name, long budgetBytes, Assertions.ThrowingCommand command) {
+        assert name != null : "Name can't be null";
+        assert budgetBytes > 0 : "Budget must be positive";
+
+        final long allocatedBytes = measure(command);
+        final long limit = (long) (budgetBytes * (1d + getTolerance()));
+
+        if (Boolean.getBoolean("recode.allocation.report")) {
+            System.out.println(name + ": " + allocatedBytes + " bytes (budget " + budgetBytes + ")");
+        }
+
+        if (allocatedBytes > limit) {
+            throw new AssertionError(name + " allocated " + allocatedBytes + " bytes, which exceeds the budget of "
+                    + budgetBytes + " bytes (limit " + limit + " bytes)");
+        }
+    }
+
+    private static double getTolerance() {
+        final String tolerance = System.getProperty("recode.allocation.tolerance");
+
+        return (tolerance == null ? DEFAULT_TOLERANCE : Double.parseDouble(tolerance));
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        final java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+        assumeTrue("Thread allocation can't be measured on this JVM", threadMXBean instanceof com.sun.management.ThreadMXBean);
+
+        final com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+
+        assumeTrue("Thread allocation can't be measured on this JVM", sunThreadMXBean.isThreadAllocatedMemorySupported());
+
+        if (!sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+            sunThreadMXBean.setThreadAllocatedMemoryEnabled(true);
+        }
+
+        return sunThreadMXBean;
+    }
+
+    private static void call(Assertions.ThrowingCommand command) {
+        try {
+            command.call();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -97,6 +97,20 @@ public class LinkedSequenceTest {
         assertEquals(statement2, sequence.last().get());
     }
 
+    @Test
+    public void peekLastShouldReturnLastElementOrNull() {
+        assertNull(sequence.peekLast());
+
+        sequence.add(statement1);
+        sequence.add(statement2);
+
+        assertEquals(statement2, sequence.peekLast());
+
+        sequence.last().remove();
+
+        assertEquals(statement1, sequence.peekLast());
+    }
+
     @Test
     public void swapLastShouldFailIfStatementsAreEmpty() {
         assertThrown(() -> sequence.last().swap(statement2), NoSuchElementException.class);
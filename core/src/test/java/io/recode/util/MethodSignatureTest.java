@@ -1,5 +1,7 @@
 package io.recode.util;
 
+import io.recode.SymbolicType;
+import io.recode.SymbolicTypeResolver;
 import io.recode.classfile.ClassFileFormatException;
 import io.recode.model.MethodSignature;
 import org.junit.Test;
@@ -200,4 +202,29 @@ public class MethodSignatureTest {
     public Object[] method5(int[] a) {
         return null;
     }
+
+    @Test
+    public void signatureCanBeParsedWithSymbolicTypes() throws Exception {
+        final String spec = "(ILjava/lang/Object;[[Ljava/lang/String;)[J";
+        final MethodSignature signature = MethodSignature.parse(spec, new SymbolicTypeResolver());
+
+        assertArrayEquals(new Object[]{int.class, SymbolicType.of("java.lang.Object"), SymbolicType.of("[[Ljava.lang.String;")},
+                signature.getParameterTypes().toArray());
+        assertEquals(SymbolicType.of("[J"), signature.getReturnType());
+        assertEquals(spec, signature.toString());
+        assertTrue(signature.test(SymbolicMethods.class.getDeclaredMethod("example", int.class, Object.class, String[][].class)));
+    }
+
+    @Test
+    public void symbolicTypeCanBeParsed() {
+        assertEquals(SymbolicType.of("java.lang.String"), MethodSignature.parseType("Ljava/lang/String;", new SymbolicTypeResolver()));
+        assertEquals(int.class, MethodSignature.parseType("I", new SymbolicTypeResolver()));
+    }
+
+    private static class SymbolicMethods {
+
+        private static long[] example(int n, Object o, String[][] s) {
+            return null;
+        }
+    }
 }
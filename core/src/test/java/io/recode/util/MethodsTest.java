@@ -1,6 +1,7 @@
 package io.recode.util;
 
 import io.recode.Caller;
+import io.recode.SymbolicType;
 import io.recode.classfile.*;
 import io.recode.classfile.impl.*;
 import io.recode.decompile.CodeLocationDecompiler;
@@ -20,6 +21,7 @@ import java.util.Optional;
 
 import static io.recode.test.Assertions.assertThrown;
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -64,6 +66,29 @@ public class MethodsTest {
         assertEquals(expectedMethod, Methods.findMethodForNameAndSignature(getClass(), "setup", MethodSignature.parse("()V")).get());
     }
 
+    @Test
+    public void findMethodForNameAndSignatureShouldReturnEmptyOptionalForSymbolicParameterTypes() {
+        final MethodSignature signature = MethodSignature.create(new java.lang.reflect.Type[]{SymbolicType.of("java.lang.String")}, void.class);
+
+        assertFalse(Methods.findMethodForNameAndSignature(getClass(), "setup", signature).isPresent());
+    }
+
+    @Test
+    public void findMethodForNameAndDescriptorShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> Methods.findMethodForNameAndDescriptor(null, String.class, "substring", "(I)Ljava/lang/String;"), AssertionError.class);
+        assertThrown(() -> Methods.findMethodForNameAndDescriptor(MemberIndexCache.shared(), null, "substring", "(I)Ljava/lang/String;"), AssertionError.class);
+    }
+
+    @Test
+    public void findMethodForNameAndDescriptorShouldReturnMethodFromMemberIndex() {
+        final Optional<Method> method = Methods.findMethodForNameAndDescriptor(MemberIndexCache.shared(), SymbolicType.of("java.lang.String"), "substring", "(I)Ljava/lang/String;");
+
+        assertTrue(method.isPresent());
+        assertEquals("substring", method.get().getName());
+        assertFalse(Methods.findMethodForNameAndDescriptor(MemberIndexCache.shared(), String.class, "substring", "(J)Ljava/lang/String;").isPresent());
+        assertFalse(Methods.findMethodForNameAndDescriptor(MemberIndexCache.shared(), SymbolicType.of("com.example.DoesNotExist"), "foo", "()V").isPresent());
+    }
+
     @Test
     public void findMethodForLineNumberShouldNotAcceptInvalidArguments() {
         assertThrown(() -> Methods.findMethodForLineNumber(null, 123), AssertionError.class);
@@ -234,6 +259,32 @@ public class MethodsTest {
         assertFalse(Methods.isDefinitelyVarArgsMethodCall(methodCall));
     }
 
+    @Test
+    public void isVarArgsMethodCallWithMemberIndexShouldNotAcceptInvalidArguments() {
+        assertThrown(() -> Methods.isDefinitelyVarArgsMethodCall(null, mock(MethodCall.class)), AssertionError.class);
+        assertThrown(() -> Methods.isDefinitelyVarArgsMethodCall(new MemberIndexCache(mock(ClassFileResolver.class)), null), AssertionError.class);
+    }
+
+    @Test
+    public void isVarArgsMethodCallWithMemberIndexShouldSupportSymbolicTypes() {
+        final MemberIndexCache memberIndexCache = new MemberIndexCache(new ClassPathClassFileResolver(new ClassFileReaderImpl()));
+        final MethodSignature signature = MethodSignature.parse("(Ljava/lang/String;[Ljava/lang/Object;)Ljava/lang/String;");
+
+        assertTrue(Methods.isDefinitelyVarArgsMethodCall(memberIndexCache, AST.call(SymbolicType.of("java.lang.String"), "format", signature)));
+        assertFalse(Methods.isDefinitelyVarArgsMethodCall(memberIndexCache, AST.call(SymbolicType.of("java.lang.String"), "substring", MethodSignature.parse("(I)Ljava/lang/String;"))));
+    }
+
+    @Test
+    public void isVarArgsMethodCallWithMemberIndexShouldFallBackToReflectionForUnresolvableClass() {
+        final ClassFileResolver classFileResolver = mock(ClassFileResolver.class);
+
+        when(classFileResolver.resolveClassFile(any())).thenThrow(new ClassFileNotFoundException("not found"));
+
+        final MethodCall methodCall = AST.call(String.class, "format", MethodSignature.parse("(Ljava/lang/String;[Ljava/lang/Object;)Ljava/lang/String;"));
+
+        assertTrue(Methods.isDefinitelyVarArgsMethodCall(new MemberIndexCache(classFileResolver), methodCall));
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void methodCanBeResolvedForInlineLambda() throws Exception {
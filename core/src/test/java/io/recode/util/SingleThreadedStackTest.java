@@ -42,6 +42,16 @@ public class SingleThreadedStackTest {
         assertThrown(() -> new SingleThreadedStack<String>(null), AssertionError.class);
     }
 
+    @Test
+    public void getShouldReturnElementAtIndexFromBottom() {
+        stack.push("foo");
+        stack.push("bar");
+
+        assertEquals("foo", stack.get(0));
+        assertEquals("bar", stack.get(1));
+        assertEquals(2, stack.size());
+    }
+
     @Test
     public void instanceShouldBeEqualToItSelf() {
         assertEquals(stack, stack);
@@ -42,6 +42,15 @@ public class TransformedSequenceTest {
         assertTrue(sourceSequence.isEmpty());
     }
 
+    @Test
+    public void peekLastShouldReturnTransformedElementFromSourceSeries() {
+        assertNull(transformedSequence.peekLast());
+
+        sourceSequence.add("1234");
+
+        assertEquals(Integer.valueOf(1234), transformedSequence.peekLast());
+    }
+
     @Test
     public void firstShouldReturnTransformedElementSelectorFromSourceSeries() {
         sourceSequence.add("1111");
@@ -42,6 +42,12 @@ public class TransformedStackTest {
         verify(targetStack).peek();
     }
 
+    @Test
+    public void getShouldReturnTransformedElementFromTargetStack() {
+        when(targetStack.get(1)).thenReturn(1234);
+        assertEquals("1234", stack.get(1));
+    }
+
     @Test
     public void popShouldReturnTransformedElementFromTargetStack() {
         when(targetStack.pop()).thenReturn(1234);
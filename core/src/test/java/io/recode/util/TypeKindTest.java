@@ -0,0 +1,110 @@
+package io.recode.util;
+
+import io.recode.SymbolicType;
+import org.junit.Test;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+import static io.recode.test.Assertions.assertThrown;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TypeKindTest {
+
+    @Test
+    public void ofShouldNotAcceptNullType() {
+        assertThrown(() -> TypeKind.of(null), AssertionError.class);
+    }
+
+    @Test
+    public void primitiveClassesShouldHavePrimitiveKinds() {
+        assertSame(TypeKind.BOOLEAN, TypeKind.of(boolean.class));
+        assertSame(TypeKind.BYTE, TypeKind.of(byte.class));
+        assertSame(TypeKind.SHORT, TypeKind.of(short.class));
+        assertSame(TypeKind.CHAR, TypeKind.of(char.class));
+        assertSame(TypeKind.INT, TypeKind.of(int.class));
+        assertSame(TypeKind.LONG, TypeKind.of(long.class));
+        assertSame(TypeKind.FLOAT, TypeKind.of(float.class));
+        assertSame(TypeKind.DOUBLE, TypeKind.of(double.class));
+
+        assertTrue(TypeKind.of(int.class).isPrimitive());
+        assertEquals(Integer.class, TypeKind.of(int.class).getBoxType());
+        assertEquals(Character.class, TypeKind.of(char.class).getBoxType());
+    }
+
+    @Test
+    public void voidShouldNotBePrimitive() {
+        assertSame(TypeKind.VOID, TypeKind.of(void.class));
+        assertFalse(TypeKind.VOID.isPrimitive());
+        assertNull(TypeKind.VOID.getBoxType());
+    }
+
+    @Test
+    public void computationalCategoryShouldBe2ForLongAndDouble() {
+        assertEquals(2, TypeKind.of(long.class).getComputationalCategory());
+        assertEquals(2, TypeKind.of(double.class).getComputationalCategory());
+        assertEquals(1, TypeKind.of(int.class).getComputationalCategory());
+        assertEquals(1, TypeKind.of(float.class).getComputationalCategory());
+        assertEquals(1, TypeKind.of(String.class).getComputationalCategory());
+        assertEquals(1, TypeKind.of(long[].class).getComputationalCategory());
+    }
+
+    @Test
+    public void classesShouldHaveReferenceKinds() {
+        final TypeKind kind = TypeKind.of(String.class);
+
+        assertSame(TypeKind.REFERENCE, kind);
+        assertFalse(kind.isPrimitive());
+        assertFalse(kind.isArray());
+        assertNull(kind.getBoxType());
+    }
+
+    @Test
+    public void arrayClassesShouldHaveArrayDimensions() {
+        assertEquals(1, TypeKind.of(int[].class).getArrayDimensions());
+        assertEquals(2, TypeKind.of(String[][].class).getArrayDimensions());
+        assertTrue(TypeKind.of(int[].class).isArray());
+        assertFalse(TypeKind.of(int[].class).isPrimitive());
+        assertEquals(TypeKind.Sort.REFERENCE, TypeKind.of(int[].class).getSort());
+    }
+
+    @Test
+    public void symbolicTypesShouldHaveReferenceKinds() {
+        assertSame(TypeKind.REFERENCE, TypeKind.of(SymbolicType.of("com.example.Foo")));
+        assertEquals(2, TypeKind.of(SymbolicType.of("[[Lcom.example.Foo;")).getArrayDimensions());
+        assertEquals(1, TypeKind.of(SymbolicType.of("[I")).getArrayDimensions());
+    }
+
+    @Test
+    public void otherTypesShouldBeDescribedByTypeName() {
+        final Type type = mock(Type.class);
+
+        when(type.getTypeName()).thenReturn("long");
+        assertSame(TypeKind.LONG, TypeKind.of(type));
+
+        when(type.getTypeName()).thenReturn("java.util.List<java.lang.String>[]");
+        assertEquals(1, TypeKind.of(type).getArrayDimensions());
+    }
+
+    @Test
+    public void genericTypesShouldHaveReferenceKinds() throws Exception {
+        final Type type = TypeKindTest.class.getDeclaredMethod("genericMethod").getGenericReturnType();
+
+        assertSame(TypeKind.REFERENCE, TypeKind.of(type));
+    }
+
+    @Test
+    public void arrayShouldReturnKindWithDimensions() {
+        assertThrown(() -> TypeKind.array(-1), AssertionError.class);
+        assertSame(TypeKind.REFERENCE, TypeKind.array(0));
+        assertSame(TypeKind.array(3), TypeKind.array(3));
+        assertEquals(20, TypeKind.array(20).getArrayDimensions());
+    }
+
+    @SuppressWarnings("unused")
+    private static List<String> genericMethod() {
+        return null;
+    }
+}
@@ -1,5 +1,6 @@
 package io.recode.util;
 
+import io.recode.SymbolicType;
 import org.junit.Test;
 
 import java.util.Collection;
@@ -208,4 +209,13 @@ public class TypesTest {
         assertTrue(Types.isArray(float[].class));
         assertTrue(Types.isArray(double[].class));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getSimpleNameShouldReturnSimpleNameOfClassOrSymbolicType() {
+        assertEquals("String", Types.getSimpleName(String.class));
+        assertEquals("String", Types.getSimpleName(SymbolicType.of("java.lang.String")));
+        assertEquals("String[]", Types.getSimpleName(SymbolicType.of("[Ljava.lang.String;")));
+        assertEquals("Entry", Types.getSimpleName(SymbolicType.of("java.util.Map$Entry")));
+    }
+
+}
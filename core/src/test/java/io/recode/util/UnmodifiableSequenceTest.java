@@ -31,6 +31,15 @@ public class UnmodifiableSequenceTest {
         assertThrown(() -> selector.remove(), UnsupportedOperationException.class);
     }
 
+    @Test
+    public void peekLastShouldReturnLastElementOfSourceSequence() {
+        assertNull(sequence.peekLast());
+
+        sourceSequence.addAll(Arrays.asList("foo", "bar"));
+
+        assertEquals("bar", sequence.peekLast());
+    }
+
     @Test
     public void lastShouldReturnUnmodifiableSelector() {
         sourceSequence.addAll(Arrays.asList("foo", "bar"));